@@ -0,0 +1,246 @@
+package top.xiajibagao.powerfulannotation.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * <p>注解索引处理器，用于在编译期为被编译的类生成注解索引文件{@value #INDEX_LOCATION}。<br />
+ * 索引文件为UTF-8编码的文本文件，首行为版本头{@value #INDEX_HEADER}，其余每行以一个标识字符开头，各项之间以空格分隔：
+ * <ul>
+ *     <li><code>T 类名</code>：该类已被索引；</li>
+ *     <li><code>E 元素 注解类名...</code>：元素上直接声明的注解；</li>
+ *     <li><code>M 注解类名 元注解类名...</code>：注解类上直接声明的元注解；</li>
+ * </ul>
+ * 其中，元素按以下格式描述：
+ * <ul>
+ *     <li>类：<code>类名</code>；</li>
+ *     <li>属性：<code>类名#属性名</code>；</li>
+ *     <li>方法：<code>类名#方法名(参数类型,...)</code>，参数类型为擦除后的类名，数组以<code>[]</code>结尾；</li>
+ * </ul>
+ * 所有类名皆为{@link Class#getName()}格式的二进制名称，
+ * 并且只记录保留策略为{@link RetentionPolicy#RUNTIME}的注解，
+ * {@link java.lang.annotation}包下的注解不会作为元注解被记录。
+ *
+ * <p>处理器在每一轮处理中收集根元素，并在最后一轮统一写出索引。
+ * 增量编译时仅有部分类被重新编译，此时生成的索引是不完整的，
+ * 运行时读取器会将未被索引的类视为“状态未知”，而不会因此错误的跳过扫描。
+ *
+ * @author huangchengxing
+ */
+@SupportedAnnotationTypes("*")
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * 索引文件路径
+	 */
+	public static final String INDEX_LOCATION = "META-INF/powerful-annotation/annotation.idx";
+
+	/**
+	 * 索引文件版本头
+	 */
+	public static final String INDEX_HEADER = "#powerful-annotation-index:1";
+
+	/**
+	 * 不作为元注解被记录的包
+	 */
+	private static final String IGNORED_META_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+	/**
+	 * 已索引的类
+	 */
+	private final Set<String> types = new LinkedHashSet<>();
+
+	/**
+	 * 元素与其直接声明的注解
+	 */
+	private final Map<String, Set<String>> elements = new LinkedHashMap<>();
+
+	/**
+	 * 注解类与其直接声明的元注解
+	 */
+	private final Map<String, Set<String>> metaAnnotations = new LinkedHashMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			if (element instanceof TypeElement) {
+				collectType((TypeElement)element);
+			}
+		}
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	// ======================== 收集 ========================
+
+	/**
+	 * 收集类及其成员与内部类上的注解
+	 */
+	private void collectType(TypeElement type) {
+		String typeName = getBinaryName(type);
+		if (!types.add(typeName)) {
+			return;
+		}
+		collectElement(typeName, type);
+		for (Element member : type.getEnclosedElements()) {
+			ElementKind kind = member.getKind();
+			if (kind == ElementKind.METHOD) {
+				collectElement(getMethodDescriptor(typeName, (ExecutableElement)member), member);
+			} else if (kind == ElementKind.FIELD || kind == ElementKind.ENUM_CONSTANT) {
+				collectElement(typeName + "#" + member.getSimpleName(), member);
+			} else if (member instanceof TypeElement) {
+				collectType((TypeElement)member);
+			}
+		}
+	}
+
+	/**
+	 * 收集元素上直接声明的运行时注解
+	 */
+	private void collectElement(String descriptor, Element element) {
+		Set<String> annotationTypes = new LinkedHashSet<>();
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement)mirror.getAnnotationType().asElement();
+			if (isRuntimeRetention(annotationType)) {
+				annotationTypes.add(collectAnnotationType(annotationType));
+			}
+		}
+		if (!annotationTypes.isEmpty()) {
+			elements.put(descriptor, annotationTypes);
+		}
+	}
+
+	/**
+	 * 收集注解类及其元注解上直接声明的元注解，并返回注解类的类名
+	 */
+	private String collectAnnotationType(TypeElement annotationType) {
+		String annotationTypeName = getBinaryName(annotationType);
+		if (metaAnnotations.containsKey(annotationTypeName)) {
+			return annotationTypeName;
+		}
+		Set<String> metaTypeNames = new LinkedHashSet<>();
+		// 先占位，避免注解间相互引用时无限递归
+		metaAnnotations.put(annotationTypeName, metaTypeNames);
+		for (AnnotationMirror mirror : annotationType.getAnnotationMirrors()) {
+			TypeElement metaType = (TypeElement)mirror.getAnnotationType().asElement();
+			if (getBinaryName(metaType).startsWith(IGNORED_META_ANNOTATION_PACKAGE) || !isRuntimeRetention(metaType)) {
+				continue;
+			}
+			metaTypeNames.add(collectAnnotationType(metaType));
+		}
+		return annotationTypeName;
+	}
+
+	/**
+	 * 注解的保留策略是否为{@link RetentionPolicy#RUNTIME}
+	 */
+	private static boolean isRuntimeRetention(TypeElement annotationType) {
+		Retention retention = annotationType.getAnnotation(Retention.class);
+		return Objects.nonNull(retention) && retention.value() == RetentionPolicy.RUNTIME;
+	}
+
+	// ======================== 描述符 ========================
+
+	/**
+	 * 获取类的二进制名称
+	 */
+	private String getBinaryName(TypeElement type) {
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	/**
+	 * 获取方法描述符
+	 */
+	private String getMethodDescriptor(String typeName, ExecutableElement method) {
+		StringJoiner joiner = new StringJoiner(",", typeName + "#" + method.getSimpleName() + "(", ")");
+		for (VariableElement parameter : method.getParameters()) {
+			joiner.add(getTypeName(parameter.asType()));
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * 获取类型擦除后的类名
+	 */
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			return getTypeName(((ArrayType)erasure).getComponentType()) + "[]";
+		}
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			return getBinaryName((TypeElement)((DeclaredType)erasure).asElement());
+		}
+		return erasure.toString();
+	}
+
+	// ======================== 输出 ========================
+
+	/**
+	 * 写出索引文件
+	 */
+	private void writeIndex() {
+		if (types.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject resource = processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+				writer.write(INDEX_HEADER);
+				writer.write('\n');
+				for (String type : types) {
+					writeLine(writer, 'T', type, Collections.emptySet());
+				}
+				for (Map.Entry<String, Set<String>> entry : elements.entrySet()) {
+					writeLine(writer, 'E', entry.getKey(), entry.getValue());
+				}
+				for (Map.Entry<String, Set<String>> entry : metaAnnotations.entrySet()) {
+					writeLine(writer, 'M', entry.getKey(), entry.getValue());
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(
+				Diagnostic.Kind.WARNING, "failed to write annotation index: " + e.getMessage()
+			);
+		}
+	}
+
+	/**
+	 * 写出一行索引
+	 */
+	private static void writeLine(Writer writer, char flag, String key, Set<String> values) throws IOException {
+		writer.write(flag);
+		writer.write(' ');
+		writer.write(key);
+		for (String value : values) {
+			writer.write(' ');
+			writer.write(value);
+		}
+		writer.write('\n');
+	}
+
+}
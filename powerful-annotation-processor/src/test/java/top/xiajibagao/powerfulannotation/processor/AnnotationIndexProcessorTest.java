@@ -0,0 +1,68 @@
+package top.xiajibagao.powerfulannotation.processor;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * test for {@link AnnotationIndexProcessor}
+ *
+ * @author huangchengxing
+ */
+public class AnnotationIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void processTest() throws Exception {
+        File source = folder.newFile("Foo.java");
+        Files.write(source.toPath(), String.join("\n",
+            "package test;",
+            "import java.lang.annotation.*;",
+            "public class Foo {",
+            "    @Retention(RetentionPolicy.RUNTIME) @interface Meta { }",
+            "    @Meta @Retention(RetentionPolicy.RUNTIME) @interface Composed { }",
+            "    @Retention(RetentionPolicy.CLASS) @interface Invisible { }",
+            "    @Composed @Invisible String field;",
+            "    @Meta <T extends Number> void method(int i, T number, java.util.List<String>[] lists) { }",
+            "    @Invisible void invisible() { }",
+            "    @Composed static class Inner { }",
+            "}"
+        ).getBytes(StandardCharsets.UTF_8));
+        File output = folder.newFolder("classes");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null,
+            "-proc:only", "-processor", AnnotationIndexProcessor.class.getName(),
+            "-processorpath", System.getProperty("java.class.path"),
+            "-d", output.getPath(), source.getPath()
+        );
+        Assert.assertEquals(0, result);
+
+        List<String> lines = Files.readAllLines(
+            new File(output, AnnotationIndexProcessor.INDEX_LOCATION).toPath(), StandardCharsets.UTF_8
+        );
+        Assert.assertEquals(AnnotationIndexProcessor.INDEX_HEADER, lines.get(0));
+        Assert.assertTrue(lines.contains("T test.Foo"));
+        Assert.assertTrue(lines.contains("T test.Foo$Inner"));
+        Assert.assertTrue(lines.contains("E test.Foo#field test.Foo$Composed"));
+        Assert.assertTrue(lines.contains("E test.Foo#method(int,java.lang.Number,java.util.List[]) test.Foo$Meta"));
+        Assert.assertTrue(lines.contains("E test.Foo$Inner test.Foo$Composed"));
+        Assert.assertTrue(lines.contains("M test.Foo$Composed test.Foo$Meta"));
+        Assert.assertTrue(lines.contains("M test.Foo$Meta"));
+        // 非运行时注解不会被记录
+        Assert.assertFalse(lines.contains("M test.Foo$Invisible"));
+        Assert.assertTrue(lines.stream().noneMatch(line -> line.startsWith("E test.Foo#invisible")));
+        Assert.assertTrue(lines.stream().noneMatch(line -> line.startsWith("E test.Foo ")));
+    }
+
+}
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import top.xiajibagao.powerfulannotation.annotation.GenericHierarchicalAnnotation;
 import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.helper.AnnotationTypeMap;
 import top.xiajibagao.powerfulannotation.helper.Assert;
 import top.xiajibagao.powerfulannotation.helper.CollUtils;
 import top.xiajibagao.powerfulannotation.repeatable.RepeatableMappingRegistry;
@@ -78,7 +79,7 @@ public class GenericAnnotationAggregator<T> implements AnnotationAggregator<T> {
         this.root = root;
         this.verticalIndex = verticalIndex;
         this.horizontalIndex = horizontalIndex;
-        this.aggregatedAnnotationMap = new LinkedHashMap<>();
+        this.aggregatedAnnotationMap = new AnnotationTypeMap<>();
         this.repeatableMappingRegistry = repeatableMappingRegistry;
         this.repeatableAggregatedAnnotationRegistered = false;
     }
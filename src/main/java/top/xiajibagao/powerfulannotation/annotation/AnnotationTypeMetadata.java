@@ -0,0 +1,234 @@
+package top.xiajibagao.powerfulannotation.annotation;
+
+import top.xiajibagao.powerfulannotation.helper.Annotations;
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
+import top.xiajibagao.powerfulannotation.synthesis.Link;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * <p>注解类型的元数据，包括按稳定顺序排列的属性方法、属性名称、属性类型、默认值，以及属性上的{@link Link}注解。<br />
+ * 元数据按注解类型全局缓存，在首次通过{@link #of(Class)}获取时解析，此后同一类型的全部注解对象皆共享同一份元数据，
+ * 而不必在每次创建{@link GenericHierarchicalAnnotation}或代理对象时重复通过反射查找属性方法。
+ *
+ * <p>属性按名称排序，属性在该顺序中的下标即为其序号，可通过{@link #indexOf(String)}获取。
+ * 属性上的{@link Link}注解需要通过合成注解获取，因此将在首次访问时才进行解析并缓存。
+ *
+ * @author huangchengxing
+ * @see Annotations#isAttributeMethod(Method)
+ */
+public final class AnnotationTypeMetadata {
+
+    /**
+     * 元数据缓存
+     */
+    private static final ClassValue<AnnotationTypeMetadata> METADATA_CACHE = new ClassValue<AnnotationTypeMetadata>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        protected AnnotationTypeMetadata computeValue(Class<?> type) {
+            return new AnnotationTypeMetadata((Class<? extends Annotation>)type);
+        }
+    };
+
+    /**
+     * 用于标记属性上不存在{@link Link}注解的空值
+     */
+    private static final Object NO_LINK = new Object();
+
+    /**
+     * 注解类型
+     */
+    private final Class<? extends Annotation> annotationType;
+
+    /**
+     * 按名称排序的属性方法
+     */
+    private final Method[] attributeMethods;
+
+    /**
+     * 属性名称
+     */
+    private final String[] attributeNames;
+
+    /**
+     * 属性类型
+     */
+    private final Class<?>[] attributeTypes;
+
+    /**
+     * 属性默认值
+     */
+    private final Object[] defaultValues;
+
+    /**
+     * 属性名称与其序号
+     */
+    private final Map<String, Integer> attributeIndexes;
+
+    /**
+     * 属性上的{@link Link}注解，为{@code null}时表示尚未解析
+     */
+    private final AtomicReferenceArray<Object> links;
+
+    private AnnotationTypeMetadata(Class<? extends Annotation> annotationType) {
+        this.annotationType = annotationType;
+        this.attributeMethods = Stream.of(ReflectUtils.getDeclaredMethods(annotationType))
+            .filter(Annotations::isAttributeMethod)
+            .sorted(Comparator.comparing(Method::getName))
+            .toArray(Method[]::new);
+        final int size = attributeMethods.length;
+        this.attributeNames = new String[size];
+        this.attributeTypes = new Class<?>[size];
+        this.defaultValues = new Object[size];
+        this.links = new AtomicReferenceArray<>(size);
+        final Map<String, Integer> indexes = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            final Method method = attributeMethods[i];
+            attributeNames[i] = method.getName();
+            attributeTypes[i] = method.getReturnType();
+            defaultValues[i] = method.getDefaultValue();
+            indexes.put(method.getName(), i);
+        }
+        this.attributeIndexes = Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * 获取注解类型的元数据
+     *
+     * @param annotationType 注解类型
+     * @return 元数据
+     * @throws IllegalArgumentException 当{@code annotationType}为空或不为注解类型时抛出
+     */
+    public static AnnotationTypeMetadata of(Class<? extends Annotation> annotationType) {
+        Assert.notNull(annotationType, "annotationType must not null");
+        Assert.isTrue(annotationType.isAnnotation(), "[%s] is not an annotation type", annotationType);
+        return METADATA_CACHE.get(annotationType);
+    }
+
+    /**
+     * 获取注解类型
+     *
+     * @return 注解类型
+     */
+    public Class<? extends Annotation> getAnnotationType() {
+        return annotationType;
+    }
+
+    /**
+     * 获取属性数量
+     *
+     * @return 属性数量
+     */
+    public int size() {
+        return attributeMethods.length;
+    }
+
+    /**
+     * 获取属性的序号
+     *
+     * @param attributeName 属性名称
+     * @return 序号，若属性不存在则返回{@code -1}
+     */
+    public int indexOf(String attributeName) {
+        final Integer index = attributeIndexes.get(attributeName);
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    /**
+     * 获取指定序号的属性方法
+     *
+     * @param index 序号
+     * @return 属性方法
+     */
+    public Method getAttributeMethod(int index) {
+        return attributeMethods[index];
+    }
+
+    /**
+     * 获取全部属性方法
+     *
+     * @return 按序号排列的属性方法
+     */
+    public List<Method> getAttributeMethods() {
+        return Collections.unmodifiableList(Arrays.asList(attributeMethods));
+    }
+
+    /**
+     * 获取指定序号的属性名称
+     *
+     * @param index 序号
+     * @return 属性名称
+     */
+    public String getAttributeName(int index) {
+        return attributeNames[index];
+    }
+
+    /**
+     * 获取指定序号的属性类型
+     *
+     * @param index 序号
+     * @return 属性类型
+     */
+    public Class<?> getAttributeType(int index) {
+        return attributeTypes[index];
+    }
+
+    /**
+     * 获取指定序号的属性默认值，该值由全部注解对象共享，调用方不应修改其内容
+     *
+     * @param index 序号
+     * @return 默认值，若属性未指定默认值则返回{@code null}
+     */
+    public Object getDefaultValue(int index) {
+        return defaultValues[index];
+    }
+
+    /**
+     * 获取属性的默认值，该值由全部注解对象共享，调用方不应修改其内容
+     *
+     * @param attributeName 属性名称
+     * @return 默认值，若属性不存在或未指定默认值则返回{@code null}
+     */
+    public Object getDefaultValue(String attributeName) {
+        final int index = indexOf(attributeName);
+        return index < 0 ? null : defaultValues[index];
+    }
+
+    /**
+     * 获取指定序号的属性上的{@link Link}注解，包括以{@link Link}作为元注解的注解合成的{@link Link}注解
+     *
+     * @param index 序号
+     * @return {@link Link}注解，若不存在则返回{@code null}
+     */
+    public Link getLink(int index) {
+        Object link = links.get(index);
+        if (Objects.isNull(link)) {
+            link = Annotations.getSynthesizedAnnotation(attributeMethods[index], Link.class);
+            link = Objects.isNull(link) ? NO_LINK : link;
+            links.set(index, link);
+        }
+        return link == NO_LINK ? null : (Link)link;
+    }
+
+    /**
+     * 获取属性上的{@link Link}注解，包括以{@link Link}作为元注解的注解合成的{@link Link}注解
+     *
+     * @param attributeName 属性名称
+     * @return {@link Link}注解，若属性不存在或属性上不存在{@link Link}注解则返回{@code null}
+     */
+    public Link getLink(String attributeName) {
+        final int index = indexOf(attributeName);
+        return index < 0 ? null : getLink(index);
+    }
+
+    @Override
+    public String toString() {
+        return "AnnotationTypeMetadata{" + annotationType.getName() + Arrays.toString(attributeNames) + "}";
+    }
+
+}
@@ -5,21 +5,19 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import top.xiajibagao.powerfulannotation.annotation.attribute.AnnotationAttribute;
 import top.xiajibagao.powerfulannotation.annotation.attribute.CacheableAnnotationAttribute;
-import top.xiajibagao.powerfulannotation.helper.Annotations;
 import top.xiajibagao.powerfulannotation.helper.Assert;
 import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * {@link HierarchicalAnnotation}的基本实现
+ * {@link HierarchicalAnnotation}的基本实现。<br />
+ * 属性的名称、类型等信息皆从同一注解类型共享的{@link AnnotationTypeMetadata}中获取，
+ * 而每个属性对应的{@link AnnotationAttribute}仅在首次通过{@link #getAttribute}、{@link #getAllAttribute}
+ * 或{@link #replaceAttribute}访问时才会创建。
  *
  * @author huangchengxing
  */
@@ -48,11 +46,46 @@ public class GenericHierarchicalAnnotation<T extends Annotation> implements Hier
     private final T annotation;
 
     /**
-     * 注解属性
+     * 注解类型的元数据
      */
-    @Getter(AccessLevel.PACKAGE)
+    @Getter(AccessLevel.NONE)
     @EqualsAndHashCode.Exclude
-    private final Map<String, AnnotationAttribute> attributeMap;
+    private final AnnotationTypeMetadata metadata;
+
+    /**
+     * 按{@link AnnotationTypeMetadata}中的属性序号排列的注解属性。<br />
+     * 数组在首次获取或替换属性时才创建，其中的属性则在首次被访问时才创建。
+     * 数组一经发布便不再修改，每次创建或替换属性时皆复制一份新数组，并通过CAS替换当前数组，
+     * 因此其他线程总是能看到完整的数组，且不会以新创建的属性覆盖已被替换的属性。
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private volatile AnnotationAttribute[] attributes;
+
+    /**
+     * {@link #attributes}的原子更新器
+     */
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<GenericHierarchicalAnnotation, AnnotationAttribute[]> ATTRIBUTES_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(GenericHierarchicalAnnotation.class, AnnotationAttribute[].class, "attributes");
+
+    /**
+     * 类是否重写了{@link #loadAnnotationAttributes}
+     */
+    private static final ClassValue<Boolean> LEGACY_LOADER_OVERRIDDEN = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> current = type; current != GenericHierarchicalAnnotation.class; current = current.getSuperclass()) {
+                try {
+                    current.getDeclaredMethod("loadAnnotationAttributes", Annotation.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // 继续查找父类
+                }
+            }
+            return false;
+        }
+    };
 
     /**
      * 创建一个通用注解
@@ -68,7 +101,7 @@ public class GenericHierarchicalAnnotation<T extends Annotation> implements Hier
         this.verticalIndex = verticalIndex;
         this.horizontalIndex = horizontalIndex;
         this.annotation = annotation;
-        this.attributeMap = loadAnnotationAttributes(annotation);
+        this.metadata = AnnotationTypeMetadata.of(annotation.annotationType());
     }
 
     /**
@@ -81,19 +114,102 @@ public class GenericHierarchicalAnnotation<T extends Annotation> implements Hier
         this.verticalIndex = 0;
         this.horizontalIndex = 0;
         this.annotation = annotation;
-        this.attributeMap = loadAnnotationAttributes(annotation);
+        this.metadata = AnnotationTypeMetadata.of(annotation.annotationType());
     }
 
     /**
-     * 解析注解对象的所有属性，并将其封装为{@link CacheableAnnotationAttribute}
+     * 将注解对象中指定序号的属性封装为{@link CacheableAnnotationAttribute}，
+     * 该方法仅在属性首次被获取或替换时调用，并发访问时可能被调用多次，但最终只有一个结果会被使用
+     *
+     * @param annotation 注解对象
+     * @param attributeIndex 属性在{@link AnnotationTypeMetadata}中的序号
+     * @return 注解属性
+     */
+    protected AnnotationAttribute createAnnotationAttribute(T annotation, int attributeIndex) {
+        return new CacheableAnnotationAttribute(annotation, metadata.getAttributeMethod(attributeIndex));
+    }
+
+    /**
+     * 解析注解对象的所有属性，并将其封装为{@link CacheableAnnotationAttribute}。<br />
+     * 若子类重写了该方法，则将在首次获取或替换属性时调用该方法一次性加载全部属性，
+     * 返回值中不属于该注解类型的属性将被忽略。
      *
      * @param annotation 注解对象
      * @return 属性注解
+     * @deprecated 属性已改为按需创建，请重写{@link #createAnnotationAttribute}
      */
+    @Deprecated
     protected Map<String, AnnotationAttribute> loadAnnotationAttributes(T annotation) {
-        return Stream.of(ReflectUtils.getDeclaredMethods(annotation.annotationType()))
-            .filter(Annotations::isAttributeMethod)
-            .collect(Collectors.toMap(Method::getName, method -> new CacheableAnnotationAttribute(annotation, method)));
+        final Map<String, AnnotationAttribute> attributeMap = new LinkedHashMap<>(metadata.size() * 2);
+        for (int i = 0; i < metadata.size(); i++) {
+            attributeMap.put(metadata.getAttributeName(i), createAnnotationAttribute(annotation, i));
+        }
+        return attributeMap;
+    }
+
+    /**
+     * 获取当前的属性数组，若数组尚未创建则先创建
+     *
+     * @return 属性数组
+     */
+    private AnnotationAttribute[] getAttributes() {
+        AnnotationAttribute[] current = attributes;
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+        final AnnotationAttribute[] created = new AnnotationAttribute[metadata.size()];
+        if (Boolean.TRUE.equals(LEGACY_LOADER_OVERRIDDEN.get(getClass()))) {
+            loadAnnotationAttributes(annotation).forEach((name, attribute) -> {
+                final int index = metadata.indexOf(name);
+                if (index >= 0) {
+                    created[index] = attribute;
+                }
+            });
+        }
+        ATTRIBUTES_UPDATER.compareAndSet(this, null, created);
+        return attributes;
+    }
+
+    /**
+     * 复制属性数组并替换其中指定序号的属性，若当前数组已被其他线程替换则返回{@code false}
+     */
+    private boolean compareAndSetAttribute(AnnotationAttribute[] current, int attributeIndex, AnnotationAttribute attribute) {
+        final AnnotationAttribute[] copied = current.clone();
+        copied[attributeIndex] = attribute;
+        return ATTRIBUTES_UPDATER.compareAndSet(this, current, copied);
+    }
+
+    /**
+     * 获取指定序号的注解属性，若属性尚未创建则先创建该属性
+     *
+     * @param attributeIndex 属性序号
+     * @return 注解属性
+     */
+    private AnnotationAttribute getAttribute(int attributeIndex) {
+        while (true) {
+            final AnnotationAttribute[] current = getAttributes();
+            final AnnotationAttribute attribute = current[attributeIndex];
+            if (Objects.nonNull(attribute)) {
+                return attribute;
+            }
+            final AnnotationAttribute created = createAnnotationAttribute(annotation, attributeIndex);
+            if (compareAndSetAttribute(current, attributeIndex, created)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * 获取全部注解属性
+     *
+     * @return 属性名称与对应的注解属性，按属性序号排列
+     */
+    Map<String, AnnotationAttribute> getAttributeMap() {
+        final Map<String, AnnotationAttribute> attributeMap = new LinkedHashMap<>(metadata.size() * 2);
+        for (int i = 0; i < metadata.size(); i++) {
+            attributeMap.put(metadata.getAttributeName(i), getAttribute(i));
+        }
+        return attributeMap;
     }
 
     /**
@@ -105,9 +221,15 @@ public class GenericHierarchicalAnnotation<T extends Annotation> implements Hier
      */
     @Override
     public boolean hasAttribute(String attributeName, Class<?> attributeType) {
-        return Optional.ofNullable(attributeMap.get(attributeName))
-            .filter(method -> ReflectUtils.isAssignable(attributeType, method.getAttributeType()))
-            .isPresent();
+        final int index = metadata.indexOf(attributeName);
+        if (index < 0) {
+            return false;
+        }
+        final AnnotationAttribute[] current = attributes;
+        final AnnotationAttribute attribute = Objects.isNull(current) ? null : current[index];
+        return ReflectUtils.isAssignable(
+            attributeType, Objects.isNull(attribute) ? metadata.getAttributeType(index) : attribute.getAttributeType()
+        );
     }
 
     /**
@@ -118,29 +240,44 @@ public class GenericHierarchicalAnnotation<T extends Annotation> implements Hier
      */
     @Override
     public AnnotationAttribute getAttribute(String attributeName) {
-        return attributeMap.get(attributeName);
+        final int index = metadata.indexOf(attributeName);
+        return index < 0 ? null : getAttribute(index);
     }
 
     /**
-     * 获取全部的注解射弩了
+     * 获取全部的注解属性，返回值为调用时的快照，不会反映此后对属性的替换
      *
      * @return 注解属性
      */
     @Override
     public Collection<AnnotationAttribute> getAllAttribute() {
-        return attributeMap.values();
+        for (int i = 0; i < metadata.size(); i++) {
+            getAttribute(i);
+        }
+        return Collections.unmodifiableList(Arrays.asList(getAttributes()));
     }
 
     /**
-     * 替换属性值
+     * 替换属性值，若存在并发替换，{@code operator}可能被调用多次
      *
      * @param attributeName 属性名称
      * @param operator 操作
+     * @throws IllegalArgumentException 当注解中不存在该属性时抛出
      */
     @Override
     public void replaceAttribute(String attributeName, UnaryOperator<AnnotationAttribute> operator) {
-        final AnnotationAttribute old = attributeMap.get(attributeName);
-        attributeMap.put(attributeName, operator.apply(old));
+        final int index = metadata.indexOf(attributeName);
+        Assert.isTrue(index >= 0, "attribute [%s] not found in [%s]", attributeName, metadata.getAnnotationType());
+        while (true) {
+            final AnnotationAttribute old = getAttribute(index);
+            final AnnotationAttribute[] current = attributes;
+            if (current[index] != old) {
+                continue;
+            }
+            if (compareAndSetAttribute(current, index, operator.apply(old))) {
+                return;
+            }
+        }
     }
 
 }
@@ -1,5 +1,6 @@
 package top.xiajibagao.powerfulannotation.annotation.attribute;
 
+import top.xiajibagao.powerfulannotation.annotation.AnnotationTypeMetadata;
 import top.xiajibagao.powerfulannotation.helper.Assert;
 import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
 
@@ -54,7 +55,7 @@ public class CacheableAnnotationAttribute implements AnnotationAttribute {
     @Override
     public boolean isValueEquivalentToDefaultValue() {
         if (!defaultValueInvoked) {
-            defaultValue = attribute.getDefaultValue();
+            defaultValue = AnnotationTypeMetadata.of(annotation.annotationType()).getDefaultValue(attribute.getName());
             defaultValueInvoked = true;
         }
         return Objects.equals(getValue(), defaultValue);
@@ -2,6 +2,7 @@ package top.xiajibagao.powerfulannotation.annotation.proxy;
 
 import lombok.NonNull;
 import top.xiajibagao.powerfulannotation.annotation.AnnotationAttributeValueProvider;
+import top.xiajibagao.powerfulannotation.annotation.AnnotationTypeMetadata;
 import top.xiajibagao.powerfulannotation.helper.Annotations;
 import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
 
@@ -14,7 +15,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * 被代理的注解的方法调用拦截器
@@ -78,8 +78,7 @@ public class AnnotationInvocationHandler implements InvocationHandler {
         methods.put("hashCode", (method, args) -> proxyHashCode());
         methods.put("annotationType", (method, args) -> proxyAnnotationType());
         methods.put("getOriginal", (method, args) -> proxyGetOriginal());
-        Stream.of(ReflectUtils.getDeclaredMethods(annotation.annotationType()))
-            .filter(Annotations::isAttributeMethod)
+        AnnotationTypeMetadata.of(annotation.annotationType()).getAttributeMethods()
             .forEach(attribute -> methods.put(attribute.getName(), (method, args) -> proxyAttributeValue(method)));
     }
 
@@ -87,8 +86,7 @@ public class AnnotationInvocationHandler implements InvocationHandler {
      * 代理toString方法
      */
     private String proxyToString() {
-        final String attributes = Stream.of(ReflectUtils.getDeclaredMethods(annotation.annotationType()))
-            .filter(Annotations::isAttributeMethod)
+        final String attributes = AnnotationTypeMetadata.of(annotation.annotationType()).getAttributeMethods().stream()
             .map(method -> String.format("%s=%s", method.getName(), proxyAttributeValue(method)))
             .collect(Collectors.joining(", "));
         return String.format("@%s(%s)", annotation.annotationType()
@@ -0,0 +1,374 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import top.xiajibagao.powerfulannotation.scanner.AnnotationTypeIds;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * <p>以注解类型为键的{@link Map}，按插入顺序迭代，行为与以注解类型为键的{@link LinkedHashMap}一致。<br />
+ * 集合通过{@link AnnotationTypeIds}获取注解类型的稠密编号，并以编号作为哈希值存放在一张开放寻址的下标表中，
+ * 键与值则按插入顺序分别存放在两个平行数组中。因此查找时只需比较整数编号，
+ * 不需要调用{@link Class#hashCode()}或{@link Object#equals(Object)}，也不需要为每个键值对创建节点对象。
+ *
+ * <p>该集合适用于键数量较少、生命周期较短且创建频繁的场景，比如在每次扫描或合成时创建的注解映射表。
+ * 删除操作需要重建下标表，时间复杂度为{@code O(n)}。该集合不允许{@code null}键，且不是线程安全的。
+ *
+ * @param <V> 值类型
+ * @author huangchengxing
+ * @see AnnotationTypeIds
+ */
+public class AnnotationTypeMap<V> extends AbstractMap<Class<? extends Annotation>, V> {
+
+	/**
+	 * 默认初始容量
+	 */
+	private static final int DEFAULT_CAPACITY = 4;
+
+	/**
+	 * 按插入顺序排列的键
+	 */
+	private Class<? extends Annotation>[] keys;
+
+	/**
+	 * 与键对应的编号
+	 */
+	private int[] ids;
+
+	/**
+	 * 与键对应的值
+	 */
+	private Object[] values;
+
+	/**
+	 * 开放寻址的下标表，存放键在{@link #keys}中的下标加一，为{@code 0}表示空槽，容量总是2的幂且不小于键数量的两倍
+	 */
+	private int[] slots;
+
+	/**
+	 * 键值对数量
+	 */
+	private int size;
+
+	/**
+	 * 构造一个空集合
+	 */
+	public AnnotationTypeMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造一个空集合
+	 *
+	 * @param initialCapacity 初始容量
+	 */
+	public AnnotationTypeMap(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "initialCapacity must not less than 0");
+		final int capacity = Math.max(initialCapacity, 1);
+		this.keys = newKeys(capacity);
+		this.ids = new int[capacity];
+		this.values = new Object[capacity];
+		this.slots = new int[tableSizeFor(capacity)];
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Class<? extends Annotation>[] newKeys(int capacity) {
+		return (Class<? extends Annotation>[])new Class[capacity];
+	}
+
+	private static int tableSizeFor(int capacity) {
+		return Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1;
+	}
+
+	/**
+	 * 打散编号，保证连续的编号在下标表中分布均匀
+	 */
+	private static int hash(int id) {
+		return id * 0x9E3779B9;
+	}
+
+	// ====================== 查找 ======================
+
+	/**
+	 * 获取键在{@link #keys}中的下标，非注解类型的键不会被分配编号
+	 *
+	 * @return 下标，若不存在则返回{@code -1}
+	 */
+	@SuppressWarnings("unchecked")
+	private int indexOf(Object key) {
+		if (size == 0 || !(key instanceof Class) || !((Class<?>)key).isAnnotation()) {
+			return -1;
+		}
+		final int id = AnnotationTypeIds.getId((Class<? extends Annotation>)key);
+		final int mask = slots.length - 1;
+		for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+			final int index = slots[slot] - 1;
+			if (index < 0) {
+				return -1;
+			}
+			if (ids[index] == id) {
+				return index;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		final int index = indexOf(key);
+		return index < 0 ? null : (V)values[index];
+	}
+
+	// ====================== 修改 ======================
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(
+		Class<? extends Annotation> key, Function<? super Class<? extends Annotation>, ? extends V> mappingFunction) {
+		Assert.notNull(mappingFunction, "mappingFunction must not null");
+		final int index = indexOf(key);
+		if (index >= 0 && Objects.nonNull(values[index])) {
+			return (V)values[index];
+		}
+		final V value = mappingFunction.apply(key);
+		if (Objects.nonNull(value)) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(Class<? extends Annotation> key, V value) {
+		Assert.notNull(key, "key must not null");
+		Assert.isTrue(key.isAnnotation(), "[%s] is not an annotation type", key);
+		final int id = AnnotationTypeIds.getId(key);
+		final int mask = slots.length - 1;
+		int slot = hash(id) & mask;
+		for (int index; (index = slots[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+			if (ids[index] == id) {
+				final V old = (V)values[index];
+				values[index] = value;
+				return old;
+			}
+		}
+		if (size == keys.length) {
+			grow();
+			return put(key, value);
+		}
+		keys[size] = key;
+		ids[size] = id;
+		values[size] = value;
+		slots[slot] = ++size;
+		return null;
+	}
+
+	private void grow() {
+		final int capacity = keys.length << 1;
+		keys = Arrays.copyOf(keys, capacity);
+		ids = Arrays.copyOf(ids, capacity);
+		values = Arrays.copyOf(values, capacity);
+		rehash(tableSizeFor(capacity));
+	}
+
+	private void rehash(int tableSize) {
+		slots = new int[tableSize];
+		final int mask = tableSize - 1;
+		for (int index = 0; index < size; index++) {
+			int slot = hash(ids[index]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = index + 1;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		final int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		final V old = (V)values[index];
+		removeAt(index);
+		return old;
+	}
+
+	private void removeAt(int index) {
+		final int moved = size - index - 1;
+		System.arraycopy(keys, index + 1, keys, index, moved);
+		System.arraycopy(ids, index + 1, ids, index, moved);
+		System.arraycopy(values, index + 1, values, index, moved);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+		rehash(slots.length);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+
+	// ====================== 视图 ======================
+
+	@Override
+	public Set<Class<? extends Annotation>> keySet() {
+		return new AbstractSet<Class<? extends Annotation>>() {
+			@Override
+			public Iterator<Class<? extends Annotation>> iterator() {
+				return new Itr<Class<? extends Annotation>>() {
+					@Override
+					Class<? extends Annotation> get(int index) {
+						return keys[index];
+					}
+				};
+			}
+			@Override
+			public int size() {
+				return size;
+			}
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+		};
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new Itr<V>() {
+					@Override
+					@SuppressWarnings("unchecked")
+					V get(int index) {
+						return (V)values[index];
+					}
+				};
+			}
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Set<Entry<Class<? extends Annotation>, V>> entrySet() {
+		return new AbstractSet<Entry<Class<? extends Annotation>, V>>() {
+			@Override
+			public Iterator<Entry<Class<? extends Annotation>, V>> iterator() {
+				return new Itr<Entry<Class<? extends Annotation>, V>>() {
+					@Override
+					Entry<Class<? extends Annotation>, V> get(int index) {
+						return new KeyEntry(keys[index]);
+					}
+				};
+			}
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * 按插入顺序遍历的迭代器
+	 */
+	private abstract class Itr<E> implements Iterator<E> {
+
+		private int cursor;
+		private int last = -1;
+
+		abstract E get(int index);
+
+		@Override
+		public boolean hasNext() {
+			return cursor < size;
+		}
+
+		@Override
+		public E next() {
+			if (cursor >= size) {
+				throw new NoSuchElementException();
+			}
+			last = cursor++;
+			return get(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(last);
+			cursor = last;
+			last = -1;
+		}
+	}
+
+	/**
+	 * 键值对视图，读写皆直接作用于集合
+	 */
+	private class KeyEntry implements Entry<Class<? extends Annotation>, V> {
+
+		private final Class<? extends Annotation> key;
+
+		KeyEntry(Class<? extends Annotation> key) {
+			this.key = key;
+		}
+
+		@Override
+		public Class<? extends Annotation> getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return get(key);
+		}
+
+		@Override
+		public V setValue(V value) {
+			Assert.isTrue(containsKey(key), "entry [%s] has been removed", key);
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			final Entry<?, ?> entry = (Entry<?, ?>)o;
+			return key == entry.getKey() && Objects.equals(getValue(), entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+
+}
@@ -2,7 +2,12 @@ package top.xiajibagao.powerfulannotation.helper;
 
 import top.xiajibagao.powerfulannotation.aggerate.AnnotationAggregator;
 import top.xiajibagao.powerfulannotation.aggerate.GenericAnnotationAggregator;
+import top.xiajibagao.powerfulannotation.annotation.AnnotationTypeMetadata;
 import top.xiajibagao.powerfulannotation.annotation.proxy.AnnotationProxyFactory;
+import top.xiajibagao.powerfulannotation.index.AnnotationIndex;
+import top.xiajibagao.powerfulannotation.index.AnnotationSnapshot;
+import top.xiajibagao.powerfulannotation.index.ClasspathIndexer;
+import top.xiajibagao.powerfulannotation.index.MappedAnnotationIndex;
 import top.xiajibagao.powerfulannotation.repeatable.RepeatableBy;
 import top.xiajibagao.powerfulannotation.repeatable.RepeatableMappingParser;
 import top.xiajibagao.powerfulannotation.repeatable.RepeatableMappingRegistry;
@@ -10,7 +15,9 @@ import top.xiajibagao.powerfulannotation.repeatable.SimpleRepeatableMappingRegis
 import top.xiajibagao.powerfulannotation.scanner.AnnotationFilter;
 import top.xiajibagao.powerfulannotation.scanner.AnnotationScanner;
 import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+import top.xiajibagao.powerfulannotation.scanner.MetaAnnotationGraph;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationCollector;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
 import top.xiajibagao.powerfulannotation.synthesis.AnnotationSynthesizer;
 import top.xiajibagao.powerfulannotation.synthesis.GenericAnnotationSynthesizer;
@@ -21,14 +28,23 @@ import top.xiajibagao.powerfulannotation.synthesis.resolver.CoveredAttributeReso
 import top.xiajibagao.powerfulannotation.synthesis.resolver.MirrorAttributeResolver;
 import top.xiajibagao.powerfulannotation.synthesis.resolver.SyntheticAnnotationResolver;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -113,6 +129,16 @@ public class Annotations {
      */
     private static final SyntheticAnnotationResolver COVERED_ATTRIBUTE_RESOLVER = new CoveredAttributeResolver(false);
 
+    /**
+     * 已映射的二进制注解索引
+     */
+    private static final Map<Path, MappedAnnotationIndex> MAPPED_INDEX_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 空注解数组
+     */
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
+
     /**
      * 注解缓存
      */
@@ -125,14 +151,15 @@ public class Annotations {
      * @return 直接声明的注解
      */
     public static Annotation[] getDeclaredAnnotations(AnnotatedElement element) {
-        return Optional.ofNullable(ANNOTATED_ELEMENT_MAP.get(element))
-            .map(WeakReference::get)
-            .orElseGet(() -> {
-                Annotation[] annotations = Objects.isNull(element) ?
-                    emptyAnnotations() : element.getAnnotations();
-                ANNOTATED_ELEMENT_MAP.put(element, new WeakReference<>(annotations));
-                return annotations;
-            });
+        // 该方法位于扫描器的热点路径上，命中缓存时不应创建任何对象
+        WeakReference<Annotation[]> reference = ANNOTATED_ELEMENT_MAP.get(element);
+        Annotation[] annotations = Objects.isNull(reference) ? null : reference.get();
+        if (Objects.nonNull(annotations)) {
+            return annotations;
+        }
+        annotations = Objects.isNull(element) ? emptyAnnotations() : element.getAnnotations();
+        ANNOTATED_ELEMENT_MAP.put(element, new WeakReference<>(annotations));
+        return annotations;
     }
     
     /**
@@ -155,7 +182,7 @@ public class Annotations {
      */
     @SuppressWarnings("unchecked")
     public static <T extends Annotation> T[] emptyAnnotations() {
-        return (T[])new Annotation[0];
+        return (T[])EMPTY_ANNOTATIONS;
     }
 
     /**
@@ -366,6 +393,37 @@ public class Annotations {
             .getAnnotation(element, annotationType);
     }
 
+    /**
+     * 在一次扫描中，从元素的层级结构中及其元注解中获取每种指定类型的第一个注解，
+     * 结果与分别调用{@link #findIndirectAnnotation(AnnotatedElement, Class)}一致
+     *
+     * @param element 查找的元素
+     * @param annotationTypes 注解类型
+     * @return 注解类型与对应的注解，按指定类型的顺序排列，不包含未找到的类型
+     * @see AnnotationSearchMode#TYPE_HIERARCHY_AND_INDIRECT
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static Map<Class<? extends Annotation>, Annotation> findIndirectAnnotations(
+        AnnotatedElement element, Class<? extends Annotation>... annotationTypes) {
+        Assert.notNull(annotationTypes, "annotationTypes must not null");
+        return findIndirectAnnotations(element, Arrays.asList(annotationTypes));
+    }
+
+    /**
+     * 在一次扫描中，从元素的层级结构中及其元注解中获取每种指定类型的第一个注解，
+     * 结果与分别调用{@link #findIndirectAnnotation(AnnotatedElement, Class)}一致
+     *
+     * @param element 查找的元素
+     * @param annotationTypes 注解类型
+     * @return 注解类型与对应的注解，按指定类型的顺序排列，不包含未找到的类型
+     * @see AnnotationSearchMode#TYPE_HIERARCHY_AND_INDIRECT
+     */
+    public static Map<Class<? extends Annotation>, Annotation> findIndirectAnnotations(
+        AnnotatedElement element, Collection<? extends Class<? extends Annotation>> annotationTypes) {
+        return AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getFirstAnnotations(element, annotationTypes);
+    }
+
     /**
      * 从元素的层级结构中获取指定可重复注解
      *
@@ -477,7 +535,11 @@ public class Annotations {
      * @return 合成注解
      */
     public static <T extends Annotation> T synthesize(Annotation annotation, Class<T> annotationType, boolean includeMetaAnnotations) {
-        if (Objects.isNull(annotation)) {
+        if (Objects.isNull(annotation) || Objects.isNull(annotationType)) {
+            return null;
+        }
+        // 注解及其元注解中不可能存在指定类型的注解，则无需合成
+        if (!MetaAnnotationGraph.isReachable(annotation.annotationType(), annotationType)) {
             return null;
         }
         AnnotationSynthesizer synthesizer = getAnnotationSynthesizer();
@@ -521,7 +583,7 @@ public class Annotations {
      */
     public static <T extends Annotation> T getSynthesizedAnnotation(AnnotatedElement element, Class<T> annotationType) {
         AnnotationFinder<AnnotationSynthesizer> finder = getSynthesizedAnnotationFinder(annotationType);
-        AnnotationSearchMode.SELF_AND_DIRECT.scan(element, finder, AnnotationFilter.FILTER_JAVA);
+        AnnotationSearchMode.SELF_AND_DIRECT.scan(element, finder, getSynthesizedAnnotationFilter(annotationType));
         return finder.isFound() ?
             finder.getTarget().synthesize(annotationType) : null;
     }
@@ -536,7 +598,7 @@ public class Annotations {
      */
     public static <T extends Annotation> List<T> getAllSynthesizedAnnotations(AnnotatedElement element, Class<T> annotationType) {
         AnnotationCollector<AnnotationSynthesizer> collector = getSynthesizedAnnotationCollector();
-        AnnotationSearchMode.SELF_AND_DIRECT.scan(element, collector, AnnotationFilter.FILTER_JAVA);
+        AnnotationSearchMode.SELF_AND_DIRECT.scan(element, collector, getSynthesizedAnnotationFilter(annotationType));
         return collector.getTargets().stream()
             .filter(synthesizer -> synthesizer.support(annotationType))
             .map(synthesizer -> synthesizer.synthesize(annotationType))
@@ -554,7 +616,7 @@ public class Annotations {
      */
     public static <T extends Annotation> T findSynthesizedAnnotation(AnnotatedElement element, Class<T> annotationType) {
         AnnotationFinder<AnnotationSynthesizer> finder = getSynthesizedAnnotationFinder(annotationType);
-        AnnotationSearchMode.TYPE_HIERARCHY_AND_DIRECT.scan(element, finder, AnnotationFilter.FILTER_JAVA);
+        AnnotationSearchMode.TYPE_HIERARCHY_AND_DIRECT.scan(element, finder, getSynthesizedAnnotationFilter(annotationType));
         return finder.isFound() ?
             finder.getTarget().synthesize(annotationType) : null;
     }
@@ -569,13 +631,200 @@ public class Annotations {
      */
     public static <T extends Annotation> List<T> findAllSynthesizedAnnotations(AnnotatedElement element, Class<T> annotationType) {
         AnnotationCollector<AnnotationSynthesizer> collector = getSynthesizedAnnotationCollector();
-        AnnotationSearchMode.TYPE_HIERARCHY_AND_DIRECT.scan(element, collector, AnnotationFilter.FILTER_JAVA);
+        AnnotationSearchMode.TYPE_HIERARCHY_AND_DIRECT.scan(element, collector, getSynthesizedAnnotationFilter(annotationType));
         return collector.getTargets().stream()
             .filter(synthesizer -> synthesizer.support(annotationType))
             .map(synthesizer -> synthesizer.synthesize(annotationType))
             .collect(Collectors.toList());
     }
 
+    // =========================== index ===========================
+
+    /**
+     * 从默认的{@link AnnotationIndex}中获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的类、方法或属性。<br />
+     * 仅能获取到已被编译期注解处理器索引的元素，若类路径下不存在索引文件，则返回空集合
+     *
+     * @param annotationType 注解类型
+     * @return 元素
+     * @see AnnotationIndex#resolveAnnotatedElements(Class, ClassLoader)
+     */
+    public static List<AnnotatedElement> findIndexedElements(Class<? extends Annotation> annotationType) {
+        ClassLoader classLoader = ObjectUtils.defaultIfNull(
+            Thread.currentThread().getContextClassLoader(), Annotations.class.getClassLoader()
+        );
+        return AnnotationIndex.getDefault(classLoader).resolveAnnotatedElements(annotationType, classLoader);
+    }
+
+    /**
+     * 在{@link ForkJoinPool#commonPool()}中并行解析目录与jar包中的类文件，并生成二进制注解索引文件，
+     * 解析过程中不会加载任何类。<br />
+     * 新文件将以原子替换的方式覆盖旧文件，若旧文件已通过{@link #getAnnotationIndex(Path)}打开，则其缓存将被移除，
+     * 此后将重新映射新生成的文件，而此前获取的索引仍读取旧文件的内容
+     *
+     * @param roots 目录或jar包
+     * @param indexFile 索引文件
+     * @throws IOException 读取类文件或写出索引文件时抛出
+     * @see ClasspathIndexer
+     */
+    public static void buildAnnotationIndex(Collection<Path> roots, Path indexFile) throws IOException {
+        ClassLoader classLoader = ObjectUtils.defaultIfNull(
+            Thread.currentThread().getContextClassLoader(), Annotations.class.getClassLoader()
+        );
+        MAPPED_INDEX_MAP.remove(indexFile.toAbsolutePath().normalize());
+        new ClasspathIndexer(ForkJoinPool.commonPool(), classLoader).index(roots, indexFile);
+    }
+
+    /**
+     * 以内存映射的方式打开二进制注解索引文件，同一文件只会被映射一次
+     *
+     * @param indexFile 索引文件
+     * @return 注解索引
+     * @throws IOException 打开文件时抛出
+     * @see MappedAnnotationIndex
+     */
+    public static MappedAnnotationIndex getAnnotationIndex(Path indexFile) throws IOException {
+        try {
+            return MAPPED_INDEX_MAP.computeIfAbsent(indexFile.toAbsolutePath().normalize(), key -> {
+                try {
+                    return MappedAnnotationIndex.open(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 将已缓存注解的元素所属的类及其层级结构写出为注解缓存快照
+     *
+     * @param snapshotFile 快照文件
+     * @throws IOException 写出文件时抛出
+     * @see AnnotationSnapshot
+     */
+    public static void saveCacheSnapshot(Path snapshotFile) throws IOException {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (AnnotatedElement element : ANNOTATED_ELEMENT_MAP.keySet()) {
+            if (element instanceof Class) {
+                types.add((Class<?>)element);
+            } else if (element instanceof Member) {
+                types.add(((Member)element).getDeclaringClass());
+            }
+        }
+        AnnotationSnapshot.write(types, snapshotFile);
+    }
+
+    /**
+     * 以内存映射的方式打开注解缓存快照，并将其设置为默认快照，
+     * 快照中的记录将在首次被访问时校验
+     *
+     * @param snapshotFile 快照文件
+     * @return 注解缓存快照
+     * @throws IOException 打开文件时抛出
+     * @see AnnotationSnapshot#setDefault(AnnotationSnapshot)
+     */
+    public static AnnotationSnapshot loadCacheSnapshot(Path snapshotFile) throws IOException {
+        AnnotationSnapshot snapshot = AnnotationSnapshot.open(snapshotFile);
+        AnnotationSnapshot.setDefault(snapshot);
+        return snapshot;
+    }
+
+    // =========================== warm up ===========================
+
+    /**
+     * <p>使用指定的执行器并行预热类的注解相关缓存，各阶段按{@link WarmUpReport.Phase}的声明顺序依次执行，
+     * 同一阶段中的类将被并行处理，全部阶段完成后方法才会返回。<br />
+     * 预热过程中出现异常的类将被记录到{@link WarmUpReport#getFailedTypeNames()}中，不会中断预热。
+     *
+     * @param types 类
+     * @param executor 执行器，比如{@link ForkJoinPool}
+     * @return 预热报告
+     */
+    public static WarmUpReport warmUp(Collection<Class<?>> types, Executor executor) {
+        return warmUp(types, executor, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * 从类加载器中加载类，并使用指定的执行器并行预热类的注解相关缓存，
+     * 无法加载的类将被记录到{@link WarmUpReport#getFailedTypeNames()}中
+     *
+     * @param classNames 类名
+     * @param classLoader 类加载器
+     * @param executor 执行器，比如{@link ForkJoinPool}
+     * @return 预热报告
+     * @see #warmUp(Collection, Executor)
+     */
+    public static WarmUpReport warmUp(Supplier<? extends Collection<String>> classNames, ClassLoader classLoader, Executor executor) {
+        Assert.notNull(classNames, "classNames must not null");
+        Assert.notNull(classLoader, "classLoader must not null");
+        List<Class<?>> types = new ArrayList<>();
+        Set<String> failedTypeNames = ConcurrentHashMap.newKeySet();
+        for (String className : classNames.get()) {
+            try {
+                types.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                failedTypeNames.add(className);
+            }
+        }
+        return warmUp(types, executor, failedTypeNames);
+    }
+
+    private static WarmUpReport warmUp(Collection<Class<?>> types, Executor executor, Set<String> failedTypeNames) {
+        Assert.notNull(types, "types must not null");
+        Assert.notNull(executor, "executor must not null");
+        Set<Class<? extends Annotation>> annotationTypes = ConcurrentHashMap.newKeySet();
+        List<Class<?>> distinctTypes = new ArrayList<>(new LinkedHashSet<>(types));
+        WarmUpReport report = new WarmUpReport(distinctTypes.size(), failedTypeNames);
+
+        runWarmUpPhase(report, WarmUpReport.Phase.DECLARED_ANNOTATIONS, distinctTypes, executor, failedTypeNames, type -> {
+            getDeclaredAnnotations(type);
+            Stream.of(type.getDeclaredFields()).forEach(Annotations::getDeclaredAnnotations);
+            Stream.of(type.getDeclaredMethods()).forEach(Annotations::getDeclaredAnnotations);
+        });
+        runWarmUpPhase(report, WarmUpReport.Phase.MEMBERS, distinctTypes, executor, failedTypeNames, ReflectUtils::getDeclaredMethods);
+        AnnotationProcessor collector = (vi, hi, annotation) -> annotationTypes.add(annotation.annotationType());
+        runWarmUpPhase(report, WarmUpReport.Phase.HIERARCHY, distinctTypes, executor, failedTypeNames, type -> {
+            AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.scan(type, collector, null);
+            Stream.of(ReflectUtils.getDeclaredMethods(type))
+                .forEach(method -> AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.scan(method, collector, null));
+            Stream.of(type.getDeclaredFields())
+                .forEach(field -> AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.scan(field, collector, null));
+        });
+        runWarmUpPhase(report, WarmUpReport.Phase.SYNTHESIS, new ArrayList<>(annotationTypes), executor, failedTypeNames,
+            annotationType -> {
+                // 解析属性上的Link注解，同时预热属性方法上的注解及其合成注解
+                AnnotationTypeMetadata metadata = AnnotationTypeMetadata.of(annotationType);
+                for (int i = 0; i < metadata.size(); i++) {
+                    metadata.getLink(i);
+                }
+            }
+        );
+        return report;
+    }
+
+    /**
+     * 在执行器中并行执行一个预热阶段，并记录耗时
+     */
+    private static <T extends Class<?>> void runWarmUpPhase(
+        WarmUpReport report, WarmUpReport.Phase phase, List<T> types,
+        Executor executor, Set<String> failedTypeNames, Consumer<T> action) {
+        long start = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[types.size()];
+        for (int i = 0; i < types.size(); i++) {
+            T type = types.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    action.accept(type);
+                } catch (RuntimeException | LinkageError e) {
+                    failedTypeNames.add(type.getName());
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        report.record(phase, System.nanoTime() - start);
+    }
+
     // =========================== private ===========================
 
     /**
@@ -606,6 +855,14 @@ public class Annotations {
         );
     }
 
+    /**
+     * 获取用于寻找合成注解的{@link AnnotationFilter}，将跳过JDK注解，以及元注解中不可能存在指定类型注解的注解
+     */
+    private static AnnotationFilter getSynthesizedAnnotationFilter(Class<? extends Annotation> annotationType) {
+        return Objects.isNull(annotationType) ?
+            AnnotationFilter.FILTER_ANYTHING : AnnotationFilter.combine(AnnotationFilter.FILTER_JAVA, AnnotationFilter.reachable(annotationType));
+    }
+
     /**
      * 获取用于寻找合成注解的{@link AnnotationCollector}
      */
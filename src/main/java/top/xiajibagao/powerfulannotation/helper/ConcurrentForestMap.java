@@ -0,0 +1,899 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 线程安全的{@link ForestMap}实现。
+ *
+ * <p>与{@link LinkedForestMap}相同，集合中的每一对键值对都被视为一个{@link ConcurrentTreeEntry}节点，
+ * 节点通过key形成父子关系，并最终构成森林。不同的是，该实现允许在多线程环境中被共享：
+ * <ul>
+ *     <li>
+ *         读操作是无等待的：节点的父节点、根节点与权重被封装为一个不可变对象，并通过volatile字段一并发布，
+ *         而子节点集合则在每次修改时整体替换为新的快照，因此对单个节点的访问总是能获得一致的状态，
+ *         读操作既不会加锁，也不会像{@link LinkedForestMap}那样在读取时修改节点的状态；
+ *     </li>
+ *     <li>
+ *         {@link #putNode}、{@link #linkNodes}、{@link #unlinkNode}与{@link #remove}等写操作按树串行化：
+ *         写操作执行前会对涉及的树的根节点加锁，加锁后若发现根节点已经发生变化则重新尝试，
+ *         对多棵树加锁时总是按节点的创建顺序进行，因此不同的树上的写操作可以并行，且不会发生死锁；
+ *     </li>
+ * </ul>
+ * 读操作与写操作并行时，对单个节点的访问总是一致的，但是当一次写操作涉及多个节点时，
+ * 读操作可能会观察到其中一部分节点已经更新，而另一部分节点尚未更新的中间状态。
+ *
+ * <p>与{@link LinkedForestMap}不同，该集合不支持null作为key，并且不保证节点的迭代顺序与添加顺序一致。
+ *
+ * @param <K> key类型
+ * @param <V> value类型
+ * @author huangchengxing
+ * @see LinkedForestMap
+ */
+public class ConcurrentForestMap<K, V> implements ForestMap<K, V> {
+
+	/**
+	 * 节点集合
+	 */
+	private final ConcurrentMap<K, ConcurrentTreeEntry<K, V>> nodes;
+
+	/**
+	 * 当指定节点已经与其他节点构成了父子关系，是否允许将该节点的父节点强制替换为指定节点
+	 */
+	private final boolean allowOverrideParent;
+
+	/**
+	 * 构建{@link ConcurrentForestMap}
+	 *
+	 * @param allowOverrideParent 当指定节点已经与其他节点构成了父子关系，是否允许将该节点的父节点强制替换为指定节点
+	 */
+	public ConcurrentForestMap(boolean allowOverrideParent) {
+		this.allowOverrideParent = allowOverrideParent;
+		this.nodes = new ConcurrentHashMap<>();
+	}
+
+	// ====================== Map接口实现 ======================
+
+	/**
+	 * 获取当前实例中的节点个数
+	 *
+	 * @return 节点个数
+	 */
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * 当前实例是否为空
+	 *
+	 * @return 是否
+	 */
+	@Override
+	public boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+
+	/**
+	 * 当前实例中是否存在key对应的节点
+	 *
+	 * @param key key
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return Objects.nonNull(key) && nodes.containsKey(key);
+	}
+
+	/**
+	 * 当前实例中是否存在对应的{@link TreeEntry}实例
+	 *
+	 * @param value {@link TreeEntry}实例
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		return Objects.nonNull(value) && nodes.containsValue(value);
+	}
+
+	/**
+	 * 获取key对应的节点
+	 *
+	 * @param key key
+	 * @return 节点
+	 */
+	@Override
+	public ConcurrentTreeEntry<K, V> get(Object key) {
+		return Objects.isNull(key) ? null : nodes.get(key);
+	}
+
+	/**
+	 * 将指定节点从当前{@link Map}中删除
+	 * <ul>
+	 *     <li>若存在父节点或子节点，则将其断开其与父节点或子节点的引用关系；</li>
+	 *     <li>
+	 *         若同时存在父节点或子节点，则会在删除后将让子节点直接成为父节点的子节点，比如：<br>
+	 *         现有引用关系 a -&gt; b -&gt; c，删除 b 后，将有 a -&gt; c
+	 *     </li>
+	 *     <li>若不存在父节点，则其子节点将各自成为新的根节点；</li>
+	 * </ul>
+	 *
+	 * @param key 节点的key
+	 * @return 删除的且引用关系已经改变的节点，若key没有对应节点，则返回null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public TreeEntry<K, V> remove(Object key) {
+		while (true) {
+			final ConcurrentTreeEntry<K, V> target = get(key);
+			if (Objects.isNull(target)) {
+				return null;
+			}
+			if (Objects.nonNull(lockTrees(target, target, () -> detach((K)key, target)))) {
+				return target;
+			}
+		}
+	}
+
+	/**
+	 * 将当前集合清空，并清除全部节点间的引用关系。<br>
+	 * 该操作等同于依次删除集合中的全部节点，若在清空期间有其他线程添加节点，则这些节点可能不会被删除
+	 */
+	@Override
+	public void clear() {
+		new ArrayList<>(nodes.keySet()).forEach(this::remove);
+	}
+
+	/**
+	 * 返回当前实例中全部的key组成的只读{@link Set}集合
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(nodes.keySet());
+	}
+
+	/**
+	 * 返回当前实例中全部{@link TreeEntry}组成的{@link Collection}集合
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Collection<TreeEntry<K, V>> values() {
+		return new ArrayList<>(nodes.values());
+	}
+
+	/**
+	 * 由key与{@link TreeEntry}组成的键值对实体的{@link Set}集合。
+	 * 注意，返回集合中{@link Entry#setValue(Object)}不支持调用。
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Set<Entry<K, TreeEntry<K, V>>> entrySet() {
+		return nodes.values().stream()
+			.map(LinkedForestMap.EntryNodeWrapper::new)
+			.collect(Collectors.toSet());
+	}
+
+	// ====================== ForestMap接口实现 ======================
+
+	/**
+	 * 添加一个节点
+	 * <ul>
+	 *     <li>若key对应节点不存在，则以传入的键值创建一个新的节点；</li>
+	 *     <li>若key对应节点存在，则将该节点的值替换为{@code node}指定的值；</li>
+	 * </ul>
+	 *
+	 * @param key   节点的key
+	 * @param value 节点的value
+	 * @return 节点，若key已有对应节点，则返回具有旧值的节点快照，否则返回null
+	 */
+	@Override
+	public TreeEntry<K, V> putNode(K key, V value) {
+		Assert.notNull(key, "key must not null");
+		while (true) {
+			ConcurrentTreeEntry<K, V> target = nodes.get(key);
+			if (Objects.isNull(target)) {
+				target = nodes.putIfAbsent(key, new ConcurrentTreeEntry<>(key, value));
+				if (Objects.isNull(target)) {
+					return null;
+				}
+			}
+			final ConcurrentTreeEntry<K, V> node = target;
+			final TreeEntry<K, V> snapshot = lockTrees(node, node, () -> {
+				if (nodes.get(key) != node) {
+					return null;
+				}
+				final ConcurrentTreeEntry<K, V> copied = node.copy();
+				node.setValue(value);
+				return copied;
+			});
+			if (Objects.nonNull(snapshot)) {
+				return snapshot;
+			}
+		}
+	}
+
+	/**
+	 * 同时添加父子节点：
+	 * <ul>
+	 *     <li>若{@code parentKey}或{@code childKey}对应的节点不存在，则会根据键值创建一个对应的节点；</li>
+	 *     <li>若{@code parentKey}或{@code childKey}对应的节点存在，则会更新对应节点的值；</li>
+	 * </ul>
+	 *
+	 * @param parentKey   父节点的key
+	 * @param parentValue 父节点的value
+	 * @param childKey    子节点的key
+	 * @param childValue  子节点的值
+	 */
+	@Override
+	public void putLinkedNodes(K parentKey, V parentValue, K childKey, V childValue) {
+		linkNodes(parentKey, childKey, (parent, child) -> {
+			parent.setValue(parentValue);
+			child.setValue(childValue);
+		});
+	}
+
+	/**
+	 * 添加子节点，并为子节点指定父节点：
+	 * <ul>
+	 *     <li>若{@code parentKey}或{@code childKey}对应的节点不存在，则会根据键值创建一个对应的节点；</li>
+	 *     <li>若{@code parentKey}或{@code childKey}对应的节点存在，则会更新对应节点的值；</li>
+	 * </ul>
+	 *
+	 * @param parentKey  父节点的key
+	 * @param childKey   子节点的key
+	 * @param childValue 子节点的值
+	 */
+	@Override
+	public void putLinkedNodes(K parentKey, K childKey, V childValue) {
+		linkNodes(parentKey, childKey, (parent, child) -> child.setValue(childValue));
+	}
+
+	/**
+	 * 为指定的节点建立父子关系，若{@code parentKey}或{@code childKey}对应节点不存在，则会创建一个对应的值为null的空节点。<br>
+	 * {@code consumer}将在持有父子节点所在树的锁时被调用
+	 *
+	 * @param parentKey 父节点的key
+	 * @param childKey  子节点的key
+	 * @param consumer  对父节点和子节点的操作，允许为null
+	 */
+	@Override
+	public void linkNodes(K parentKey, K childKey, BiConsumer<TreeEntry<K, V>, TreeEntry<K, V>> consumer) {
+		Assert.notNull(parentKey, "parentKey must not null");
+		Assert.notNull(childKey, "childKey must not null");
+		final BiConsumer<TreeEntry<K, V>, TreeEntry<K, V>> operation = ObjectUtils.defaultIfNull(consumer, (parent, child) -> {
+		});
+		while (true) {
+			final ConcurrentTreeEntry<K, V> parentNode = nodes.computeIfAbsent(parentKey, ConcurrentTreeEntry::new);
+			final ConcurrentTreeEntry<K, V> childNode = nodes.computeIfAbsent(childKey, ConcurrentTreeEntry::new);
+			final Boolean linked = lockTrees(parentNode, childNode, () -> {
+				if (nodes.get(parentKey) != parentNode || nodes.get(childKey) != childNode) {
+					return null;
+				}
+				link(parentNode, childNode);
+				operation.accept(parentNode, childNode);
+				return true;
+			});
+			if (Objects.nonNull(linked)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 移除指定父节点与其直接关联的子节点间的引用关系，但是不会将该节点从集合中删除
+	 *
+	 * @param parentKey 父节点的key
+	 * @param childKey  子节点
+	 */
+	@Override
+	public void unlinkNode(K parentKey, K childKey) {
+		while (true) {
+			final ConcurrentTreeEntry<K, V> childNode = get(childKey);
+			if (Objects.isNull(childNode)) {
+				return;
+			}
+			final Boolean unlinked = lockTrees(childNode, childNode, () -> {
+				if (nodes.get(childKey) != childNode) {
+					return null;
+				}
+				final ConcurrentTreeEntry<K, V> parentNode = childNode.getDeclaredParent();
+				if (Objects.nonNull(parentNode) && parentNode.equalsKey(parentKey)) {
+					parentNode.removeDeclaredChild(childNode);
+					relocate(childNode, null, childNode);
+				}
+				return true;
+			});
+			if (Objects.nonNull(unlinked)) {
+				return;
+			}
+		}
+	}
+
+	// ====================== 祖先关系判断 ======================
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后获取该树结构中指定节点的指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点key
+	 * @return 节点
+	 */
+	@Override
+	public TreeEntry<K, V> getParentNode(K key, K parentKey) {
+		final ConcurrentTreeEntry<K, V> parent = get(parentKey);
+		return isAncestor(parent, get(key)) ? parent : null;
+	}
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后确认该树结构中当前节点是否存在指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点的key
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsParentNode(K key, K parentKey) {
+		return isAncestor(get(parentKey), get(key));
+	}
+
+	/**
+	 * 判断以该父节点作为根节点的树结构中是否具有指定子节点
+	 *
+	 * @param parentKey 父节点
+	 * @param childKey  子节点
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsChildNode(K parentKey, K childKey) {
+		return isAncestor(get(parentKey), get(childKey));
+	}
+
+	/**
+	 * 判断{@code ancestor}是否为{@code descendant}的祖先节点，
+	 * 由于节点总是持有其父节点的引用，因此只需要从后代节点向上遍历，而不必遍历祖先节点的整棵子树
+	 *
+	 * @param ancestor   祖先节点
+	 * @param descendant 后代节点
+	 * @return 是否
+	 */
+	private static <K, V> boolean isAncestor(ConcurrentTreeEntry<K, V> ancestor, ConcurrentTreeEntry<K, V> descendant) {
+		if (Objects.isNull(ancestor) || Objects.isNull(descendant)) {
+			return false;
+		}
+		ConcurrentTreeEntry<K, V> curr = descendant.getDeclaredParent();
+		while (Objects.nonNull(curr)) {
+			if (curr == ancestor) {
+				return true;
+			}
+			curr = curr.getDeclaredParent();
+		}
+		return false;
+	}
+
+	// ====================== 加锁与节点关系的调整 ======================
+
+	/**
+	 * 对节点{@code a}与节点{@code b}所在的树加锁，然后执行指定操作。<br>
+	 * 锁总是加在树的根节点上，若加锁后发现节点所在树的根节点已经改变，则释放锁并重新尝试；
+	 * 当需要同时对两棵树加锁时，总是先对创建顺序靠前的根节点加锁，以避免死锁。
+	 *
+	 * @param a      节点
+	 * @param b      节点，可以与{@code a}相同
+	 * @param action 操作，若返回null，说明节点已经被从集合中移除，调用方需要重新获取节点后重试
+	 * @return 操作的返回值
+	 */
+	private static <K, V, R> R lockTrees(ConcurrentTreeEntry<K, V> a, ConcurrentTreeEntry<K, V> b, Supplier<R> action) {
+		while (true) {
+			final ConcurrentTreeEntry<K, V> rootA = a.getRoot();
+			final ConcurrentTreeEntry<K, V> rootB = b.getRoot();
+			final ConcurrentTreeEntry<K, V> first = rootA.id <= rootB.id ? rootA : rootB;
+			final ConcurrentTreeEntry<K, V> second = first == rootA ? rootB : rootA;
+			synchronized (first) {
+				synchronized (second) {
+					if (isLockedRoot(rootA, a) && isLockedRoot(rootB, b)) {
+						return action.get();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 已加锁的节点是否仍然为指定节点所在树的根节点
+	 *
+	 * @param root 已加锁的节点
+	 * @param node 节点
+	 * @return 是否
+	 */
+	private static <K, V> boolean isLockedRoot(ConcurrentTreeEntry<K, V> root, ConcurrentTreeEntry<K, V> node) {
+		// 拆分子树时，新的根节点总是最后更新的，因此根节点指向自身时，说明以其为根的树已经调整完毕
+		return node.getRoot() == root && root.getRoot() == root;
+	}
+
+	/**
+	 * 在持有父子节点所在树的锁的情况下，为节点建立父子关系
+	 *
+	 * @param parentNode 父节点
+	 * @param childNode  子节点
+	 * @throws IllegalArgumentException 当子节点已有父节点且不允许覆盖，或父子节点间存在循环引用时抛出
+	 */
+	private void link(ConcurrentTreeEntry<K, V> parentNode, ConcurrentTreeEntry<K, V> childNode) {
+		final ConcurrentTreeEntry<K, V> oldParent = childNode.getDeclaredParent();
+		// 子节点已经是该父节点的子节点了
+		if (oldParent == parentNode) {
+			return;
+		}
+		// 子节点已经与其他节点构成父子关系，但是不允许子节点直接修改其父节点
+		if (Objects.nonNull(oldParent) && !allowOverrideParent) {
+			throw new IllegalArgumentException(String.format(
+				"[%s] has been used as child of [%s], can not be overwrite as child of [%s]",
+				childNode.getKey(), oldParent.getKey(), parentNode.getKey()
+			));
+		}
+		// 检查循环引用
+		Assert.isFalse(
+			parentNode == childNode || isAncestor(childNode, parentNode),
+			"circular reference between [%s] and [%s]!", childNode.getKey(), parentNode.getKey()
+		);
+		if (Objects.nonNull(oldParent)) {
+			oldParent.removeDeclaredChild(childNode);
+		}
+		parentNode.addDeclaredChild(childNode);
+		relocate(childNode, parentNode, parentNode.getRoot());
+	}
+
+	/**
+	 * 在持有节点所在树的锁的情况下，将节点从集合中删除，并调整其父节点与子节点间的引用关系
+	 *
+	 * @param key    节点的key
+	 * @param target 节点
+	 * @return 被删除的节点，若节点已经被其他线程删除则返回null
+	 */
+	private ConcurrentTreeEntry<K, V> detach(K key, ConcurrentTreeEntry<K, V> target) {
+		// 节点按key判断是否相等，因此不能通过ConcurrentMap#remove(Object, Object)删除，
+		// 而需要在持有锁时确认集合中key对应的仍然是该节点
+		if (nodes.get(key) != target) {
+			return null;
+		}
+		nodes.remove(key);
+		final ConcurrentTreeEntry<K, V> parent = target.getDeclaredParent();
+		final Collection<ConcurrentTreeEntry<K, V>> children = target.children.values();
+		// 若存在父节点，则将该目标从父节点的子节点中移除，并让目标的子节点直接将目标的父节点作为父节点
+		if (Objects.nonNull(parent)) {
+			parent.removeDeclaredChild(target);
+			children.forEach(child -> {
+				parent.addDeclaredChild(child);
+				relocate(child, parent, parent.getRoot());
+			});
+		}
+		// 若不存在父节点，则断开目标与其子节点的引用关系，令子节点各自成为新的根节点
+		else {
+			children.forEach(child -> relocate(child, null, child));
+		}
+		target.children = Collections.emptyMap();
+		target.descendantCount = 0;
+		target.position = new Position<>(null, target, 0);
+		return target;
+	}
+
+	/**
+	 * 在持有节点所在树的锁的情况下，更新以指定节点为根的子树中全部节点的父节点、根节点与权重。<br>
+	 * 子树中的节点按广度优先依次更新，而指定节点本身总是最后更新，
+	 * 因此当指定节点成为新的根节点时，其他线程只有在整棵子树调整完毕后才能对其加锁成功
+	 *
+	 * @param node      节点
+	 * @param newParent 新的父节点，为null时表示节点将成为根节点
+	 * @param newRoot   新的根节点
+	 */
+	private static <K, V> void relocate(
+		ConcurrentTreeEntry<K, V> node, ConcurrentTreeEntry<K, V> newParent, ConcurrentTreeEntry<K, V> newRoot) {
+		final int weight = Objects.isNull(newParent) ? 0 : newParent.getWeight() + 1;
+		final Deque<ConcurrentTreeEntry<K, V>> queue = new ArrayDeque<>(node.children.values());
+		while (!queue.isEmpty()) {
+			final ConcurrentTreeEntry<K, V> curr = queue.removeFirst();
+			final ConcurrentTreeEntry<K, V> parent = curr.getDeclaredParent();
+			final int parentWeight = parent == node ? weight : parent.getWeight();
+			curr.position = new Position<>(parent, newRoot, parentWeight + 1);
+			queue.addAll(curr.children.values());
+		}
+		node.position = new Position<>(newParent, newRoot, weight);
+	}
+
+	/**
+	 * 节点在树中的位置，包括父节点、根节点以及节点到根节点的距离。<br>
+	 * 该对象不可变，节点位置发生变化时总是整体替换，以保证读取时三者总是一致的
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 */
+	private static class Position<K, V> {
+
+		private final ConcurrentTreeEntry<K, V> parent;
+		private final ConcurrentTreeEntry<K, V> root;
+		private final int weight;
+
+		Position(ConcurrentTreeEntry<K, V> parent, ConcurrentTreeEntry<K, V> root, int weight) {
+			this.parent = parent;
+			this.root = root;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * 线程安全的树节点，节点间的引用关系只能通过{@link ConcurrentForestMap}调整
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 * @author huangchengxing
+	 */
+	public static class ConcurrentTreeEntry<K, V> implements TreeEntry<K, V> {
+
+		/**
+		 * 节点id生成器
+		 */
+		private static final AtomicLong ID_GENERATOR = new AtomicLong();
+
+		/**
+		 * 节点id，用于确定加锁顺序
+		 */
+		private final long id;
+
+		/**
+		 * key
+		 */
+		private final K key;
+
+		/**
+		 * 值
+		 */
+		private volatile V value;
+
+		/**
+		 * 节点在树中的位置
+		 */
+		private volatile Position<K, V> position;
+
+		/**
+		 * 子节点，每次修改时都将被替换为新的集合
+		 */
+		private volatile Map<K, ConcurrentTreeEntry<K, V>> children;
+
+		/**
+		 * 以当前节点为根的树结构中的子节点总数，不包含当前节点
+		 */
+		private volatile int descendantCount;
+
+		/**
+		 * 创建一个值为null的节点
+		 *
+		 * @param key 节点的key
+		 */
+		ConcurrentTreeEntry(K key) {
+			this(key, null);
+		}
+
+		/**
+		 * 创建一个节点
+		 *
+		 * @param key   节点的key
+		 * @param value 节点的value
+		 */
+		ConcurrentTreeEntry(K key, V value) {
+			this.id = ID_GENERATOR.getAndIncrement();
+			this.key = key;
+			this.value = value;
+			this.children = Collections.emptyMap();
+			this.position = new Position<>(null, this, 0);
+		}
+
+		/**
+		 * 获取当前节点的key
+		 *
+		 * @return 节点的key
+		 */
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		/**
+		 * 获取节点的value
+		 *
+		 * @return 节点的value
+		 */
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		/**
+		 * 设置节点的value
+		 *
+		 * @param value 节点的value
+		 * @return 节点的旧value
+		 */
+		@Override
+		public V setValue(V value) {
+			final V oldVal = this.value;
+			this.value = value;
+			return oldVal;
+		}
+
+		/**
+		 * 指定key与当前节点的key是否相等
+		 *
+		 * @param key 要比较的key
+		 * @return 是否key一致
+		 */
+		public boolean equalsKey(K key) {
+			return Objects.equals(this.key, key);
+		}
+
+		// ================== 父节点的操作 ==================
+
+		/**
+		 * 获取当前节点与根节点的距离
+		 *
+		 * @return 当前节点与根节点的距离
+		 */
+		@Override
+		public int getWeight() {
+			return position.weight;
+		}
+
+		/**
+		 * 获取以当前节点作为叶子节点的树结构，然后获取该树结构的根节点
+		 *
+		 * @return 根节点
+		 */
+		@Override
+		public ConcurrentTreeEntry<K, V> getRoot() {
+			return position.root;
+		}
+
+		/**
+		 * 获取当前节点直接关联的父节点
+		 *
+		 * @return 父节点，当节点不存在对应父节点时返回null
+		 */
+		@Override
+		public ConcurrentTreeEntry<K, V> getDeclaredParent() {
+			return position.parent;
+		}
+
+		/**
+		 * 获取以当前节点作为叶子节点的树结构，然后获取该树结构中当前节点的指定父节点
+		 *
+		 * @param key 指定父节点的key
+		 * @return 指定父节点，当不存在时返回null
+		 */
+		@Override
+		public ConcurrentTreeEntry<K, V> getParent(K key) {
+			ConcurrentTreeEntry<K, V> curr = getDeclaredParent();
+			while (Objects.nonNull(curr) && !curr.equalsKey(key)) {
+				curr = curr.getDeclaredParent();
+			}
+			return curr;
+		}
+
+		// ================== 子节点的操作 ==================
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后遍历所有节点
+		 *
+		 * @param includeSelf  是否处理当前节点
+		 * @param nodeConsumer 对节点的处理
+		 */
+		@Override
+		public void forEachChild(boolean includeSelf, Consumer<TreeEntry<K, V>> nodeConsumer) {
+			childIterator(includeSelf).forEachRemaining(nodeConsumer);
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后获取按广度优先访问该树结构中节点的迭代器。<br>
+		 * 由于遍历期间子树可能被其他线程调整，因此迭代器会跳过已经访问过的key，保证每个key至多被访问一次
+		 *
+		 * @param includeSelf 是否包含当前节点
+		 * @return 迭代器
+		 */
+		@Override
+		public Iterator<TreeEntry<K, V>> childIterator(boolean includeSelf) {
+			return new Iterator<TreeEntry<K, V>>() {
+				private final Deque<ConcurrentTreeEntry<K, V>> queue = new ArrayDeque<>();
+				private final Set<K> accessedKeys = new HashSet<>();
+				{
+					if (includeSelf) {
+						queue.addLast(ConcurrentTreeEntry.this);
+					} else {
+						accessedKeys.add(key);
+						queue.addAll(children.values());
+					}
+				}
+				@Override
+				public boolean hasNext() {
+					while (!queue.isEmpty() && accessedKeys.contains(queue.peekFirst().key)) {
+						queue.removeFirst();
+					}
+					return !queue.isEmpty();
+				}
+				@Override
+				public TreeEntry<K, V> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					final ConcurrentTreeEntry<K, V> node = queue.removeFirst();
+					accessedKeys.add(node.key);
+					queue.addAll(node.children.values());
+					return node;
+				}
+			};
+		}
+
+		/**
+		 * 获取当前节点直接关联的子节点，返回的集合为只读视图
+		 *
+		 * @return 节点
+		 */
+		@Override
+		public Map<K, TreeEntry<K, V>> getDeclaredChildren() {
+			return new DeclaredChildrenView<>(this);
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后按广度优先获取该树结构中的当前节点的全部子节点，
+		 * 返回的集合为只读视图，迭代时将重新遍历子树，而子节点总数由节点直接维护
+		 *
+		 * @return 节点
+		 */
+		@Override
+		public Map<K, TreeEntry<K, V>> getChildren() {
+			return new LinkedForestMap.ChildrenView<>(this, () -> descendantCount);
+		}
+
+		/**
+		 * 当前节点是否有子节点
+		 *
+		 * @return 是否
+		 */
+		@Override
+		public boolean hasChildren() {
+			return !children.isEmpty();
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后获取该树结构中的当前节点的指定子节点
+		 *
+		 * @param key 指定子节点的key
+		 * @return 节点
+		 */
+		@Override
+		public TreeEntry<K, V> getChild(K key) {
+			return findChild(false, child -> Objects.equals(child.getKey(), key));
+		}
+
+		/**
+		 * 添加直接关联的子节点，调用方需持有当前节点所在树的锁
+		 *
+		 * @param child 子节点
+		 */
+		void addDeclaredChild(ConcurrentTreeEntry<K, V> child) {
+			final Map<K, ConcurrentTreeEntry<K, V>> newChildren = new LinkedHashMap<>(children);
+			newChildren.put(child.key, child);
+			this.children = newChildren;
+			updateDescendantCount(child.descendantCount + 1);
+		}
+
+		/**
+		 * 移除直接关联的子节点，调用方需持有当前节点所在树的锁
+		 *
+		 * @param child 子节点
+		 */
+		void removeDeclaredChild(ConcurrentTreeEntry<K, V> child) {
+			final Map<K, ConcurrentTreeEntry<K, V>> newChildren = new LinkedHashMap<>(children);
+			newChildren.remove(child.key);
+			this.children = newChildren.isEmpty() ? Collections.emptyMap() : newChildren;
+			updateDescendantCount(-child.descendantCount - 1);
+		}
+
+		/**
+		 * 更新当前节点及其全部父节点的子节点总数，调用方需持有当前节点所在树的锁
+		 *
+		 * @param delta 增量
+		 */
+		private void updateDescendantCount(int delta) {
+			for (ConcurrentTreeEntry<K, V> curr = this; Objects.nonNull(curr); curr = curr.getDeclaredParent()) {
+				curr.descendantCount += delta;
+			}
+		}
+
+		/**
+		 * 复制一个当前节点的快照，快照与当前节点具有相同的值、位置与子节点，但是不会随当前节点的变化而变化
+		 *
+		 * @return 节点快照
+		 */
+		ConcurrentTreeEntry<K, V> copy() {
+			final ConcurrentTreeEntry<K, V> copiedNode = new ConcurrentTreeEntry<>(key, value);
+			copiedNode.position = position;
+			copiedNode.children = children;
+			copiedNode.descendantCount = descendantCount;
+			return copiedNode;
+		}
+
+		/**
+		 * 比较目标对象与当前{@link TreeEntry}是否相等。<br>
+		 * 只要{@link TreeEntry#getKey()}的返回值相同，即认为两者相等
+		 *
+		 * @param o 目标对象
+		 * @return 是否
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof TreeEntry)) {
+				return false;
+			}
+			return Objects.equals(key, ((TreeEntry<?, ?>)o).getKey());
+		}
+
+		/**
+		 * 返回当前{@link TreeEntry}的哈希值。<br>
+		 * 默认总是返回{@link TreeEntry#getKey()}的哈希值
+		 *
+		 * @return 哈希值
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(key);
+		}
+
+	}
+
+	/**
+	 * 节点直接关联的子节点的只读视图，总是访问节点最新的子节点集合
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 * @see ConcurrentTreeEntry#getDeclaredChildren()
+	 */
+	static class DeclaredChildrenView<K, V> extends AbstractMap<K, TreeEntry<K, V>> {
+
+		private final ConcurrentTreeEntry<K, V> node;
+
+		DeclaredChildrenView(ConcurrentTreeEntry<K, V> node) {
+			this.node = node;
+		}
+
+		@Override
+		public int size() {
+			return node.children.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return node.children.containsKey(key);
+		}
+
+		@Override
+		public TreeEntry<K, V> get(Object key) {
+			return node.children.get(key);
+		}
+
+		@Override
+		public Set<Entry<K, TreeEntry<K, V>>> entrySet() {
+			return Collections.<K, TreeEntry<K, V>>unmodifiableMap(node.children).entrySet();
+		}
+	}
+
+}
@@ -2,6 +2,7 @@ package top.xiajibagao.powerfulannotation.helper;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * 基于多个{@link TreeEntry}构成的、彼此平行的树结构构成的森林集合。
@@ -76,6 +77,18 @@ public interface ForestMap<K, V> extends Map<K, TreeEntry<K, V>> {
 
 	// ===================== 节点操作 =====================
 
+	/**
+	 * 根据当前实例创建一个不可变的副本，副本中节点间的关系与节点的值都与当前实例一致，
+	 * 但是不会随当前实例的变化而变化，且不支持任何修改操作。<br>
+	 * 副本以数组的形式紧凑的保存节点，适用于构建完毕后只读的场景，创建期间当前实例不应被修改。
+	 *
+	 * @return 不可变的{@link ForestMap}
+	 * @see ImmutableForestMap
+	 */
+	default ForestMap<K, V> freeze() {
+		return ImmutableForestMap.of(this);
+	}
+
 	/**
 	 * 添加一个节点
 	 * <ul>
@@ -167,11 +180,24 @@ public interface ForestMap<K, V> extends Map<K, TreeEntry<K, V>> {
 		if (Objects.isNull(target)) {
 			return Collections.emptySet();
 		}
-		final Set<TreeEntry<K, V>> results = CollUtils.newLinkedHashSet(target.getRoot());
-		CollUtils.addAll(results, target.getRoot().getChildren().values());
+		final Set<TreeEntry<K, V>> results = new LinkedHashSet<>();
+		target.getRoot().forEachChild(true, results::add);
 		return results;
 	}
 
+	/**
+	 * 获取指定节点所在树结构，然后从根节点开始按广度优先遍历树中的节点，
+	 * 并返回第一个满足条件的节点，找到后即终止遍历
+	 *
+	 * @param key       指定节点的key
+	 * @param predicate 判断条件
+	 * @return 节点，若指定节点不存在，或树中不存在满足条件的节点则返回null
+	 */
+	default TreeEntry<K, V> findTreeNode(K key, Predicate<TreeEntry<K, V>> predicate) {
+		final TreeEntry<K, V> target = get(key);
+		return Objects.isNull(target) ? null : target.getRoot().findChild(true, predicate);
+	}
+
 	/**
 	 * 获取以指定节点作为叶子节点的树结构，然后获取该树结构的根节点 <br>
 	 * 比如：存在 a -&gt; b -&gt; c 的关系，则输入 a/b/c 都将返回 a
@@ -0,0 +1,747 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 不可变的{@link ForestMap}实现，一般通过{@link ForestMap#freeze()}获得。
+ *
+ * <p>与{@link LinkedForestMap}不同，该集合不再为每个节点维护子节点集合与父节点、根节点的引用，
+ * 而是在创建时将森林中的节点逐棵树按广度优先依次编号，并将节点的各项属性保存在以编号为下标的数组中：
+ * <ul>
+ *     <li>节点的key、value、父节点编号、根节点编号与权重分别保存在各自的数组中；</li>
+ *     <li>
+ *         由于节点按广度优先编号，同一节点的子节点的编号总是连续的，
+ *         因此节点的子节点只需要通过一个编号区间表示，而同一层级的子节点同样构成一个连续的区间；
+ *     </li>
+ *     <li>
+ *         key与编号的映射关系通过开放寻址的哈希表维护，查找时优先按引用比较key，仅当引用不同时才调用{@link Object#equals}，
+ *         对于{@link Class}这类使用对象标识作为哈希值的key，查找通常只需要一次引用比较；
+ *     </li>
+ * </ul>
+ * 任何修改集合或节点的操作都将抛出{@link UnsupportedOperationException}。
+ *
+ * <p>集合的迭代顺序即为节点的编号顺序，即按源集合中根节点的顺序，依次按广度优先访问每棵树的节点。
+ *
+ * @param <K> key类型
+ * @param <V> value类型
+ * @author huangchengxing
+ * @see ForestMap#freeze()
+ */
+public class ImmutableForestMap<K, V> implements ForestMap<K, V> {
+
+	/**
+	 * 表示节点不存在的编号
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * 节点的key
+	 */
+	private final Object[] keys;
+
+	/**
+	 * 节点的value
+	 */
+	private final Object[] values;
+
+	/**
+	 * 父节点的编号，若节点为根节点则为{@link #NONE}
+	 */
+	private final int[] parents;
+
+	/**
+	 * 根节点的编号
+	 */
+	private final int[] roots;
+
+	/**
+	 * 节点到根节点的距离
+	 */
+	private final int[] weights;
+
+	/**
+	 * 子节点编号区间的起始值，包含
+	 */
+	private final int[] childStarts;
+
+	/**
+	 * 子节点编号区间的结束值，不包含
+	 */
+	private final int[] childEnds;
+
+	/**
+	 * 以节点为根的树结构中的子节点总数，不包含节点本身
+	 */
+	private final int[] descendantCounts;
+
+	/**
+	 * 节点
+	 */
+	private final ImmutableTreeEntry<K, V>[] entries;
+
+	/**
+	 * key与节点编号的哈希表，保存的值为编号加一，为0时表示对应位置为空
+	 */
+	private final int[] table;
+
+	/**
+	 * 根据指定的{@link ForestMap}创建一个不可变的副本，
+	 * 创建期间源集合不应被修改
+	 *
+	 * @param source 源集合
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 * @return 不可变的{@link ForestMap}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> ImmutableForestMap<K, V> of(ForestMap<K, V> source) {
+		Assert.notNull(source, "source must not null");
+		return source instanceof ImmutableForestMap ? (ImmutableForestMap<K, V>)source : new ImmutableForestMap<>(source);
+	}
+
+	/**
+	 * 创建一个不可变的{@link ForestMap}
+	 *
+	 * @param source 源集合
+	 */
+	private ImmutableForestMap(ForestMap<K, V> source) {
+		final Collection<TreeEntry<K, V>> sourceNodes = source.values();
+		final int size = sourceNodes.size();
+		this.keys = new Object[size];
+		this.values = new Object[size];
+		this.parents = new int[size];
+		this.roots = new int[size];
+		this.weights = new int[size];
+		this.childStarts = new int[size];
+		this.childEnds = new int[size];
+		this.descendantCounts = new int[size];
+		this.entries = newEntries(size);
+
+		// 逐棵树按广度优先编号，节点在出队时将其子节点依次追加到末尾，因此出队顺序即为编号顺序
+		final TreeEntry<K, V>[] queue = newTreeEntries(size);
+		int tail = 0;
+		for (final TreeEntry<K, V> sourceNode : sourceNodes) {
+			if (sourceNode.hasParent()) {
+				continue;
+			}
+			final int root = tail;
+			queue[tail] = sourceNode;
+			parents[tail] = NONE;
+			weights[tail] = 0;
+			tail++;
+			for (int id = root; id < tail; id++) {
+				final TreeEntry<K, V> node = queue[id];
+				keys[id] = node.getKey();
+				values[id] = node.getValue();
+				roots[id] = root;
+				entries[id] = new ImmutableTreeEntry<>(this, id);
+				childStarts[id] = tail;
+				for (final TreeEntry<K, V> child : node.getDeclaredChildren().values()) {
+					Assert.isTrue(tail < size, "the tree of [%s] contains nodes not in the source map", sourceNode.getKey());
+					queue[tail] = child;
+					parents[tail] = id;
+					weights[tail] = weights[id] + 1;
+					tail++;
+				}
+				childEnds[id] = tail;
+			}
+		}
+		Assert.isTrue(tail == size, "the source map contains [%s] nodes, but only [%s] nodes are reachable from roots", size, tail);
+
+		// 子节点的编号总是大于父节点，因此逆序累加即可得到每个节点的子节点总数
+		for (int id = size - 1; id >= 0; id--) {
+			if (parents[id] != NONE) {
+				descendantCounts[parents[id]] += descendantCounts[id] + 1;
+			}
+		}
+
+		// 构建key与编号的哈希表，容量为不小于节点数两倍的二的幂
+		int capacity = 2;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		this.table = new int[capacity];
+		for (int id = 0; id < size; id++) {
+			int slot = hash(keys[id]) & (capacity - 1);
+			while (table[slot] != 0) {
+				slot = (slot + 1) & (capacity - 1);
+			}
+			table[slot] = id + 1;
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <K, V> ImmutableTreeEntry<K, V>[] newEntries(int size) {
+		return (ImmutableTreeEntry<K, V>[])new ImmutableTreeEntry[size];
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <K, V> TreeEntry<K, V>[] newTreeEntries(int size) {
+		return (TreeEntry<K, V>[])new TreeEntry[size];
+	}
+
+	/**
+	 * 获取key对应的哈希值
+	 *
+	 * @param key key
+	 * @return 哈希值
+	 */
+	private static int hash(Object key) {
+		final int h = Objects.hashCode(key);
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * 获取key对应的节点编号
+	 *
+	 * @param key key
+	 * @return 节点编号，若不存在则返回{@link #NONE}
+	 */
+	private int indexOf(Object key) {
+		final int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		int stored;
+		while ((stored = table[slot]) != 0) {
+			final Object candidate = keys[stored - 1];
+			if (candidate == key || (Objects.nonNull(key) && key.equals(candidate))) {
+				return stored - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NONE;
+	}
+
+	/**
+	 * 编号为{@code ancestor}的节点是否为编号为{@code descendant}的节点的祖先节点
+	 *
+	 * @param ancestor   祖先节点编号
+	 * @param descendant 后代节点编号
+	 * @return 是否
+	 */
+	private boolean isAncestor(int ancestor, int descendant) {
+		if (ancestor == NONE || descendant == NONE || roots[ancestor] != roots[descendant]) {
+			return false;
+		}
+		// 祖先节点的权重必然小于后代节点，因此只需要向上回溯两者权重的差值次
+		int curr = descendant;
+		for (int i = weights[descendant] - weights[ancestor]; i > 0; i--) {
+			curr = parents[curr];
+		}
+		return curr == ancestor && ancestor != descendant;
+	}
+
+	/**
+	 * 获取编号对应的节点
+	 *
+	 * @param id 编号
+	 * @return 节点，若编号为{@link #NONE}则返回null
+	 */
+	private ImmutableTreeEntry<K, V> entry(int id) {
+		return id == NONE ? null : entries[id];
+	}
+
+	// ====================== Map接口实现 ======================
+
+	/**
+	 * 获取当前实例中的节点个数
+	 *
+	 * @return 节点个数
+	 */
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * 当前实例是否为空
+	 *
+	 * @return 是否
+	 */
+	@Override
+	public boolean isEmpty() {
+		return keys.length == 0;
+	}
+
+	/**
+	 * 当前实例中是否存在key对应的节点
+	 *
+	 * @param key key
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) != NONE;
+	}
+
+	/**
+	 * 当前实例中是否存在对应的{@link TreeEntry}实例
+	 *
+	 * @param value {@link TreeEntry}实例
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		return value instanceof TreeEntry && Objects.equals(value, get(((TreeEntry<?, ?>)value).getKey()));
+	}
+
+	/**
+	 * 获取key对应的节点
+	 *
+	 * @param key key
+	 * @return 节点
+	 */
+	@Override
+	public TreeEntry<K, V> get(Object key) {
+		return entry(indexOf(key));
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public TreeEntry<K, V> remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 返回当前实例中全部的key组成的只读{@link Set}集合
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Set<K> keySet() {
+		return new AbstractSet<K>() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public Iterator<K> iterator() {
+				return (Iterator<K>)Arrays.asList(keys).iterator();
+			}
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+			@Override
+			public int size() {
+				return keys.length;
+			}
+		};
+	}
+
+	/**
+	 * 返回当前实例中全部{@link TreeEntry}组成的只读{@link Collection}集合
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Collection<TreeEntry<K, V>> values() {
+		return Collections.unmodifiableList(Arrays.asList(entries));
+	}
+
+	/**
+	 * 由key与{@link TreeEntry}组成的键值对实体的只读{@link Set}集合。
+	 *
+	 * @return 集合
+	 */
+	@Override
+	public Set<Entry<K, TreeEntry<K, V>>> entrySet() {
+		return new AbstractSet<Entry<K, TreeEntry<K, V>>>() {
+			@Override
+			public Iterator<Entry<K, TreeEntry<K, V>>> iterator() {
+				final Iterator<ImmutableTreeEntry<K, V>> iterator = Arrays.asList(entries).iterator();
+				return new Iterator<Entry<K, TreeEntry<K, V>>>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+					@Override
+					public Entry<K, TreeEntry<K, V>> next() {
+						return new LinkedForestMap.EntryNodeWrapper<>(iterator.next());
+					}
+				};
+			}
+			@Override
+			public int size() {
+				return keys.length;
+			}
+		};
+	}
+
+	// ====================== ForestMap接口实现 ======================
+
+	/**
+	 * 当前实例已经是不可变的，因此总是返回其本身
+	 *
+	 * @return 当前实例
+	 */
+	@Override
+	public ImmutableForestMap<K, V> freeze() {
+		return this;
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public TreeEntry<K, V> putNode(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public void putLinkedNodes(K parentKey, K childKey, V childValue) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public void linkNodes(K parentKey, K childKey, BiConsumer<TreeEntry<K, V>, TreeEntry<K, V>> consumer) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 不支持该操作
+	 *
+	 * @throws UnsupportedOperationException 总是抛出
+	 */
+	@Override
+	public void unlinkNode(K parentKey, K childKey) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后获取该树结构中指定节点的指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点key
+	 * @return 节点
+	 */
+	@Override
+	public TreeEntry<K, V> getParentNode(K key, K parentKey) {
+		final int parent = indexOf(parentKey);
+		return isAncestor(parent, indexOf(key)) ? entries[parent] : null;
+	}
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后确认该树结构中当前节点是否存在指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点的key
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsParentNode(K key, K parentKey) {
+		return isAncestor(indexOf(parentKey), indexOf(key));
+	}
+
+	/**
+	 * 判断以该父节点作为根节点的树结构中是否具有指定子节点
+	 *
+	 * @param parentKey 父节点
+	 * @param childKey  子节点
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsChildNode(K parentKey, K childKey) {
+		return isAncestor(indexOf(parentKey), indexOf(childKey));
+	}
+
+	/**
+	 * 不可变的树节点，节点本身仅持有其所属集合与编号，全部属性都从集合的数组中读取
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 * @author huangchengxing
+	 */
+	public static class ImmutableTreeEntry<K, V> implements TreeEntry<K, V> {
+
+		/**
+		 * 节点所属的集合
+		 */
+		private final ImmutableForestMap<K, V> map;
+
+		/**
+		 * 节点编号
+		 */
+		private final int id;
+
+		/**
+		 * 创建一个节点
+		 *
+		 * @param map 节点所属的集合
+		 * @param id  节点编号
+		 */
+		ImmutableTreeEntry(ImmutableForestMap<K, V> map, int id) {
+			this.map = map;
+			this.id = id;
+		}
+
+		/**
+		 * 获取当前节点的key
+		 *
+		 * @return 节点的key
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public K getKey() {
+			return (K)map.keys[id];
+		}
+
+		/**
+		 * 获取节点的value
+		 *
+		 * @return 节点的value
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public V getValue() {
+			return (V)map.values[id];
+		}
+
+		/**
+		 * 不支持该操作
+		 *
+		 * @throws UnsupportedOperationException 总是抛出
+		 */
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		// ================== 父节点的操作 ==================
+
+		/**
+		 * 获取当前节点与根节点的距离
+		 *
+		 * @return 当前节点与根节点的距离
+		 */
+		@Override
+		public int getWeight() {
+			return map.weights[id];
+		}
+
+		/**
+		 * 获取以当前节点作为叶子节点的树结构，然后获取该树结构的根节点
+		 *
+		 * @return 根节点
+		 */
+		@Override
+		public TreeEntry<K, V> getRoot() {
+			return map.entries[map.roots[id]];
+		}
+
+		/**
+		 * 当前节点是否存在直接关联的父节点
+		 *
+		 * @return 是否
+		 */
+		@Override
+		public boolean hasParent() {
+			return map.parents[id] != NONE;
+		}
+
+		/**
+		 * 获取当前节点直接关联的父节点
+		 *
+		 * @return 父节点，当节点不存在对应父节点时返回null
+		 */
+		@Override
+		public TreeEntry<K, V> getDeclaredParent() {
+			return map.entry(map.parents[id]);
+		}
+
+		/**
+		 * 获取以当前节点作为叶子节点的树结构，然后获取该树结构中当前节点的指定父节点
+		 *
+		 * @param key 指定父节点的key
+		 * @return 指定父节点，当不存在时返回null
+		 */
+		@Override
+		public TreeEntry<K, V> getParent(K key) {
+			final int parent = map.indexOf(key);
+			return map.isAncestor(parent, id) ? map.entries[parent] : null;
+		}
+
+		// ================== 子节点的操作 ==================
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后遍历所有节点
+		 *
+		 * @param includeSelf  是否处理当前节点
+		 * @param nodeConsumer 对节点的处理
+		 */
+		@Override
+		public void forEachChild(boolean includeSelf, Consumer<TreeEntry<K, V>> nodeConsumer) {
+			childIterator(includeSelf).forEachRemaining(nodeConsumer);
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后获取按广度优先访问该树结构中节点的迭代器。<br>
+		 * 由于同一层级的子节点总是构成一个连续的编号区间，因此迭代过程中只需要维护当前层级的编号区间
+		 *
+		 * @param includeSelf 是否包含当前节点
+		 * @return 迭代器
+		 */
+		@Override
+		public Iterator<TreeEntry<K, V>> childIterator(boolean includeSelf) {
+			return new Iterator<TreeEntry<K, V>>() {
+				private int levelStart = includeSelf ? id : map.childStarts[id];
+				private int levelEnd = includeSelf ? id + 1 : map.childEnds[id];
+				private int next = levelStart;
+				@Override
+				public boolean hasNext() {
+					if (next < levelEnd) {
+						return true;
+					}
+					// 当前层级已经访问完毕，则下一层级即为当前层级首尾节点的子节点区间
+					if (levelStart < levelEnd) {
+						final int nextStart = map.childStarts[levelStart];
+						levelEnd = map.childEnds[levelEnd - 1];
+						levelStart = nextStart;
+						next = nextStart;
+					}
+					return next < levelEnd;
+				}
+				@Override
+				public TreeEntry<K, V> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return map.entries[next++];
+				}
+			};
+		}
+
+		/**
+		 * 当前节点是否有子节点
+		 *
+		 * @return 是否
+		 */
+		@Override
+		public boolean hasChildren() {
+			return map.childStarts[id] < map.childEnds[id];
+		}
+
+		/**
+		 * 获取当前节点直接关联的子节点，返回的集合为只读视图
+		 *
+		 * @return 节点
+		 */
+		@Override
+		public Map<K, TreeEntry<K, V>> getDeclaredChildren() {
+			return new AbstractMap<K, TreeEntry<K, V>>() {
+				@Override
+				public boolean containsKey(Object key) {
+					return Objects.nonNull(get(key));
+				}
+				@Override
+				public TreeEntry<K, V> get(Object key) {
+					final int child = map.indexOf(key);
+					return child != NONE && map.parents[child] == id ? map.entries[child] : null;
+				}
+				@Override
+				public Set<Entry<K, TreeEntry<K, V>>> entrySet() {
+					return new AbstractSet<Entry<K, TreeEntry<K, V>>>() {
+						@Override
+						public Iterator<Entry<K, TreeEntry<K, V>>> iterator() {
+							return new Iterator<Entry<K, TreeEntry<K, V>>>() {
+								private int next = map.childStarts[id];
+								@Override
+								public boolean hasNext() {
+									return next < map.childEnds[id];
+								}
+								@Override
+								public Entry<K, TreeEntry<K, V>> next() {
+									if (!hasNext()) {
+										throw new NoSuchElementException();
+									}
+									return new LinkedForestMap.EntryNodeWrapper<>(map.entries[next++]);
+								}
+							};
+						}
+						@Override
+						public int size() {
+							return map.childEnds[id] - map.childStarts[id];
+						}
+					};
+				}
+			};
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后按广度优先获取该树结构中的当前节点的全部子节点，返回的集合为只读视图
+		 *
+		 * @return 节点
+		 */
+		@Override
+		public Map<K, TreeEntry<K, V>> getChildren() {
+			return new LinkedForestMap.ChildrenView<>(this, () -> map.descendantCounts[id]);
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后获取该树结构中的当前节点的指定子节点
+		 *
+		 * @param key 指定子节点的key
+		 * @return 节点
+		 */
+		@Override
+		public TreeEntry<K, V> getChild(K key) {
+			final int child = map.indexOf(key);
+			return map.isAncestor(id, child) ? map.entries[child] : null;
+		}
+
+		/**
+		 * 比较目标对象与当前{@link TreeEntry}是否相等。<br>
+		 * 只要{@link TreeEntry#getKey()}的返回值相同，即认为两者相等
+		 *
+		 * @param o 目标对象
+		 * @return 是否
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof TreeEntry)) {
+				return false;
+			}
+			return Objects.equals(getKey(), ((TreeEntry<?, ?>)o).getKey());
+		}
+
+		/**
+		 * 返回当前{@link TreeEntry}的哈希值。<br>
+		 * 默认总是返回{@link TreeEntry#getKey()}的哈希值
+		 *
+		 * @return 哈希值
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(getKey());
+		}
+
+	}
+
+}
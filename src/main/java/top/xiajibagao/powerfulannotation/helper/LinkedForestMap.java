@@ -4,6 +4,7 @@ import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -18,6 +19,11 @@ import java.util.stream.Collectors;
  * 使用者可以通过{@link ForestMap}本身的方法来对森林进行操作或访问，
  * 也可以在获取到{@link TreeEntry}后，使用节点本身的方法对数进行操作或访问。
  *
+ * <p>集合会为森林中的节点维护一组基于欧拉序的区间标号，
+ * 当节点间的引用关系发生变化后，标号将在下一次查询时惰性的重建。
+ * 借助标号，{@link #containsParentNode}与{@link #containsChildNode}等判断节点间祖先关系的方法
+ * 不必再遍历整条父节点链或整棵子树。
+ *
  * @param <K> key类型
  * @author huangchengxing
  */
@@ -33,6 +39,11 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 	 */
 	private final boolean allowOverrideParent;
 
+	/**
+	 * 节点的区间标号是否需要重建
+	 */
+	private boolean labelStale;
+
 	/**
 	 * 构建{@link LinkedForestMap}
 	 *
@@ -41,6 +52,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 	public LinkedForestMap(boolean allowOverrideParent) {
 		this.allowOverrideParent = allowOverrideParent;
 		this.nodes = new LinkedHashMap<>();
+		this.labelStale = true;
 	}
 
 	// ====================== Map接口实现 ======================
@@ -117,15 +129,20 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		if (Objects.isNull(target)) {
 			return null;
 		}
+		labelStale = true;
 		// 若存在父节点：
 		// 1.将该目标从父节点的子节点中移除
 		// 2.将目标的子节点直接将目标的父节点作为父节点
 		if (target.hasParent()) {
 			final TreeEntryNode<K, V> parent = target.getDeclaredParent();
-			final Map<K, TreeEntry<K, V>> targetChildren = target.getChildren();
+			final List<TreeEntryNode<K, V>> targetChildren = new ArrayList<>(target.children.values());
 			parent.removeDeclaredChild(target.getKey());
 			target.clear();
-			targetChildren.forEach((k, c) -> parent.addChild((TreeEntryNode<K, V>) c));
+			targetChildren.forEach(parent::addChild);
+		}
+		// 若不存在父节点，则断开目标与其子节点的引用关系，令子节点各自成为新的根节点
+		else {
+			new ArrayList<>(target.children.keySet()).forEach(target::removeDeclaredChild);
 		}
 		return target;
 	}
@@ -137,6 +154,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 	public void clear() {
 		nodes.values().forEach(TreeEntryNode::clear);
 		nodes.clear();
+		labelStale = true;
 	}
 
 	/**
@@ -202,6 +220,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		}
 		target = new TreeEntryNode<>(null, key, value);
 		nodes.put(key, target);
+		labelStale = true;
 		return null;
 	}
 
@@ -258,7 +277,10 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 	public void linkNodes(K parentKey, K childKey, BiConsumer<TreeEntry<K, V>, TreeEntry<K, V>> consumer) {
 		consumer = ObjectUtils.defaultIfNull(consumer, (parent, child) -> {
 		});
-		final TreeEntryNode<K, V> parentNode = nodes.computeIfAbsent(parentKey, t -> new TreeEntryNode<>(null, t));
+		final TreeEntryNode<K, V> parentNode = nodes.computeIfAbsent(parentKey, t -> {
+			labelStale = true;
+			return new TreeEntryNode<>(null, t);
+		});
 		TreeEntryNode<K, V> childNode = nodes.get(childKey);
 
 		// 1.子节点不存在
@@ -266,6 +288,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 			childNode = new TreeEntryNode<>(parentNode, childKey);
 			consumer.accept(parentNode, childNode);
 			nodes.put(childKey, childNode);
+			labelStale = true;
 			return;
 		}
 
@@ -291,6 +314,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 					childNode.getKey(), childNode.getDeclaredParent().getKey(), parentKey
 			));
 		}
+		labelStale = true;
 		consumer.accept(parentNode, childNode);
 	}
 
@@ -308,9 +332,110 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		}
 		if (childNode.hasParent()) {
 			childNode.getDeclaredParent().removeDeclaredChild(childNode.getKey());
+			labelStale = true;
 		}
 	}
 
+	// ====================== 基于区间标号的祖先关系判断 ======================
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后获取该树结构中指定节点的指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点key
+	 * @return 节点
+	 */
+	@Override
+	public TreeEntry<K, V> getParentNode(K key, K parentKey) {
+		final TreeEntryNode<K, V> parent = nodes.get(parentKey);
+		return isAncestor(parent, nodes.get(key)) ? parent : null;
+	}
+
+	/**
+	 * 获取以指定节点作为叶子节点的树结构，然后确认该树结构中当前节点是否存在指定父节点
+	 *
+	 * @param key       指定节点的key
+	 * @param parentKey 指定父节点的key
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsParentNode(K key, K parentKey) {
+		return isAncestor(nodes.get(parentKey), nodes.get(key));
+	}
+
+	/**
+	 * 判断以该父节点作为根节点的树结构中是否具有指定子节点
+	 *
+	 * @param parentKey 父节点
+	 * @param childKey  子节点
+	 * @return 是否
+	 */
+	@Override
+	public boolean containsChildNode(K parentKey, K childKey) {
+		return isAncestor(nodes.get(parentKey), nodes.get(childKey));
+	}
+
+	/**
+	 * 根据区间标号判断{@code ancestor}是否为{@code descendant}的祖先节点。<br>
+	 * 在同一次标号中，当且仅当后代节点的进入序号落在祖先节点的标号区间内时，两者才构成祖先与后代的关系
+	 *
+	 * @param ancestor   祖先节点
+	 * @param descendant 后代节点
+	 * @return 是否
+	 */
+	private boolean isAncestor(TreeEntryNode<K, V> ancestor, TreeEntryNode<K, V> descendant) {
+		if (Objects.isNull(ancestor) || Objects.isNull(descendant) || ancestor == descendant) {
+			return false;
+		}
+		refreshLabelsIfNecessary();
+		return ancestor.enter < descendant.enter && descendant.enter <= ancestor.exit;
+	}
+
+	/**
+	 * 若节点间的引用关系在上一次标号后发生过变化，则按深度优先重新为森林中的全部节点标号
+	 */
+	private void refreshLabelsIfNecessary() {
+		if (!labelStale) {
+			return;
+		}
+		int counter = 0;
+		for (final TreeEntryNode<K, V> node : nodes.values()) {
+			if (!node.hasParent()) {
+				counter = labelTree(node, counter);
+			}
+		}
+		labelStale = false;
+	}
+
+	/**
+	 * 以指定节点作为根节点，按深度优先为树中的全部节点标号，
+	 * 节点的进入序号即为其被访问的顺序，退出序号则为其子树中最后一个节点的进入序号
+	 *
+	 * @param root    根节点
+	 * @param counter 起始序号
+	 * @return 下一棵树的起始序号
+	 */
+	private int labelTree(TreeEntryNode<K, V> root, int counter) {
+		final Deque<TreeEntryNode<K, V>> nodeStack = new ArrayDeque<>();
+		final Deque<Iterator<TreeEntryNode<K, V>>> childrenStack = new ArrayDeque<>();
+		root.enter = counter++;
+		nodeStack.push(root);
+		childrenStack.push(root.children.values().iterator());
+		while (!nodeStack.isEmpty()) {
+			final Iterator<TreeEntryNode<K, V>> children = childrenStack.peek();
+			if (children.hasNext()) {
+				final TreeEntryNode<K, V> child = children.next();
+				child.enter = counter++;
+				nodeStack.push(child);
+				childrenStack.push(child.children.values().iterator());
+			} else {
+				nodeStack.pop().exit = counter - 1;
+				childrenStack.pop();
+			}
+		}
+		return counter;
+	}
+
 	/**
 	 * 树节点
 	 *
@@ -334,11 +459,26 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		 */
 		private int weight;
 
+		/**
+		 * 区间标号中的进入序号
+		 */
+		private int enter;
+
+		/**
+		 * 区间标号中的退出序号，即以当前节点为根的子树中最大的进入序号
+		 */
+		private int exit;
+
 		/**
 		 * 子节点
 		 */
 		private final Map<K, TreeEntryNode<K, V>> children;
 
+		/**
+		 * 以当前节点为根的树结构中的子节点总数，不包含当前节点
+		 */
+		private int descendantCount;
+
 		/**
 		 * key
 		 */
@@ -491,8 +631,11 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		 */
 		@Override
 		public TreeEntryNode<K, V> getParent(K key) {
-			return traverseParentNodes(false, p -> {
-			}, p -> p.equalsKey(key));
+			TreeEntryNode<K, V> curr = this.parent;
+			while (Objects.nonNull(curr) && !curr.equalsKey(key)) {
+				curr = curr.parent;
+			}
+			return curr;
 		}
 
 		/**
@@ -524,36 +667,42 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		 * @param includeCurrent 是否包含当前节点
 		 * @param consumer       对节点与节点和当前节点的距离的操作，当{code includeCurrent}为false时下标从1开始，否则从0开始
 		 * @param breakTraverse  是否终止遍历，为null时默认总是返回{@code true}
-		 * @return 遍历到的最后一个节点
+		 * @return 终止遍历时所在的节点，若未终止遍历则返回null
 		 */
 		TreeEntryNode<K, V> traverseChildNodes(
 				boolean includeCurrent, BiConsumer<Integer, TreeEntryNode<K, V>> consumer, BiPredicate<Integer, TreeEntryNode<K, V>> breakTraverse) {
 			breakTraverse = ObjectUtils.defaultIfNull(breakTraverse, (i, n) -> false);
-			final Deque<List<TreeEntryNode<K, V>>> keyNodeDeque = CollUtils.newLinkedList(CollUtils.newArrayList(this));
-			boolean needProcess = includeCurrent;
-			int index = includeCurrent ? 0 : 1;
-			TreeEntryNode<K, V> lastNode = null;
-			while (!keyNodeDeque.isEmpty()) {
-				final List<TreeEntryNode<K, V>> curr = keyNodeDeque.removeFirst();
-				final List<TreeEntryNode<K, V>> next = new ArrayList<>();
-				for (final TreeEntryNode<K, V> node : curr) {
-					if (needProcess) {
-						consumer.accept(index, node);
-						if (breakTraverse.test(index, node)) {
-							return node;
-						}
-					} else {
-						needProcess = true;
+			// 使用同一个队列按层级依次存放节点，并通过记录每层剩余节点数来确定节点所在的层级
+			final Deque<TreeEntryNode<K, V>> queue = new ArrayDeque<>();
+			queue.addLast(this);
+			int remainingInLevel = 1;
+			int index = 0;
+			while (!queue.isEmpty()) {
+				final TreeEntryNode<K, V> node = queue.removeFirst();
+				if (includeCurrent || node != this) {
+					consumer.accept(index, node);
+					if (breakTraverse.test(index, node)) {
+						return node;
 					}
-					CollUtils.addAll(next, node.children.values());
 				}
-				if (!next.isEmpty()) {
-					keyNodeDeque.addLast(next);
+				queue.addAll(node.children.values());
+				if (--remainingInLevel == 0) {
+					remainingInLevel = queue.size();
+					index++;
 				}
-				lastNode = CollUtils.getLast(next);
-				index++;
 			}
-			return lastNode;
+			return null;
+		}
+
+		/**
+		 * 获取以当前节点作为根节点的树结构，然后获取按广度优先访问该树结构中节点的迭代器
+		 *
+		 * @param includeSelf 是否包含当前节点
+		 * @return 迭代器
+		 */
+		@Override
+		public Iterator<TreeEntry<K, V>> childIterator(boolean includeSelf) {
+			return new ChildNodeIterator<>(this, includeSelf);
 		}
 
 
@@ -584,6 +733,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 
 			// 将该节点添加为当前节点的子节点
 			children.put(child.key, child);
+			updateDescendantCount(child.descendantCount + 1);
 		}
 
 		/**
@@ -599,6 +749,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 
 			// 断开该节点与其父节点的关系
 			this.children.remove(key);
+			updateDescendantCount(-child.descendantCount - 1);
 
 			// 重置子节点及其下属节点的相关属性
 			child.parent = null;
@@ -608,6 +759,17 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 			}, null);
 		}
 
+		/**
+		 * 更新当前节点及其全部父节点的子节点总数
+		 *
+		 * @param delta 增量
+		 */
+		private void updateDescendantCount(int delta) {
+			for (TreeEntryNode<K, V> curr = this; Objects.nonNull(curr); curr = curr.parent) {
+				curr.descendantCount += delta;
+			}
+		}
+
 		/**
 		 * 获取以当前节点作为根节点的树结构，然后获取该树结构中的当前节点的指定子节点
 		 *
@@ -616,30 +778,35 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		 */
 		@Override
 		public TreeEntryNode<K, V> getChild(K key) {
-			return traverseChildNodes(false, (i, c) -> {
-			}, (i, c) -> c.equalsKey(key));
+			final ChildNodeIterator<K, V> iterator = new ChildNodeIterator<>(this, false);
+			while (iterator.hasNext()) {
+				final TreeEntryNode<K, V> child = iterator.nextNode();
+				if (child.equalsKey(key)) {
+					return child;
+				}
+			}
+			return null;
 		}
 
 		/**
-		 * 获取当前节点直接关联的子节点
+		 * 获取当前节点直接关联的子节点，返回的集合为只读视图
 		 *
 		 * @return 节点
 		 */
 		@Override
 		public Map<K, TreeEntry<K, V>> getDeclaredChildren() {
-			return new LinkedHashMap<>(this.children);
+			return Collections.unmodifiableMap(this.children);
 		}
 
 		/**
-		 * 获取以当前节点作为根节点的树结构，然后按广度优先获取该树结构中的当前节点的全部子节点
+		 * 获取以当前节点作为根节点的树结构，然后按广度优先获取该树结构中的当前节点的全部子节点，
+		 * 返回的集合为只读视图，迭代时将重新遍历子树，而子节点总数由节点直接维护
 		 *
 		 * @return 节点
 		 */
 		@Override
 		public Map<K, TreeEntry<K, V>> getChildren() {
-			final Map<K, TreeEntry<K, V>> childrenMap = new LinkedHashMap<>();
-			traverseChildNodes(false, (i, c) -> childrenMap.put(c.getKey(), c), null);
-			return childrenMap;
+			return new ChildrenView<>(this, () -> descendantCount);
 		}
 
 		/**
@@ -648,6 +815,7 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		void clear() {
 			this.root = null;
 			this.children.clear();
+			this.descendantCount = 0;
 			this.parent = null;
 		}
 
@@ -690,11 +858,128 @@ public class LinkedForestMap<K, V> implements ForestMap<K, V> {
 		TreeEntryNode<K, V> copy(V value) {
 			TreeEntryNode<K, V> copiedNode = new TreeEntryNode<>(this.parent, this.key, ObjectUtils.defaultIfNull(value, this.value));
 			copiedNode.children.putAll(children);
+			copiedNode.descendantCount = descendantCount;
 			return copiedNode;
 		}
 
 	}
 
+	/**
+	 * 按广度优先访问以指定节点为根的树结构中节点的迭代器
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 */
+	static class ChildNodeIterator<K, V> implements Iterator<TreeEntry<K, V>> {
+
+		private final Deque<TreeEntryNode<K, V>> queue;
+
+		ChildNodeIterator(TreeEntryNode<K, V> root, boolean includeRoot) {
+			this.queue = new ArrayDeque<>();
+			if (includeRoot) {
+				queue.addLast(root);
+			} else {
+				queue.addAll(root.children.values());
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !queue.isEmpty();
+		}
+
+		@Override
+		public TreeEntry<K, V> next() {
+			return nextNode();
+		}
+
+		TreeEntryNode<K, V> nextNode() {
+			final TreeEntryNode<K, V> node = queue.pollFirst();
+			if (Objects.isNull(node)) {
+				throw new NoSuchElementException();
+			}
+			queue.addAll(node.children.values());
+			return node;
+		}
+	}
+
+	/**
+	 * 以指定节点为根的树结构中全部子节点的只读视图，子节点总数由节点自行维护，因此获取视图大小时无需遍历子树
+	 *
+	 * @param <K> key类型
+	 * @param <V> value类型
+	 * @see TreeEntry#getChildren()
+	 */
+	static class ChildrenView<K, V> extends AbstractMap<K, TreeEntry<K, V>> {
+
+		private final TreeEntry<K, V> root;
+		private final IntSupplier descendantCount;
+
+		ChildrenView(TreeEntry<K, V> root, IntSupplier descendantCount) {
+			this.root = root;
+			this.descendantCount = descendantCount;
+		}
+
+		@Override
+		public int size() {
+			return descendantCount.getAsInt();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return Objects.nonNull(get(key));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public TreeEntry<K, V> get(Object key) {
+			return root.getChild((K)key);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !root.hasChildren();
+		}
+
+		@Override
+		public Collection<TreeEntry<K, V>> values() {
+			return new AbstractCollection<TreeEntry<K, V>>() {
+				@Override
+				public Iterator<TreeEntry<K, V>> iterator() {
+					return root.childIterator(false);
+				}
+				@Override
+				public int size() {
+					return ChildrenView.this.size();
+				}
+			};
+		}
+
+		@Override
+		public Set<Entry<K, TreeEntry<K, V>>> entrySet() {
+			return new AbstractSet<Entry<K, TreeEntry<K, V>>>() {
+				@Override
+				public Iterator<Entry<K, TreeEntry<K, V>>> iterator() {
+					final Iterator<TreeEntry<K, V>> iterator = root.childIterator(false);
+					return new Iterator<Entry<K, TreeEntry<K, V>>>() {
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+						@Override
+						public Entry<K, TreeEntry<K, V>> next() {
+							return new EntryNodeWrapper<>(iterator.next());
+						}
+					};
+				}
+				@Override
+				public int size() {
+					return descendantCount.getAsInt();
+				}
+			};
+		}
+	}
+
 	/**
 	 * {@link Entry}包装类
 	 *
@@ -26,6 +26,16 @@ public class ReflectUtils {
      */
     private static final Map<Class<?>, WeakReference<Method[]>> CLASS_DECLARED_METHOD_MAP = new ConcurrentHashMap<>(36);
 
+    /**
+     * 接口缓存
+     */
+    private static final Map<Class<?>, WeakReference<Class<?>[]>> CLASS_INTERFACES_MAP = new ConcurrentHashMap<>(36);
+
+    /**
+     * 方法参数类型缓存
+     */
+    private static final Map<Method, WeakReference<Class<?>[]>> METHOD_PARAMETER_TYPES_MAP = new ConcurrentHashMap<>(36);
+
     static {
         WRAPPER_PRIMITIVE_MAP.put(Boolean.class, boolean.class);
         WRAPPER_PRIMITIVE_MAP.put(Byte.class, byte.class);
@@ -53,14 +63,48 @@ public class ReflectUtils {
     }
 
     public static Method[] getDeclaredMethods(Class<?> targetClass) {
-        return Optional.ofNullable(CLASS_DECLARED_METHOD_MAP.get(targetClass))
-            .map(WeakReference::get)
-            .orElseGet(() -> {
-                Method[] methods = targetClass.getDeclaredMethods();
-                WeakReference<Method[]> reference = new WeakReference<>(methods);
-                CLASS_DECLARED_METHOD_MAP.put(targetClass, reference);
-                return methods;
-            });
+        WeakReference<Method[]> reference = CLASS_DECLARED_METHOD_MAP.get(targetClass);
+        Method[] methods = Objects.isNull(reference) ? null : reference.get();
+        if (Objects.nonNull(methods)) {
+            return methods;
+        }
+        methods = targetClass.getDeclaredMethods();
+        CLASS_DECLARED_METHOD_MAP.put(targetClass, new WeakReference<>(methods));
+        return methods;
+    }
+
+    /**
+     * 获取类直接实现的接口，与{@link Class#getInterfaces()}不同，返回的数组为缓存，调用者不应修改
+     *
+     * @param targetClass 类
+     * @return 接口
+     */
+    public static Class<?>[] getInterfaces(Class<?> targetClass) {
+        WeakReference<Class<?>[]> reference = CLASS_INTERFACES_MAP.get(targetClass);
+        Class<?>[] interfaces = Objects.isNull(reference) ? null : reference.get();
+        if (Objects.nonNull(interfaces)) {
+            return interfaces;
+        }
+        interfaces = targetClass.getInterfaces();
+        CLASS_INTERFACES_MAP.put(targetClass, new WeakReference<>(interfaces));
+        return interfaces;
+    }
+
+    /**
+     * 获取方法的参数类型，与{@link Method#getParameterTypes()}不同，返回的数组为缓存，调用者不应修改
+     *
+     * @param method 方法
+     * @return 参数类型
+     */
+    public static Class<?>[] getParameterTypes(Method method) {
+        WeakReference<Class<?>[]> reference = METHOD_PARAMETER_TYPES_MAP.get(method);
+        Class<?>[] parameterTypes = Objects.isNull(reference) ? null : reference.get();
+        if (Objects.nonNull(parameterTypes)) {
+            return parameterTypes;
+        }
+        parameterTypes = method.getParameterTypes();
+        METHOD_PARAMETER_TYPES_MAP.put(method, new WeakReference<>(parameterTypes));
+        return parameterTypes;
     }
 
     public static Method getDeclaredMethod(Class<?> targetClass, String name) {
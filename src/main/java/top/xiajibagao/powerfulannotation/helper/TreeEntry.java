@@ -1,8 +1,13 @@
 package top.xiajibagao.powerfulannotation.helper;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * 允许拥有一个父节点与多个子节点的{@link Map.Entry}实现，
@@ -87,6 +92,51 @@ public interface TreeEntry<K, V> extends Map.Entry<K, V> {
 		return Objects.nonNull(getParent(key));
 	}
 
+	/**
+	 * 获取以当前节点作为叶子节点的树结构，然后从当前节点开始向上遍历父节点，
+	 * 并返回第一个满足条件的节点，找到后即终止遍历
+	 *
+	 * @param includeSelf 是否处理当前节点
+	 * @param predicate   判断条件
+	 * @return 节点，若不存在满足条件的节点则返回null
+	 */
+	default TreeEntry<K, V> findParent(boolean includeSelf, Predicate<TreeEntry<K, V>> predicate) {
+		TreeEntry<K, V> curr = includeSelf ? this : getDeclaredParent();
+		while (Objects.nonNull(curr)) {
+			if (predicate.test(curr)) {
+				return curr;
+			}
+			curr = curr.getDeclaredParent();
+		}
+		return null;
+	}
+
+	/**
+	 * 获取以当前节点作为叶子节点的树结构，然后获取从当前节点开始，依次向上访问父节点的迭代器
+	 *
+	 * @param includeSelf 是否包含当前节点
+	 * @return 迭代器
+	 */
+	default Iterator<TreeEntry<K, V>> parentIterator(boolean includeSelf) {
+		final TreeEntry<K, V> first = includeSelf ? this : getDeclaredParent();
+		return new Iterator<TreeEntry<K, V>>() {
+			private TreeEntry<K, V> next = first;
+			@Override
+			public boolean hasNext() {
+				return Objects.nonNull(next);
+			}
+			@Override
+			public TreeEntry<K, V> next() {
+				if (Objects.isNull(next)) {
+					throw new NoSuchElementException();
+				}
+				final TreeEntry<K, V> curr = next;
+				next = curr.getDeclaredParent();
+				return curr;
+			}
+		};
+	}
+
 	// ===================== 子节点相关方法 =====================
 
 	/**
@@ -98,14 +148,65 @@ public interface TreeEntry<K, V> extends Map.Entry<K, V> {
 	void forEachChild(boolean includeSelf, Consumer<TreeEntry<K, V>> nodeConsumer);
 
 	/**
-	 * 获取当前节点直接关联的子节点
+	 * 获取以当前节点作为根节点的树结构，然后按广度优先遍历子节点，
+	 * 并返回第一个满足条件的节点，找到后即终止遍历
+	 *
+	 * @param includeSelf 是否处理当前节点
+	 * @param predicate   判断条件
+	 * @return 节点，若不存在满足条件的节点则返回null
+	 */
+	default TreeEntry<K, V> findChild(boolean includeSelf, Predicate<TreeEntry<K, V>> predicate) {
+		final Iterator<TreeEntry<K, V>> iterator = childIterator(includeSelf);
+		while (iterator.hasNext()) {
+			final TreeEntry<K, V> child = iterator.next();
+			if (predicate.test(child)) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 获取以当前节点作为根节点的树结构，然后获取按广度优先访问该树结构中节点的迭代器。<br>
+	 * 默认基于{@link #getDeclaredChildren()}逐层访问子节点，实现类可以重写该方法以避免创建队列
+	 *
+	 * @param includeSelf 是否包含当前节点
+	 * @return 迭代器
+	 */
+	default Iterator<TreeEntry<K, V>> childIterator(boolean includeSelf) {
+		final Deque<TreeEntry<K, V>> queue = new ArrayDeque<>();
+		if (includeSelf) {
+			queue.addLast(this);
+		} else {
+			queue.addAll(getDeclaredChildren().values());
+		}
+		return new Iterator<TreeEntry<K, V>>() {
+			@Override
+			public boolean hasNext() {
+				return !queue.isEmpty();
+			}
+			@Override
+			public TreeEntry<K, V> next() {
+				if (queue.isEmpty()) {
+					throw new NoSuchElementException();
+				}
+				final TreeEntry<K, V> curr = queue.removeFirst();
+				queue.addAll(curr.getDeclaredChildren().values());
+				return curr;
+			}
+		};
+	}
+
+	/**
+	 * 获取当前节点直接关联的子节点，返回的集合为只读视图，其内容随节点关系的变化而变化
 	 *
 	 * @return 节点
 	 */
 	Map<K, TreeEntry<K, V>> getDeclaredChildren();
 
 	/**
-	 * 获取以当前节点作为根节点的树结构，然后获取该树结构中的当前节点的全部子节点
+	 * 获取以当前节点作为根节点的树结构，然后获取该树结构中的当前节点的全部子节点，
+	 * 返回的集合为只读视图，其内容随节点关系的变化而变化
 	 *
 	 * @return 节点
 	 */
@@ -0,0 +1,123 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热报告，记录{@link Annotations#warmUp}中各个阶段的耗时，以及预热失败的类
+ *
+ * @author huangchengxing
+ * @see Annotations#warmUp(Collection, java.util.concurrent.Executor)
+ */
+public class WarmUpReport {
+
+	/**
+	 * 各阶段耗时，单位为纳秒
+	 */
+	private final Map<Phase, Long> elapsedNanos = new EnumMap<>(Phase.class);
+
+	/**
+	 * 被预热的类数量
+	 */
+	private final int typeCount;
+
+	/**
+	 * 预热失败的类名
+	 */
+	private final Set<String> failedTypeNames;
+
+	WarmUpReport(int typeCount, Set<String> failedTypeNames) {
+		this.typeCount = typeCount;
+		this.failedTypeNames = Collections.unmodifiableSet(failedTypeNames);
+	}
+
+	/**
+	 * 记录阶段耗时
+	 */
+	void record(Phase phase, long nanos) {
+		elapsedNanos.put(phase, nanos);
+	}
+
+	/**
+	 * 获取被预热的类数量，不包括无法加载的类
+	 *
+	 * @return 类数量
+	 */
+	public int getTypeCount() {
+		return typeCount;
+	}
+
+	/**
+	 * 获取无法加载或预热过程中出现异常的类名
+	 *
+	 * @return 类名
+	 */
+	public Set<String> getFailedTypeNames() {
+		return failedTypeNames;
+	}
+
+	/**
+	 * 获取阶段耗时
+	 *
+	 * @param phase 阶段
+	 * @param unit 时间单位
+	 * @return 耗时，若该阶段未执行则返回0
+	 */
+	public long getElapsed(Phase phase, TimeUnit unit) {
+		return unit.convert(elapsedNanos.getOrDefault(phase, 0L), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 获取全部阶段的总耗时
+	 *
+	 * @param unit 时间单位
+	 * @return 耗时
+	 */
+	public long getTotalElapsed(TimeUnit unit) {
+		long total = 0;
+		for (Long nanos : elapsedNanos.values()) {
+			total += nanos;
+		}
+		return unit.convert(total, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(", ", "WarmUpReport{", "}");
+		joiner.add("types=" + typeCount).add("failed=" + failedTypeNames.size());
+		for (Phase phase : Phase.values()) {
+			joiner.add(phase.name().toLowerCase() + "=" + getElapsed(phase, TimeUnit.MILLISECONDS) + "ms");
+		}
+		return joiner.toString();
+	}
+
+	/**
+	 * 预热阶段，各阶段按声明顺序依次执行，同一阶段内的类将被并行处理
+	 *
+	 * @author huangchengxing
+	 */
+	public enum Phase {
+
+		/**
+		 * 获取类及其方法、属性上直接声明的注解
+		 */
+		DECLARED_ANNOTATIONS,
+
+		/**
+		 * 获取并缓存类中声明的方法，属性不经过缓存，因此不在该阶段中处理
+		 */
+		MEMBERS,
+
+		/**
+		 * 扫描类及其方法、属性的层级结构与元注解
+		 */
+		HIERARCHY,
+
+		/**
+		 * 解析扫描到的注解类的元数据，以及其属性方法上的{@link top.xiajibagao.powerfulannotation.synthesis.Link}注解
+		 */
+		SYNTHESIS
+
+	}
+
+}
@@ -0,0 +1,114 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * <p>判断元素的层级结构中是否确定不存在任何注解，并按层级结构的起点类缓存判断结果。<br />
+ * 结果按是否检查成员、是否检查父接口以及类型过滤器分别缓存，过滤器按引用比较。
+ * 命中缓存时无需遍历层级结构，也不会创建任何对象。
+ * 每种组合最多缓存{@link #MAX_CACHED_FILTERS}个过滤器，超出后将直接遍历层级结构且不缓存结果。
+ *
+ * <p>缓存的结果仅在判断依据不变时有效，因此仅适用于{@link AnnotationIndex}与{@link AnnotationSnapshot}这类创建后即不可变的数据源。
+ *
+ * @author huangchengxing
+ * @see AnnotationIndex#isAbsent(AnnotatedElement, boolean, Predicate)
+ * @see AnnotationSnapshot#isAbsent(AnnotatedElement, boolean, Predicate)
+ */
+class AbsenceVerdicts {
+
+	/**
+	 * 每种组合最多缓存的过滤器数量
+	 */
+	private static final int MAX_CACHED_FILTERS = 8;
+
+	/**
+	 * 类是否可能存在注解，第二个参数表示是否需要检查成员，无法确定时应返回{@code true}
+	 */
+	private final BiPredicate<Class<?>, Boolean> mayAnnotated;
+
+	/**
+	 * 以起点类为键的判断结果，数组下标由是否检查成员与是否检查父接口决定
+	 */
+	private final ClassValue<Map<Predicate<Class<?>>, Boolean>[]> verdicts = new ClassValue<Map<Predicate<Class<?>>, Boolean>[]>() {
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		@Override
+		protected Map<Predicate<Class<?>>, Boolean>[] computeValue(Class<?> type) {
+			Map<Predicate<Class<?>>, Boolean>[] results = new Map[4];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = new ConcurrentHashMap<>(4);
+			}
+			return results;
+		}
+	};
+
+	AbsenceVerdicts(BiPredicate<Class<?>, Boolean> mayAnnotated) {
+		this.mayAnnotated = mayAnnotated;
+	}
+
+	/**
+	 * 判断元素的层级结构中是否确定不存在任何注解
+	 *
+	 * @param element 元素
+	 * @param includeInterfaces 是否检查父接口
+	 * @param typeFilter 类型过滤器
+	 * @return 是否
+	 */
+	boolean isAbsent(AnnotatedElement element, boolean includeInterfaces, Predicate<Class<?>> typeFilter) {
+		Class<?> source;
+		boolean includeMembers;
+		if (element instanceof Class && !((Class<?>)element).isAnnotation()) {
+			source = (Class<?>)element;
+			includeMembers = false;
+		} else if (element instanceof Method || element instanceof Field) {
+			source = ((Member)element).getDeclaringClass();
+			includeMembers = true;
+		} else {
+			return false;
+		}
+		Map<Predicate<Class<?>>, Boolean> cached = verdicts.get(source)[(includeMembers ? 2 : 0) | (includeInterfaces ? 1 : 0)];
+		Boolean verdict = cached.get(typeFilter);
+		if (Objects.nonNull(verdict)) {
+			return verdict;
+		}
+		boolean absent = isHierarchyAbsent(source, includeMembers, includeInterfaces, typeFilter);
+		if (cached.size() < MAX_CACHED_FILTERS) {
+			cached.putIfAbsent(typeFilter, absent);
+		}
+		return absent;
+	}
+
+	/**
+	 * 遍历起点类的层级结构，判断其中是否确定不存在任何注解
+	 */
+	private boolean isHierarchyAbsent(
+		Class<?> source, boolean includeMembers, boolean includeInterfaces, Predicate<Class<?>> typeFilter) {
+		Set<Class<?>> accessed = new HashSet<>();
+		Deque<Class<?>> queue = CollUtils.newLinkedList(source);
+		while (!queue.isEmpty()) {
+			Class<?> type = queue.removeFirst();
+			if (!accessed.add(type)) {
+				continue;
+			}
+			if (typeFilter.test(type) && mayAnnotated.test(type, includeMembers)) {
+				return false;
+			}
+			if (Objects.nonNull(type.getSuperclass())) {
+				queue.addLast(type.getSuperclass());
+			}
+			if (includeInterfaces) {
+				CollUtils.addAll(queue, type.getInterfaces());
+			}
+		}
+		return true;
+	}
+
+}
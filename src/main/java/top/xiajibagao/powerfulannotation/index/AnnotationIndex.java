@@ -0,0 +1,426 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * <p>注解索引，用于读取由编译期注解处理器生成的索引文件{@value #INDEX_LOCATION}。<br />
+ * 索引记录了被编译的类及其方法、属性上直接声明的运行时注解，以及这些注解的元注解，
+ * 基于此，可以在不加载类的情况下回答以下问题：
+ * <ul>
+ *     <li>哪些元素上直接或通过元注解间接的存在某个注解，见{@link #getAnnotatedElements(Class)}；</li>
+ *     <li>某个元素的层级结构中是否确定不存在任何注解，见{@link #isAbsent(AnnotatedElement, boolean, Predicate)}；</li>
+ * </ul>
+ * 索引只对已被索引的类作出判断，对于未被索引的类——比如来自未使用注解处理器编译的依赖——皆视为“状态未知”。
+ *
+ * <p>默认索引按类加载器区分，{@link #getDefault(ClassLoader)}将在首次使用时从该类加载器可见的类路径下加载并合并全部索引文件，
+ * 若系统属性{@value #IGNORE_PROPERTY}为{@code true}，或加载索引文件时出现异常，则默认索引为空。
+ *
+ * @author huangchengxing
+ */
+public class AnnotationIndex {
+
+	/**
+	 * 索引文件路径
+	 */
+	public static final String INDEX_LOCATION = "META-INF/powerful-annotation/annotation.idx";
+
+	/**
+	 * 索引文件版本头
+	 */
+	public static final String INDEX_HEADER = "#powerful-annotation-index:1";
+
+	/**
+	 * 用于禁用默认索引的系统属性
+	 */
+	public static final String IGNORE_PROPERTY = "powerful-annotation.index.ignore";
+
+	/**
+	 * 类加载器与其对应的默认索引，索引中仅包含字符串，不会引用类加载器
+	 */
+	private static final Map<ClassLoader, AnnotationIndex> DEFAULT_INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * 类与加载该类的类加载器对应的默认索引，用于在扫描时免于竞争{@link #DEFAULT_INDEXES}的锁
+	 */
+	private static final ClassValue<AnnotationIndex> DEFAULT_INDEXES_OF_TYPE = new ClassValue<AnnotationIndex>() {
+		@Override
+		protected AnnotationIndex computeValue(Class<?> type) {
+			return getDefault(type.getClassLoader());
+		}
+	};
+
+	/**
+	 * 空索引
+	 */
+	private static final AnnotationIndex EMPTY = new AnnotationIndex();
+
+	/**
+	 * 基本类型
+	 */
+	private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>(16);
+
+	static {
+		for (Class<?> type : new Class<?>[]{
+			boolean.class, byte.class, char.class, short.class,
+			int.class, long.class, float.class, double.class
+		}) {
+			PRIMITIVE_TYPES.put(type.getName(), type);
+		}
+	}
+
+	/**
+	 * 已索引的类
+	 */
+	private final Set<String> types = new HashSet<>();
+
+	/**
+	 * 元素与其直接声明的注解
+	 */
+	private final Map<String, Set<String>> elements = new LinkedHashMap<>();
+
+	/**
+	 * 注解类与其直接声明的元注解
+	 */
+	private final Map<String, Set<String>> metaAnnotations = new HashMap<>();
+
+	/**
+	 * 本身声明了注解的类
+	 */
+	private final Set<String> annotatedTypes = new HashSet<>();
+
+	/**
+	 * 本身或成员声明了注解的类
+	 */
+	private final Set<String> annotatedOwnerTypes = new HashSet<>();
+
+	/**
+	 * 注解类与直接或间接存在该注解的元素
+	 */
+	private final Map<String, Set<String>> annotatedElements = new HashMap<>();
+
+	/**
+	 * 已缓存的层级结构判断结果
+	 */
+	private final AbsenceVerdicts absenceVerdicts = new AbsenceVerdicts((type, includeMembers) -> {
+		if (!types.contains(type.getName())) {
+			return true;
+		}
+		Set<String> annotated = includeMembers ? annotatedOwnerTypes : annotatedTypes;
+		return annotated.contains(type.getName());
+	});
+
+	private AnnotationIndex() {
+	}
+
+	// ======================== 创建 ========================
+
+	/**
+	 * 获取当前线程上下文类加载器对应的默认索引，若上下文类加载器为空，则使用加载本类的类加载器
+	 *
+	 * @return 默认索引
+	 */
+	public static AnnotationIndex getDefault() {
+		return getDefault(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * 获取类加载器对应的默认索引，索引在首次获取时加载，此后将被缓存，且不会阻止类加载器被回收
+	 *
+	 * @param classLoader 类加载器，若为空则使用加载本类的类加载器
+	 * @return 默认索引
+	 */
+	public static AnnotationIndex getDefault(ClassLoader classLoader) {
+		ClassLoader actual = Objects.isNull(classLoader) ? AnnotationIndex.class.getClassLoader() : classLoader;
+		if (Objects.isNull(actual)) {
+			return EMPTY;
+		}
+		AnnotationIndex index = DEFAULT_INDEXES.get(actual);
+		if (Objects.isNull(index)) {
+			index = loadDefault(actual);
+			AnnotationIndex existing = DEFAULT_INDEXES.putIfAbsent(actual, index);
+			index = Objects.isNull(existing) ? index : existing;
+		}
+		return index;
+	}
+
+	/**
+	 * 获取加载元素所属的类的类加载器对应的默认索引，若元素不为类或类成员，则返回{@link #getDefault()}
+	 *
+	 * @param element 元素
+	 * @return 默认索引
+	 */
+	public static AnnotationIndex getDefaultOf(AnnotatedElement element) {
+		if (element instanceof Class) {
+			return DEFAULT_INDEXES_OF_TYPE.get((Class<?>)element);
+		}
+		if (element instanceof Member) {
+			return DEFAULT_INDEXES_OF_TYPE.get(((Member)element).getDeclaringClass());
+		}
+		return getDefault();
+	}
+
+	/**
+	 * 获取一个空索引
+	 *
+	 * @return 空索引
+	 */
+	public static AnnotationIndex empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * 从类加载器中加载并合并全部索引文件
+	 *
+	 * @param classLoader 类加载器
+	 * @return 注解索引
+	 * @throws IOException 读取索引文件时抛出
+	 */
+	public static AnnotationIndex load(ClassLoader classLoader) throws IOException {
+		Assert.notNull(classLoader, "classLoader must not null");
+		AnnotationIndex index = new AnnotationIndex();
+		Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+		while (resources.hasMoreElements()) {
+			try (Reader reader = new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8)) {
+				index.read(reader);
+			}
+		}
+		return index.complete();
+	}
+
+	/**
+	 * 读取并合并索引内容
+	 *
+	 * @param readers 索引内容
+	 * @return 注解索引
+	 * @throws IOException 读取索引内容时抛出
+	 */
+	public static AnnotationIndex read(Reader... readers) throws IOException {
+		AnnotationIndex index = new AnnotationIndex();
+		for (Reader reader : readers) {
+			index.read(reader);
+		}
+		return index.complete();
+	}
+
+	/**
+	 * 读取索引内容，若版本头不匹配则忽略该内容
+	 */
+	private void read(Reader reader) throws IOException {
+		BufferedReader bufferedReader = new BufferedReader(reader);
+		if (!INDEX_HEADER.equals(bufferedReader.readLine())) {
+			return;
+		}
+		String line;
+		while (Objects.nonNull(line = bufferedReader.readLine())) {
+			String[] items = line.split(" ");
+			if (items.length < 2) {
+				continue;
+			}
+			switch (items[0]) {
+				case "T":
+					types.add(items[1]);
+					break;
+				case "E":
+					CollUtils.addAll(elements.computeIfAbsent(items[1], k -> new LinkedHashSet<>()), Arrays.copyOfRange(items, 2, items.length));
+					break;
+				case "M":
+					CollUtils.addAll(metaAnnotations.computeIfAbsent(items[1], k -> new LinkedHashSet<>()), Arrays.copyOfRange(items, 2, items.length));
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * 完成读取，根据元素与注解的关系构建反向索引
+	 */
+	private AnnotationIndex complete() {
+		elements.forEach((element, annotationTypes) -> {
+			int separator = element.indexOf('#');
+			if (separator < 0) {
+				annotatedTypes.add(element);
+				annotatedOwnerTypes.add(element);
+			} else {
+				annotatedOwnerTypes.add(element.substring(0, separator));
+			}
+			annotationTypes.forEach(annotationType -> {
+				annotatedElements.computeIfAbsent(annotationType, k -> new LinkedHashSet<>()).add(element);
+				getMetaAnnotationTypes(annotationType).forEach(
+					metaType -> annotatedElements.computeIfAbsent(metaType, k -> new LinkedHashSet<>()).add(element)
+				);
+			});
+		});
+		return this;
+	}
+
+	// ======================== 查询 ========================
+
+	/**
+	 * 索引是否为空
+	 *
+	 * @return 是否
+	 */
+	public boolean isEmpty() {
+		return types.isEmpty();
+	}
+
+	/**
+	 * 类是否已被索引
+	 *
+	 * @param type 类
+	 * @return 是否
+	 */
+	public boolean isIndexed(Class<?> type) {
+		return Objects.nonNull(type) && types.contains(type.getName());
+	}
+
+	/**
+	 * 获取元素上直接声明的注解类名
+	 *
+	 * @param element 元素描述符
+	 * @return 注解类名
+	 */
+	public Set<String> getDeclaredAnnotationTypes(String element) {
+		return Collections.unmodifiableSet(elements.getOrDefault(element, Collections.emptySet()));
+	}
+
+	/**
+	 * 获取注解类的全部元注解类名，不包括其本身
+	 *
+	 * @param annotationType 注解类名
+	 * @return 元注解类名
+	 */
+	public Set<String> getMetaAnnotationTypes(String annotationType) {
+		Set<String> accessed = new LinkedHashSet<>();
+		Deque<String> queue = CollUtils.newLinkedList(annotationType);
+		while (!queue.isEmpty()) {
+			for (String metaType : metaAnnotations.getOrDefault(queue.removeFirst(), Collections.emptySet())) {
+				if (accessed.add(metaType)) {
+					queue.addLast(metaType);
+				}
+			}
+		}
+		accessed.remove(annotationType);
+		return accessed;
+	}
+
+	/**
+	 * 获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的元素描述符
+	 *
+	 * @param annotationType 注解类型
+	 * @return 元素描述符
+	 */
+	public Set<String> getAnnotatedElements(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		return Collections.unmodifiableSet(annotatedElements.getOrDefault(annotationType.getName(), Collections.emptySet()));
+	}
+
+	/**
+	 * 获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的元素，
+	 * 无法从类加载器中加载的元素将被忽略
+	 *
+	 * @param annotationType 注解类型
+	 * @param classLoader 类加载器
+	 * @return 元素
+	 */
+	public List<AnnotatedElement> resolveAnnotatedElements(Class<? extends Annotation> annotationType, ClassLoader classLoader) {
+		List<AnnotatedElement> results = new ArrayList<>();
+		for (String element : getAnnotatedElements(annotationType)) {
+			AnnotatedElement resolved = resolveElement(element, classLoader);
+			if (Objects.nonNull(resolved)) {
+				results.add(resolved);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * <p>判断元素的层级结构中是否确定不存在任何注解。<br />
+	 * 当元素为非注解类时，层级结构中的类需要本身未声明注解，当元素为方法或属性时，层级结构中的类需要本身及成员皆未声明注解。
+	 * 由于{@link java.lang.annotation.Inherited}的存在，父类总是会被检查，而父接口仅在{@code includeInterfaces}为{@code true}时被检查。
+	 * 层级结构中的类若无法通过过滤器，则认为其不会被扫描，否则若其未被索引，则认为无法确定，返回{@code false}。<br />
+	 * 判断结果按类与过滤器缓存，因此过滤器应当是可复用的同一实例。
+	 *
+	 * @param element 元素
+	 * @param includeInterfaces 是否检查父接口
+	 * @param typeFilter 类型过滤器
+	 * @return 是否
+	 */
+	public boolean isAbsent(AnnotatedElement element, boolean includeInterfaces, Predicate<Class<?>> typeFilter) {
+		if (isEmpty()) {
+			return false;
+		}
+		return absenceVerdicts.isAbsent(element, includeInterfaces, typeFilter);
+	}
+
+	// ======================== 解析元素 ========================
+
+	/**
+	 * 根据描述符解析元素，若无法解析则返回{@code null}
+	 */
+	static AnnotatedElement resolveElement(String element, ClassLoader classLoader) {
+		try {
+			int separator = element.indexOf('#');
+			if (separator < 0) {
+				return Class.forName(element, false, classLoader);
+			}
+			Class<?> owner = Class.forName(element.substring(0, separator), false, classLoader);
+			int paramsStart = element.indexOf('(', separator);
+			if (paramsStart < 0) {
+				return owner.getDeclaredField(element.substring(separator + 1));
+			}
+			String params = element.substring(paramsStart + 1, element.length() - 1);
+			List<Class<?>> paramTypes = new ArrayList<>();
+			if (!params.isEmpty()) {
+				for (String paramType : params.split(",")) {
+					paramTypes.add(resolveType(paramType, classLoader));
+				}
+			}
+			return owner.getDeclaredMethod(element.substring(separator + 1, paramsStart), paramTypes.toArray(new Class<?>[0]));
+		} catch (ClassNotFoundException | NoSuchFieldException | NoSuchMethodException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 根据类名解析类型
+	 */
+	private static Class<?> resolveType(String typeName, ClassLoader classLoader) throws ClassNotFoundException {
+		if (typeName.endsWith("[]")) {
+			Class<?> componentType = resolveType(typeName.substring(0, typeName.length() - 2), classLoader);
+			return Array.newInstance(componentType, 0).getClass();
+		}
+		Class<?> primitiveType = PRIMITIVE_TYPES.get(typeName);
+		return Objects.nonNull(primitiveType) ? primitiveType : Class.forName(typeName, false, classLoader);
+	}
+
+	/**
+	 * 加载类加载器对应的默认索引
+	 */
+	private static AnnotationIndex loadDefault(ClassLoader classLoader) {
+		if (Boolean.getBoolean(IGNORE_PROPERTY)) {
+			return EMPTY;
+		}
+		try {
+			return load(classLoader);
+		} catch (IOException e) {
+			return EMPTY;
+		}
+	}
+
+}
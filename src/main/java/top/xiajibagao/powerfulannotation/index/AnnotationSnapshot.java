@@ -0,0 +1,382 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.zip.CRC32;
+
+/**
+ * <p>注解缓存快照，用于将运行期通过反射获得的注解信息持久化，使应用重启后无需再次通过反射获取。<br />
+ * 快照以类为单位，记录类本身是否声明了注解，以及类本身或其方法、属性是否声明了注解，
+ * 每条记录皆以类名与类文件的CRC32指纹作为键。<br />
+ * 元注解的层级结构由{@link top.xiajibagao.powerfulannotation.scanner.MetaAnnotationGraph}按需通过反射构建，
+ * 校验其中每个注解类的指纹的开销并不低于直接构建，因此快照不记录元注解。
+ * 快照文件由{@link #write(Collection, Path)}写出，并通过{@link #open(Path)}以内存映射的方式打开。
+ * 打开时不会校验任何记录，记录将在首次被访问时，通过重新计算类文件的指纹进行校验，若指纹不一致则视为未记录。
+ *
+ * <p>注意，计算指纹需要通过类加载器重新读取完整的类文件，其开销与直接通过反射获取注解相近。
+ * 快照节省的是后续的扫描：每个类在每个快照中只校验一次，此后对该类及其成员的全部扫描皆可直接通过快照判断。
+ * 因此快照适用于同一批类被反复扫描的场景，对于仅扫描一次的类并不能带来收益。
+ *
+ * <p>快照文件结构与{@link MappedAnnotationIndex}类似，所有整数皆为大端序：
+ * <pre>
+ * header:  magic, version, stringCount, entryCount, entriesOffset
+ * strings: int[stringCount] 字符串的绝对偏移量，每个字符串由 int 长度与 UTF-8 字节组成
+ * entries: entryCount 个 (类名的字符串序号, long 指纹, 标志位)，按类名的 UTF-8 字节升序排列
+ * </pre>
+ *
+ * <p>通过{@link #setDefault(AnnotationSnapshot)}设置默认快照后，
+ * {@link top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode}将通过快照跳过确定不存在注解的扫描。
+ *
+ * @author huangchengxing
+ * @see AnnotationIndex
+ */
+public class AnnotationSnapshot {
+
+	/**
+	 * 魔数，即<em>PASN</em>
+	 */
+	static final int MAGIC = 0x5041534E;
+
+	/**
+	 * 版本号
+	 */
+	static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 20;
+	private static final int ENTRY_SIZE = 16;
+
+	/**
+	 * 类本身声明了注解
+	 */
+	private static final int TYPE_ANNOTATED = 1;
+
+	/**
+	 * 类本身或其成员声明了注解
+	 */
+	private static final int OWNER_ANNOTATED = 1 << 1;
+
+	/**
+	 * 空快照
+	 */
+	private static final AnnotationSnapshot EMPTY = new AnnotationSnapshot(ByteBuffer.wrap(toBytes(Collections.emptyList())));
+
+	/**
+	 * 默认快照
+	 */
+	private static volatile AnnotationSnapshot defaultSnapshot = EMPTY;
+
+	/**
+	 * 映射的快照文件
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * 记录数量
+	 */
+	private final int entryCount;
+
+	/**
+	 * 字符串偏移量表的起始位置
+	 */
+	private final int stringTableOffset;
+
+	/**
+	 * 记录表的起始位置
+	 */
+	private final int entryTableOffset;
+
+	/**
+	 * 已校验的记录，若记录不存在或已失效则为-1。<br />
+	 * 校验结果按{@link Class}而非类名缓存，因此由不同类加载器加载的同名类将分别校验。
+	 */
+	private final ClassValue<Integer> validatedEntries = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			int entry = findEntry(type.getName());
+			if (entry < 0) {
+				return -1;
+			}
+			long fingerprint = getFingerprint(type);
+			return fingerprint >= 0 && fingerprint == buffer.getLong(entry + 4) ? entry : -1;
+		}
+	};
+
+	/**
+	 * 已缓存的层级结构判断结果
+	 */
+	private final AbsenceVerdicts absenceVerdicts = new AbsenceVerdicts(this::mayAnnotated);
+
+	AnnotationSnapshot(ByteBuffer buffer) {
+		Assert.isTrue(buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC, "buffer is not a annotation snapshot");
+		Assert.isTrue(buffer.getInt(4) == VERSION, "unsupported annotation snapshot version [%s]", buffer.getInt(4));
+		this.buffer = buffer;
+		this.entryCount = buffer.getInt(12);
+		this.stringTableOffset = HEADER_SIZE;
+		this.entryTableOffset = buffer.getInt(16);
+	}
+
+	// ======================== 创建 ========================
+
+	/**
+	 * 获取默认快照，若未设置则返回空快照
+	 *
+	 * @return 默认快照
+	 */
+	public static AnnotationSnapshot getDefault() {
+		return defaultSnapshot;
+	}
+
+	/**
+	 * 设置默认快照
+	 *
+	 * @param snapshot 快照，若为{@code null}则重置为空快照
+	 */
+	public static void setDefault(AnnotationSnapshot snapshot) {
+		defaultSnapshot = Objects.isNull(snapshot) ? EMPTY : snapshot;
+	}
+
+	/**
+	 * 获取一个空快照
+	 *
+	 * @return 空快照
+	 */
+	public static AnnotationSnapshot empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * 以内存映射的方式打开快照文件
+	 *
+	 * @param snapshotFile 快照文件
+	 * @return 快照
+	 * @throws IOException 打开文件时抛出
+	 * @throws IllegalArgumentException 当文件不是合法的快照文件时抛出
+	 */
+	public static AnnotationSnapshot open(Path snapshotFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new AnnotationSnapshot(buffer);
+		}
+	}
+
+	// ======================== 查询 ========================
+
+	/**
+	 * 获取快照中的记录数量，包括已失效的记录
+	 *
+	 * @return 记录数量
+	 */
+	public int size() {
+		return entryCount;
+	}
+
+	/**
+	 * 快照中是否存在该类的有效记录
+	 *
+	 * @param type 类
+	 * @return 是否
+	 */
+	public boolean isCaptured(Class<?> type) {
+		return Objects.nonNull(type) && getValidEntry(type) >= 0;
+	}
+
+	/**
+	 * 判断元素的层级结构中是否确定不存在任何注解，判断规则与{@link AnnotationIndex#isAbsent}一致，
+	 * 层级结构中的类若无有效记录，则认为无法确定，返回{@code false}。判断结果按类与过滤器缓存。
+	 *
+	 * @param element 元素
+	 * @param includeInterfaces 是否检查父接口
+	 * @param typeFilter 类型过滤器
+	 * @return 是否
+	 */
+	public boolean isAbsent(AnnotatedElement element, boolean includeInterfaces, Predicate<Class<?>> typeFilter) {
+		if (entryCount == 0) {
+			return false;
+		}
+		return absenceVerdicts.isAbsent(element, includeInterfaces, typeFilter);
+	}
+
+	/**
+	 * 类是否可能存在注解，若类无有效记录则无法确定
+	 */
+	private boolean mayAnnotated(Class<?> type, boolean includeMembers) {
+		int entry = getValidEntry(type);
+		if (entry < 0) {
+			return true;
+		}
+		int flags = buffer.getInt(entry + 12);
+		return (flags & (includeMembers ? OWNER_ANNOTATED : TYPE_ANNOTATED)) != 0;
+	}
+
+	/**
+	 * 获取类的有效记录，首次访问时将校验类文件的指纹，若记录不存在或已失效则返回-1
+	 */
+	private int getValidEntry(Class<?> type) {
+		return validatedEntries.get(type);
+	}
+
+	/**
+	 * 二分查找类名对应的记录，若不存在则返回-1
+	 */
+	private int findEntry(String className) {
+		byte[] key = className.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = entryCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int entry = entryTableOffset + mid * ENTRY_SIZE;
+			int compared = MappedAnnotationIndex.compareString(buffer, stringTableOffset, buffer.getInt(entry), key);
+			if (compared < 0) {
+				low = mid + 1;
+			} else if (compared > 0) {
+				high = mid - 1;
+			} else {
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	// ======================== 写出 ========================
+
+	/**
+	 * 记录指定类及其层级结构中的类，以及这些类上的注解类，并写出为快照文件。
+	 * 无法获取类文件的类——比如由启动类加载器加载的类或运行时生成的类——不会被记录。<br />
+	 * 若文件已存在，则将以原子替换的方式覆盖，已通过{@link #open(Path)}打开的快照仍可读取旧的内容。
+	 *
+	 * @param types 类
+	 * @param snapshotFile 快照文件
+	 * @throws IOException 写出文件时抛出
+	 */
+	public static void write(Collection<Class<?>> types, Path snapshotFile) throws IOException {
+		Assert.notNull(types, "types must not null");
+		MappedAnnotationIndex.writeAtomically(snapshotFile, toBytes(types));
+	}
+
+	/**
+	 * 记录指定类并序列化为快照
+	 */
+	static byte[] toBytes(Collection<Class<?>> types) {
+		return toBytes(types, AnnotationSnapshot::getFingerprint, AnnotationSnapshot::getFlags);
+	}
+
+	/**
+	 * 记录指定类并序列化为快照，指纹与标志位由指定的函数计算，指纹小于0的类不会被记录
+	 */
+	static byte[] toBytes(
+		Collection<Class<?>> types, ToLongFunction<Class<?>> fingerprintFunction, ToIntFunction<Class<?>> flagsFunction) {
+		// 收集类及其层级结构与注解类
+		List<Class<?>> sortedTypes = new ArrayList<>();
+		Map<Class<?>, Long> fingerprints = new HashMap<>();
+		Deque<Class<?>> queue = new ArrayDeque<>(types);
+		while (!queue.isEmpty()) {
+			Class<?> type = queue.removeFirst();
+			if (fingerprints.containsKey(type)) {
+				continue;
+			}
+			long fingerprint = fingerprintFunction.applyAsLong(type);
+			fingerprints.put(type, fingerprint);
+			if (fingerprint < 0) {
+				continue;
+			}
+			sortedTypes.add(type);
+			if (Objects.nonNull(type.getSuperclass())) {
+				queue.addLast(type.getSuperclass());
+			}
+			CollUtils.addAll(queue, type.getInterfaces());
+			for (Annotation annotation : type.getDeclaredAnnotations()) {
+				queue.addLast(annotation.annotationType());
+			}
+		}
+
+		// 按UTF-8字节序排序类名，保证查询时可以直接比较字节
+		sortedTypes.sort((t1, t2) -> MappedAnnotationIndex.compareBytes(
+			t1.getName().getBytes(StandardCharsets.UTF_8), t2.getName().getBytes(StandardCharsets.UTF_8)
+		));
+		Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+		List<byte[]> strings = new ArrayList<>();
+		for (Class<?> type : sortedTypes) {
+			MappedAnnotationIndex.addString(stringIndexes, strings, type.getName());
+		}
+		int stringTableSize = MappedAnnotationIndex.getStringTableSize(strings);
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + stringTableSize + sortedTypes.size() * ENTRY_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(sortedTypes.size())
+			.putInt(HEADER_SIZE + stringTableSize);
+		MappedAnnotationIndex.putStringTable(buffer, strings);
+		for (Class<?> type : sortedTypes) {
+			buffer.putInt(stringIndexes.get(type.getName()))
+				.putLong(fingerprints.get(type))
+				.putInt(flagsFunction.applyAsInt(type));
+		}
+		return buffer.array();
+	}
+
+	private static int getFlags(Class<?> type) {
+		int flags = 0;
+		if (type.getDeclaredAnnotations().length > 0) {
+			flags |= TYPE_ANNOTATED | OWNER_ANNOTATED;
+		}
+		if ((flags & OWNER_ANNOTATED) == 0 && isMemberAnnotated(type)) {
+			flags |= OWNER_ANNOTATED;
+		}
+		return flags;
+	}
+
+	private static boolean isMemberAnnotated(Class<?> type) {
+		for (Field field : type.getDeclaredFields()) {
+			if (field.getDeclaredAnnotations().length > 0) {
+				return true;
+			}
+		}
+		for (Method method : type.getDeclaredMethods()) {
+			if (method.getDeclaredAnnotations().length > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 计算类文件的CRC32指纹，若无法获取类文件则返回-1。<br />
+	 * 该方法将读取完整的类文件，调用方应缓存其结果。
+	 */
+	static long getFingerprint(Class<?> type) {
+		ClassLoader classLoader = type.getClassLoader();
+		if (Objects.isNull(classLoader) || type.isArray() || type.isPrimitive()) {
+			return -1;
+		}
+		try (InputStream inputStream = classLoader.getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+			if (Objects.isNull(inputStream)) {
+				return -1;
+			}
+			CRC32 crc32 = new CRC32();
+			byte[] bytes = new byte[4096];
+			int length;
+			while ((length = inputStream.read(bytes)) > 0) {
+				crc32.update(bytes, 0, length);
+			}
+			return crc32.getValue();
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,296 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.scanner.classfile.AnnotationDescriptor;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata.MemberMetadata;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>类路径索引器，用于在构建期或应用首次启动时遍历目录与jar包中的类文件，并生成{@link MappedAnnotationIndex}。<br />
+ * 索引器通过{@link ClassFileReader}解析类文件，因此不会加载任何类，
+ * 类文件的读取与解析将被拆分为{@link RecursiveTask}并在{@link ForkJoinPool}中并行执行。
+ *
+ * <p>解析完成后，索引器将计算每个注解类的元注解闭包，
+ * 并将元素同时记录到其直接声明的注解，以及这些注解的全部元注解下。
+ * 若注解类不在被索引的目录或jar包中，则会尝试从构造时指定的类加载器中读取其类文件，
+ * 若仍无法读取，则该注解只记录其本身。{@link java.lang.annotation}包下的元注解不会被记录。
+ *
+ * @author huangchengxing
+ * @see MappedAnnotationIndex
+ */
+public class ClasspathIndexer {
+
+	/**
+	 * 单个任务至多处理的类文件数量
+	 */
+	private static final int THRESHOLD = 64;
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+	private static final String IGNORED_META_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+	/**
+	 * 执行任务的线程池
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * 用于读取不在索引范围内的注解类的类加载器
+	 */
+	private final ClassLoader classLoader;
+
+	/**
+	 * 创建一个类路径索引器
+	 *
+	 * @param pool 执行任务的线程池
+	 * @param classLoader 用于读取不在索引范围内的注解类的类加载器
+	 */
+	public ClasspathIndexer(ForkJoinPool pool, ClassLoader classLoader) {
+		Assert.notNull(pool, "pool must not null");
+		Assert.notNull(classLoader, "classLoader must not null");
+		this.pool = pool;
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * 索引目录或jar包，并将结果写出为索引文件
+	 *
+	 * @param roots 目录或jar包
+	 * @param indexFile 索引文件
+	 * @throws IOException 读取类文件或写出索引文件时抛出
+	 */
+	public void index(Collection<Path> roots, Path indexFile) throws IOException {
+		MappedAnnotationIndex.write(index(roots), indexFile);
+	}
+
+	/**
+	 * 索引目录或jar包，获取注解类名与直接或间接声明了该注解的元素描述符
+	 *
+	 * @param roots 目录或jar包
+	 * @return 注解类名与元素描述符，元素描述符按字典序排列
+	 * @throws IOException 读取类文件时抛出
+	 */
+	public Map<String, List<String>> index(Collection<Path> roots) throws IOException {
+		Assert.notNull(roots, "roots must not null");
+		List<ZipFile> zipFiles = new ArrayList<>();
+		try {
+			List<ClassFileSource> sources = new ArrayList<>();
+			for (Path root : roots) {
+				collectSources(root, sources, zipFiles);
+			}
+			List<ClassFileMetadata> classes = pool.invoke(new ParseTask(sources, 0, sources.size()));
+			return buildIndex(classes);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			for (ZipFile zipFile : zipFiles) {
+				zipFile.close();
+			}
+		}
+	}
+
+	// ======================== 收集类文件 ========================
+
+	private static void collectSources(Path root, List<ClassFileSource> sources, List<ZipFile> zipFiles) throws IOException {
+		if (Files.isDirectory(root)) {
+			try (Stream<Path> paths = Files.walk(root)) {
+				paths.filter(path -> isClassFile(path.toString()) && Files.isRegularFile(path))
+					.forEach(path -> sources.add(() -> ClassFileReader.read(Files.readAllBytes(path))));
+			}
+			return;
+		}
+		if (!Files.isRegularFile(root)) {
+			return;
+		}
+		ZipFile zipFile = new ZipFile(root.toFile());
+		zipFiles.add(zipFile);
+		Enumeration<? extends ZipEntry> entries = zipFile.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			// 多版本jar包中的类文件与默认版本重复，故忽略
+			if (!entry.isDirectory() && isClassFile(entry.getName()) && !entry.getName().startsWith("META-INF/")) {
+				sources.add(() -> {
+					try (InputStream inputStream = zipFile.getInputStream(entry)) {
+						return ClassFileReader.read(inputStream);
+					}
+				});
+			}
+		}
+	}
+
+	private static boolean isClassFile(String name) {
+		return name.endsWith(CLASS_FILE_SUFFIX)
+			&& !name.endsWith("module-info" + CLASS_FILE_SUFFIX)
+			&& !name.endsWith("package-info" + CLASS_FILE_SUFFIX);
+	}
+
+	// ======================== 构建索引 ========================
+
+	private Map<String, List<String>> buildIndex(List<ClassFileMetadata> classes) {
+		Map<String, ClassFileMetadata> metadataMap = new HashMap<>(classes.size());
+		classes.forEach(metadata -> metadataMap.put(metadata.getClassName(), metadata));
+		Map<String, Set<String>> closures = new HashMap<>();
+		Map<String, Set<String>> index = new TreeMap<>();
+		for (ClassFileMetadata metadata : classes) {
+			String className = metadata.getClassName();
+			addElement(index, className, metadata.getAnnotations(), metadataMap, closures);
+			for (MemberMetadata field : metadata.getFields()) {
+				addElement(index, className + "#" + field.getName(), field.getAnnotations(), metadataMap, closures);
+			}
+			for (MemberMetadata method : metadata.getMethods()) {
+				if (method.isBridge() || method.getName().startsWith("<")) {
+					continue;
+				}
+				addElement(index, getMethodElement(className, method), method.getAnnotations(), metadataMap, closures);
+			}
+		}
+		Map<String, List<String>> results = new TreeMap<>();
+		index.forEach((annotationType, elements) -> results.put(annotationType, new ArrayList<>(elements)));
+		return results;
+	}
+
+	private void addElement(
+		Map<String, Set<String>> index, String element, List<AnnotationDescriptor> annotations,
+		Map<String, ClassFileMetadata> metadataMap, Map<String, Set<String>> closures) {
+		for (AnnotationDescriptor annotation : annotations) {
+			String annotationType = annotation.getTypeName();
+			index.computeIfAbsent(annotationType, k -> new TreeSet<>()).add(element);
+			for (String metaType : getMetaAnnotationClosure(annotationType, metadataMap, closures)) {
+				index.computeIfAbsent(metaType, k -> new TreeSet<>()).add(element);
+			}
+		}
+	}
+
+	/**
+	 * 获取注解类的元注解闭包，不包括其本身
+	 */
+	private Set<String> getMetaAnnotationClosure(
+		String annotationType, Map<String, ClassFileMetadata> metadataMap, Map<String, Set<String>> closures) {
+		Set<String> closure = closures.get(annotationType);
+		if (Objects.nonNull(closure)) {
+			return closure;
+		}
+		closure = new LinkedHashSet<>();
+		Deque<String> queue = new ArrayDeque<>();
+		queue.add(annotationType);
+		while (!queue.isEmpty()) {
+			ClassFileMetadata metadata = getAnnotationMetadata(queue.removeFirst(), metadataMap);
+			if (Objects.isNull(metadata)) {
+				continue;
+			}
+			for (AnnotationDescriptor meta : metadata.getAnnotations()) {
+				String metaType = meta.getTypeName();
+				if (!metaType.startsWith(IGNORED_META_ANNOTATION_PACKAGE) && closure.add(metaType)) {
+					queue.addLast(metaType);
+				}
+			}
+		}
+		closure.remove(annotationType);
+		closures.put(annotationType, closure);
+		return closure;
+	}
+
+	private ClassFileMetadata getAnnotationMetadata(String annotationType, Map<String, ClassFileMetadata> metadataMap) {
+		return metadataMap.computeIfAbsent(annotationType, name -> {
+			try (InputStream inputStream = classLoader.getResourceAsStream(name.replace('.', '/') + CLASS_FILE_SUFFIX)) {
+				return Objects.isNull(inputStream) ? null : ClassFileReader.read(inputStream);
+			} catch (IOException | IllegalArgumentException e) {
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * 获取与{@link AnnotationIndex}格式一致的方法描述符
+	 */
+	static String getMethodElement(String className, MemberMetadata method) {
+		String descriptor = method.getDescriptor();
+		StringJoiner joiner = new StringJoiner(",", className + "#" + method.getName() + "(", ")");
+		int index = 1;
+		while (descriptor.charAt(index) != ')') {
+			int start = index;
+			while (descriptor.charAt(index) == '[') {
+				index++;
+			}
+			int dimensions = index - start;
+			int end = descriptor.charAt(index) == 'L' ? descriptor.indexOf(';', index) + 1 : index + 1;
+			StringBuilder typeName = new StringBuilder(ClassFileReader.getTypeName(descriptor.substring(index, end)));
+			for (int i = 0; i < dimensions; i++) {
+				typeName.append("[]");
+			}
+			joiner.add(typeName);
+			index = end;
+		}
+		return joiner.toString();
+	}
+
+	// ======================== 任务 ========================
+
+	/**
+	 * 类文件来源
+	 */
+	@FunctionalInterface
+	private interface ClassFileSource {
+
+		/**
+		 * 读取并解析类文件
+		 */
+		ClassFileMetadata read() throws IOException;
+
+	}
+
+	/**
+	 * 读取并解析类文件的任务，当待处理的类文件超过{@link #THRESHOLD}时将被拆分
+	 */
+	private static class ParseTask extends RecursiveTask<List<ClassFileMetadata>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<ClassFileSource> sources;
+		private final int from;
+		private final int to;
+
+		ParseTask(List<ClassFileSource> sources, int from, int to) {
+			this.sources = sources;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<ClassFileMetadata> compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				ParseTask left = new ParseTask(sources, from, middle);
+				left.fork();
+				List<ClassFileMetadata> right = new ParseTask(sources, middle, to).compute();
+				List<ClassFileMetadata> results = left.join();
+				results.addAll(right);
+				return results;
+			}
+			List<ClassFileMetadata> results = new ArrayList<>(to - from);
+			for (int i = from; i < to; i++) {
+				try {
+					results.add(sources.get(i).read());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} catch (IllegalArgumentException e) {
+					// 忽略无法解析的类文件
+				}
+			}
+			return results;
+		}
+	}
+
+}
@@ -0,0 +1,336 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * <p>基于内存映射文件的二进制注解索引。<br />
+ * 索引文件通过{@link FileChannel#map}以只读方式映射到内存中，查询时直接在映射区域上进行二分查找，
+ * 不需要预先将索引反序列化为对象，也不需要加载任何类。
+ *
+ * <p>索引文件由{@link #write(Map, Path)}写出，所有整数皆为大端序的<em>int</em>，结构如下：
+ * <pre>
+ * header:   magic, version, stringCount, annotationCount, entriesOffset
+ * strings:  int[stringCount] 字符串的绝对偏移量，每个字符串由 int 长度与 UTF-8 字节组成
+ * entries:  annotationCount 个 (注解类名的字符串序号, 元素表起始偏移量, 元素个数)，按注解类名的 UTF-8 字节升序排列
+ * elements: int[] 元素描述符的字符串序号
+ * </pre>
+ * 其中元素描述符与{@link AnnotationIndex}一致。
+ *
+ * @author huangchengxing
+ * @see ClasspathIndexer
+ */
+public class MappedAnnotationIndex {
+
+	/**
+	 * 魔数，即<em>PAIX</em>
+	 */
+	static final int MAGIC = 0x50414958;
+
+	/**
+	 * 版本号
+	 */
+	static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 20;
+	private static final int ENTRY_SIZE = 12;
+
+	/**
+	 * 映射的索引文件
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * 注解类型数量
+	 */
+	private final int annotationCount;
+
+	/**
+	 * 字符串偏移量表的起始位置
+	 */
+	private final int stringTableOffset;
+
+	/**
+	 * 注解条目表的起始位置
+	 */
+	private final int entryTableOffset;
+
+	MappedAnnotationIndex(ByteBuffer buffer) {
+		Assert.isTrue(buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC, "buffer is not a annotation index");
+		Assert.isTrue(buffer.getInt(4) == VERSION, "unsupported annotation index version [%s]", buffer.getInt(4));
+		this.buffer = buffer;
+		this.annotationCount = buffer.getInt(12);
+		this.stringTableOffset = HEADER_SIZE;
+		this.entryTableOffset = buffer.getInt(16);
+	}
+
+	/**
+	 * 以内存映射的方式打开索引文件
+	 *
+	 * @param indexFile 索引文件
+	 * @return 注解索引
+	 * @throws IOException 打开文件时抛出
+	 * @throws IllegalArgumentException 当文件不是合法的索引文件时抛出
+	 */
+	public static MappedAnnotationIndex open(Path indexFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new MappedAnnotationIndex(buffer);
+		}
+	}
+
+	// ======================== 查询 ========================
+
+	/**
+	 * 获取索引中的注解类型数量
+	 *
+	 * @return 注解类型数量
+	 */
+	public int size() {
+		return annotationCount;
+	}
+
+	/**
+	 * 索引中是否存在直接或间接声明了该注解的元素
+	 *
+	 * @param annotationType 注解类型
+	 * @return 是否
+	 */
+	public boolean contains(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		return findEntry(annotationType.getName()) >= 0;
+	}
+
+	/**
+	 * 获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的元素描述符
+	 *
+	 * @param annotationType 注解类型
+	 * @return 元素描述符
+	 */
+	public List<String> getAnnotatedElements(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		return getAnnotatedElements(annotationType.getName());
+	}
+
+	/**
+	 * 获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的元素描述符
+	 *
+	 * @param annotationTypeName 注解类名
+	 * @return 元素描述符
+	 */
+	public List<String> getAnnotatedElements(String annotationTypeName) {
+		int entry = findEntry(annotationTypeName);
+		if (entry < 0) {
+			return Collections.emptyList();
+		}
+		int offset = buffer.getInt(entry + 4);
+		int count = buffer.getInt(entry + 8);
+		List<String> elements = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			elements.add(getString(buffer, stringTableOffset, buffer.getInt(offset + i * 4)));
+		}
+		return elements;
+	}
+
+	/**
+	 * 获取直接声明了该注解，或声明的注解上直接或间接存在该元注解的元素，
+	 * 无法从类加载器中加载的元素将被忽略
+	 *
+	 * @param annotationType 注解类型
+	 * @param classLoader 类加载器
+	 * @return 元素
+	 */
+	public List<AnnotatedElement> resolveAnnotatedElements(Class<? extends Annotation> annotationType, ClassLoader classLoader) {
+		List<AnnotatedElement> results = new ArrayList<>();
+		for (String element : getAnnotatedElements(annotationType)) {
+			AnnotatedElement resolved = AnnotationIndex.resolveElement(element, classLoader);
+			if (Objects.nonNull(resolved)) {
+				results.add(resolved);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * 二分查找注解类名对应的条目，比较时直接读取映射区域中的字节，若不存在则返回-1
+	 */
+	private int findEntry(String annotationTypeName) {
+		byte[] key = annotationTypeName.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = annotationCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int entry = entryTableOffset + mid * ENTRY_SIZE;
+			int compared = compareString(buffer, stringTableOffset, buffer.getInt(entry), key);
+			if (compared < 0) {
+				low = mid + 1;
+			} else if (compared > 0) {
+				high = mid - 1;
+			} else {
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 按无符号字节序比较字符串表中的字符串与给定的字节
+	 */
+	static int compareString(ByteBuffer buffer, int stringTableOffset, int stringIndex, byte[] key) {
+		int offset = buffer.getInt(stringTableOffset + stringIndex * 4);
+		int length = buffer.getInt(offset);
+		int limit = Math.min(length, key.length);
+		for (int i = 0; i < limit; i++) {
+			int compared = (buffer.get(offset + 4 + i) & 0xFF) - (key[i] & 0xFF);
+			if (compared != 0) {
+				return compared;
+			}
+		}
+		return length - key.length;
+	}
+
+	/**
+	 * 读取字符串表中的字符串
+	 */
+	static String getString(ByteBuffer buffer, int stringTableOffset, int stringIndex) {
+		int offset = buffer.getInt(stringTableOffset + stringIndex * 4);
+		byte[] bytes = new byte[buffer.getInt(offset)];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(offset + 4 + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// ======================== 写出 ========================
+
+	/**
+	 * 将注解类名与元素描述符的映射关系写出为索引文件。
+	 * 若文件已存在，则将以原子替换的方式覆盖，已映射该文件的{@link MappedAnnotationIndex}仍可读取旧的内容
+	 *
+	 * @param annotatedElements 注解类名与直接或间接声明了该注解的元素描述符
+	 * @param indexFile 索引文件
+	 * @throws IOException 写出文件时抛出
+	 */
+	public static void write(Map<String, ? extends Collection<String>> annotatedElements, Path indexFile) throws IOException {
+		writeAtomically(indexFile, toBytes(annotatedElements));
+	}
+
+	/**
+	 * 先将数据写入同一目录下的临时文件，再将其原子地移动到目标文件。
+	 * 不会原地截断或改写目标文件，因此已被映射的旧文件不会在读取过程中被修改
+	 *
+	 * @param file 目标文件
+	 * @param bytes 数据
+	 * @throws IOException 写出或移动文件时抛出
+	 */
+	static void writeAtomically(Path file, byte[] bytes) throws IOException {
+		Path target = file.toAbsolutePath();
+		Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			Files.write(tempFile, bytes);
+			try {
+				Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * 将注解类名与元素描述符的映射关系序列化为索引
+	 */
+	static byte[] toBytes(Map<String, ? extends Collection<String>> annotatedElements) {
+		// 按UTF-8字节序排序注解类名，保证查询时可以直接比较字节
+		List<byte[]> annotationTypes = new ArrayList<>();
+		annotatedElements.keySet().forEach(name -> annotationTypes.add(name.getBytes(StandardCharsets.UTF_8)));
+		annotationTypes.sort(MappedAnnotationIndex::compareBytes);
+
+		// 收集字符串
+		Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+		List<byte[]> strings = new ArrayList<>();
+		int elementCount = 0;
+		for (byte[] annotationType : annotationTypes) {
+			addString(stringIndexes, strings, new String(annotationType, StandardCharsets.UTF_8));
+		}
+		for (Collection<String> elements : annotatedElements.values()) {
+			elements.forEach(element -> addString(stringIndexes, strings, element));
+			elementCount += elements.size();
+		}
+		int stringTableSize = getStringTableSize(strings);
+
+		ByteBuffer buffer = ByteBuffer.allocate(
+			HEADER_SIZE + stringTableSize + annotationTypes.size() * ENTRY_SIZE + elementCount * 4
+		);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(annotationTypes.size())
+			.putInt(HEADER_SIZE + stringTableSize);
+		putStringTable(buffer, strings);
+		int elementOffset = buffer.position() + annotationTypes.size() * ENTRY_SIZE;
+		for (byte[] annotationType : annotationTypes) {
+			String name = new String(annotationType, StandardCharsets.UTF_8);
+			int count = annotatedElements.get(name).size();
+			buffer.putInt(stringIndexes.get(name)).putInt(elementOffset).putInt(count);
+			elementOffset += count * 4;
+		}
+		for (byte[] annotationType : annotationTypes) {
+			for (String element : annotatedElements.get(new String(annotationType, StandardCharsets.UTF_8))) {
+				buffer.putInt(stringIndexes.get(element));
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * 获取字符串表的长度，包括偏移量表与字符串
+	 */
+	static int getStringTableSize(List<byte[]> strings) {
+		return strings.stream().mapToInt(bytes -> bytes.length + 8).sum();
+	}
+
+	/**
+	 * 从当前位置开始写入字符串表，包括偏移量表与字符串
+	 */
+	static void putStringTable(ByteBuffer buffer, List<byte[]> strings) {
+		int stringOffset = buffer.position() + strings.size() * 4;
+		for (byte[] bytes : strings) {
+			buffer.putInt(stringOffset);
+			stringOffset += bytes.length + 4;
+		}
+		for (byte[] bytes : strings) {
+			buffer.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	static int addString(Map<String, Integer> stringIndexes, List<byte[]> strings, String string) {
+		return stringIndexes.computeIfAbsent(string, s -> {
+			strings.add(s.getBytes(StandardCharsets.UTF_8));
+			return strings.size() - 1;
+		});
+	}
+
+	static int compareBytes(byte[] a, byte[] b) {
+		int limit = Math.min(a.length, b.length);
+		for (int i = 0; i < limit; i++) {
+			int compared = (a[i] & 0xFF) - (b[i] & 0xFF);
+			if (compared != 0) {
+				return compared;
+			}
+		}
+		return a.length - b.length;
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * 提供对编译期生成的注解索引的读取支持
+ *
+ * @author huangchengxing
+ */
+package top.xiajibagao.powerfulannotation.index;
@@ -5,9 +5,8 @@ import top.xiajibagao.powerfulannotation.helper.*;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.util.*;
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * <p>{@link RepeatableMappingRegistry}的简单实现。<br>
@@ -21,6 +20,16 @@ import java.util.stream.Stream;
  */
 public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistry {
 
+	/**
+	 * 空转换路径，表示容器注解与元素注解间不存在关系
+	 */
+	private static final RepeatableMapping[] EMPTY_PLAN = new RepeatableMapping[0];
+
+	/**
+	 * 空元素，用于替代{@link RepeatableMapping#getElementsFromContainer}返回的{@code null}
+	 */
+	private static final Annotation[] EMPTY_ELEMENTS = new Annotation[0];
+
 	/**
 	 * 映射关系
 	 */
@@ -31,6 +40,12 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 	 */
 	protected final List<RepeatableMappingParser> mappingParsers;
 
+	/**
+	 * 容器注解与元素注解间的转换路径缓存，
+	 * 即从容器注解开始，逐层获取元素注解所需要依次调用的{@link RepeatableMapping}
+	 */
+	protected final Map<Class<? extends Annotation>, Map<Class<? extends Annotation>, RepeatableMapping[]>> unwrapPlanCache;
+
 	/**
 	 * 构造一个支持{@link Repeatable}注解的容器关系映射表
 	 *
@@ -39,6 +54,7 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 	public SimpleRepeatableMappingRegistry(RepeatableMappingParser... parsers) {
 		this.mappingForestMap = new LinkedForestMap<>(false);
 		this.mappingParsers = new ArrayList<>();
+		this.unwrapPlanCache = new ConcurrentHashMap<>(8);
 		CollUtils.addAll(this.mappingParsers, parsers);
 	}
 
@@ -75,6 +91,8 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 				mappingForestMap.putLinkedNodes(
 					mapping.getElementType(), mapping.getContainerType(), mapping
 				);
+				// 映射关系发生变化，已编译的转换路径可能失效
+				unwrapPlanCache.clear();
 				CollUtils.addAll(next, parseRepeatableMappings(mapping.getContainerType()));
 			}
 			if (CollUtils.isNotEmpty(next)) {
@@ -163,12 +181,14 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 		}
 		// 若容器注解未在本表中注册，则直接返回其本身
 		final Class<? extends Annotation> containerType = container.annotationType();
-		if (!mappingForestMap.containsKey(containerType)) {
+		final TreeEntry<Class<? extends Annotation>, RepeatableMapping> containerMapping = mappingForestMap.get(containerType);
+		if (Objects.isNull(containerMapping)) {
 			return Collections.singletonList(container);
 		}
-		final TreeEntry<Class<? extends Annotation>, RepeatableMapping> containerMapping = mappingForestMap.get(containerType);
-		List<Annotation> results = CollUtils.newArrayList(container);
-		forEachElements(container, containerMapping.getRoot().getKey(), containerMapping, results::addAll);
+		final RepeatableMapping[] plan = getUnwrapPlan(containerType, containerMapping.getRoot().getKey());
+		final List<Annotation> results = new ArrayList<>();
+		results.add(container);
+		unwrap(container, plan, results);
 		return results;
 	}
 
@@ -182,7 +202,7 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends Annotation> List<T> getElementsFromContainer(Annotation container, Class<T> elementType) {
-		if (Objects.isNull(container)) {
+		if (Objects.isNull(container) || Objects.isNull(elementType)) {
 			return Collections.emptyList();
 		}
 		// 若元素注解类型与容器注解类型相同，则返回本身
@@ -190,43 +210,87 @@ public class SimpleRepeatableMappingRegistry implements RepeatableMappingRegistr
 		if (Objects.equals(containerType, elementType)) {
 			return (List<T>)Collections.singletonList(container);
 		}
-		// 若容器注解为null，或者未在本表中注册，则直接返回空集合
-		if (!mappingForestMap.containsKey(containerType)) {
-			return Collections.emptyList();
-		}
-		// 获取容器注解的映射，并确定其与指定的元素注解存在关系
-		final TreeEntry<Class<? extends Annotation>, RepeatableMapping> containerMapping = mappingForestMap.get(containerType);
-		if (Objects.isNull(containerMapping) || !containerMapping.containsParent(elementType)) {
+		// 获取容器注解到元素注解的转换路径，若两者不存在关系，则直接返回空集合
+		final RepeatableMapping[] plan = getUnwrapPlan(containerType, elementType);
+		if (plan.length == 0) {
 			return Collections.emptyList();
 		}
 		// 将容器注解一层一层的兑换为元素注解
-		List<Annotation> results = forEachElements(container, elementType, containerMapping, t -> {});
-		return (List<T>)results;
+		final Annotation[] results = unwrap(container, plan, null);
+		return (List<T>)(List<?>)CollUtils.newArrayList(results);
 	}
 
-	private <T extends Annotation> List<Annotation> forEachElements(
-		Annotation container, Class<T> elementType,
-		TreeEntry<Class<? extends Annotation>, RepeatableMapping> containerMapping,
-		Consumer<List<Annotation>> consumer) {
+	/**
+	 * 获取从容器注解转换为元素注解所需的转换路径，若两者不存在关系，则返回空数组
+	 *
+	 * @param containerType 容器注解类型
+	 * @param elementType   元素注解类型
+	 * @return 按调用顺序排列的{@link RepeatableMapping}
+	 */
+	protected RepeatableMapping[] getUnwrapPlan(Class<? extends Annotation> containerType, Class<? extends Annotation> elementType) {
+		if (Objects.isNull(containerType) || Objects.isNull(elementType)) {
+			return EMPTY_PLAN;
+		}
+		// 若容器注解未注册，或元素注解不存在任何映射关系，则两者必然不存在关系，此时不缓存结果，避免缓存随任意类型组合无限增长
+		if (!isContainer(containerType) || !mappingForestMap.containsKey(elementType)) {
+			return EMPTY_PLAN;
+		}
+		return unwrapPlanCache
+			.computeIfAbsent(containerType, t -> new ConcurrentHashMap<>(4))
+			.computeIfAbsent(elementType, t -> compileUnwrapPlan(containerType, elementType));
+	}
 
-		List<Annotation> results = CollUtils.newArrayList(container);
-		TreeEntry<Class<? extends Annotation>, RepeatableMapping> mapping = containerMapping;
-		do {
+	/**
+	 * 沿映射关系自容器注解向元素注解方向遍历，按顺序收集转换过程中需要依次调用的{@link RepeatableMapping}
+	 */
+	private RepeatableMapping[] compileUnwrapPlan(Class<? extends Annotation> containerType, Class<? extends Annotation> elementType) {
+		final List<RepeatableMapping> plan = new ArrayList<>();
+		TreeEntry<Class<? extends Annotation>, RepeatableMapping> mapping = mappingForestMap.get(containerType);
+		while (Objects.nonNull(mapping) && mapping.hasParent()) {
 			final RepeatableMapping currContainerMapping = mapping.getValue();
 			if (Objects.isNull(currContainerMapping)) {
-				continue;
+				break;
 			}
-			results = results.stream()
-				.map(currContainerMapping::getElementsFromContainer)
-				.filter(CollUtils::isNotEmpty)
-				.flatMap(Stream::of)
-				.collect(Collectors.toList());
-			consumer.accept(results);
+			plan.add(currContainerMapping);
 			if (Objects.equals(currContainerMapping.getElementType(), elementType)) {
-				break;
+				return plan.toArray(new RepeatableMapping[0]);
 			}
 			mapping = mapping.getDeclaredParent();
-		} while (Objects.nonNull(mapping) && mapping.hasParent());
-		return results;
+		}
+		return EMPTY_PLAN;
 	}
+
+	/**
+	 * 按转换路径将容器注解逐层转换为元素注解
+	 *
+	 * @param container     容器注解
+	 * @param plan          转换路径
+	 * @param intermediates 若不为null，则每一层转换得到的注解都将按顺序添加到该集合
+	 * @return 最后一层转换得到的注解
+	 */
+	private static Annotation[] unwrap(Annotation container, RepeatableMapping[] plan, List<Annotation> intermediates) {
+		Annotation[] current = new Annotation[]{ container };
+		for (final RepeatableMapping mapping : plan) {
+			final Annotation[][] elements = new Annotation[current.length][];
+			int size = 0;
+			for (int i = 0; i < current.length; i++) {
+				// 忽略未返回任何元素的容器注解
+				final Annotation[] element = mapping.getElementsFromContainer(current[i]);
+				elements[i] = Objects.isNull(element) ? EMPTY_ELEMENTS : element;
+				size += elements[i].length;
+			}
+			final Annotation[] next = new Annotation[size];
+			int offset = 0;
+			for (final Annotation[] element : elements) {
+				System.arraycopy(element, 0, next, offset, element.length);
+				offset += element.length;
+			}
+			if (Objects.nonNull(intermediates)) {
+				CollUtils.addAll(intermediates, next);
+			}
+			current = next;
+		}
+		return current;
+	}
+
 }
@@ -1,8 +1,11 @@
 package top.xiajibagao.powerfulannotation.scanner;
 
-import top.xiajibagao.powerfulannotation.helper.CollUtils;
+import top.xiajibagao.powerfulannotation.annotation.GenericHierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.helper.Assert;
 import top.xiajibagao.powerfulannotation.helper.ObjectUtils;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+import top.xiajibagao.powerfulannotation.scanner.processor.ScanControl;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
@@ -10,6 +13,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>注解扫描器抽象类，用于从指定的{@link AnnotatedElement}及其可能存在的层级结构中获取注解对象。<br />
@@ -39,6 +45,8 @@ import java.util.*;
  * <p>默认情况下，扫描器将按照广度优先遍历被扫描的{@link AnnotatedElement}的层级结构中的被注解元素。<br />
  * 同一层级中的注解，按照其所属{@link AnnotatedElement}的被扫描顺序(元素本身 -> 父类 -> 父接口)、
  * 以及其在{@link AnnotatedElement#getDeclaredAnnotations()}返回的注解数组中的顺序决定。<br />
+ * 普通类的层级结构的遍历顺序可以通过{@link ScanOptions#setTraversalStrategy}替换为其他{@link TraversalStrategy}，
+ * 扫描器将为每个起点生成一次{@link TraversalPlan}并缓存，之后的扫描直接按计划遍历。<br />
  *
  * 若允许扫描元注解，则在获得注解对象时，将优先扫描该注解对象的层级结构，
  * 然后再继续扫描该与该注解处于统一层级，但是顺序靠后的注解。
@@ -47,6 +55,16 @@ import java.util.*;
  * 现对<em>X</em>进行扫描，若不扫描元注解，则依次获得<em>A</em>，<em>C</em>；
  * 若扫描元注解，则依次获得<em>A</em>，<em>B</em>，<em>C</em>，<em>D</em>。
  *
+ * <h3>扫描控制</h3>
+ * <p>扫描器将遵循{@link ScanOptions#getMaxVerticalIndex()}与{@link ScanOptions#getMaxMetaDepth()}限制扫描的深度，
+ * 超出限制的层级不会被收集，也不会被遍历。此外，处理器可以通过{@link AnnotationProcessor#process}返回的{@link ScanControl}
+ * 跳过某个注解的元注解、跳过当前层级中剩余的注解或中断扫描。
+ *
+ * <h3>扫描状态</h3>
+ * <p>扫描过程中使用的上下文、层级队列与已访问类集合皆由线程私有的{@link ScanStatePool}提供，
+ * 并在扫描结束后清空并归还，嵌套扫描——比如扫描元注解，或在处理器中再次发起扫描——将依次从池中获取更深一层的状态。
+ * 因此在稳定状态下，除处理器自身产生的结果外，扫描过程不会创建新的对象。
+ *
  * <h3>覆盖实现</h3>
  * <p>{@link AbstractAnnotationScanner}定义了根据配置项从待扫描元素的层级结构中获取注解的基本逻辑，
  * 调用者需要在实现类中实现下述方法，以补全注解扫描相关功能的逻辑：<br />
@@ -61,6 +79,7 @@ import java.util.*;
  *     <li>{@link #getAnnotationFromType(Class, Class)}：从类上获取注解；</li>
  *     <li>{@link #getAnnotationsFromTypeDeclaredMethod(Class, Method)}：从类声明的方法上获取注解；</li>
  *     <li>{@link #getAnnotationsFromTypeDeclaredField(Class, Field)}：从类声明的属性上获取注解；</li>
+ *     <li>{@link #getAnnotationsFromTypeDeclaredMembers(Class, AnnotatedElement[])}：从类声明的一批方法或属性上获取注解，可选；</li>
  * </ul>
  *
  * @author huangchengxing
@@ -80,11 +99,31 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 	 */
 	public static final int HORIZONTAL_INDEX_START_POINT = 0;
 
+	/**
+	 * 线程私有的扫描状态池
+	 */
+	private static final ThreadLocal<ScanStatePool> SCAN_STATE_POOL = ThreadLocal.withInitial(ScanStatePool::new);
+
 	/**
 	 * 扫描配置
 	 */
 	protected final ScanOptions options;
 
+	/**
+	 * 供遍历策略使用的类层级结构
+	 */
+	private final TraversalStrategy.TypeHierarchy typeHierarchy = new ScannerTypeHierarchy();
+
+	/**
+	 * 按起点缓存的遍历计划
+	 */
+	private final ClassValue<TraversalPlan> traversalPlans = new ClassValue<TraversalPlan>() {
+		@Override
+		protected TraversalPlan computeValue(Class<?> type) {
+			return options.getTraversalStrategy().plan(type, typeHierarchy);
+		}
+	};
+
     /**
      * 构造一个通用注解扫描器
      *
@@ -104,6 +143,17 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 		return new ScanOptions(options);
 	}
 
+	/**
+	 * 获取按{@link ScanOptions#getTraversalStrategy()}遍历指定类的层级结构时的遍历计划，计划在首次获取后将被缓存
+	 *
+	 * @param type 起点，即被扫描的类，或被扫描的方法与属性的声明类
+	 * @return 遍历计划
+	 */
+	public TraversalPlan getTraversalPlan(Class<?> type) {
+		Assert.notNull(type, "type must not null");
+		return traversalPlans.get(type);
+	}
+
 	/**
 	 * 扫描指定元素上的注解
 	 *
@@ -118,19 +168,134 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 		}
 		filter = ObjectUtils.defaultIfNull(filter, AnnotationFilter.FILTER_NOTHING);
 		final Class<?> typeHierarchy = getTypeHierarchyFromElement(element);
-		final Context context = new Context(
-			element, VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT,
-			Objects.nonNull(typeHierarchy) && typeHierarchy.isAnnotation()
-		);
-
-		// 元素没有可递归的层级结构，或者传入了注解类但是又不允许扫描元注解
-		if (Objects.isNull(typeHierarchy) || (context.scanningMetaAnnotations && !options.isEnableScanMetaAnnotation())) {
-			processAnnotation(context, processor, filter, element.getAnnotations());
-			return;
+		final ScanStatePool pool = SCAN_STATE_POOL.get();
+		final ScanState state = pool.acquire();
+		try {
+			final Context context = state.context.reset(
+				element, VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT,
+				Objects.nonNull(typeHierarchy) && typeHierarchy.isAnnotation()
+			);
+
+			// 元素没有可递归的层级结构，或者传入了注解类但是又不允许扫描元注解
+			if (Objects.isNull(typeHierarchy) || (context.scanningMetaAnnotations && !options.isEnableScanMetaAnnotation())) {
+				processAnnotation(pool, context, processor, filter, element.getAnnotations());
+				return;
+			}
+
+			// 元素存在可递归的层级结构，尝试递归层级获取注解
+			if (context.scanningMetaAnnotations) {
+				scanForElementHierarchy(pool, state, processor, filter, typeHierarchy);
+			} else {
+				scanForTypeHierarchy(pool, context, processor, filter, getTraversalPlan(typeHierarchy));
+			}
+		} finally {
+			pool.release(state);
 		}
+	}
 
-		// 元素存在可递归的层级结构，尝试递归层级获取注解
-		scanForElementHierarchy(context, processor, filter, typeHierarchy);
+	/**
+	 * <p>获取一个惰性扫描元素上注解的流，流中的注解及其索引与{@link #scan}一致。<br />
+	 * 扫描将在消费者拉取元素时才推进，因此当配合{@link Stream#findFirst()}、{@link Stream#limit(long)}
+	 * 或{@link Stream#anyMatch}等短路操作使用时，扫描器只会遍历所需的部分层级结构与元注解。
+	 *
+	 * @param element 待扫描的元素
+	 * @param filter  过滤器，若为空则不过滤任何注解
+	 * @return 注解流，其中的注解以{@code element}作为根对象
+	 */
+	public Stream<HierarchicalAnnotation<Annotation>> stream(AnnotatedElement element, AnnotationFilter filter) {
+		return StreamSupport.stream(spliterator(element, filter), false);
+	}
+
+	/**
+	 * 获取一个惰性扫描元素上注解的{@link Spliterator}，扫描将在每次调用{@link Spliterator#tryAdvance}时推进
+	 *
+	 * @param element 待扫描的元素
+	 * @param filter  过滤器，若为空则不过滤任何注解
+	 * @return 注解迭代器，其中的注解以{@code element}作为根对象
+	 * @see #stream(AnnotatedElement, AnnotationFilter)
+	 */
+	public Spliterator<HierarchicalAnnotation<Annotation>> spliterator(AnnotatedElement element, AnnotationFilter filter) {
+		return new LazyScanSpliterator(element, ObjectUtils.defaultIfNull(filter, AnnotationFilter.FILTER_NOTHING));
+	}
+
+	/**
+	 * <p>批量扫描类中的方法或属性上的注解，扫描结果与逐个调用{@link #scan}一致。<br />
+	 * 成员将按其声明类分组，同一组中的成员仅遍历一次层级结构，
+	 * 在层级结构中的每个类中，扫描器通过{@link #getAnnotationsFromTypeDeclaredMembers}一次性获取全部成员对应的注解，
+	 * 并交由各成员对应的处理器处理。当一组成员的处理器皆已中断时，将停止遍历该组成员的层级结构。
+	 *
+	 * @param type 类
+	 * @param memberProcessors 方法或属性与其对应的处理器，成员必须由该类或其层级结构中的类声明
+	 * @param filter 过滤器，若为空则不过滤任何注解
+	 * @throws IllegalArgumentException 当成员不为该类或其层级结构中的类声明的方法或属性时抛出
+	 */
+	public void scanMembers(
+		Class<?> type, Map<? extends AnnotatedElement, ? extends AnnotationProcessor> memberProcessors, AnnotationFilter filter) {
+		Assert.notNull(type, "type must not null");
+		Assert.notNull(memberProcessors, "memberProcessors must not null");
+		final AnnotationFilter actualFilter = ObjectUtils.defaultIfNull(filter, AnnotationFilter.FILTER_NOTHING);
+
+		// 按声明类分组，保证每个成员的层级结构与单独扫描时一致
+		final Map<Class<?>, Map<AnnotatedElement, AnnotationProcessor>> groups = new LinkedHashMap<>();
+		memberProcessors.forEach((member, processor) -> {
+			Assert.isTrue(
+				(member instanceof Method || member instanceof Field)
+					&& ((Member)member).getDeclaringClass().isAssignableFrom(type),
+				"[%s] is not a method or field of [%s]", member, type
+			);
+			groups.computeIfAbsent(((Member)member).getDeclaringClass(), t -> new LinkedHashMap<>()).put(member, processor);
+		});
+
+		groups.forEach((declaringClass, group) -> {
+			// 注解类的成员的层级结构为元注解，与普通类的逻辑不同，故逐个扫描
+			if (declaringClass.isAnnotation()) {
+				group.forEach((member, processor) -> scan(member, processor, actualFilter));
+				return;
+			}
+			final AnnotatedElement[] members = group.keySet().toArray(new AnnotatedElement[0]);
+			final AnnotationProcessor[] processors = group.values().toArray(new AnnotationProcessor[0]);
+			final Context[] contexts = new Context[members.length];
+			for (int i = 0; i < members.length; i++) {
+				contexts[i] = new Context(members[i], VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT, false);
+			}
+			scanForMembersHierarchy(contexts, processors, actualFilter, declaringClass);
+		});
+	}
+
+	/**
+	 * 按遍历计划递归类的层级结构，并从中获取一批成员的注解
+	 */
+	private void scanForMembersHierarchy(
+		Context[] contexts, AnnotationProcessor[] processors, AnnotationFilter filter, Class<?> sourceClass) {
+		final AnnotatedElement[] members = new AnnotatedElement[contexts.length];
+		for (int i = 0; i < contexts.length; i++) {
+			members[i] = contexts[i].source;
+		}
+
+		final TraversalPlan plan = getTraversalPlan(sourceClass);
+		final ScanStatePool pool = SCAN_STATE_POOL.get();
+		int remaining = contexts.length;
+		for (int typeIndex = 0; typeIndex < plan.size(); typeIndex++) {
+			final int verticalIndex = plan.getVerticalIndex(typeIndex);
+			final Annotation[][] annotations = getAnnotationsFromTypeDeclaredMembers(plan.getType(typeIndex), members);
+			for (int i = 0; i < contexts.length; i++) {
+				final Context context = contexts[i];
+				if (context.interrupted || context.isLevelSkipped(verticalIndex)) {
+					continue;
+				}
+				context.verticalIndex = verticalIndex;
+				processAnnotation(pool, context, processors[i], filter, annotations[i]);
+				if (context.interrupted) {
+					--remaining;
+				} else if (context.skipLevel) {
+					context.skipLevel(verticalIndex);
+				}
+			}
+			// 若全部成员的扫描皆已中断，则直接返回
+			if (remaining == 0) {
+				return;
+			}
+		}
 	}
 
 	/**
@@ -151,44 +316,74 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 	}
 
 	/**
-	 * 按广度优先递归类的层级结构，并从中获取注解
+	 * 按遍历计划递归普通类的层级结构，并从中获取注解。
+	 * 若处理器要求跳过某一层级，则计划中位于该层级的剩余类皆不再处理
+	 */
+	private void scanForTypeHierarchy(
+		ScanStatePool pool, Context context, AnnotationProcessor processor, AnnotationFilter filter, TraversalPlan plan) {
+		for (int typeIndex = 0; typeIndex < plan.size(); typeIndex++) {
+			final int verticalIndex = plan.getVerticalIndex(typeIndex);
+			if (context.isLevelSkipped(verticalIndex)) {
+				continue;
+			}
+			context.verticalIndex = verticalIndex;
+			processAnnotation(pool, context, processor, filter, getAnnotations(context, plan.getType(typeIndex)));
+			// 若本次扫描已经中断，则直接返回
+			if (context.interrupted) {
+				return;
+			}
+			if (context.skipLevel) {
+				context.skipLevel(verticalIndex);
+			}
+		}
+	}
+
+	/**
+	 * 按广度优先递归元注解的层级结构，并从中获取注解
 	 */
 	private void scanForElementHierarchy(
-		Context context, AnnotationProcessor processor, AnnotationFilter filter, Class<?> sourceClass) {
+		ScanStatePool pool, ScanState state, AnnotationProcessor processor, AnnotationFilter filter, Class<?> sourceClass) {
 
 		// 初始化层级队列与索引
-		final Deque<List<Class<?>>> typeHierarchyDeque = new LinkedList<>();
-		typeHierarchyDeque.addLast(new ArrayList<>(Collections.singletonList(sourceClass)));
-		final Set<Class<?>> accessedTypes = new LinkedHashSet<>();
-
-		// 递归扫描目标元素的层级结构
-		while (CollUtils.isNotEmpty(typeHierarchyDeque)) {
+		final Context context = state.context;
+		final List<Class<?>> typeQueue = state.typeQueue;
+		typeQueue.add(sourceClass);
+		int levelStart = 0;
+		int depth = 0;
+
+		// 递归扫描目标元素的层级结构，队列中位于[levelStart, levelEnd)区间的类即为当前层级的类
+		while (levelStart < typeQueue.size() && isNeedEnterNextLevel(context, depth)) {
 			++context.verticalIndex;
-
-			final List<Class<?>> currTypeHierarchies = typeHierarchyDeque.removeFirst();
-			final List<Class<?>> nextTypeHierarchies = new ArrayList<>();
-			for (final Class<?> type : currTypeHierarchies) {
-				if (!isNeedProcessType(type, accessedTypes)) {
+			context.skipLevel = false;
+			++depth;
+
+			final int levelEnd = typeQueue.size();
+			final boolean collectNextLevel = isNeedEnterNextLevel(context, depth);
+			for (int typeIndex = levelStart; typeIndex < levelEnd; typeIndex++) {
+				final Class<?> type = typeQueue.get(typeIndex);
+				if (!isNeedProcessType(type, state.accessedTypes)) {
 					continue;
 				}
 
-				// 处理当前层待处理的类型
-				final Annotation[] annotation = getAnnotations(context, type);
-				processAnnotation(context, processor, filter, annotation);
-				// 若本次扫描已经中断，则直接返回
-				if (context.interrupted) {
-					return;
+				// 处理当前层待处理的类型，若处理器要求跳过当前层级，则仅收集下一层需要处理的类型
+				if (!context.skipLevel) {
+					final Annotation[] annotation = getAnnotations(context, type);
+					processAnnotation(pool, context, processor, filter, annotation);
+					// 若本次扫描已经中断，则直接返回
+					if (context.interrupted) {
+						return;
+					}
 				}
 
 				// 搜集下一层需要处理的类型
-				accessedTypes.add(type);
-				collectTypeToQueue(context, nextTypeHierarchies, type);
+				state.accessedTypes.add(type);
+				if (collectNextLevel) {
+					collectTypeToQueue(context, typeQueue, type);
+				}
 			}
 
 			// 进入下一层
-			if (CollUtils.isNotEmpty(nextTypeHierarchies)) {
-				typeHierarchyDeque.addLast(nextTypeHierarchies);
-			}
+			levelStart = levelEnd;
 		}
 	}
 
@@ -197,11 +392,11 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 	 * 若处理完注解对象后，{@link AnnotationProcessor#interrupted()}返回{@code true}，
 	 * 则也会将{@link Context#interrupted}也标记为{@code true}，扫描器将终止后续的扫描行为
 	 *
-	 * <p>若允许扫描元注解，并且当前正在扫描的类不为元注解，则会对获得的注解进行一次扫描，
-	 * 获取该注解的元注解。
+	 * <p>若允许扫描元注解，并且当前正在扫描的类不为元注解，则会从池中获取一个嵌套的扫描状态，
+	 * 并对获得的注解进行一次扫描，获取该注解的元注解。
 	 */
 	private void processAnnotation(
-		Context context, AnnotationProcessor processor, AnnotationFilter filter, Annotation[] annotations) {
+		ScanStatePool pool, Context context, AnnotationProcessor processor, AnnotationFilter filter, Annotation[] annotations) {
 		for (final Annotation annotation : annotations) {
 			if (processor.interrupted()) {
 				context.interrupted = true;
@@ -210,26 +405,58 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 			if (!filter.test(annotation)) {
 				continue;
 			}
-			processor.accept(context.verticalIndex, ++context.horizontalIndex, annotation);
+			final ScanControl control = processor.process(context.verticalIndex, ++context.horizontalIndex, annotation);
+			if (control == ScanControl.STOP) {
+				context.interrupted = true;
+				break;
+			}
+			if (control == ScanControl.SKIP_LEVEL) {
+				context.skipLevel = true;
+				break;
+			}
 
 			// 若允许扫描元注解，并且当前扫描器扫描的对象不为注解类，则以该注解类为对象建立一个嵌套的上下文，并发起一次扫描
-			if (!context.scanningMetaAnnotations && options.isEnableScanMetaAnnotation()) {
-				Context nested = new Context(annotation.annotationType(), context.verticalIndex, context.horizontalIndex, true);
-				scanForElementHierarchy(
-					nested,
-					((verticalIndex, horizontalIndex, metaAnnotation) -> {
-						processor.accept(verticalIndex, horizontalIndex, metaAnnotation);
-						// 同步水平索引，保证整体水平索引有序递增
-						context.horizontalIndex = nested.horizontalIndex;
-					}),
-					filter, annotation.annotationType()
-				);
+			if (control != ScanControl.SKIP_META && isNeedScanMetaAnnotations(context)) {
+				final Class<? extends Annotation> annotationType = annotation.annotationType();
+				final ScanState nested = pool.acquire();
+				try {
+					nested.context.reset(annotationType, context.verticalIndex, context.horizontalIndex, true);
+					scanForElementHierarchy(pool, nested, processor, filter, annotationType);
+					// 同步水平索引，保证整体水平索引有序递增
+					context.horizontalIndex = nested.context.horizontalIndex;
+					if (nested.context.interrupted) {
+						context.interrupted = true;
+						break;
+					}
+				} finally {
+					pool.release(nested);
+				}
 			}
 		}
 	}
 
     // ======================== 获取需要扫描的类对象 ========================
 
+	/**
+	 * 是否需要扫描当前上下文中获得的注解的元注解
+	 */
+	private boolean isNeedScanMetaAnnotations(Context context) {
+		return !context.scanningMetaAnnotations && options.isEnableScanMetaAnnotation()
+			&& options.getMaxMetaDepth() > 0 && context.verticalIndex < options.getMaxVerticalIndex();
+	}
+
+	/**
+	 * 是否需要进入下一层级。当下一层级的垂直索引大于{@link ScanOptions#getMaxVerticalIndex()}，
+	 * 或者正在扫描元注解，且下一层级的深度大于{@link ScanOptions#getMaxMetaDepth()}时，将不再进入下一层级
+	 *
+	 * @param context 上下文
+	 * @param depth 已经扫描的层级数
+	 */
+	private boolean isNeedEnterNextLevel(Context context, int depth) {
+		return context.verticalIndex < options.getMaxVerticalIndex()
+			&& (!context.scanningMetaAnnotations || depth < options.getMaxMetaDepth());
+	}
+
 	/**
 	 * 是否处理该类对象。当在下述情况下时，将不处理指定的类对象：
 	 * <ul>
@@ -289,6 +516,36 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
      */
     protected abstract void collectSuperTypeIfNecessary(List<Class<?>> nextTypeHierarchies, Class<?> type);
 
+	/**
+	 * 遵循当前扫描配置的类层级结构
+	 */
+	private class ScannerTypeHierarchy implements TraversalStrategy.TypeHierarchy {
+
+		@Override
+		public void collectSuperClasses(List<Class<?>> results, Class<?> type) {
+			if (options.isEnableScanSuperClass()) {
+				collectSuperTypeIfNecessary(results, type);
+			}
+		}
+
+		@Override
+		public void collectInterfaces(List<Class<?>> results, Class<?> type) {
+			if (options.isEnableScanInterface()) {
+				collectInterfaceTypeIfNecessary(results, type);
+			}
+		}
+
+		@Override
+		public boolean isNeedProcess(Class<?> type, Set<Class<?>> accessedTypes) {
+			return isNeedProcessType(type, accessedTypes);
+		}
+
+		@Override
+		public int getMaxVerticalIndex() {
+			return options.getMaxVerticalIndex();
+		}
+	}
+
 	// ======================== 从类对象中获取所需注解 ========================
 
     /**
@@ -346,6 +603,158 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 	 */
 	protected abstract Annotation[] getAnnotationFromType(Class<?> type, Class<?> element);
 
+	/**
+	 * <p>从类中一次性获取一批方法或属性对应的注解对象，返回的数组与{@code elements}一一对应。<br />
+	 * 默认逐个调用{@link #getAnnotationsFromTypeDeclaredMethod}与{@link #getAnnotationsFromTypeDeclaredField}，
+	 * 实现类可以重写该方法，以便在同一个类中只获取一次声明的方法或属性。
+	 *
+	 * @param type     当前正在处理的类对象
+	 * @param elements 最开始扫描的方法或属性
+	 * @return 注解对象
+	 */
+	protected Annotation[][] getAnnotationsFromTypeDeclaredMembers(Class<?> type, AnnotatedElement[] elements) {
+		final Annotation[][] annotations = new Annotation[elements.length][];
+		for (int i = 0; i < elements.length; i++) {
+			annotations[i] = elements[i] instanceof Method ?
+				getAnnotationsFromTypeDeclaredMethod(type, (Method)elements[i]) :
+				getAnnotationsFromTypeDeclaredField(type, (Field)elements[i]);
+		}
+		return annotations;
+	}
+
+	/**
+	 * <p>可恢复的扫描状态机，遍历顺序与{@link #scanForElementHierarchy}及{@link #processAnnotation}一致。<br />
+	 * 状态机通过栈保存正在遍历的层级结构，栈顶为当前正在遍历的层级结构：
+	 * 每当获取到一个注解，若需要扫描其元注解，则将该注解类的层级结构压栈；
+	 * 当栈顶的层级结构遍历完毕后出栈，并将其水平索引同步回上一层。
+	 */
+	private class LazyScanSpliterator extends Spliterators.AbstractSpliterator<HierarchicalAnnotation<Annotation>> {
+
+		private final AnnotatedElement root;
+		private final AnnotationFilter filter;
+		private final Deque<Frame> frames = new ArrayDeque<>();
+
+		LazyScanSpliterator(AnnotatedElement element, AnnotationFilter filter) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.root = element;
+			this.filter = filter;
+			if (Objects.isNull(element)) {
+				return;
+			}
+			final Class<?> typeHierarchy = getTypeHierarchyFromElement(element);
+			final Context context = new Context(
+				element, VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT,
+				Objects.nonNull(typeHierarchy) && typeHierarchy.isAnnotation()
+			);
+			// 元素没有可递归的层级结构，或者传入了注解类但是又不允许扫描元注解
+			if (Objects.isNull(typeHierarchy) || (context.scanningMetaAnnotations && !options.isEnableScanMetaAnnotation())) {
+				final Frame frame = new Frame(context, TraversalPlan.empty());
+				frame.annotations = element.getAnnotations();
+				frames.push(frame);
+			} else if (context.scanningMetaAnnotations) {
+				frames.push(new Frame(context, typeHierarchy));
+			} else {
+				frames.push(new Frame(context, getTraversalPlan(typeHierarchy)));
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super HierarchicalAnnotation<Annotation>> action) {
+			while (!frames.isEmpty()) {
+				final Frame frame = frames.peek();
+				if (frame.annotationIndex < frame.annotations.length) {
+					final Annotation annotation = frame.annotations[frame.annotationIndex++];
+					if (!filter.test(annotation)) {
+						continue;
+					}
+					final Context context = frame.context;
+					final int horizontalIndex = ++context.horizontalIndex;
+					// 若允许扫描元注解，并且当前扫描的对象不为注解类，则将该注解类的层级结构压栈
+					if (isNeedScanMetaAnnotations(context)) {
+						final Context nested = new Context(annotation.annotationType(), context.verticalIndex, horizontalIndex, true);
+						frames.push(new Frame(nested, annotation.annotationType()));
+					}
+					action.accept(new GenericHierarchicalAnnotation<>(annotation, root, context.verticalIndex, horizontalIndex));
+					return true;
+				}
+				if (frame.nextType()) {
+					continue;
+				}
+				// 当前层级结构遍历完毕，同步水平索引，保证整体水平索引有序递增
+				frames.pop();
+				final Frame parent = frames.peek();
+				if (Objects.nonNull(parent)) {
+					parent.context.horizontalIndex = frame.context.horizontalIndex;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * 状态机中的一层层级结构，普通类的层级结构按遍历计划遍历，元注解的层级结构按广度优先遍历
+	 */
+	private class Frame {
+
+		private final Context context;
+		private final TraversalPlan plan;
+		private final List<Class<?>> typeQueue = new ArrayList<>();
+		private final Set<Class<?>> accessedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+		private int typeIndex;
+		private int levelEnd;
+		private int depth;
+		private Annotation[] annotations = new Annotation[0];
+		private int annotationIndex;
+
+		Frame(Context context, Class<?> sourceClass) {
+			this.context = context;
+			this.plan = null;
+			if (Objects.nonNull(sourceClass)) {
+				typeQueue.add(sourceClass);
+			}
+		}
+
+		Frame(Context context, TraversalPlan plan) {
+			this.context = context;
+			this.plan = plan;
+		}
+
+		/**
+		 * 获取层级结构中下一个需要处理的类的注解，若层级结构已遍历完毕则返回{@code false}
+		 */
+		boolean nextType() {
+			if (Objects.nonNull(plan)) {
+				if (typeIndex >= plan.size()) {
+					return false;
+				}
+				context.verticalIndex = plan.getVerticalIndex(typeIndex);
+				annotations = getAnnotations(context, plan.getType(typeIndex++));
+				annotationIndex = 0;
+				return true;
+			}
+			while (true) {
+				while (typeIndex < levelEnd) {
+					final Class<?> type = typeQueue.get(typeIndex++);
+					if (!isNeedProcessType(type, accessedTypes)) {
+						continue;
+					}
+					annotations = getAnnotations(context, type);
+					annotationIndex = 0;
+					accessedTypes.add(type);
+					collectTypeToQueue(context, typeQueue, type);
+					return true;
+				}
+				// 进入下一层
+				if (levelEnd == typeQueue.size() || !isNeedEnterNextLevel(context, depth)) {
+					return false;
+				}
+				++context.verticalIndex;
+				++depth;
+				levelEnd = typeQueue.size();
+			}
+		}
+	}
+
 	/**
 	 * 扫描上下文，用于存储一次扫描动作中的一些共享信息
 	 *
@@ -356,7 +765,7 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 		/**
 		 * 本次扫描的元素
 		 */
-		private final AnnotatedElement source;
+		private AnnotatedElement source;
 
 		/**
 		 * 当前扫描的层级对应的索引
@@ -373,10 +782,25 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 		 */
 		private boolean interrupted;
 
+		/**
+		 * 是否跳过当前层级中剩余的注解
+		 */
+		private boolean skipLevel;
+
+		/**
+		 * 按遍历计划扫描时已被跳过的层级，第{@code n}位对应垂直索引为{@code n}的层级
+		 */
+		private long skippedLevels;
+
+		/**
+		 * 垂直索引不小于{@link Long#SIZE}的已被跳过的层级，仅在扫描层级过深的类层级结构时创建
+		 */
+		private BitSet deepSkippedLevels;
+
 		/**
 		 * 正在扫描元注解
 		 */
-		private final boolean scanningMetaAnnotations;
+		private boolean scanningMetaAnnotations;
 
 		/**
 		 * 创建一个扫描上下文
@@ -392,6 +816,117 @@ public abstract class AbstractAnnotationScanner implements AnnotationScanner {
 			this.interrupted = false;
 			this.scanningMetaAnnotations = scanningMetaAnnotations;
 		}
+
+		/**
+		 * 重置上下文，以便在下一次扫描中复用
+		 */
+		private Context reset(AnnotatedElement source, int verticalIndex, int horizontalIndex, boolean scanningMetaAnnotations) {
+			this.source = source;
+			this.verticalIndex = verticalIndex;
+			this.horizontalIndex = horizontalIndex;
+			this.interrupted = false;
+			this.skipLevel = false;
+			this.skippedLevels = 0L;
+			if (Objects.nonNull(deepSkippedLevels)) {
+				deepSkippedLevels.clear();
+			}
+			this.scanningMetaAnnotations = scanningMetaAnnotations;
+			return this;
+		}
+
+		/**
+		 * 标记跳过指定层级中剩余的类
+		 */
+		private void skipLevel(int verticalIndex) {
+			if (verticalIndex < Long.SIZE) {
+				skippedLevels |= 1L << verticalIndex;
+			} else {
+				if (Objects.isNull(deepSkippedLevels)) {
+					deepSkippedLevels = new BitSet();
+				}
+				deepSkippedLevels.set(verticalIndex - Long.SIZE);
+			}
+			skipLevel = false;
+		}
+
+		/**
+		 * 指定层级是否已被跳过
+		 */
+		private boolean isLevelSkipped(int verticalIndex) {
+			if (verticalIndex < Long.SIZE) {
+				return (skippedLevels & (1L << verticalIndex)) != 0;
+			}
+			return Objects.nonNull(deepSkippedLevels) && deepSkippedLevels.get(verticalIndex - Long.SIZE);
+		}
+	}
+
+	/**
+	 * 一次扫描所需的可复用状态，包括上下文、按层级排列的类队列以及按引用比较的已访问类集合
+	 *
+	 * @author huangchengxing
+	 */
+	private static class ScanState {
+
+		/**
+		 * 归还时若队列或集合的元素数量超过该值，则丢弃该容器，避免池长期持有过大的数组
+		 */
+		private static final int MAX_RETAINED_SIZE = 256;
+
+		private final Context context = new Context(null, VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT, false);
+		private List<Class<?>> typeQueue = new ArrayList<>();
+		private Set<Class<?>> accessedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * 清空状态，并释放对扫描元素与类的引用
+		 */
+		void clear() {
+			context.reset(null, VERTICAL_INDEX_START_POINT, HORIZONTAL_INDEX_START_POINT, false);
+			if (typeQueue.size() > MAX_RETAINED_SIZE) {
+				typeQueue = new ArrayList<>();
+			} else {
+				typeQueue.clear();
+			}
+			if (accessedTypes.size() > MAX_RETAINED_SIZE) {
+				accessedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+			} else {
+				accessedTypes.clear();
+			}
+		}
+	}
+
+	/**
+	 * 线程私有的扫描状态池，按嵌套深度依次分配{@link ScanState}，归还顺序必须与获取顺序相反
+	 *
+	 * @author huangchengxing
+	 */
+	private static class ScanStatePool {
+
+		private ScanState[] states = new ScanState[4];
+		private int depth;
+
+		/**
+		 * 获取下一层嵌套深度对应的扫描状态
+		 */
+		ScanState acquire() {
+			if (depth == states.length) {
+				states = Arrays.copyOf(states, depth << 1);
+			}
+			ScanState state = states[depth];
+			if (Objects.isNull(state)) {
+				state = new ScanState();
+				states[depth] = state;
+			}
+			depth++;
+			return state;
+		}
+
+		/**
+		 * 清空并归还扫描状态
+		 */
+		void release(ScanState state) {
+			state.clear();
+			depth--;
+		}
 	}
 
 }
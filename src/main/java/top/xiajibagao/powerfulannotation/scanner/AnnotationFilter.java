@@ -1,6 +1,6 @@
 package top.xiajibagao.powerfulannotation.scanner;
 
-import top.xiajibagao.powerfulannotation.helper.StrUtils;
+import top.xiajibagao.powerfulannotation.helper.Assert;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
@@ -14,6 +14,7 @@ import java.util.function.Predicate;
  *     <li>{@link #FILTER_NOTHING}：不过滤任何注解；</li>
  *     <li>{@link #FILTER_ANYTHING}：过滤任何注解；</li>
  * </ul>
+ * 此外，还可以通过{@link #reachable(Class)}获取仅保留能够到达指定注解的注解的过滤器。
  *
  * @author huangchengxing
  * @see AbstractAnnotationScanner
@@ -52,11 +53,12 @@ public interface AnnotationFilter extends Predicate<Annotation> {
 	 * @author huangchengxing
 	 */
 	class JavaAnnotationFilter implements AnnotationFilter {
+		private static final CompiledTypeFilter TYPE_FILTER = CompiledTypeFilter.builder()
+			.excludePrefixes("java.lang", "com.sum")
+			.build();
 		@Override
 		public boolean test(Annotation annotation) {
-			return StrUtils.isNotStartWithAny(
-				annotation.annotationType().getName(), "java.lang", "com.sum"
-			);
+			return TYPE_FILTER.test(annotation.annotationType());
 		}
 	}
 
@@ -84,6 +86,21 @@ public interface AnnotationFilter extends Predicate<Annotation> {
 		}
 	}
 
+	/**
+	 * <p>获取一个过滤器，仅保留指定类型的注解，以及在任意深度上被指定类型的注解所注解的注解。<br />
+	 * 由于被过滤的注解的元注解同样不会被扫描，因此在查找指定类型的注解时，
+	 * 可以借助该过滤器跳过不可能包含该注解的元注解层级结构。
+	 *
+	 * @param targetType 目标注解类型
+	 * @return 过滤器
+	 * @throws IllegalArgumentException 当{@code targetType}为空时抛出
+	 * @see MetaAnnotationGraph#isReachable(Class, Class)
+	 */
+	static AnnotationFilter reachable(Class<? extends Annotation> targetType) {
+		Assert.notNull(targetType, "targetType must not null");
+		return annotation -> MetaAnnotationGraph.isReachable(annotation.annotationType(), targetType);
+	}
+
 	/**
 	 * 组合过滤器
 	 *
@@ -91,8 +108,15 @@ public interface AnnotationFilter extends Predicate<Annotation> {
 	 * @return 组合的过滤器
 	 */
 	static AnnotationFilter combine(AnnotationFilter... filters) {
-		return annotation -> Arrays.stream(filters)
-			.allMatch(filter -> filter.test(annotation));
+		final AnnotationFilter[] actualFilters = Arrays.copyOf(filters, filters.length);
+		return annotation -> {
+			for (AnnotationFilter filter : actualFilters) {
+				if (!filter.test(annotation)) {
+					return false;
+				}
+			}
+			return true;
+		};
 	}
 
 }
@@ -0,0 +1,127 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>注解存在性位图，记录了以某种{@link AnnotationSearchMode}扫描一个元素时，可以扫描到的全部注解类型。<br />
+ * 位图的第{@code n}位对应{@link AnnotationTypeIds}中编号为{@code n}的注解类型，
+ * 因此判断一个注解类型是否存在时，只需获取其编号并检查对应的位即可。
+ *
+ * <p>位图创建后不可变，可以被缓存并在多个线程中共享。
+ *
+ * @author huangchengxing
+ * @see AnnotationSearchMode#getAnnotationPresence(java.lang.reflect.AnnotatedElement)
+ * @see AnnotationTypeIds
+ */
+public final class AnnotationPresence {
+
+	/**
+	 * 不包含任何注解类型的位图
+	 */
+	public static final AnnotationPresence EMPTY = new AnnotationPresence(new long[0], 0);
+
+	/**
+	 * 位图
+	 */
+	private final long[] words;
+
+	/**
+	 * 包含的注解类型数量
+	 */
+	private final int size;
+
+	private AnnotationPresence(long[] words, int size) {
+		this.words = words;
+		this.size = size;
+	}
+
+	/**
+	 * 指定类型的注解是否存在
+	 *
+	 * @param annotationType 注解类型
+	 * @return 是否
+	 */
+	public boolean isPresent(Class<? extends Annotation> annotationType) {
+		return Objects.nonNull(annotationType) && isPresent(AnnotationTypeIds.getId(annotationType));
+	}
+
+	/**
+	 * 指定编号对应的注解类型是否存在
+	 *
+	 * @param annotationTypeId 注解类型编号
+	 * @return 是否
+	 */
+	public boolean isPresent(int annotationTypeId) {
+		final int wordIndex = annotationTypeId >>> 6;
+		return wordIndex < words.length && (words[wordIndex] & (1L << annotationTypeId)) != 0;
+	}
+
+	/**
+	 * 获取包含的注解类型数量
+	 *
+	 * @return 注解类型数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否不包含任何注解类型
+	 *
+	 * @return 是否
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 用于在扫描过程中记录注解类型的处理器
+	 *
+	 * @author huangchengxing
+	 */
+	static class Collector implements AnnotationProcessor {
+
+		private long[] words = new long[1];
+		private int size;
+
+		@Override
+		public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+			add(annotation.annotationType());
+		}
+
+		/**
+		 * 记录注解类型
+		 */
+		void add(Class<? extends Annotation> annotationType) {
+			final int id = AnnotationTypeIds.getId(annotationType);
+			final int wordIndex = id >>> 6;
+			if (wordIndex >= words.length) {
+				words = Arrays.copyOf(words, Math.max(wordIndex + 1, words.length << 1));
+			}
+			final long mask = 1L << id;
+			if ((words[wordIndex] & mask) == 0) {
+				words[wordIndex] |= mask;
+				size++;
+			}
+		}
+
+		/**
+		 * 获取位图，末尾为空的部分将被截去
+		 */
+		AnnotationPresence toPresence() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			int length = words.length;
+			while (words[length - 1] == 0) {
+				length--;
+			}
+			return new AnnotationPresence(Arrays.copyOf(words, length), size);
+		}
+	}
+
+}
@@ -1,17 +1,27 @@
 package top.xiajibagao.powerfulannotation.scanner;
 
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
 import top.xiajibagao.powerfulannotation.helper.Function3;
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.index.AnnotationIndex;
+import top.xiajibagao.powerfulannotation.index.AnnotationSnapshot;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationCollector;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationConverter;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
 import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+import top.xiajibagao.powerfulannotation.scanner.processor.MultiAnnotationFinder;
+import top.xiajibagao.powerfulannotation.scanner.processor.ScanControl;
+import top.xiajibagao.powerfulannotation.scanner.processor.ScanResult;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Inherited;
 import java.lang.reflect.AnnotatedElement;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.lang.reflect.Member;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * <p>用于从{@link AnnotatedElement}及其层级结构扫描注解的扫描模式封装
@@ -43,6 +53,11 @@ import java.util.function.Predicate;
  *     <li>提供的策略皆不会扫描{@link com.sun}，{@link java.lang}及{@link javax}包下的类的注解；</li>
  *     <li>提供的策略皆不会重复扫描一个已经扫描过的普通类，并且在扫描注解类时，该类层级结构中的一种类型的元注解只会被扫描一次；</li>
  *     <li>
+ *         若类路径下存在由编译期注解处理器生成的{@link AnnotationIndex}，
+ *         则扫描前将先通过索引判断元素的层级结构中是否确定不存在注解，若是则直接跳过扫描；
+ *         若设置了默认的{@link AnnotationSnapshot}，则同样会通过快照进行判断；
+ *     </li>
+ *     <li>
  *         当查找的元素为注解类，即元素类型为{@link Class}、且{@link Class#isAnnotation()}返回{@code true}时，
  *         必须选择<code>INDIRECT</code>类型的策略才会完整的扫描其层级结构中的元注解，
  *         其余策略皆仅会扫描该注解类直接声明的元注解；
@@ -99,6 +114,12 @@ public enum AnnotationSearchMode {
 	 */
 	protected final AbstractAnnotationScanner scanner;
 
+	/**
+	 * 元素与以当前模式扫描该元素时可以扫描到的注解类型，按元素本身或其声明类分组存放。<br />
+	 * 缓存通过{@link ClassValue}挂载在类上，因此不会阻止类及其类加载器被回收
+	 */
+	private volatile ClassValue<Map<AnnotatedElement, AnnotationPresence>> presences = newPresenceCache();
+
 	/**
 	 * 构造
 	 *
@@ -117,6 +138,16 @@ public enum AnnotationSearchMode {
 		return scanner.copyOptions();
 	}
 
+	/**
+	 * 获取一个与该策略扫描范围一致的并行注解扫描器，用于批量扫描大量元素
+	 *
+	 * @param pool 执行任务的线程池
+	 * @return 并行注解扫描器
+	 */
+	public ParallelAnnotationScanner parallel(ForkJoinPool pool) {
+		return new ParallelAnnotationScanner(this::scan, pool);
+	}
+
 	/**
 	 * 从元素获取全部注解并将其转为指定类型
 	 *
@@ -128,7 +159,7 @@ public enum AnnotationSearchMode {
 	 */
 	public <T> List<T> getAnnotations(
 		AnnotatedElement element, AnnotationFilter filter,
-		Function3<Integer, Integer, Annotation, T> converter) {
+		AnnotationConverter<T> converter) {
 		if (Objects.isNull(element)) {
 			return Collections.emptyList();
 		}
@@ -137,6 +168,23 @@ public enum AnnotationSearchMode {
 		return collector.getTargets();
 	}
 
+	/**
+	 * 从元素获取全部注解并将其转为指定类型
+	 *
+	 * @param element   要扫描的元素
+	 * @param filter    注解过滤器
+	 * @param converter 转换器
+	 * @param <T>       转换类型
+	 * @return 注解对象
+	 * @deprecated 索引将在每次调用时被装箱，请使用{@link #getAnnotations(AnnotatedElement, AnnotationFilter, AnnotationConverter)}
+	 */
+	@Deprecated
+	public <T> List<T> getAnnotations(
+		AnnotatedElement element, AnnotationFilter filter,
+		Function3<Integer, Integer, Annotation, T> converter) {
+		return getAnnotations(element, filter, AnnotationConverter.of(converter));
+	}
+
 	/**
 	 * 从元素获取全部注解
 	 *
@@ -145,7 +193,20 @@ public enum AnnotationSearchMode {
 	 * @return 注解对象
 	 */
 	public List<Annotation> getAnnotations(AnnotatedElement element, AnnotationFilter filter) {
-		return getAnnotations(element, filter, (vi, hi, annotation) -> annotation);
+		return getAnnotations(element, filter, AnnotationConverter.identity());
+	}
+
+	/**
+	 * 从元素获取全部注解及其索引，结果以平行数组的形式紧凑存放，不会为每个注解创建包装对象
+	 *
+	 * @param element 要扫描的元素
+	 * @param filter  注解过滤器
+	 * @return 扫描结果
+	 */
+	public ScanResult getScanResult(AnnotatedElement element, AnnotationFilter filter) {
+		ScanResult result = new ScanResult();
+		scan(element, result, filter);
+		return result;
 	}
 
 	/**
@@ -155,13 +216,27 @@ public enum AnnotationSearchMode {
 	 * @param annotationType 注解类型
 	 * @return 注解对象
 	 */
-	@SuppressWarnings("unchecked")
 	public <T extends Annotation> List<T> getAnnotations(AnnotatedElement element, Class<T> annotationType) {
-		return getAnnotations(
-			element,
-			AnnotationFilter.FILTER_NOTHING,
-			(vi, hi, annotation) -> Objects.equals(annotation.annotationType(), annotationType) ? (T)annotation : null
-		);
+		return getAnnotations(element, AnnotationFilter.FILTER_NOTHING, AnnotationConverter.ofType(annotationType));
+	}
+
+	/**
+	 * 获取一个惰性扫描元素上注解的流，扫描仅在消费者拉取元素时推进，
+	 * 适用于仅需要获取前若干个注解，或在找到目标后即停止的场景
+	 *
+	 * @param element 要扫描的元素
+	 * @param filter  注解过滤器
+	 * @return 注解流
+	 * @see AbstractAnnotationScanner#stream
+	 */
+	public Stream<HierarchicalAnnotation<Annotation>> stream(AnnotatedElement element, AnnotationFilter filter) {
+		ScanOptions options = scanner.options;
+		if (Objects.isNull(element)
+			|| AnnotationIndex.getDefaultOf(element).isAbsent(element, options.isEnableScanInterface(), options.getTypeFilter())
+			|| AnnotationSnapshot.getDefault().isAbsent(element, options.isEnableScanInterface(), options.getTypeFilter())) {
+			return Stream.empty();
+		}
+		return scanner.stream(element, filter);
 	}
 
 	/**
@@ -176,7 +251,7 @@ public enum AnnotationSearchMode {
 	 */
 	public <T> T getAnnotation(
 		AnnotatedElement element, AnnotationFilter filter, Predicate<T> predicate,
-		Function3<Integer, Integer, Annotation, T> converter) {
+		AnnotationConverter<T> converter) {
 		if (Objects.isNull(element)) {
 			return null;
 		}
@@ -185,6 +260,24 @@ public enum AnnotationSearchMode {
 		return finder.getTarget();
 	}
 
+	/**
+	 * 从元素获取注解并将其转为指定类型对象，若符合条件则返回该指定类型对象
+	 *
+	 * @param element   要扫描的元素
+	 * @param filter    注解过滤器
+	 * @param predicate 目标的判断条件
+	 * @param converter 转换器
+	 * @param <T>       转换类型
+	 * @return 注解对象
+	 * @deprecated 索引将在每次调用时被装箱，请使用{@link #getAnnotation(AnnotatedElement, AnnotationFilter, Predicate, AnnotationConverter)}
+	 */
+	@Deprecated
+	public <T> T getAnnotation(
+		AnnotatedElement element, AnnotationFilter filter, Predicate<T> predicate,
+		Function3<Integer, Integer, Annotation, T> converter) {
+		return getAnnotation(element, filter, predicate, AnnotationConverter.of(converter));
+	}
+
 	/**
 	 * 从元素获取类型注解
 	 *
@@ -193,13 +286,50 @@ public enum AnnotationSearchMode {
 	 * @param <T>            注解类型
 	 * @return 注解对象
 	 */
-	@SuppressWarnings("unchecked")
 	public <T extends Annotation> T getAnnotation(AnnotatedElement element, Class<T> annotationType) {
-		return (T) getAnnotation(
-			element, AnnotationFilter.FILTER_NOTHING,
-			annotation -> Objects.equals(annotation.annotationType(), annotationType),
-			(vi, hi, annotation) -> annotation
-		);
+		if (Objects.isNull(element) || Objects.isNull(annotationType)) {
+			return null;
+		}
+		// 若扫描的是注解类，而目标注解不在其元注解中，则无需扫描
+		if (element instanceof Class && ((Class<?>)element).isAnnotation()
+			&& !MetaAnnotationGraph.isMetaAnnotatedWith(castAnnotationType(element), annotationType)) {
+			return null;
+		}
+		// 跳过不可能包含目标注解的元注解
+		AnnotationFinder<T> finder = new AnnotationFinder<T>(AnnotationConverter.ofType(annotationType), Objects::nonNull) {
+			@Override
+			public ScanControl process(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				ScanControl control = super.process(verticalIndex, horizontalIndex, annotation);
+				return control == ScanControl.CONTINUE && !MetaAnnotationGraph.isReachable(annotation.annotationType(), annotationType) ?
+					ScanControl.SKIP_META : control;
+			}
+		};
+		scan(element, finder, AnnotationFilter.FILTER_NOTHING);
+		return finder.getTarget();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> castAnnotationType(AnnotatedElement element) {
+		return (Class<? extends Annotation>)element;
+	}
+
+	/**
+	 * 在一次扫描中，从元素获取每种指定类型的第一个注解，结果与分别调用{@link #getAnnotation(AnnotatedElement, Class)}一致，
+	 * 当全部类型的注解皆已找到后即停止扫描
+	 *
+	 * @param element         要扫描的元素
+	 * @param annotationTypes 注解类型
+	 * @return 注解类型与对应的注解，按指定类型的顺序排列，不包含未找到的类型
+	 * @see MultiAnnotationFinder
+	 */
+	public Map<Class<? extends Annotation>, Annotation> getFirstAnnotations(
+		AnnotatedElement element, Collection<? extends Class<? extends Annotation>> annotationTypes) {
+		MultiAnnotationFinder finder = new MultiAnnotationFinder(annotationTypes);
+		if (Objects.isNull(element) || finder.isAllFound()) {
+			return finder.getTargets();
+		}
+		scan(element, finder, AnnotationFilter.FILTER_NOTHING);
+		return finder.getTargets();
 	}
 
 	/**
@@ -210,7 +340,64 @@ public enum AnnotationSearchMode {
 	 * @return 是否
 	 */
 	public boolean isAnnotationPresent(AnnotatedElement element, Class<? extends Annotation> annotationType) {
-		return Objects.nonNull(getAnnotation(element, annotationType));
+		return Objects.nonNull(element) && getAnnotationPresence(element).isPresent(annotationType);
+	}
+
+	/**
+	 * <p>获取以当前模式扫描元素时可以扫描到的全部注解类型，结果与{@link #getAnnotation(AnnotatedElement, Class)}是否为空一致。<br />
+	 * 元素首次被获取时将完整扫描一次其层级结构与元注解，之后结果将被缓存，
+	 * 再次判断任意注解类型是否存在时，只需检查{@link AnnotationPresence}中对应的位即可。
+	 *
+	 * @param element 要扫描的元素
+	 * @return 注解存在性位图
+	 */
+	public AnnotationPresence getAnnotationPresence(AnnotatedElement element) {
+		Assert.notNull(element, "element must not null");
+		final Class<?> owner = getPresenceOwner(element);
+		// 既不是类也不是类成员的元素不缓存
+		if (Objects.isNull(owner)) {
+			return collectPresence(element);
+		}
+		final Map<AnnotatedElement, AnnotationPresence> ownerPresences = presences.get(owner);
+		AnnotationPresence presence = ownerPresences.get(element);
+		if (Objects.isNull(presence)) {
+			presence = collectPresence(element);
+			AnnotationPresence existing = ownerPresences.putIfAbsent(element, presence);
+			presence = Objects.isNull(existing) ? presence : existing;
+		}
+		return presence;
+	}
+
+	private AnnotationPresence collectPresence(AnnotatedElement element) {
+		AnnotationPresence.Collector collector = new AnnotationPresence.Collector();
+		scan(element, collector, AnnotationFilter.FILTER_NOTHING);
+		return collector.toPresence();
+	}
+
+	/**
+	 * 获取用于挂载元素缓存的类，即类本身或成员的声明类，若元素不为二者则返回{@code null}
+	 */
+	private static Class<?> getPresenceOwner(AnnotatedElement element) {
+		if (element instanceof Class) {
+			return (Class<?>)element;
+		}
+		return element instanceof Member ? ((Member)element).getDeclaringClass() : null;
+	}
+
+	private static ClassValue<Map<AnnotatedElement, AnnotationPresence>> newPresenceCache() {
+		return new ClassValue<Map<AnnotatedElement, AnnotationPresence>>() {
+			@Override
+			protected Map<AnnotatedElement, AnnotationPresence> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>(4);
+			}
+		};
+	}
+
+	/**
+	 * 清空当前模式缓存的注解存在性位图
+	 */
+	public void clearPresenceCache() {
+		presences = newPresenceCache();
 	}
 
 	/**
@@ -221,7 +408,34 @@ public enum AnnotationSearchMode {
 	 * @param filter    过滤器
 	 */
 	public void scan(AnnotatedElement element, AnnotationProcessor processor, AnnotationFilter filter) {
+		ScanOptions options = scanner.options;
+		if (AnnotationIndex.getDefaultOf(element).isAbsent(element, options.isEnableScanInterface(), options.getTypeFilter())
+			|| AnnotationSnapshot.getDefault().isAbsent(element, options.isEnableScanInterface(), options.getTypeFilter())) {
+			return;
+		}
 		scanner.scan(element, processor, filter);
 	}
 
+	/**
+	 * 批量扫描类中的方法或属性上的注解，并交由各成员对应的处理器处理，
+	 * 同一类声明的成员仅遍历一次层级结构，结果与逐个调用{@link #scan}一致
+	 *
+	 * @param type             类
+	 * @param memberProcessors 方法或属性与其对应的处理器，成员必须由该类或其层级结构中的类声明
+	 * @param filter           过滤器
+	 * @see AbstractAnnotationScanner#scanMembers
+	 */
+	public void scanMembers(
+		Class<?> type, Map<? extends AnnotatedElement, ? extends AnnotationProcessor> memberProcessors, AnnotationFilter filter) {
+		ScanOptions options = scanner.options;
+		Map<AnnotatedElement, AnnotationProcessor> actualProcessors = new LinkedHashMap<>(memberProcessors.size());
+		memberProcessors.forEach((member, processor) -> {
+			if (!AnnotationIndex.getDefaultOf(member).isAbsent(member, options.isEnableScanInterface(), options.getTypeFilter())
+				&& !AnnotationSnapshot.getDefault().isAbsent(member, options.isEnableScanInterface(), options.getTypeFilter())) {
+				actualProcessors.put(member, processor);
+			}
+		});
+		scanner.scanMembers(type, actualProcessors, filter);
+	}
+
 }
@@ -0,0 +1,58 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>注解类型编号注册表，在注解类型首次被获取编号时，为其分配一个从0开始的稠密编号。<br />
+ * 编号缓存在{@link ClassValue}中，因此再次获取同一类型的编号时无需进行任何哈希计算，
+ * 可以被{@link AnnotationPresence}等结构用作位图或数组的下标。
+ *
+ * <p>编号在当前JVM中唯一，但是并不保证连续——并发首次获取同一类型的编号时，可能有编号被跳过而不被使用。
+ *
+ * @author huangchengxing
+ * @see AnnotationPresence
+ */
+public final class AnnotationTypeIds {
+
+	/**
+	 * 下一个待分配的编号
+	 */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(0);
+
+	/**
+	 * 已分配的编号
+	 */
+	private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return NEXT_ID.getAndIncrement();
+		}
+	};
+
+	private AnnotationTypeIds() {
+	}
+
+	/**
+	 * 获取注解类型的编号，若该类型尚未分配编号，则为其分配一个新编号
+	 *
+	 * @param annotationType 注解类型
+	 * @return 编号
+	 */
+	public static int getId(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		return IDS.get(annotationType);
+	}
+
+	/**
+	 * 获取已分配的编号数量，即当前最大编号加一
+	 *
+	 * @return 编号数量
+	 */
+	public static int size() {
+		return NEXT_ID.get();
+	}
+
+}
@@ -0,0 +1,235 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * <p>预编译的类型过滤器，可用作{@link ScanOptions#setTypeFilter(Predicate)}，
+ * 或通过{@link #toAnnotationFilter()}转为按注解类型过滤的{@link AnnotationFilter}。
+ *
+ * <p>构建时，包名前缀规则将被编译为一棵字典树，显式允许或拒绝的类型将被编译为按引用比较的集合。
+ * 每个类型的判定结果在首次判定后缓存在{@link ClassValue}中，
+ * 因此之后再次判定同一类型时，不需要再获取类名或进行任何字符串比较。
+ *
+ * <p>判定时，按照下述顺序决定类型能否通过过滤器：
+ * <ol>
+ *     <li>若类型被显式允许，则通过；</li>
+ *     <li>若类型被显式拒绝，则不通过；</li>
+ *     <li>若类名与任意前缀规则匹配，则以匹配的前缀最长的规则为准；</li>
+ *     <li>否则按{@link Builder#defaultIncluded(boolean)}决定，默认通过；</li>
+ * </ol>
+ * 与{@link String#startsWith(String)}一致，前缀规则按字符匹配，比如<em>java.lang</em>同样会匹配<em>java.language.Foo</em>。
+ *
+ * <p>eg：
+ * <pre>{@code
+ * CompiledTypeFilter filter = CompiledTypeFilter.builder()
+ *     .excludePrefixes("java.", "javax.")
+ *     .includePrefixes("java.lang.annotation.Repeatable")
+ *     .excludeTypes(Deprecated.class)
+ *     .build();
+ * }</pre>
+ *
+ * @author huangchengxing
+ */
+public class CompiledTypeFilter implements Predicate<Class<?>> {
+
+	/**
+	 * 字典树根节点
+	 */
+	private final Node root;
+
+	/**
+	 * 显式允许的类型
+	 */
+	private final Set<Class<?>> includedTypes;
+
+	/**
+	 * 显式拒绝的类型
+	 */
+	private final Set<Class<?>> excludedTypes;
+
+	/**
+	 * 未匹配任何规则时是否通过
+	 */
+	private final boolean defaultIncluded;
+
+	/**
+	 * 判定结果缓存
+	 */
+	private final ClassValue<Boolean> verdicts = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return evaluate(type);
+		}
+	};
+
+	private CompiledTypeFilter(Node root, Set<Class<?>> includedTypes, Set<Class<?>> excludedTypes, boolean defaultIncluded) {
+		this.root = root;
+		this.includedTypes = includedTypes;
+		this.excludedTypes = excludedTypes;
+		this.defaultIncluded = defaultIncluded;
+	}
+
+	/**
+	 * 创建一个过滤器构建器
+	 *
+	 * @return 构建器
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 类型是否可以通过过滤器
+	 *
+	 * @param type 类型
+	 * @return 是否
+	 */
+	@Override
+	public boolean test(Class<?> type) {
+		return verdicts.get(type);
+	}
+
+	/**
+	 * 获取一个按注解类型过滤的注解过滤器
+	 *
+	 * @return 注解过滤器
+	 */
+	public AnnotationFilter toAnnotationFilter() {
+		return annotation -> test(annotation.annotationType());
+	}
+
+	private boolean evaluate(Class<?> type) {
+		if (includedTypes.contains(type)) {
+			return true;
+		}
+		if (excludedTypes.contains(type)) {
+			return false;
+		}
+		// 沿类名遍历字典树，以匹配的最长前缀对应的规则为准
+		final String name = type.getName();
+		Boolean verdict = root.included;
+		Node node = root;
+		for (int i = 0; i < name.length() && Objects.nonNull(node = node.children.get(name.charAt(i))); i++) {
+			if (Objects.nonNull(node.included)) {
+				verdict = node.included;
+			}
+		}
+		return Objects.isNull(verdict) ? defaultIncluded : verdict;
+	}
+
+	/**
+	 * 字典树节点
+	 */
+	private static class Node {
+		private final Map<Character, Node> children = new HashMap<>(4);
+		private Boolean included;
+	}
+
+	/**
+	 * {@link CompiledTypeFilter}构建器
+	 *
+	 * @author huangchengxing
+	 */
+	public static class Builder {
+
+		private final Node root = new Node();
+		private final Set<Class<?>> includedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+		private final Set<Class<?>> excludedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+		private boolean defaultIncluded = true;
+
+		private Builder() {
+		}
+
+		/**
+		 * 允许类名以指定前缀开头的类型通过
+		 *
+		 * @param prefixes 类名前缀
+		 * @return 构建器
+		 */
+		public Builder includePrefixes(String... prefixes) {
+			return addPrefixes(prefixes, true);
+		}
+
+		/**
+		 * 拒绝类名以指定前缀开头的类型通过
+		 *
+		 * @param prefixes 类名前缀
+		 * @return 构建器
+		 */
+		public Builder excludePrefixes(String... prefixes) {
+			return addPrefixes(prefixes, false);
+		}
+
+		/**
+		 * 显式允许指定类型通过，优先级高于前缀规则
+		 *
+		 * @param types 类型
+		 * @return 构建器
+		 */
+		public Builder includeTypes(Class<?>... types) {
+			Assert.notNull(types, "types must not null");
+			Collections.addAll(includedTypes, types);
+			return this;
+		}
+
+		/**
+		 * 显式拒绝指定类型通过，优先级高于前缀规则
+		 *
+		 * @param types 类型
+		 * @return 构建器
+		 */
+		public Builder excludeTypes(Class<?>... types) {
+			Assert.notNull(types, "types must not null");
+			Collections.addAll(excludedTypes, types);
+			return this;
+		}
+
+		/**
+		 * 设置未匹配任何规则的类型是否通过，默认通过
+		 *
+		 * @param defaultIncluded 是否通过
+		 * @return 构建器
+		 */
+		public Builder defaultIncluded(boolean defaultIncluded) {
+			this.defaultIncluded = defaultIncluded;
+			return this;
+		}
+
+		/**
+		 * 构建过滤器，构建完成后对构建器的修改不会影响已构建的过滤器
+		 *
+		 * @return 过滤器
+		 */
+		public CompiledTypeFilter build() {
+			Set<Class<?>> included = Collections.newSetFromMap(new IdentityHashMap<>(includedTypes.size()));
+			included.addAll(includedTypes);
+			Set<Class<?>> excluded = Collections.newSetFromMap(new IdentityHashMap<>(excludedTypes.size()));
+			excluded.addAll(excludedTypes);
+			return new CompiledTypeFilter(copy(root), included, excluded, defaultIncluded);
+		}
+
+		private Builder addPrefixes(String[] prefixes, boolean included) {
+			Assert.notNull(prefixes, "prefixes must not null");
+			for (String prefix : prefixes) {
+				Assert.notNull(prefix, "prefix must not null");
+				Node node = root;
+				for (int i = 0; i < prefix.length(); i++) {
+					node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+				}
+				node.included = included;
+			}
+			return this;
+		}
+
+		private static Node copy(Node source) {
+			Node target = new Node();
+			target.included = source.included;
+			source.children.forEach((c, child) -> target.children.put(c, copy(child)));
+			return target;
+		}
+	}
+
+}
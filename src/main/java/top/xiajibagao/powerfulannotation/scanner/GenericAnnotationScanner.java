@@ -9,9 +9,9 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Stream;
 
 /**
  * <p>注解扫描器，用于从指定的{@link AnnotatedElement}及其可能存在的层级结构中获取注解对象 <br />
@@ -76,9 +76,9 @@ public class GenericAnnotationScanner extends AbstractAnnotationScanner {
      */
     @Override
     protected void collectAnnotationTypeIfNecessary(List<Class<?>> nextTypeHierarchies, Class<?> type) {
-        Stream.of(type.getDeclaredAnnotations())
-            .map(Annotation::annotationType)
-            .forEach(nextTypeHierarchies::add);
+        for (final Annotation annotation : Annotations.getDeclaredAnnotations(type)) {
+            nextTypeHierarchies.add(annotation.annotationType());
+        }
     }
 
     /**
@@ -89,9 +89,8 @@ public class GenericAnnotationScanner extends AbstractAnnotationScanner {
      */
     @Override
     protected void collectInterfaceTypeIfNecessary(List<Class<?>> nextTypeHierarchies, Class<?> type) {
-        final Class<?>[] interfaces = type.getInterfaces();
-        if (CollUtils.isNotEmpty(interfaces)) {
-            CollUtils.addAll(nextTypeHierarchies, interfaces);
+        for (final Class<?> interfaceType : ReflectUtils.getInterfaces(type)) {
+            nextTypeHierarchies.add(interfaceType);
         }
     }
 
@@ -120,11 +119,9 @@ public class GenericAnnotationScanner extends AbstractAnnotationScanner {
      */
     @Override
     protected Annotation[] getAnnotationsFromTypeDeclaredField(Class<?> type, Field element) {
-        return Stream.of(type.getDeclaredFields())
-            .filter(field -> Objects.equals(field, element))
-            .map(Annotations::getDeclaredAnnotations)
-            .flatMap(Stream::of)
-            .toArray(Annotation[]::new);
+        // 属性只可能由其声明类声明，因此无需遍历类中的全部属性
+        return element.getDeclaringClass() == type ?
+            Annotations.getDeclaredAnnotations(element) : Annotations.emptyAnnotations();
     }
 
     /**
@@ -136,12 +133,7 @@ public class GenericAnnotationScanner extends AbstractAnnotationScanner {
      */
     @Override
     protected Annotation[] getAnnotationsFromTypeDeclaredMethod(Class<?> type, Method element) {
-        return Stream.of(ReflectUtils.getDeclaredMethods(type))
-            .filter(superMethod -> !superMethod.isBridge())
-            .filter(superMethod -> hasSameMethodSignature(element, superMethod))
-            .map(Annotations::getDeclaredAnnotations)
-            .flatMap(Stream::of)
-            .toArray(Annotation[]::new);
+        return getAnnotationsFromMethods(ReflectUtils.getDeclaredMethods(type), element);
     }
 
     /**
@@ -156,23 +148,88 @@ public class GenericAnnotationScanner extends AbstractAnnotationScanner {
         return Annotations.getDeclaredAnnotations(type);
     }
 
+    /**
+     * 从类中一次性获取一批方法或属性对应的注解对象，类中声明的方法与属性皆只获取一次
+     *
+     * @param type     当前正在处理的类对象
+     * @param elements 最开始扫描的方法或属性
+     * @return 注解对象
+     */
+    @Override
+    protected Annotation[][] getAnnotationsFromTypeDeclaredMembers(Class<?> type, AnnotatedElement[] elements) {
+        Method[] declaredMethods = null;
+        final Annotation[][] annotations = new Annotation[elements.length][];
+        for (int i = 0; i < elements.length; i++) {
+            final AnnotatedElement element = elements[i];
+            if (element instanceof Method) {
+                if (Objects.isNull(declaredMethods)) {
+                    declaredMethods = ReflectUtils.getDeclaredMethods(type);
+                }
+                annotations[i] = getAnnotationsFromMethods(declaredMethods, (Method)element);
+            } else {
+                annotations[i] = getAnnotationsFromTypeDeclaredField(type, (Field)element);
+            }
+        }
+        return annotations;
+    }
+
+    /**
+     * 从一批方法中获取与扫描的方法签名相同的非桥接方法上的注解，
+     * 若仅有一个方法匹配，则直接返回该方法的注解缓存，不创建新的数组
+     */
+    private Annotation[] getAnnotationsFromMethods(Method[] methods, Method element) {
+        Annotation[] result = null;
+        for (final Method superMethod : methods) {
+            if (superMethod.isBridge() || !hasSameMethodSignature(element, superMethod)) {
+                continue;
+            }
+            final Annotation[] annotations = Annotations.getDeclaredAnnotations(superMethod);
+            if (Objects.isNull(result)) {
+                result = annotations;
+            } else {
+                final Annotation[] merged = Arrays.copyOf(result, result.length + annotations.length);
+                System.arraycopy(annotations, 0, merged, result.length, annotations.length);
+                result = merged;
+            }
+        }
+        return Objects.isNull(result) ? Annotations.emptyAnnotations() : result;
+    }
+
     /**
      * 该方法是否具备与扫描的方法相同的方法签名
      */
     private boolean hasSameMethodSignature(Method element, Method superMethod) {
-        // check name
-        if (ObjectUtils.isNotEquals(element.getName(), superMethod.getName())) {
+        // check name and the number of params before copying params
+        if (ObjectUtils.isNotEquals(element.getName(), superMethod.getName())
+            || element.getParameterCount() != superMethod.getParameterCount()) {
             return false;
         }
         // check params
-        final Class<?>[] sourceParameterTypes = element.getParameterTypes();
-        final Class<?>[] targetParameterTypes = superMethod.getParameterTypes();
-        if ((sourceParameterTypes.length != targetParameterTypes.length)
-            || !CollUtils.isContainsAll(sourceParameterTypes, targetParameterTypes)) {
+        if (element.getParameterCount() > 0
+            && !isContainsAll(ReflectUtils.getParameterTypes(element), ReflectUtils.getParameterTypes(superMethod))) {
             return false;
         }
         // check return
         return ReflectUtils.isAssignable(superMethod.getReturnType(), element.getReturnType());
     }
 
+    /**
+     * 与{@link CollUtils#isContainsAll}一致，但不创建任何集合
+     */
+    private static boolean isContainsAll(Class<?>[] sources, Class<?>[] elements) {
+        for (final Class<?> element : elements) {
+            boolean contains = false;
+            for (final Class<?> source : sources) {
+                if (source == element) {
+                    contains = true;
+                    break;
+                }
+            }
+            if (!contains) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
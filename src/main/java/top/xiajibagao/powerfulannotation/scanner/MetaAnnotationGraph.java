@@ -0,0 +1,207 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.helper.Annotations;
+import top.xiajibagao.powerfulannotation.helper.Assert;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * <p>全局的元注解可达图，用于快速判断一个注解类型是否在任意深度上被另一个注解类型所注解。<br />
+ * 图中的每个节点对应一个注解类型，节点在首次被访问时创建并缓存于{@link ClassValue}中，
+ * 其中记录了该注解类型上直接声明的元注解类型，以及按广度优先遍历得到的传递闭包与各元注解类型所在的深度。
+ * 因此，图将随着注解类型被访问而增量构建，且每个注解类型的闭包只会计算一次。
+ *
+ * <p>闭包以{@link AnnotationPresence}的形式保存，判断可达性只需检查对应的位；
+ * 元注解的深度即其与起点之间最短的元注解层级距离，与{@link ScanOptions#getMaxMetaDepth()}中的深度定义一致。
+ * 图中包含全部元注解，不受任何{@link AnnotationFilter}或类型过滤器影响，
+ * 因此当图表明一个注解类型不可达时，以任何配置进行扫描都不可能在其元注解中获得该类型，
+ * 扫描器、合成器或过滤器可以据此跳过不可能包含目标注解的元注解子树。
+ *
+ * <p>eg：
+ * <pre>{@code
+ * // Foo上的元注解中存在Bar
+ * boolean reachable = MetaAnnotationGraph.isMetaAnnotatedWith(Foo.class, Bar.class);
+ * // Bar位于Foo的第几层元注解
+ * int distance = MetaAnnotationGraph.getDistance(Foo.class, Bar.class);
+ * }</pre>
+ *
+ * @author huangchengxing
+ * @see AnnotationTypeIds
+ * @see AnnotationPresence
+ */
+public final class MetaAnnotationGraph {
+
+	/**
+	 * 注解类型对应的节点
+	 */
+	private static final ClassValue<Node> NODES = new ClassValue<Node>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Node computeValue(Class<?> type) {
+			return new Node((Class<? extends Annotation>)type);
+		}
+	};
+
+	private MetaAnnotationGraph() {
+	}
+
+	/**
+	 * 注解类型是否在任意深度上被指定的元注解类型所注解
+	 *
+	 * @param annotationType 注解类型
+	 * @param metaAnnotationType 元注解类型
+	 * @return 是否
+	 */
+	public static boolean isMetaAnnotatedWith(
+		Class<? extends Annotation> annotationType, Class<? extends Annotation> metaAnnotationType) {
+		Assert.notNull(metaAnnotationType, "metaAnnotationType must not null");
+		return getNode(annotationType).getClosure().isPresent(metaAnnotationType);
+	}
+
+	/**
+	 * 从注解类型出发能否到达指定的注解类型，即两者为同一类型，或前者在任意深度上被后者所注解
+	 *
+	 * @param annotationType 注解类型
+	 * @param targetType 目标注解类型
+	 * @return 是否
+	 */
+	public static boolean isReachable(Class<? extends Annotation> annotationType, Class<? extends Annotation> targetType) {
+		return annotationType == targetType || isMetaAnnotatedWith(annotationType, targetType);
+	}
+
+	/**
+	 * 获取元注解类型与注解类型之间最短的元注解层级距离
+	 *
+	 * @param annotationType 注解类型
+	 * @param metaAnnotationType 元注解类型
+	 * @return 距离，若两者为同一类型则返回{@code 0}，若不可达则返回{@code -1}
+	 */
+	public static int getDistance(Class<? extends Annotation> annotationType, Class<? extends Annotation> metaAnnotationType) {
+		Assert.notNull(metaAnnotationType, "metaAnnotationType must not null");
+		if (annotationType == metaAnnotationType) {
+			return 0;
+		}
+		final Integer distance = getNode(annotationType).getDistances().get(metaAnnotationType);
+		return Objects.isNull(distance) ? -1 : distance;
+	}
+
+	/**
+	 * 获取注解类型的元注解深度，即其全部可达的元注解中最大的距离
+	 *
+	 * @param annotationType 注解类型
+	 * @return 深度，若注解类型上不存在元注解则返回{@code 0}
+	 */
+	public static int getDepth(Class<? extends Annotation> annotationType) {
+		return getNode(annotationType).getDepth();
+	}
+
+	/**
+	 * 获取注解类型上直接声明的元注解类型
+	 *
+	 * @param annotationType 注解类型
+	 * @return 元注解类型，按声明顺序排列
+	 */
+	public static List<Class<? extends Annotation>> getDirectMetaAnnotationTypes(Class<? extends Annotation> annotationType) {
+		return Collections.unmodifiableList(Arrays.asList(getNode(annotationType).directMetaAnnotationTypes));
+	}
+
+	/**
+	 * 获取注解类型在任意深度上的全部元注解类型
+	 *
+	 * @param annotationType 注解类型
+	 * @return 元注解类型，按广度优先遍历的顺序排列
+	 */
+	public static Set<Class<? extends Annotation>> getMetaAnnotationTypes(Class<? extends Annotation> annotationType) {
+		return Collections.unmodifiableSet(getNode(annotationType).getDistances().keySet());
+	}
+
+	private static Node getNode(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		Assert.isTrue(annotationType.isAnnotation(), "[%s] is not an annotation type", annotationType);
+		return NODES.get(annotationType);
+	}
+
+	/**
+	 * 图中的节点。直接声明的元注解类型在创建节点时获取，闭包与深度在首次访问时计算
+	 */
+	private static class Node {
+
+		private final Class<? extends Annotation> annotationType;
+		private final Class<? extends Annotation>[] directMetaAnnotationTypes;
+		private volatile Closure closure;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Node(Class<? extends Annotation> annotationType) {
+			this.annotationType = annotationType;
+			final Annotation[] annotations = Annotations.getDeclaredAnnotations(annotationType);
+			this.directMetaAnnotationTypes = new Class[annotations.length];
+			for (int i = 0; i < annotations.length; i++) {
+				directMetaAnnotationTypes[i] = annotations[i].annotationType();
+			}
+		}
+
+		AnnotationPresence getClosure() {
+			return getOrComputeClosure().presence;
+		}
+
+		Map<Class<? extends Annotation>, Integer> getDistances() {
+			return getOrComputeClosure().distances;
+		}
+
+		int getDepth() {
+			return getOrComputeClosure().depth;
+		}
+
+		/**
+		 * 按广度优先遍历元注解，计算闭包与各元注解的距离。节点间可能存在环，已访问过的类型不会被重复访问。
+		 * 并发首次访问时闭包可能被重复计算，但结果总是相同的
+		 */
+		private Closure getOrComputeClosure() {
+			Closure result = closure;
+			if (Objects.nonNull(result)) {
+				return result;
+			}
+			final Map<Class<? extends Annotation>, Integer> distances = new LinkedHashMap<>();
+			final AnnotationPresence.Collector collector = new AnnotationPresence.Collector();
+			final Deque<Class<? extends Annotation>> queue = new ArrayDeque<>();
+			queue.add(annotationType);
+			int depth = 0;
+			while (!queue.isEmpty()) {
+				final Class<? extends Annotation> type = queue.poll();
+				final int distance = type == annotationType ? 0 : distances.get(type);
+				for (final Class<? extends Annotation> metaAnnotationType : NODES.get(type).directMetaAnnotationTypes) {
+					if (distances.containsKey(metaAnnotationType)) {
+						continue;
+					}
+					distances.put(metaAnnotationType, distance + 1);
+					collector.add(metaAnnotationType);
+					depth = distance + 1;
+					if (metaAnnotationType != annotationType) {
+						queue.add(metaAnnotationType);
+					}
+				}
+			}
+			result = new Closure(collector.toPresence(), distances, depth);
+			closure = result;
+			return result;
+		}
+	}
+
+	/**
+	 * 节点的传递闭包
+	 */
+	private static class Closure {
+
+		private final AnnotationPresence presence;
+		private final Map<Class<? extends Annotation>, Integer> distances;
+		private final int depth;
+
+		Closure(AnnotationPresence presence, Map<Class<? extends Annotation>, Integer> distances, int depth) {
+			this.presence = presence;
+			this.distances = distances;
+			this.depth = depth;
+		}
+	}
+
+}
@@ -0,0 +1,307 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * <p>并行注解扫描器，用于在{@link ForkJoinPool}中批量扫描大量的{@link AnnotatedElement}。<br />
+ * 待扫描的元素将通过{@link Spliterator#trySplit()}被拆分为多个任务，
+ * 每个元素在扫描时都将通过工厂获取一个独立的{@link AnnotationProcessor}，因此处理器无需保证线程安全。
+ * 扫描完成后，将通过处理器获取每个元素的结果，并按元素的遍历顺序合并结果，保证结果与串行扫描时一致。
+ *
+ * <p>若仅需要获取第一个满足条件的元素，则可以使用{@link #scanFirst}。
+ * 当某个元素扫描结束后，{@link AnnotationProcessor#interrupted()}返回{@code true}——比如{@link AnnotationFinder}找到了目标注解——
+ * 则认为该元素满足条件，此时遍历顺序位于该元素之后的任务将被取消。
+ *
+ * <p>eg：
+ * <pre>{@code
+ * List<List<Annotation>> annotations = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT
+ *     .parallel(ForkJoinPool.commonPool())
+ *     .scan(
+ *         elements, AnnotationFilter.FILTER_NOTHING,
+ *         () -> new AnnotationCollector<Annotation>((vi, hi, annotation) -> annotation),
+ *         (element, collector) -> collector.getTargets()
+ *     );
+ * }</pre>
+ *
+ * @author huangchengxing
+ * @see AnnotationSearchMode#parallel(ForkJoinPool)
+ */
+public class ParallelAnnotationScanner {
+
+	/**
+	 * 默认的单个任务至多处理的元素数量
+	 */
+	public static final int DEFAULT_THRESHOLD = 32;
+
+	/**
+	 * 注解扫描器
+	 */
+	private final AnnotationScanner scanner;
+
+	/**
+	 * 执行任务的线程池
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * 单个任务至多处理的元素数量
+	 */
+	private final int threshold;
+
+	/**
+	 * 创建一个并行注解扫描器
+	 *
+	 * @param scanner 注解扫描器
+	 * @param pool 执行任务的线程池
+	 */
+	public ParallelAnnotationScanner(AnnotationScanner scanner, ForkJoinPool pool) {
+		this(scanner, pool, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * 创建一个并行注解扫描器
+	 *
+	 * @param scanner 注解扫描器
+	 * @param pool 执行任务的线程池
+	 * @param threshold 单个任务至多处理的元素数量，当任务中的元素数量超过该值时，将尝试拆分任务
+	 */
+	public ParallelAnnotationScanner(AnnotationScanner scanner, ForkJoinPool pool, int threshold) {
+		Assert.notNull(scanner, "scanner must not null");
+		Assert.notNull(pool, "pool must not null");
+		Assert.isTrue(threshold > 0, "threshold must greater than 0");
+		this.scanner = scanner;
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * 并行扫描元素，并按元素的遍历顺序返回每个元素对应的结果
+	 *
+	 * @param elements 待扫描的元素
+	 * @param filter 过滤器，若为空则不过滤任何注解
+	 * @param processorFactory 处理器工厂，每个元素皆使用一个新的处理器
+	 * @param finisher 扫描完成后，根据元素与其处理器获取结果
+	 * @param <P> 处理器类型
+	 * @param <R> 结果类型
+	 * @return 结果，与元素一一对应
+	 */
+	public <P extends AnnotationProcessor, R> List<R> scan(
+		Collection<? extends AnnotatedElement> elements, AnnotationFilter filter,
+		Supplier<P> processorFactory, BiFunction<AnnotatedElement, P, R> finisher) {
+		Assert.notNull(elements, "elements must not null");
+		return scan(elements.spliterator(), filter, processorFactory, finisher);
+	}
+
+	/**
+	 * 并行扫描元素，并按元素的遍历顺序返回每个元素对应的结果
+	 *
+	 * @param elements 待扫描的元素
+	 * @param filter 过滤器，若为空则不过滤任何注解
+	 * @param processorFactory 处理器工厂，每个元素皆使用一个新的处理器
+	 * @param finisher 扫描完成后，根据元素与其处理器获取结果
+	 * @param <P> 处理器类型
+	 * @param <R> 结果类型
+	 * @return 结果，与元素一一对应
+	 */
+	public <P extends AnnotationProcessor, R> List<R> scan(
+		Spliterator<? extends AnnotatedElement> elements, AnnotationFilter filter,
+		Supplier<P> processorFactory, BiFunction<AnnotatedElement, P, R> finisher) {
+		Assert.notNull(elements, "elements must not null");
+		Assert.notNull(processorFactory, "processorFactory must not null");
+		Assert.notNull(finisher, "finisher must not null");
+		return pool.invoke(new ScanTask<>(new Context<>(filter, processorFactory, finisher), elements));
+	}
+
+	/**
+	 * 并行扫描元素，获取遍历顺序中第一个满足条件的元素对应的结果。
+	 * 若某个元素扫描结束后，其处理器的{@link AnnotationProcessor#interrupted()}返回{@code true}，则认为该元素满足条件
+	 *
+	 * @param elements 待扫描的元素
+	 * @param filter 过滤器，若为空则不过滤任何注解
+	 * @param processorFactory 处理器工厂，每个元素皆使用一个新的处理器
+	 * @param finisher 扫描完成后，根据满足条件的元素与其处理器获取结果
+	 * @param <P> 处理器类型
+	 * @param <R> 结果类型
+	 * @return 结果，若不存在满足条件的元素则返回{@code null}
+	 */
+	public <P extends AnnotationProcessor, R> R scanFirst(
+		Collection<? extends AnnotatedElement> elements, AnnotationFilter filter,
+		Supplier<P> processorFactory, BiFunction<AnnotatedElement, P, R> finisher) {
+		Assert.notNull(elements, "elements must not null");
+		return scanFirst(elements.spliterator(), filter, processorFactory, finisher);
+	}
+
+	/**
+	 * 并行扫描元素，获取遍历顺序中第一个满足条件的元素对应的结果。
+	 * 若某个元素扫描结束后，其处理器的{@link AnnotationProcessor#interrupted()}返回{@code true}，则认为该元素满足条件
+	 *
+	 * @param elements 待扫描的元素
+	 * @param filter 过滤器，若为空则不过滤任何注解
+	 * @param processorFactory 处理器工厂，每个元素皆使用一个新的处理器
+	 * @param finisher 扫描完成后，根据满足条件的元素与其处理器获取结果
+	 * @param <P> 处理器类型
+	 * @param <R> 结果类型
+	 * @return 结果，若不存在满足条件的元素则返回{@code null}
+	 */
+	public <P extends AnnotationProcessor, R> R scanFirst(
+		Spliterator<? extends AnnotatedElement> elements, AnnotationFilter filter,
+		Supplier<P> processorFactory, BiFunction<AnnotatedElement, P, R> finisher) {
+		Assert.notNull(elements, "elements must not null");
+		Assert.notNull(processorFactory, "processorFactory must not null");
+		Assert.notNull(finisher, "finisher must not null");
+		Found<R> found = pool.invoke(new ScanFirstTask<>(new Context<>(filter, processorFactory, finisher), elements, null));
+		return Objects.isNull(found) ? null : found.result;
+	}
+
+	/**
+	 * 扫描上下文，用于在任务间共享扫描参数
+	 */
+	private class Context<P extends AnnotationProcessor, R> {
+
+		private final AnnotationFilter filter;
+		private final Supplier<P> processorFactory;
+		private final BiFunction<AnnotatedElement, P, R> finisher;
+
+		Context(AnnotationFilter filter, Supplier<P> processorFactory, BiFunction<AnnotatedElement, P, R> finisher) {
+			this.filter = filter;
+			this.processorFactory = processorFactory;
+			this.finisher = finisher;
+		}
+
+		boolean isSplittable(Spliterator<?> elements) {
+			return elements.estimateSize() > threshold;
+		}
+
+		P scan(AnnotatedElement element) {
+			P processor = processorFactory.get();
+			scanner.scan(element, processor, filter);
+			return processor;
+		}
+	}
+
+	/**
+	 * 扫描元素并按遍历顺序合并结果的任务
+	 */
+	private static class ScanTask<P extends AnnotationProcessor, R> extends RecursiveTask<List<R>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ParallelAnnotationScanner.Context<P, R> context;
+		private final transient Spliterator<? extends AnnotatedElement> elements;
+
+		ScanTask(ParallelAnnotationScanner.Context<P, R> context, Spliterator<? extends AnnotatedElement> elements) {
+			this.context = context;
+			this.elements = elements;
+		}
+
+		@Override
+		protected List<R> compute() {
+			Spliterator<? extends AnnotatedElement> prefix;
+			if (context.isSplittable(elements) && Objects.nonNull(prefix = elements.trySplit())) {
+				// trySplit返回的总是遍历顺序靠前的部分
+				ScanTask<P, R> left = new ScanTask<>(context, prefix);
+				left.fork();
+				List<R> rightResults = new ScanTask<>(context, elements).compute();
+				List<R> results = left.join();
+				results.addAll(rightResults);
+				return results;
+			}
+			List<R> results = new ArrayList<>();
+			elements.forEachRemaining(element -> results.add(context.finisher.apply(element, context.scan(element))));
+			return results;
+		}
+	}
+
+	/**
+	 * <p>获取遍历顺序中第一个满足条件的元素的任务。<br />
+	 * 当某个任务找到满足条件的元素后，将取消所有遍历顺序位于其后的任务，
+	 * 合并时总是优先选择遍历顺序靠前的任务的结果，因此结果与串行扫描时一致。
+	 */
+	private static class ScanFirstTask<P extends AnnotationProcessor, R> extends RecursiveTask<Found<R>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ParallelAnnotationScanner.Context<P, R> context;
+		private final transient Spliterator<? extends AnnotatedElement> elements;
+		private final ScanFirstTask<P, R> parent;
+		private ScanFirstTask<P, R> rightSibling;
+		private volatile boolean canceled;
+
+		ScanFirstTask(
+			ParallelAnnotationScanner.Context<P, R> context,
+			Spliterator<? extends AnnotatedElement> elements, ScanFirstTask<P, R> parent) {
+			this.context = context;
+			this.elements = elements;
+			this.parent = parent;
+		}
+
+		@Override
+		protected Found<R> compute() {
+			Spliterator<? extends AnnotatedElement> prefix;
+			if (context.isSplittable(elements) && Objects.nonNull(prefix = elements.trySplit())) {
+				ScanFirstTask<P, R> left = new ScanFirstTask<>(context, prefix, this);
+				ScanFirstTask<P, R> right = new ScanFirstTask<>(context, elements, this);
+				left.rightSibling = right;
+				left.fork();
+				Found<R> rightResult = right.compute();
+				Found<R> leftResult = left.join();
+				return Objects.nonNull(leftResult) ? leftResult : rightResult;
+			}
+			Found<R> found = new Found<>();
+			while (!isCanceled() && elements.tryAdvance(element -> {
+				P processor = context.scan(element);
+				if (processor.interrupted()) {
+					found.result = context.finisher.apply(element, processor);
+					found.present = true;
+				}
+			})) {
+				if (found.present) {
+					cancelLaterTasks();
+					return found;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * 当前任务或其任意父任务是否已被取消
+		 */
+		private boolean isCanceled() {
+			for (ScanFirstTask<P, R> task = this; Objects.nonNull(task); task = task.parent) {
+				if (task.canceled) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * 取消所有遍历顺序位于当前任务之后的任务
+		 */
+		private void cancelLaterTasks() {
+			for (ScanFirstTask<P, R> task = this; Objects.nonNull(task.parent); task = task.parent) {
+				if (Objects.nonNull(task.rightSibling)) {
+					task.rightSibling.canceled = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 满足条件的元素对应的结果
+	 */
+	private static class Found<R> {
+		private R result;
+		private boolean present;
+	}
+
+}
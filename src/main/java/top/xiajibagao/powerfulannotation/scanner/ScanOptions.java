@@ -3,7 +3,6 @@ package top.xiajibagao.powerfulannotation.scanner;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import top.xiajibagao.powerfulannotation.helper.Assert;
-import top.xiajibagao.powerfulannotation.helper.StrUtils;
 
 import java.util.function.Predicate;
 
@@ -16,6 +15,13 @@ import java.util.function.Predicate;
 @Getter
 public class ScanOptions {
 
+    /**
+     * 默认的类型过滤器，不处理包括{@link java.lang}，与{@link javax}还有{@link com.sun}包下的类
+     */
+    private static final Predicate<Class<?>> DEFAULT_TYPE_FILTER = CompiledTypeFilter.builder()
+        .excludePrefixes("java.lang", "javax", "com.sum")
+        .build();
+
     /**
      * 是否支持扫描父类
      */
@@ -41,6 +47,21 @@ public class ScanOptions {
      */
     private Predicate<Class<?>> typeFilter;
 
+    /**
+     * 最大垂直索引，垂直索引大于该值的层级——包括普通类与元注解的层级——将不会被扫描
+     */
+    private int maxVerticalIndex;
+
+    /**
+     * 最大元注解深度，即从一个注解出发，至多向上扫描多少层元注解，为{@code 0}时不扫描任何元注解
+     */
+    private int maxMetaDepth;
+
+    /**
+     * 类层级结构的遍历策略，默认为{@link TraversalStrategy#BREADTH_FIRST}
+     */
+    private TraversalStrategy traversalStrategy;
+
     /**
      * 是否锁定配置
      */
@@ -60,7 +81,10 @@ public class ScanOptions {
         this.enableScanInterface = enableScanInterface;
         this.enableScanMetaAnnotation = enableScanMetaAnnotation;
         this.enableScanAccessedType = false;
-        this.typeFilter = t -> StrUtils.isNotStartWithAny(t.getName(), "java.lang", "javax", "com.sum");
+        this.typeFilter = DEFAULT_TYPE_FILTER;
+        this.maxVerticalIndex = Integer.MAX_VALUE;
+        this.maxMetaDepth = Integer.MAX_VALUE;
+        this.traversalStrategy = TraversalStrategy.BREADTH_FIRST;
     }
 
     /**
@@ -73,7 +97,10 @@ public class ScanOptions {
         this.enableScanInterface = true;
         this.enableScanMetaAnnotation = true;
         this.enableScanAccessedType = false;
-        this.typeFilter = t -> StrUtils.isNotStartWithAny(t.getName(), "java.lang", "javax", "com.sum");
+        this.typeFilter = DEFAULT_TYPE_FILTER;
+        this.maxVerticalIndex = Integer.MAX_VALUE;
+        this.maxMetaDepth = Integer.MAX_VALUE;
+        this.traversalStrategy = TraversalStrategy.BREADTH_FIRST;
     }
 
     /**
@@ -86,6 +113,9 @@ public class ScanOptions {
         this.enableScanMetaAnnotation = options.enableScanMetaAnnotation;
         this.enableScanAccessedType = options.enableScanAccessedType;
         this.typeFilter = options.typeFilter;
+        this.maxVerticalIndex = options.maxVerticalIndex;
+        this.maxMetaDepth = options.maxMetaDepth;
+        this.traversalStrategy = options.traversalStrategy;
     }
 
     /**
@@ -148,6 +178,48 @@ public class ScanOptions {
         return this;
     }
 
+    /**
+     * 设置最大垂直索引，垂直索引大于该值的层级——包括普通类与元注解的层级——将不会被扫描。
+     * 比如，当该值为{@code 2}时，将只扫描元素本身与其直接父类、父接口两层
+     *
+     * @param maxVerticalIndex 最大垂直索引，不允许小于0
+     * @return 配置对象
+     */
+    public ScanOptions setMaxVerticalIndex(int maxVerticalIndex) {
+        checkLocked();
+        Assert.isTrue(maxVerticalIndex >= 0, "maxVerticalIndex must not less than 0");
+        this.maxVerticalIndex = maxVerticalIndex;
+        return this;
+    }
+
+    /**
+     * 设置最大元注解深度，即从一个注解出发，至多向上扫描多少层元注解。
+     * 比如，当该值为{@code 1}时，将只扫描注解上直接声明的元注解
+     *
+     * @param maxMetaDepth 最大元注解深度，不允许小于0，为{@code 0}时不扫描任何元注解
+     * @return 配置对象
+     */
+    public ScanOptions setMaxMetaDepth(int maxMetaDepth) {
+        checkLocked();
+        Assert.isTrue(maxMetaDepth >= 0, "maxMetaDepth must not less than 0");
+        this.maxMetaDepth = maxMetaDepth;
+        return this;
+    }
+
+    /**
+     * 设置类层级结构的遍历策略，策略仅影响普通类的层级结构的遍历顺序，不影响元注解的扫描顺序
+     *
+     * @param traversalStrategy 遍历策略
+     * @return 配置对象
+     * @see TraversalStrategy
+     */
+    public ScanOptions setTraversalStrategy(TraversalStrategy traversalStrategy) {
+        checkLocked();
+        Assert.notNull(traversalStrategy, "traversalStrategy must not null");
+        this.traversalStrategy = traversalStrategy;
+        return this;
+    }
+
     /**
      * 锁定配置
      */
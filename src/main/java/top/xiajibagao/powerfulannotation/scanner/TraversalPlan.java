@@ -0,0 +1,157 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>由{@link TraversalStrategy}生成的遍历计划，按遍历顺序记录了一个类的层级结构中需要处理的类及其垂直索引。<br />
+ * 计划中的垂直索引即该类与起点之间的层级距离，起点本身的垂直索引为{@link AbstractAnnotationScanner#VERTICAL_INDEX_START_POINT} + 1，
+ * 无论按何种顺序遍历，同一个类的垂直索引皆由其被访问时所在的层级决定。
+ *
+ * <p>计划创建后不可变，因此可以被缓存并在多个线程中共享。
+ *
+ * @author huangchengxing
+ * @see TraversalStrategy
+ */
+public final class TraversalPlan {
+
+	/**
+	 * 空计划
+	 */
+	private static final TraversalPlan EMPTY = new TraversalPlan(new Class<?>[0], new int[0]);
+
+	/**
+	 * 按遍历顺序排列的类
+	 */
+	private final Class<?>[] types;
+
+	/**
+	 * 类对应的垂直索引
+	 */
+	private final int[] verticalIndexes;
+
+	private TraversalPlan(Class<?>[] types, int[] verticalIndexes) {
+		this.types = types;
+		this.verticalIndexes = verticalIndexes;
+	}
+
+	/**
+	 * 获取一个空计划
+	 *
+	 * @return 空计划
+	 */
+	public static TraversalPlan empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * 创建一个计划构建器
+	 *
+	 * @return 构建器
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 获取计划中类的数量
+	 *
+	 * @return 类的数量
+	 */
+	public int size() {
+		return types.length;
+	}
+
+	/**
+	 * 获取指定下标的类
+	 *
+	 * @param index 下标
+	 * @return 类
+	 */
+	public Class<?> getType(int index) {
+		return types[index];
+	}
+
+	/**
+	 * 获取指定下标的类的垂直索引
+	 *
+	 * @param index 下标
+	 * @return 垂直索引
+	 */
+	public int getVerticalIndex(int index) {
+		return verticalIndexes[index];
+	}
+
+	/**
+	 * 获取按遍历顺序排列的全部类
+	 *
+	 * @return 类
+	 */
+	public List<Class<?>> getTypes() {
+		return Collections.unmodifiableList(Arrays.asList(types));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("TraversalPlan[");
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(verticalIndexes[i]).append(':').append(types[i].getName());
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * {@link TraversalPlan}构建器
+	 *
+	 * @author huangchengxing
+	 */
+	public static class Builder {
+
+		private final List<Class<?>> types = new ArrayList<>();
+		private int[] verticalIndexes = new int[8];
+
+		private Builder() {
+		}
+
+		/**
+		 * 在计划末尾追加一个类
+		 *
+		 * @param type 类
+		 * @param verticalIndex 垂直索引，必须大于{@link AbstractAnnotationScanner#VERTICAL_INDEX_START_POINT}
+		 * @return 构建器
+		 */
+		public Builder add(Class<?> type, int verticalIndex) {
+			Assert.notNull(type, "type must not null");
+			Assert.isTrue(
+				verticalIndex > AbstractAnnotationScanner.VERTICAL_INDEX_START_POINT,
+				"verticalIndex must greater than %s", AbstractAnnotationScanner.VERTICAL_INDEX_START_POINT
+			);
+			if (types.size() == verticalIndexes.length) {
+				verticalIndexes = Arrays.copyOf(verticalIndexes, verticalIndexes.length << 1);
+			}
+			verticalIndexes[types.size()] = verticalIndex;
+			types.add(type);
+			return this;
+		}
+
+		/**
+		 * 构建计划
+		 *
+		 * @return 计划
+		 */
+		public TraversalPlan build() {
+			if (types.isEmpty()) {
+				return EMPTY;
+			}
+			return new TraversalPlan(types.toArray(new Class<?>[0]), Arrays.copyOf(verticalIndexes, types.size()));
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import java.util.*;
+
+/**
+ * <p>类层级结构的遍历策略，用于决定{@link AbstractAnnotationScanner}以何种顺序访问类、方法或属性的层级结构中的类。<br />
+ * 策略根据起点与{@link TypeHierarchy}生成一份{@link TraversalPlan}，
+ * 扫描器将按照{@link ScanOptions#getTraversalStrategy()}为每个起点生成一次计划并缓存，之后的扫描直接按计划遍历。
+ * 因此策略的实现必须是无状态且线程安全的，并且对同一个起点总是生成相同的计划。
+ *
+ * <p>提供了三种默认实现：
+ * <ul>
+ *     <li>{@link #BREADTH_FIRST}：广度优先，同一层级中按照元素本身 -> 父类 -> 父接口的顺序遍历，为默认策略；</li>
+ *     <li>{@link #INTERFACE_FIRST}：广度优先，同一层级中按照元素本身 -> 父接口 -> 父类的顺序遍历；</li>
+ *     <li>{@link #DEPTH_FIRST}：深度优先，先沿父类一直遍历到顶，再回溯遍历各层级的父接口；</li>
+ * </ul>
+ * 无论采用何种策略，类的垂直索引总是其被访问时与起点之间的层级距离，水平索引总是按注解被扫描到的顺序递增。
+ * 策略仅作用于普通类的层级结构，元注解的层级结构总是按广度优先遍历。
+ *
+ * @author huangchengxing
+ * @see TraversalPlan
+ */
+public interface TraversalStrategy {
+
+	/**
+	 * 为指定起点生成遍历计划
+	 *
+	 * @param source 起点，即被扫描的类，或被扫描的方法与属性的声明类
+	 * @param hierarchy 扫描器提供的类层级结构
+	 * @return 遍历计划
+	 */
+	TraversalPlan plan(Class<?> source, TypeHierarchy hierarchy);
+
+	// ===================== 默认实现 =====================
+
+	/**
+	 * 广度优先，同一层级中按照元素本身 -> 父类 -> 父接口的顺序遍历
+	 */
+	TraversalStrategy BREADTH_FIRST = new BreadthFirstStrategy(false);
+
+	/**
+	 * 广度优先，同一层级中按照元素本身 -> 父接口 -> 父类的顺序遍历
+	 */
+	TraversalStrategy INTERFACE_FIRST = new BreadthFirstStrategy(true);
+
+	/**
+	 * 深度优先，先沿父类一直遍历到顶，再回溯遍历各层级的父接口
+	 */
+	TraversalStrategy DEPTH_FIRST = new DepthFirstStrategy();
+
+	/**
+	 * 由扫描器提供的类层级结构，其中的方法皆已遵循扫描器的{@link ScanOptions}
+	 *
+	 * @author huangchengxing
+	 */
+	interface TypeHierarchy {
+
+		/**
+		 * 收集类的父类，若不允许扫描父类则不收集
+		 *
+		 * @param results 结果
+		 * @param type 类
+		 */
+		void collectSuperClasses(List<Class<?>> results, Class<?> type);
+
+		/**
+		 * 收集类的父接口，若不允许扫描接口则不收集
+		 *
+		 * @param results 结果
+		 * @param type 类
+		 */
+		void collectInterfaces(List<Class<?>> results, Class<?> type);
+
+		/**
+		 * 是否需要处理该类，若类无法通过类型过滤器，或者已被访问过且不允许重复扫描，则不需要处理
+		 *
+		 * @param type 类
+		 * @param accessedTypes 已被访问过的类
+		 * @return 是否
+		 */
+		boolean isNeedProcess(Class<?> type, Set<Class<?>> accessedTypes);
+
+		/**
+		 * 获取最大垂直索引，计划中不应包含垂直索引大于该值的类
+		 *
+		 * @return 最大垂直索引
+		 */
+		int getMaxVerticalIndex();
+	}
+
+	/**
+	 * 广度优先的遍历策略
+	 *
+	 * @author huangchengxing
+	 */
+	class BreadthFirstStrategy implements TraversalStrategy {
+
+		private final boolean interfaceFirst;
+
+		BreadthFirstStrategy(boolean interfaceFirst) {
+			this.interfaceFirst = interfaceFirst;
+		}
+
+		@Override
+		public TraversalPlan plan(Class<?> source, TypeHierarchy hierarchy) {
+			final TraversalPlan.Builder builder = TraversalPlan.builder();
+			final Set<Class<?>> accessedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+			final List<Class<?>> typeQueue = new ArrayList<>();
+			typeQueue.add(source);
+			final int maxVerticalIndex = hierarchy.getMaxVerticalIndex();
+
+			// 队列中位于[levelStart, levelEnd)区间的类即为当前层级的类
+			int levelStart = 0;
+			for (int verticalIndex = AbstractAnnotationScanner.VERTICAL_INDEX_START_POINT + 1;
+				 levelStart < typeQueue.size() && verticalIndex <= maxVerticalIndex; verticalIndex++) {
+				final int levelEnd = typeQueue.size();
+				for (int i = levelStart; i < levelEnd; i++) {
+					final Class<?> type = typeQueue.get(i);
+					if (!hierarchy.isNeedProcess(type, accessedTypes)) {
+						continue;
+					}
+					builder.add(type, verticalIndex);
+					accessedTypes.add(type);
+					if (verticalIndex < maxVerticalIndex) {
+						collectNextLevel(hierarchy, typeQueue, type);
+					}
+				}
+				levelStart = levelEnd;
+			}
+			return builder.build();
+		}
+
+		private void collectNextLevel(TypeHierarchy hierarchy, List<Class<?>> typeQueue, Class<?> type) {
+			if (interfaceFirst) {
+				hierarchy.collectInterfaces(typeQueue, type);
+				hierarchy.collectSuperClasses(typeQueue, type);
+			} else {
+				hierarchy.collectSuperClasses(typeQueue, type);
+				hierarchy.collectInterfaces(typeQueue, type);
+			}
+		}
+	}
+
+	/**
+	 * 深度优先的遍历策略，按照元素本身 -> 父类的层级结构 -> 父接口的层级结构的顺序先序遍历
+	 *
+	 * @author huangchengxing
+	 */
+	class DepthFirstStrategy implements TraversalStrategy {
+
+		@Override
+		public TraversalPlan plan(Class<?> source, TypeHierarchy hierarchy) {
+			final TraversalPlan.Builder builder = TraversalPlan.builder();
+			final Set<Class<?>> accessedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+			visit(builder, hierarchy, accessedTypes, source, AbstractAnnotationScanner.VERTICAL_INDEX_START_POINT + 1);
+			return builder.build();
+		}
+
+		private void visit(
+			TraversalPlan.Builder builder, TypeHierarchy hierarchy, Set<Class<?>> accessedTypes, Class<?> type, int verticalIndex) {
+			if (verticalIndex > hierarchy.getMaxVerticalIndex() || !hierarchy.isNeedProcess(type, accessedTypes)) {
+				return;
+			}
+			builder.add(type, verticalIndex);
+			accessedTypes.add(type);
+			if (verticalIndex == hierarchy.getMaxVerticalIndex()) {
+				return;
+			}
+			final List<Class<?>> parents = new ArrayList<>();
+			hierarchy.collectSuperClasses(parents, type);
+			hierarchy.collectInterfaces(parents, type);
+			for (final Class<?> parent : parents) {
+				visit(builder, hierarchy, accessedTypes, parent, verticalIndex + 1);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,242 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>注解描述符，即从类文件的<em>RuntimeVisibleAnnotations</em>属性中解析得到的注解信息。<br />
+ * 与注解对象不同，获取描述符时不需要加载注解类与注解所在的类，
+ * 属性值中的基本类型与字符串将直接保留，其余类型按如下方式表示：
+ * <ul>
+ *     <li>枚举：{@link EnumConstant}；</li>
+ *     <li>类：{@link ClassReference}；</li>
+ *     <li>注解：{@link AnnotationDescriptor}；</li>
+ *     <li>数组：由上述类型组成的{@link java.util.List}；</li>
+ * </ul>
+ * 当确定需要该注解后，可以通过{@link #load(ClassLoader)}加载注解所在的元素，并获取真正的注解对象。
+ *
+ * @author huangchengxing
+ * @see ClassFileReader
+ */
+@Getter
+public class AnnotationDescriptor {
+
+	/**
+	 * 注解类名
+	 */
+	private final String typeName;
+
+	/**
+	 * 注解属性值
+	 */
+	private final Map<String, Object> attributes;
+
+	/**
+	 * 声明该注解的类的类名，若注解为其他注解的属性值，则为{@code null}
+	 */
+	private final String declaringClassName;
+
+	/**
+	 * 声明该注解的方法或属性的名称，若注解声明在类上，则为{@code null}
+	 */
+	private final String declaringMemberName;
+
+	/**
+	 * 声明该注解的方法的描述符，若注解未声明在方法上，则为{@code null}
+	 */
+	private final String declaringMethodDescriptor;
+
+	/**
+	 * 创建一个注解描述符
+	 *
+	 * @param typeName 注解类名
+	 * @param attributes 注解属性值
+	 * @param declaringClassName 声明该注解的类的类名
+	 * @param declaringMemberName 声明该注解的方法或属性的名称
+	 * @param declaringMethodDescriptor 声明该注解的方法的描述符
+	 */
+	public AnnotationDescriptor(
+		String typeName, Map<String, Object> attributes,
+		String declaringClassName, String declaringMemberName, String declaringMethodDescriptor) {
+		this.typeName = typeName;
+		this.attributes = Collections.unmodifiableMap(attributes);
+		this.declaringClassName = declaringClassName;
+		this.declaringMemberName = declaringMemberName;
+		this.declaringMethodDescriptor = declaringMethodDescriptor;
+	}
+
+	/**
+	 * 获取注解属性值，若注解上未显式指定该属性，则返回{@code null}
+	 *
+	 * @param attributeName 属性名称
+	 * @return 属性值
+	 */
+	public Object getAttribute(String attributeName) {
+		return attributes.get(attributeName);
+	}
+
+	/**
+	 * 是否为指定类型的注解
+	 *
+	 * @param annotationType 注解类型
+	 * @return 是否
+	 */
+	public boolean isTypeOf(Class<? extends Annotation> annotationType) {
+		return Objects.nonNull(annotationType) && Objects.equals(typeName, annotationType.getName());
+	}
+
+	/**
+	 * 加载声明该注解的元素，并从中获取对应的注解对象
+	 *
+	 * @param classLoader 类加载器
+	 * @param <T> 注解类型
+	 * @return 注解对象
+	 * @throws IllegalArgumentException 当注解为其他注解的属性值时抛出
+	 */
+	@SuppressWarnings("unchecked")
+	@SneakyThrows
+	public <T extends Annotation> T load(ClassLoader classLoader) {
+		Assert.notNull(declaringClassName, "cannot load annotation [%s] nested in other annotation", typeName);
+		Class<T> annotationType = (Class<T>)Class.forName(typeName, false, classLoader);
+		return getDeclaringElement(Class.forName(declaringClassName, false, classLoader))
+			.getDeclaredAnnotation(annotationType);
+	}
+
+	/**
+	 * 获取声明该注解的元素
+	 */
+	@SneakyThrows
+	private AnnotatedElement getDeclaringElement(Class<?> declaringClass) {
+		if (Objects.isNull(declaringMemberName)) {
+			return declaringClass;
+		}
+		if (Objects.isNull(declaringMethodDescriptor)) {
+			return declaringClass.getDeclaredField(declaringMemberName);
+		}
+		for (Method method : ReflectUtils.getDeclaredMethods(declaringClass)) {
+			if (Objects.equals(method.getName(), declaringMemberName)
+				&& Objects.equals(ClassFileReader.getMethodDescriptor(method), declaringMethodDescriptor)) {
+				return method;
+			}
+		}
+		throw new NoSuchMethodException(declaringClass.getName() + "." + declaringMemberName + declaringMethodDescriptor);
+	}
+
+	@Override
+	public String toString() {
+		return "@" + typeName + attributes;
+	}
+
+	/**
+	 * 枚举类型的注解属性值
+	 *
+	 * @author huangchengxing
+	 */
+	@Getter
+	public static class EnumConstant {
+
+		/**
+		 * 枚举类名
+		 */
+		private final String typeName;
+
+		/**
+		 * 枚举常量名称
+		 */
+		private final String name;
+
+		public EnumConstant(String typeName, String name) {
+			this.typeName = typeName;
+			this.name = name;
+		}
+
+		/**
+		 * 加载枚举常量
+		 *
+		 * @param classLoader 类加载器
+		 * @return 枚举常量
+		 */
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		@SneakyThrows
+		public Enum<?> load(ClassLoader classLoader) {
+			return Enum.valueOf((Class<? extends Enum>)Class.forName(typeName, false, classLoader), name);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof EnumConstant)) {
+				return false;
+			}
+			EnumConstant that = (EnumConstant)o;
+			return Objects.equals(typeName, that.typeName) && Objects.equals(name, that.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(typeName, name);
+		}
+
+		@Override
+		public String toString() {
+			return typeName + "." + name;
+		}
+	}
+
+	/**
+	 * 类类型的注解属性值
+	 *
+	 * @author huangchengxing
+	 */
+	@Getter
+	public static class ClassReference {
+
+		/**
+		 * 类名，格式与{@link Class#getName()}一致
+		 */
+		private final String typeName;
+
+		public ClassReference(String typeName) {
+			this.typeName = typeName;
+		}
+
+		/**
+		 * 加载类
+		 *
+		 * @param classLoader 类加载器
+		 * @return 类
+		 */
+		@SneakyThrows
+		public Class<?> load(ClassLoader classLoader) {
+			Class<?> primitiveType = ClassFileReader.getPrimitiveType(typeName);
+			return Objects.nonNull(primitiveType) ? primitiveType : Class.forName(typeName, false, classLoader);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return this == o || (o instanceof ClassReference && Objects.equals(typeName, ((ClassReference)o).typeName));
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(typeName);
+		}
+
+		@Override
+		public String toString() {
+			return typeName + ".class";
+		}
+	}
+
+}
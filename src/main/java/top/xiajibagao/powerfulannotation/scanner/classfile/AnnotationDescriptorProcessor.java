@@ -0,0 +1,34 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+/**
+ * <p>注解描述符处理器，用于在{@link ClassFileAnnotationScanner}扫描到注解描述符后，完成一些回调处理。<br />
+ * 与{@link top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor}一致，
+ * 当扫描器每次调用{@link #accept(int, int, boolean, AnnotationDescriptor)}后，
+ * 都会对应的调用一次{@link #interrupted()}方法，若返回值为{@code true}，则扫描器将会中断正在进行从扫描进程。
+ *
+ * @author huangchengxing
+ * @see ClassFileAnnotationScanner
+ */
+@FunctionalInterface
+public interface AnnotationDescriptorProcessor {
+
+	/**
+	 * 是否中断扫描器的扫描进程
+	 *
+	 * @return 是否中断扫描
+	 */
+	default boolean interrupted() {
+		return false;
+	}
+
+	/**
+	 * 处理注解描述符
+	 *
+	 * @param verticalIndex   垂直索引，一般表示与扫描器扫描的元素相隔的层级层次
+	 * @param horizontalIndex 水平索引，一般用于衡量两个注解之间被扫描到的先后顺序
+	 * @param metaAnnotation  是否为元注解，即该注解声明在注解类上，而非被扫描的元素的层级结构中
+	 * @param descriptor      被扫描到的注解描述符
+	 */
+	void accept(int verticalIndex, int horizontalIndex, boolean metaAnnotation, AnnotationDescriptor descriptor);
+
+}
@@ -0,0 +1,510 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+import top.xiajibagao.powerfulannotation.helper.ObjectUtils;
+import top.xiajibagao.powerfulannotation.helper.StrUtils;
+import top.xiajibagao.powerfulannotation.scanner.AbstractAnnotationScanner;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+import top.xiajibagao.powerfulannotation.scanner.GenericAnnotationScanner;
+import top.xiajibagao.powerfulannotation.scanner.ScanOptions;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata.MemberMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * <p>基于类文件的注解扫描器。<br />
+ * 扫描器按与{@link GenericAnnotationScanner}相同的规则遍历元素的父类、父接口与元注解构成的层级结构，
+ * 并且同样遵循{@link ScanOptions}中的配置，区别在于：层级结构中的类与注解皆直接从类文件中读取，
+ * 扫描过程中不会加载任何类，扫描得到的也不是注解对象，而是{@link AnnotationDescriptor}。
+ * 当确定需要某个注解后，再通过{@link AnnotationDescriptor#load(ClassLoader)}加载对应的注解对象。
+ *
+ * <p>由于不加载类，扫描器存在以下与{@link GenericAnnotationScanner}不同的地方：
+ * <ul>
+ *     <li>
+ *         类型过滤器作用于类名而非类对象，因此{@link ScanOptions#getTypeFilter()}将被忽略，
+ *         取而代之的是构造时传入的类名过滤器，默认不处理{@link java.lang}、{@link javax}与{@link com.sun}包下的类；
+ *     </li>
+ *     <li>扫描方法时，按方法名与参数描述符匹配层级结构中的非桥接方法，而不校验返回值类型；</li>
+ *     <li>若层级结构中的某个类无法从类加载器中读取类文件，则视为该类及其层级结构皆不存在；</li>
+ * </ul>
+ * 读取的类文件将被缓存在扫描器中，因此同一扫描器在多次扫描时不会重复解析同一类文件。
+ *
+ * @author huangchengxing
+ * @see ClassFileReader
+ * @see AnnotationDescriptor
+ * @see AnnotationDescriptorProcessor
+ */
+public class ClassFileAnnotationScanner {
+
+	/**
+	 * 默认的类名过滤器
+	 */
+	public static final Predicate<String> DEFAULT_TYPE_NAME_FILTER = name -> StrUtils.isNotStartWithAny(name, "java.lang", "javax", "com.sun");
+
+	private static final String OBJECT_CLASS_NAME = Object.class.getName();
+	private static final String INHERITED_CLASS_NAME = Inherited.class.getName();
+
+	/**
+	 * 扫描配置
+	 */
+	private final ScanOptions options;
+
+	/**
+	 * 类名过滤器
+	 */
+	private final Predicate<String> typeNameFilter;
+
+	/**
+	 * 用于读取类文件的类加载器
+	 */
+	private final ClassLoader classLoader;
+
+	/**
+	 * 类文件缓存
+	 */
+	private final Map<String, Optional<ClassFileMetadata>> metadataCache = new ConcurrentHashMap<>();
+
+	/**
+	 * 类上的注解，包括从父类继承的注解
+	 */
+	private final Map<String, List<AnnotationDescriptor>> typeAnnotationCache = new ConcurrentHashMap<>();
+
+	/**
+	 * 创建一个基于类文件的注解扫描器
+	 *
+	 * @param options 扫描配置
+	 * @param typeNameFilter 类名过滤器
+	 * @param classLoader 用于读取类文件的类加载器
+	 */
+	public ClassFileAnnotationScanner(ScanOptions options, Predicate<String> typeNameFilter, ClassLoader classLoader) {
+		Assert.notNull(options, "options must not null");
+		Assert.notNull(typeNameFilter, "typeNameFilter must not null");
+		Assert.notNull(classLoader, "classLoader must not null");
+		this.options = options;
+		options.lockOptions();
+		this.typeNameFilter = typeNameFilter;
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * 创建一个与扫描模式具有相同扫描范围的注解扫描器
+	 *
+	 * @param mode 扫描模式
+	 * @param classLoader 用于读取类文件的类加载器
+	 * @return 注解扫描器
+	 */
+	public static ClassFileAnnotationScanner of(AnnotationSearchMode mode, ClassLoader classLoader) {
+		Assert.notNull(mode, "mode must not null");
+		return new ClassFileAnnotationScanner(mode.getOptions(), DEFAULT_TYPE_NAME_FILTER, classLoader);
+	}
+
+	// ======================== 扫描 ========================
+
+	/**
+	 * 扫描类上的注解
+	 *
+	 * @param className 类名
+	 * @param processor 注解描述符处理器
+	 * @param filter    过滤器，若为空则不过滤任何注解
+	 */
+	public void scanType(String className, AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter) {
+		scan(new Source(className, null, null), processor, filter);
+	}
+
+	/**
+	 * 扫描方法上的注解
+	 *
+	 * @param className 声明该方法的类的类名
+	 * @param methodName 方法名
+	 * @param parameterDescriptor 方法描述符中的参数部分，比如<code>(ILjava/lang/String;)</code>
+	 * @param processor 注解描述符处理器
+	 * @param filter    过滤器，若为空则不过滤任何注解
+	 */
+	public void scanMethod(
+		String className, String methodName, String parameterDescriptor,
+		AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter) {
+		Assert.notNull(methodName, "methodName must not null");
+		Assert.notNull(parameterDescriptor, "parameterDescriptor must not null");
+		scan(new Source(className, methodName, parameterDescriptor), processor, filter);
+	}
+
+	/**
+	 * 扫描属性上的注解
+	 *
+	 * @param className 声明该属性的类的类名
+	 * @param fieldName 属性名
+	 * @param processor 注解描述符处理器
+	 * @param filter    过滤器，若为空则不过滤任何注解
+	 */
+	public void scanField(
+		String className, String fieldName, AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter) {
+		Assert.notNull(fieldName, "fieldName must not null");
+		scan(new Source(className, fieldName, null), processor, filter);
+	}
+
+	/**
+	 * 扫描类、方法或属性上的注解，元素本身已经被加载，但是其层级结构中的类与注解类不会被加载
+	 *
+	 * @param element   待扫描的元素
+	 * @param processor 注解描述符处理器
+	 * @param filter    过滤器，若为空则不过滤任何注解
+	 * @throws IllegalArgumentException 当元素不为{@link Class}、{@link Method}或{@link Field}时抛出
+	 */
+	public void scan(AnnotatedElement element, AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter) {
+		if (element instanceof Class) {
+			scanType(((Class<?>)element).getName(), processor, filter);
+		} else if (element instanceof Method) {
+			Method method = (Method)element;
+			String descriptor = ClassFileReader.getMethodDescriptor(method);
+			scanMethod(
+				method.getDeclaringClass().getName(), method.getName(),
+				descriptor.substring(0, descriptor.indexOf(')') + 1), processor, filter
+			);
+		} else if (element instanceof Field) {
+			Field field = (Field)element;
+			scanField(field.getDeclaringClass().getName(), field.getName(), processor, filter);
+		} else {
+			Assert.isTrue(Objects.isNull(element), "cannot scan element [%s] from class file", element);
+		}
+	}
+
+	/**
+	 * 获取类上的全部注解描述符
+	 *
+	 * @param className 类名
+	 * @return 注解描述符
+	 */
+	public List<AnnotationDescriptor> getAnnotations(String className) {
+		List<AnnotationDescriptor> descriptors = new ArrayList<>();
+		scanType(className, (vi, hi, meta, descriptor) -> descriptors.add(descriptor), null);
+		return descriptors;
+	}
+
+	/**
+	 * 从类上查找指定类型的注解，仅当找到后才会加载注解所在的类与注解类
+	 *
+	 * @param className 类名
+	 * @param annotationType 注解类型
+	 * @param <T> 注解类型
+	 * @return 注解对象
+	 */
+	public <T extends Annotation> T getAnnotation(String className, Class<T> annotationType) {
+		Finder finder = new Finder(annotationType);
+		scanType(className, finder, null);
+		return Objects.isNull(finder.target) ? null : finder.target.load(classLoader);
+	}
+
+	/**
+	 * 类上是否存在指定类型的注解，该操作不会加载任何类
+	 *
+	 * @param className 类名
+	 * @param annotationType 注解类型
+	 * @return 是否
+	 */
+	public boolean isAnnotationPresent(String className, Class<? extends Annotation> annotationType) {
+		Finder finder = new Finder(annotationType);
+		scanType(className, finder, null);
+		return Objects.nonNull(finder.target);
+	}
+
+	/**
+	 * 获取类文件，若无法读取则返回{@code null}
+	 *
+	 * @param className 类名
+	 * @return 类文件信息
+	 */
+	public ClassFileMetadata getMetadata(String className) {
+		return metadataCache.computeIfAbsent(className, this::readMetadata).orElse(null);
+	}
+
+	private Optional<ClassFileMetadata> readMetadata(String className) {
+		try (InputStream inputStream = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+			return Objects.isNull(inputStream) ? Optional.empty() : Optional.of(ClassFileReader.read(inputStream));
+		} catch (IOException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	// ======================== 层级结构 ========================
+
+	/**
+	 * 扫描元素的层级结构
+	 */
+	private void scan(Source source, AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter) {
+		Assert.notNull(source.className, "className must not null");
+		if (Objects.isNull(processor)) {
+			return;
+		}
+		filter = ObjectUtils.defaultIfNull(filter, descriptor -> true);
+		ClassFileMetadata metadata = getMetadata(source.className);
+		if (Objects.isNull(metadata)) {
+			return;
+		}
+		Context context = new Context(
+			source, AbstractAnnotationScanner.VERTICAL_INDEX_START_POINT, AbstractAnnotationScanner.HORIZONTAL_INDEX_START_POINT,
+			metadata.isAnnotation()
+		);
+		// 传入了注解类但是又不允许扫描元注解
+		if (context.scanningMetaAnnotations && !options.isEnableScanMetaAnnotation()) {
+			processAnnotations(context, processor, filter, getTypeAnnotations(metadata));
+			return;
+		}
+		scanForElementHierarchy(context, processor, filter, source.className);
+	}
+
+	/**
+	 * 按广度优先递归类的层级结构，并从中获取注解
+	 */
+	private void scanForElementHierarchy(
+		Context context, AnnotationDescriptorProcessor processor, Predicate<AnnotationDescriptor> filter, String sourceClassName) {
+		final Deque<List<String>> typeHierarchyDeque = new ArrayDeque<>();
+		typeHierarchyDeque.addLast(Collections.singletonList(sourceClassName));
+		final Set<String> accessedTypes = new HashSet<>();
+
+		while (!typeHierarchyDeque.isEmpty()) {
+			++context.verticalIndex;
+			final List<String> nextTypeHierarchies = new ArrayList<>();
+			for (final String typeName : typeHierarchyDeque.removeFirst()) {
+				if (!isNeedProcessType(typeName, accessedTypes)) {
+					continue;
+				}
+				ClassFileMetadata metadata = getMetadata(typeName);
+				if (Objects.isNull(metadata)) {
+					continue;
+				}
+				processAnnotations(context, processor, filter, getAnnotations(context, metadata));
+				if (context.interrupted) {
+					return;
+				}
+				accessedTypes.add(typeName);
+				collectTypeToQueue(context, nextTypeHierarchies, metadata);
+			}
+			if (CollUtils.isNotEmpty(nextTypeHierarchies)) {
+				typeHierarchyDeque.addLast(nextTypeHierarchies);
+			}
+		}
+	}
+
+	/**
+	 * 使用处理器处理扫描到的注解，若允许扫描元注解，并且当前正在扫描的类不为元注解，则会继续扫描注解的元注解
+	 */
+	private void processAnnotations(
+		Context context, AnnotationDescriptorProcessor processor,
+		Predicate<AnnotationDescriptor> filter, List<AnnotationDescriptor> descriptors) {
+		for (final AnnotationDescriptor descriptor : descriptors) {
+			if (processor.interrupted()) {
+				context.interrupted = true;
+				break;
+			}
+			if (!filter.test(descriptor)) {
+				continue;
+			}
+			processor.accept(context.verticalIndex, ++context.horizontalIndex, context.scanningMetaAnnotations, descriptor);
+
+			if (!context.scanningMetaAnnotations && options.isEnableScanMetaAnnotation()) {
+				Source nestedSource = new Source(descriptor.getTypeName(), null, null);
+				Context nested = new Context(nestedSource, context.verticalIndex, context.horizontalIndex, true);
+				scanForElementHierarchy(
+					nested,
+					new AnnotationDescriptorProcessor() {
+						@Override
+						public boolean interrupted() {
+							return processor.interrupted();
+						}
+						@Override
+						public void accept(int verticalIndex, int horizontalIndex, boolean meta, AnnotationDescriptor metaDescriptor) {
+							processor.accept(verticalIndex, horizontalIndex, meta, metaDescriptor);
+							// 同步水平索引，保证整体水平索引有序递增
+							context.horizontalIndex = nested.horizontalIndex;
+						}
+					},
+					filter, descriptor.getTypeName()
+				);
+				// 处理器在扫描元注解时中断，则不再继续处理剩余的注解
+				if (nested.interrupted) {
+					context.interrupted = true;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 是否处理该类
+	 */
+	private boolean isNeedProcessType(String typeName, Set<String> accessedTypes) {
+		if (!typeNameFilter.test(typeName)) {
+			return false;
+		}
+		return !accessedTypes.contains(typeName) || options.isEnableScanAccessedType();
+	}
+
+	/**
+	 * 收集当前类父接口、父类或者元注解类，将其加入队列用于下一次递归获取注解
+	 */
+	private void collectTypeToQueue(Context context, List<String> nextTypeHierarchies, ClassFileMetadata metadata) {
+		if (context.scanningMetaAnnotations && options.isEnableScanMetaAnnotation()) {
+			metadata.getAnnotations().forEach(descriptor -> nextTypeHierarchies.add(descriptor.getTypeName()));
+			return;
+		}
+		String superClassName = metadata.getSuperClassName();
+		if (options.isEnableScanSuperClass() && Objects.nonNull(superClassName) && !OBJECT_CLASS_NAME.equals(superClassName)) {
+			nextTypeHierarchies.add(superClassName);
+		}
+		if (options.isEnableScanInterface()) {
+			nextTypeHierarchies.addAll(metadata.getInterfaceNames());
+		}
+	}
+
+	// ======================== 获取注解 ========================
+
+	/**
+	 * 根据扫描的元素，从层级结构中的类获取对应的注解
+	 */
+	private List<AnnotationDescriptor> getAnnotations(Context context, ClassFileMetadata metadata) {
+		Source source = context.source;
+		if (source.isType()) {
+			return getTypeAnnotations(metadata);
+		}
+		List<AnnotationDescriptor> descriptors = new ArrayList<>();
+		if (source.isField()) {
+			// 与反射一致，属性仅会从声明它的类中获取
+			if (Objects.equals(metadata.getClassName(), source.className)) {
+				metadata.getFields().stream()
+					.filter(field -> Objects.equals(field.getName(), source.memberName))
+					.forEach(field -> descriptors.addAll(field.getAnnotations()));
+			}
+			return descriptors;
+		}
+		for (MemberMetadata method : metadata.getMethods()) {
+			if (!method.isBridge() && Objects.equals(method.getName(), source.memberName)
+				&& Objects.equals(method.getParameterDescriptor(), source.parameterDescriptor)) {
+				descriptors.addAll(method.getAnnotations());
+			}
+		}
+		return descriptors;
+	}
+
+	/**
+	 * 获取类上的注解，与{@link Class#getAnnotations()}一致，包括从父类继承的、带有{@link Inherited}的注解
+	 */
+	private List<AnnotationDescriptor> getTypeAnnotations(ClassFileMetadata metadata) {
+		List<AnnotationDescriptor> descriptors = typeAnnotationCache.get(metadata.getClassName());
+		if (Objects.isNull(descriptors)) {
+			descriptors = resolveTypeAnnotations(metadata);
+			typeAnnotationCache.put(metadata.getClassName(), descriptors);
+		}
+		return descriptors;
+	}
+
+	private List<AnnotationDescriptor> resolveTypeAnnotations(ClassFileMetadata metadata) {
+		String superClassName = metadata.getSuperClassName();
+		if (metadata.isInterface() || Objects.isNull(superClassName) || OBJECT_CLASS_NAME.equals(superClassName)) {
+			return metadata.getAnnotations();
+		}
+		ClassFileMetadata superMetadata = getMetadata(superClassName);
+		if (Objects.isNull(superMetadata)) {
+			return metadata.getAnnotations();
+		}
+		Map<String, AnnotationDescriptor> descriptors = new LinkedHashMap<>();
+		for (AnnotationDescriptor descriptor : getTypeAnnotations(superMetadata)) {
+			if (isInherited(descriptor.getTypeName())) {
+				descriptors.put(descriptor.getTypeName(), descriptor);
+			}
+		}
+		if (descriptors.isEmpty()) {
+			return metadata.getAnnotations();
+		}
+		metadata.getAnnotations().forEach(descriptor -> descriptors.put(descriptor.getTypeName(), descriptor));
+		return Collections.unmodifiableList(new ArrayList<>(descriptors.values()));
+	}
+
+	/**
+	 * 注解类上是否存在{@link Inherited}
+	 */
+	private boolean isInherited(String annotationTypeName) {
+		ClassFileMetadata metadata = getMetadata(annotationTypeName);
+		return Objects.nonNull(metadata) && metadata.getAnnotations().stream()
+			.anyMatch(descriptor -> INHERITED_CLASS_NAME.equals(descriptor.getTypeName()));
+	}
+
+	/**
+	 * 待扫描的元素
+	 */
+	private static class Source {
+
+		private final String className;
+		private final String memberName;
+		private final String parameterDescriptor;
+
+		Source(String className, String memberName, String parameterDescriptor) {
+			this.className = className;
+			this.memberName = memberName;
+			this.parameterDescriptor = parameterDescriptor;
+		}
+
+		boolean isType() {
+			return Objects.isNull(memberName);
+		}
+
+		boolean isField() {
+			return Objects.nonNull(memberName) && Objects.isNull(parameterDescriptor);
+		}
+	}
+
+	/**
+	 * 扫描上下文
+	 */
+	private static class Context {
+
+		private final Source source;
+		private int verticalIndex;
+		private int horizontalIndex;
+		private boolean interrupted;
+		private final boolean scanningMetaAnnotations;
+
+		Context(Source source, int verticalIndex, int horizontalIndex, boolean scanningMetaAnnotations) {
+			this.source = source;
+			this.verticalIndex = verticalIndex;
+			this.horizontalIndex = horizontalIndex;
+			this.interrupted = false;
+			this.scanningMetaAnnotations = scanningMetaAnnotations;
+		}
+	}
+
+	/**
+	 * 查找指定类型注解的处理器
+	 */
+	private static class Finder implements AnnotationDescriptorProcessor {
+
+		private final Class<? extends Annotation> annotationType;
+		private AnnotationDescriptor target;
+
+		Finder(Class<? extends Annotation> annotationType) {
+			this.annotationType = annotationType;
+		}
+
+		@Override
+		public boolean interrupted() {
+			return Objects.nonNull(target);
+		}
+
+		@Override
+		public void accept(int verticalIndex, int horizontalIndex, boolean metaAnnotation, AnnotationDescriptor descriptor) {
+			if (Objects.isNull(target) && descriptor.isTypeOf(annotationType)) {
+				target = descriptor;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 从类文件中解析得到的类信息，仅包含扫描注解所需的层级结构与注解信息
+ *
+ * @author huangchengxing
+ * @see ClassFileReader
+ */
+@Getter
+public class ClassFileMetadata {
+
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	/**
+	 * 类名
+	 */
+	private final String className;
+
+	/**
+	 * 父类类名，若不存在父类则为{@code null}
+	 */
+	private final String superClassName;
+
+	/**
+	 * 父接口类名
+	 */
+	private final List<String> interfaceNames;
+
+	/**
+	 * 访问标志
+	 */
+	private final int accessFlags;
+
+	/**
+	 * 类上直接声明的注解
+	 */
+	private final List<AnnotationDescriptor> annotations;
+
+	/**
+	 * 类中声明的属性
+	 */
+	private final List<MemberMetadata> fields;
+
+	/**
+	 * 类中声明的方法
+	 */
+	private final List<MemberMetadata> methods;
+
+	public ClassFileMetadata(
+		String className, String superClassName, List<String> interfaceNames, int accessFlags,
+		List<AnnotationDescriptor> annotations, List<MemberMetadata> fields, List<MemberMetadata> methods) {
+		this.className = className;
+		this.superClassName = superClassName;
+		this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+		this.accessFlags = accessFlags;
+		this.annotations = Collections.unmodifiableList(annotations);
+		this.fields = Collections.unmodifiableList(fields);
+		this.methods = Collections.unmodifiableList(methods);
+	}
+
+	/**
+	 * 是否为接口
+	 *
+	 * @return 是否
+	 */
+	public boolean isInterface() {
+		return (accessFlags & ACC_INTERFACE) != 0;
+	}
+
+	/**
+	 * 是否为注解类
+	 *
+	 * @return 是否
+	 */
+	public boolean isAnnotation() {
+		return (accessFlags & ACC_ANNOTATION) != 0;
+	}
+
+	/**
+	 * 类中声明的方法或属性
+	 *
+	 * @author huangchengxing
+	 */
+	@Getter
+	public static class MemberMetadata {
+
+		private static final int ACC_BRIDGE = 0x0040;
+
+		/**
+		 * 名称
+		 */
+		private final String name;
+
+		/**
+		 * 描述符，比如方法<code>(ILjava/lang/String;)V</code>或属性<code>Ljava/lang/String;</code>
+		 */
+		private final String descriptor;
+
+		/**
+		 * 访问标志
+		 */
+		private final int accessFlags;
+
+		/**
+		 * 直接声明的注解
+		 */
+		private final List<AnnotationDescriptor> annotations;
+
+		public MemberMetadata(String name, String descriptor, int accessFlags, List<AnnotationDescriptor> annotations) {
+			this.name = name;
+			this.descriptor = descriptor;
+			this.accessFlags = accessFlags;
+			this.annotations = Collections.unmodifiableList(annotations);
+		}
+
+		/**
+		 * 是否为桥接方法
+		 *
+		 * @return 是否
+		 */
+		public boolean isBridge() {
+			return (accessFlags & ACC_BRIDGE) != 0;
+		}
+
+		/**
+		 * 获取方法描述符中的参数部分，比如<code>(ILjava/lang/String;)</code>
+		 *
+		 * @return 参数描述符
+		 */
+		public String getParameterDescriptor() {
+			int end = descriptor.indexOf(')');
+			return end < 0 ? descriptor : descriptor.substring(0, end + 1);
+		}
+	}
+
+}
@@ -0,0 +1,369 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.scanner.classfile.AnnotationDescriptor.ClassReference;
+import top.xiajibagao.powerfulannotation.scanner.classfile.AnnotationDescriptor.EnumConstant;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata.MemberMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * <p>类文件读取器，用于在不加载类的情况下，从类文件中解析类的层级结构，
+ * 以及类、方法与属性上的<em>RuntimeVisibleAnnotations</em>属性。<br />
+ * 读取器不依赖任何字节码框架，仅解析扫描注解所必须的部分，其余属性皆会被直接跳过。
+ *
+ * @author huangchengxing
+ * @see ClassFileMetadata
+ * @see AnnotationDescriptor
+ */
+public class ClassFileReader {
+
+	private static final int MAGIC = 0xCAFEBABE;
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELD_REF = 9;
+	private static final int CONSTANT_METHOD_REF = 10;
+	private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	/**
+	 * 基本类型描述符与类名
+	 */
+	private static final Map<Character, String> PRIMITIVE_DESCRIPTORS = new HashMap<>(16);
+
+	/**
+	 * 基本类型类名与类型
+	 */
+	private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>(16);
+
+	static {
+		for (Class<?> type : new Class<?>[]{
+			boolean.class, byte.class, char.class, short.class,
+			int.class, long.class, float.class, double.class, void.class
+		}) {
+			PRIMITIVE_TYPES.put(type.getName(), type);
+		}
+		PRIMITIVE_DESCRIPTORS.put('Z', "boolean");
+		PRIMITIVE_DESCRIPTORS.put('B', "byte");
+		PRIMITIVE_DESCRIPTORS.put('C', "char");
+		PRIMITIVE_DESCRIPTORS.put('S', "short");
+		PRIMITIVE_DESCRIPTORS.put('I', "int");
+		PRIMITIVE_DESCRIPTORS.put('J', "long");
+		PRIMITIVE_DESCRIPTORS.put('F', "float");
+		PRIMITIVE_DESCRIPTORS.put('D', "double");
+		PRIMITIVE_DESCRIPTORS.put('V', "void");
+	}
+
+	/**
+	 * 常量池，<em>CONSTANT_Utf8</em>为字符串，<em>CONSTANT_Class</em>与<em>CONSTANT_String</em>为其指向的索引，
+	 * 其余数值常量为对应的包装类型
+	 */
+	private final Object[] constants;
+
+	/**
+	 * 输入
+	 */
+	private final DataInputStream input;
+
+	private ClassFileReader(DataInputStream input) throws IOException {
+		this.input = input;
+		Assert.isTrue(input.readInt() == MAGIC, "input is not a class file");
+		// minor_version, major_version
+		input.skipBytes(4);
+		this.constants = readConstantPool();
+	}
+
+	// ======================== 静态方法 ========================
+
+	/**
+	 * 读取类文件
+	 *
+	 * @param bytes 类文件
+	 * @return 类信息
+	 * @throws IllegalArgumentException 当输入不是合法的类文件时抛出
+	 */
+	public static ClassFileMetadata read(byte[] bytes) {
+		try {
+			return new ClassFileReader(new DataInputStream(new ByteArrayInputStream(bytes))).readClass();
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("input is not a valid class file", e);
+		}
+	}
+
+	/**
+	 * 读取类文件，读取完毕后不会关闭输入流
+	 *
+	 * @param inputStream 类文件输入流
+	 * @return 类信息
+	 * @throws IOException 读取输入流时抛出
+	 * @throws IllegalArgumentException 当输入不是合法的类文件时抛出
+	 */
+	public static ClassFileMetadata read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+		byte[] buffer = new byte[4096];
+		int length;
+		while ((length = inputStream.read(buffer)) != -1) {
+			outputStream.write(buffer, 0, length);
+		}
+		return read(outputStream.toByteArray());
+	}
+
+	/**
+	 * 获取方法的描述符，比如<code>(ILjava/lang/String;)V</code>
+	 *
+	 * @param method 方法
+	 * @return 描述符
+	 */
+	public static String getMethodDescriptor(Method method) {
+		StringBuilder builder = new StringBuilder("(");
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			appendDescriptor(builder, parameterType);
+		}
+		builder.append(')');
+		appendDescriptor(builder, method.getReturnType());
+		return builder.toString();
+	}
+
+	/**
+	 * 根据类名获取基本类型，若不为基本类型则返回{@code null}
+	 *
+	 * @param typeName 类名
+	 * @return 基本类型
+	 */
+	public static Class<?> getPrimitiveType(String typeName) {
+		return PRIMITIVE_TYPES.get(typeName);
+	}
+
+	/**
+	 * 将类型描述符转为{@link Class#getName()}格式的类名，
+	 * 比如<code>Ljava/lang/String;</code>转为<code>java.lang.String</code>，
+	 * <code>[I</code>转为<code>[I</code>，<code>I</code>转为<code>int</code>
+	 *
+	 * @param descriptor 类型描述符
+	 * @return 类名
+	 */
+	public static String getTypeName(String descriptor) {
+		char first = descriptor.charAt(0);
+		if (first == '[') {
+			return descriptor.replace('/', '.');
+		}
+		if (first == 'L') {
+			return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+		}
+		return PRIMITIVE_DESCRIPTORS.get(first);
+	}
+
+	private static void appendDescriptor(StringBuilder builder, Class<?> type) {
+		if (type.isArray()) {
+			builder.append(type.getName().replace('.', '/'));
+		} else if (type.isPrimitive()) {
+			for (Map.Entry<Character, String> entry : PRIMITIVE_DESCRIPTORS.entrySet()) {
+				if (entry.getValue().equals(type.getName())) {
+					builder.append(entry.getKey());
+					break;
+				}
+			}
+		} else {
+			builder.append('L').append(type.getName().replace('.', '/')).append(';');
+		}
+	}
+
+	// ======================== 解析 ========================
+
+	/**
+	 * 读取常量池
+	 */
+	private Object[] readConstantPool() throws IOException {
+		int count = input.readUnsignedShort();
+		Object[] pool = new Object[count];
+		for (int i = 1; i < count; i++) {
+			int tag = input.readUnsignedByte();
+			switch (tag) {
+				case CONSTANT_UTF8:
+					pool[i] = input.readUTF();
+					break;
+				case CONSTANT_INTEGER:
+					pool[i] = input.readInt();
+					break;
+				case CONSTANT_FLOAT:
+					pool[i] = input.readFloat();
+					break;
+				case CONSTANT_LONG:
+					pool[i++] = input.readLong();
+					break;
+				case CONSTANT_DOUBLE:
+					pool[i++] = input.readDouble();
+					break;
+				case CONSTANT_CLASS:
+				case CONSTANT_STRING:
+					pool[i] = input.readUnsignedShort();
+					break;
+				case CONSTANT_METHOD_TYPE:
+				case CONSTANT_MODULE:
+				case CONSTANT_PACKAGE:
+					input.skipBytes(2);
+					break;
+				case CONSTANT_METHOD_HANDLE:
+					input.skipBytes(3);
+					break;
+				case CONSTANT_FIELD_REF:
+				case CONSTANT_METHOD_REF:
+				case CONSTANT_INTERFACE_METHOD_REF:
+				case CONSTANT_NAME_AND_TYPE:
+				case CONSTANT_DYNAMIC:
+				case CONSTANT_INVOKE_DYNAMIC:
+					input.skipBytes(4);
+					break;
+				default:
+					throw new IllegalArgumentException("unknown constant pool tag [" + tag + "]");
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * 读取类信息
+	 */
+	private ClassFileMetadata readClass() throws IOException {
+		int accessFlags = input.readUnsignedShort();
+		String className = getClassName(input.readUnsignedShort());
+		int superIndex = input.readUnsignedShort();
+		String superClassName = superIndex == 0 ? null : getClassName(superIndex);
+		int interfaceCount = input.readUnsignedShort();
+		List<String> interfaceNames = new ArrayList<>(interfaceCount);
+		for (int i = 0; i < interfaceCount; i++) {
+			interfaceNames.add(getClassName(input.readUnsignedShort()));
+		}
+		List<MemberMetadata> fields = readMembers(className, false);
+		List<MemberMetadata> methods = readMembers(className, true);
+		List<AnnotationDescriptor> annotations = readAnnotationsAttribute(className, null, null);
+		return new ClassFileMetadata(className, superClassName, interfaceNames, accessFlags, annotations, fields, methods);
+	}
+
+	/**
+	 * 读取属性或方法
+	 */
+	private List<MemberMetadata> readMembers(String className, boolean isMethod) throws IOException {
+		int count = input.readUnsignedShort();
+		List<MemberMetadata> members = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int accessFlags = input.readUnsignedShort();
+			String name = getUtf8(input.readUnsignedShort());
+			String descriptor = getUtf8(input.readUnsignedShort());
+			List<AnnotationDescriptor> annotations = readAnnotationsAttribute(className, name, isMethod ? descriptor : null);
+			members.add(new MemberMetadata(name, descriptor, accessFlags, annotations));
+		}
+		return members;
+	}
+
+	/**
+	 * 读取属性表，并从中解析<em>RuntimeVisibleAnnotations</em>属性，其余属性将被跳过
+	 */
+	private List<AnnotationDescriptor> readAnnotationsAttribute(
+		String className, String memberName, String methodDescriptor) throws IOException {
+		int count = input.readUnsignedShort();
+		List<AnnotationDescriptor> annotations = Collections.emptyList();
+		for (int i = 0; i < count; i++) {
+			String attributeName = getUtf8(input.readUnsignedShort());
+			int length = input.readInt();
+			if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				input.skipBytes(length);
+				continue;
+			}
+			int annotationCount = input.readUnsignedShort();
+			annotations = new ArrayList<>(annotationCount);
+			for (int j = 0; j < annotationCount; j++) {
+				annotations.add(readAnnotation(className, memberName, methodDescriptor));
+			}
+		}
+		return annotations;
+	}
+
+	/**
+	 * 读取注解
+	 */
+	private AnnotationDescriptor readAnnotation(
+		String className, String memberName, String methodDescriptor) throws IOException {
+		String typeName = getTypeName(getUtf8(input.readUnsignedShort()));
+		int count = input.readUnsignedShort();
+		Map<String, Object> attributes = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String attributeName = getUtf8(input.readUnsignedShort());
+			attributes.put(attributeName, readElementValue());
+		}
+		return new AnnotationDescriptor(typeName, attributes, className, memberName, methodDescriptor);
+	}
+
+	/**
+	 * 读取注解属性值
+	 */
+	private Object readElementValue() throws IOException {
+		char tag = (char)input.readUnsignedByte();
+		switch (tag) {
+			case 'B':
+				return (byte)(int)getConstant(input.readUnsignedShort());
+			case 'C':
+				return (char)(int)getConstant(input.readUnsignedShort());
+			case 'S':
+				return (short)(int)getConstant(input.readUnsignedShort());
+			case 'Z':
+				return (int)getConstant(input.readUnsignedShort()) != 0;
+			case 'I':
+			case 'J':
+			case 'F':
+			case 'D':
+				return getConstant(input.readUnsignedShort());
+			case 's':
+				return getUtf8(input.readUnsignedShort());
+			case 'e':
+				String enumTypeName = getTypeName(getUtf8(input.readUnsignedShort()));
+				return new EnumConstant(enumTypeName, getUtf8(input.readUnsignedShort()));
+			case 'c':
+				return new ClassReference(getTypeName(getUtf8(input.readUnsignedShort())));
+			case '@':
+				return readAnnotation(null, null, null);
+			case '[':
+				int count = input.readUnsignedShort();
+				List<Object> values = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					values.add(readElementValue());
+				}
+				return Collections.unmodifiableList(values);
+			default:
+				throw new IllegalArgumentException("unknown element value tag [" + tag + "]");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T getConstant(int index) {
+		return (T)constants[index];
+	}
+
+	private String getUtf8(int index) {
+		return getConstant(index);
+	}
+
+	private String getClassName(int index) {
+		return getUtf8(getConstant(index)).replace('/', '.');
+	}
+
+}
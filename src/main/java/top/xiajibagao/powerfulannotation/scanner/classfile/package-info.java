@@ -0,0 +1,6 @@
+/**
+ * 提供在不加载类的情况下，直接从类文件中读取并扫描注解的支持
+ *
+ * @author huangchengxing
+ */
+package top.xiajibagao.powerfulannotation.scanner.classfile;
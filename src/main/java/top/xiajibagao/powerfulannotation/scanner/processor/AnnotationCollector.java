@@ -29,19 +29,30 @@ public class AnnotationCollector<T> implements AnnotationProcessor {
 	/**
 	 * 转换器
 	 */
-	private final Function3<Integer, Integer, Annotation, T> converter;
+	private final AnnotationConverter<T> converter;
 
 	/**
 	 * 构造一个注解收集器
 	 *
 	 * @param converter 转换器
 	 */
-	public AnnotationCollector(Function3<Integer, Integer, Annotation, T> converter) {
+	public AnnotationCollector(AnnotationConverter<T> converter) {
 		Assert.notNull(converter, "converter must not null");
 		this.targets = new ArrayList<>();
 		this.converter = converter;
 	}
 
+	/**
+	 * 构造一个注解收集器
+	 *
+	 * @param converter 转换器
+	 * @deprecated 索引将在每次调用时被装箱，请使用{@link #AnnotationCollector(AnnotationConverter)}
+	 */
+	@Deprecated
+	public AnnotationCollector(Function3<Integer, Integer, Annotation, T> converter) {
+		this(AnnotationConverter.of(converter));
+	}
+
 	/**
 	 * 处理注解，若获得的对象不为null，则将其添加到{@link #targets}中
 	 *
@@ -51,7 +62,7 @@ public class AnnotationCollector<T> implements AnnotationProcessor {
 	 */
 	@Override
 	public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
-		T target = converter.accept(verticalIndex, horizontalIndex, annotation);
+		T target = converter.convert(verticalIndex, horizontalIndex, annotation);
 		if (Objects.nonNull(target)) {
 			targets.add(target);
 		}
@@ -0,0 +1,86 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.helper.Function3;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * <p>注解转换器，用于在{@link AnnotationCollector}或{@link AnnotationFinder}中将扫描到的注解及其索引转为指定类型的对象。<br />
+ * 与{@link Function3}不同，垂直索引与水平索引皆以<em>int</em>传递，因此在扫描较深的层级结构时不会产生装箱的{@link Integer}。<br />
+ * 转换器同时也是一个{@link Function3}，因此仍可传递给接受{@link Function3}的方法。
+ *
+ * @param <T> 转换类型
+ * @author huangchengxing
+ * @see AnnotationCollector
+ * @see AnnotationFinder
+ */
+@FunctionalInterface
+public interface AnnotationConverter<T> extends Function3<Integer, Integer, Annotation, T> {
+
+	/**
+	 * 直接返回注解本身的转换器
+	 */
+	AnnotationConverter<Annotation> IDENTITY = (verticalIndex, horizontalIndex, annotation) -> annotation;
+
+	/**
+	 * 将注解及其索引转为指定类型的对象
+	 *
+	 * @param verticalIndex   垂直索引
+	 * @param horizontalIndex 水平索引
+	 * @param annotation      被扫描到的注解对象
+	 * @return 转换后的对象，若返回{@code null}则{@link AnnotationCollector}将忽略该注解
+	 */
+	T convert(int verticalIndex, int horizontalIndex, Annotation annotation);
+
+	/**
+	 * 将注解及其索引转为指定类型的对象，索引将被拆箱后交由{@link #convert(int, int, Annotation)}处理
+	 *
+	 * @param verticalIndex   垂直索引
+	 * @param horizontalIndex 水平索引
+	 * @param annotation      被扫描到的注解对象
+	 * @return 转换后的对象
+	 */
+	@Override
+	default T accept(Integer verticalIndex, Integer horizontalIndex, Annotation annotation) {
+		return convert(verticalIndex, horizontalIndex, annotation);
+	}
+
+	/**
+	 * 将{@link Function3}适配为转换器，若其本身即为转换器则直接返回
+	 *
+	 * @param function 函数
+	 * @param <T> 转换类型
+	 * @return 转换器
+	 * @throws IllegalArgumentException 当{@code function}为空时抛出
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> AnnotationConverter<T> of(Function3<Integer, Integer, Annotation, T> function) {
+		Assert.notNull(function, "converter must not null");
+		return function instanceof AnnotationConverter ?
+			(AnnotationConverter<T>)function : function::accept;
+	}
+
+	/**
+	 * 获取直接返回注解本身的转换器
+	 *
+	 * @return 转换器
+	 */
+	static AnnotationConverter<Annotation> identity() {
+		return IDENTITY;
+	}
+
+	/**
+	 * 获取一个转换器，若注解类型与指定类型相同则返回注解本身，否则返回{@code null}。
+	 * 若指定类型为{@code null}，则总是返回{@code null}。<br />
+	 * 转换器按注解类型缓存，同一类型多次调用将返回同一实例。
+	 *
+	 * @param annotationType 注解类型
+	 * @param <A> 注解类型
+	 * @return 转换器
+	 */
+	static <A extends Annotation> AnnotationConverter<A> ofType(Class<A> annotationType) {
+		return AnnotationConverters.ofType(annotationType);
+	}
+
+}
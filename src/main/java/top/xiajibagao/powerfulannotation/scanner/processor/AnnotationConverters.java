@@ -0,0 +1,44 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+
+/**
+ * {@link AnnotationConverter}的内部实现，用于缓存{@link AnnotationConverter#ofType(Class)}返回的转换器
+ *
+ * @author huangchengxing
+ * @see AnnotationConverter#ofType(Class)
+ */
+class AnnotationConverters {
+
+	/**
+	 * 总是返回{@code null}的转换器
+	 */
+	private static final AnnotationConverter<Object> NOTHING = (verticalIndex, horizontalIndex, annotation) -> null;
+
+	/**
+	 * 按注解类型缓存的转换器
+	 */
+	private static final ClassValue<AnnotationConverter<?>> TYPED_CONVERTERS = new ClassValue<AnnotationConverter<?>>() {
+		@Override
+		protected AnnotationConverter<?> computeValue(Class<?> type) {
+			return (verticalIndex, horizontalIndex, annotation) -> annotation.annotationType() == type ? annotation : null;
+		}
+	};
+
+	private AnnotationConverters() {
+	}
+
+	/**
+	 * 获取指定注解类型的转换器，若指定类型为{@code null}，则返回总是返回{@code null}的转换器
+	 *
+	 * @param annotationType 注解类型
+	 * @param <A> 注解类型
+	 * @return 转换器
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> AnnotationConverter<A> ofType(Class<A> annotationType) {
+		return (AnnotationConverter<A>)(Objects.isNull(annotationType) ? NOTHING : TYPED_CONVERTERS.get(annotationType));
+	}
+
+}
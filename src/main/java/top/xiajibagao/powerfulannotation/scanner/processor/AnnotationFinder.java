@@ -26,7 +26,7 @@ public class AnnotationFinder<T> implements AnnotationProcessor {
 	/**
 	 * 转换操作
 	 */
-	private final Function3<Integer, Integer, Annotation, T> converter;
+	private final AnnotationConverter<T> converter;
 
 	/**
 	 * 目标注解
@@ -46,13 +46,25 @@ public class AnnotationFinder<T> implements AnnotationProcessor {
 	 * @param converter 转换器
 	 * @param predicate 判断条件
 	 */
-	public AnnotationFinder(Function3<Integer, Integer, Annotation, T> converter, Predicate<T> predicate) {
+	public AnnotationFinder(AnnotationConverter<T> converter, Predicate<T> predicate) {
 		Assert.notNull(predicate, "predicate must not null");
 		Assert.notNull(converter, "converter must not null");
 		this.predicate = predicate;
 		this.converter = converter;
 	}
 
+	/**
+	 * 创建一个注解查找器
+	 *
+	 * @param converter 转换器
+	 * @param predicate 判断条件
+	 * @deprecated 索引将在每次调用时被装箱，请使用{@link #AnnotationFinder(AnnotationConverter, Predicate)}
+	 */
+	@Deprecated
+	public AnnotationFinder(Function3<Integer, Integer, Annotation, T> converter, Predicate<T> predicate) {
+		this(AnnotationConverter.of(converter), predicate);
+	}
+
 	/**
 	 * 使用{@link #predicate}对注解其进行校验，若其通过校验，
 	 * 则将直接赋值给{@link #target}，并标记本次扫描已经中断
@@ -66,7 +78,7 @@ public class AnnotationFinder<T> implements AnnotationProcessor {
 		if (found) {
 			return;
 		}
-		T converted = converter.accept(verticalIndex, horizontalIndex, annotation);
+		T converted = converter.convert(verticalIndex, horizontalIndex, annotation);
 		if (predicate.test(converted)) {
 			target = converted;
 			found = true;
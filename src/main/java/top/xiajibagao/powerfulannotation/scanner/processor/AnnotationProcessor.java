@@ -14,16 +14,26 @@ import java.lang.reflect.AnnotatedElement;
  * 则扫描器将会中断正在进行从扫描进程。<br />
  * 若一个处理器已经中断，则再次调用{@link #accept(int, int, Annotation)}方法后，将不会对传入的注解进行任何处理。
  *
+ * <h3>扫描控制</h3>
+ * <p>扫描器实际通过{@link #process(int, int, Annotation)}调用处理器，并根据其返回的{@link ScanControl}决定如何继续扫描，
+ * 默认实现将调用{@link #accept(int, int, Annotation)}，并在{@link #interrupted()}返回{@code true}时返回{@link ScanControl#STOP}。
+ * 若需要跳过某个注解的元注解，或跳过当前层级中剩余的注解，则可以重写该方法。
+ *
  * <h3>默认实现</h3>
  * <p><ul>
  *     <li>{@link AnnotationFinder}: 用于从元素上查找符合条件的注解，当找到后将直接中断扫描进程；</li>
+ *     <li>{@link MultiAnnotationFinder}: 用于在一次扫描中同时查找多种类型的注解，当全部找到后将直接中断扫描进程；</li>
  *     <li>{@link AnnotationCollector}: 用于收集扫描过程中获取到的注解；</li>
+ *     <li>{@link ScanResult}: 用于以平行数组的形式紧凑地收集扫描过程中获取到的注解及其索引；</li>
  * </ul>
  *
  * @author huangchengxing
  * @see AbstractAnnotationScanner
  * @see AnnotationFinder
+ * @see MultiAnnotationFinder
  * @see AnnotationCollector
+ * @see ScanResult
+ * @see ScanControl
  */
 @FunctionalInterface
 public interface AnnotationProcessor {
@@ -46,4 +56,17 @@ public interface AnnotationProcessor {
 	 */
 	void accept(int verticalIndex, int horizontalIndex, Annotation annotation);
 
+	/**
+	 * 处理注解，并返回扫描器接下来的扫描方式
+	 *
+	 * @param verticalIndex   垂直索引
+	 * @param horizontalIndex 水平索引
+	 * @param annotation      被扫描到的注解对象
+	 * @return 扫描控制指令，不允许为{@code null}
+	 */
+	default ScanControl process(int verticalIndex, int horizontalIndex, Annotation annotation) {
+		accept(verticalIndex, horizontalIndex, annotation);
+		return interrupted() ? ScanControl.STOP : ScanControl.CONTINUE;
+	}
+
 }
@@ -0,0 +1,163 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.scanner.AbstractAnnotationScanner;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * <p>用于在{@link AbstractAnnotationScanner}的一次扫描中同时查找多种类型注解的注解处理器。<br />
+ * 对于每一种目标类型，查找器仅保留第一个被扫描到的该类型注解，结果与分别使用{@link AnnotationFinder}查找一致。
+ * 当全部目标类型皆已找到后，扫描器将中断扫描，不再继续向后查找。
+ *
+ * <p>构建时，每种目标类型将被分配一个从0开始的连续下标，并存放于按引用比较的哈希表中，
+ * 扫描时通过注解类型获取下标，再直接读写对应下标的结果数组。
+ *
+ * <p>eg：
+ * <pre>{@code
+ * MultiAnnotationFinder finder = new MultiAnnotationFinder(Transactional.class, Cacheable.class, RateLimited.class);
+ * AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.scan(method, finder, AnnotationFilter.FILTER_NOTHING);
+ * Cacheable cacheable = finder.getTarget(Cacheable.class);
+ * }</pre>
+ *
+ * @author huangchengxing
+ * @see AnnotationFinder
+ */
+public class MultiAnnotationFinder implements AnnotationProcessor {
+
+	/**
+	 * 目标类型
+	 */
+	private final Class<? extends Annotation>[] annotationTypes;
+
+	/**
+	 * 目标类型与其对应的下标
+	 */
+	private final Map<Class<? extends Annotation>, Integer> typeIndexes;
+
+	/**
+	 * 与目标类型一一对应的查找结果
+	 */
+	private final Annotation[] targets;
+
+	/**
+	 * 尚未找到的目标类型数量
+	 */
+	private int remaining;
+
+	/**
+	 * 创建一个注解查找器
+	 *
+	 * @param annotationTypes 目标类型
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
+	public MultiAnnotationFinder(Class<? extends Annotation>... annotationTypes) {
+		this(asList(annotationTypes));
+	}
+
+	/**
+	 * 创建一个注解查找器
+	 *
+	 * @param annotationTypes 目标类型，重复的类型将被忽略
+	 */
+	public MultiAnnotationFinder(Collection<? extends Class<? extends Annotation>> annotationTypes) {
+		Assert.notNull(annotationTypes, "annotationTypes must not null");
+		this.typeIndexes = new IdentityHashMap<>(annotationTypes.size());
+		for (Class<? extends Annotation> annotationType : annotationTypes) {
+			Assert.notNull(annotationType, "annotationType must not null");
+			typeIndexes.putIfAbsent(annotationType, typeIndexes.size());
+		}
+		this.annotationTypes = newAnnotationTypes(typeIndexes.size());
+		typeIndexes.forEach((type, index) -> this.annotationTypes[index] = type);
+		this.targets = new Annotation[typeIndexes.size()];
+		this.remaining = typeIndexes.size();
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Class<? extends Annotation>[] newAnnotationTypes(int size) {
+		return (Class<? extends Annotation>[])new Class[size];
+	}
+
+	private static List<Class<? extends Annotation>> asList(Class<? extends Annotation>[] annotationTypes) {
+		Assert.notNull(annotationTypes, "annotationTypes must not null");
+		return Arrays.asList(annotationTypes);
+	}
+
+	/**
+	 * 若注解属于尚未找到的目标类型，则将其记录为该类型的查找结果，当全部目标类型皆已找到时标记本次扫描已经中断
+	 *
+	 * @param verticalIndex   垂直索引
+	 * @param horizontalIndex 水平索引
+	 * @param annotation      被扫描到的注解对象
+	 */
+	@Override
+	public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+		final Integer index = typeIndexes.get(annotation.annotationType());
+		if (Objects.nonNull(index) && Objects.isNull(targets[index])) {
+			targets[index] = annotation;
+			remaining--;
+		}
+	}
+
+	/**
+	 * 当全部目标类型皆已找到时中断扫描
+	 *
+	 * @return 是否中断扫描
+	 */
+	@Override
+	public boolean interrupted() {
+		return remaining == 0;
+	}
+
+	/**
+	 * 获取指定类型的查找结果
+	 *
+	 * @param annotationType 注解类型，必须为目标类型之一
+	 * @param <A> 注解类型
+	 * @return 注解，若未找到则返回{@code null}
+	 * @throws IllegalArgumentException 当注解类型不为目标类型时抛出
+	 */
+	public <A extends Annotation> A getTarget(Class<A> annotationType) {
+		final Integer index = typeIndexes.get(annotationType);
+		Assert.notNull(index, "[%s] is not a target type", annotationType);
+		return annotationType.cast(targets[index]);
+	}
+
+	/**
+	 * 是否已找到指定类型的注解
+	 *
+	 * @param annotationType 注解类型
+	 * @return 是否
+	 */
+	public boolean isFound(Class<? extends Annotation> annotationType) {
+		final Integer index = typeIndexes.get(annotationType);
+		return Objects.nonNull(index) && Objects.nonNull(targets[index]);
+	}
+
+	/**
+	 * 是否已找到全部目标类型的注解
+	 *
+	 * @return 是否
+	 */
+	public boolean isAllFound() {
+		return remaining == 0;
+	}
+
+	/**
+	 * 获取全部已找到的注解
+	 *
+	 * @return 注解类型与对应的注解，按构建时目标类型的顺序排列，不包含未找到的类型
+	 */
+	public Map<Class<? extends Annotation>, Annotation> getTargets() {
+		final Map<Class<? extends Annotation>, Annotation> results = new LinkedHashMap<>(targets.length);
+		for (int i = 0; i < targets.length; i++) {
+			if (Objects.nonNull(targets[i])) {
+				results.put(annotationTypes[i], targets[i]);
+			}
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,36 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import top.xiajibagao.powerfulannotation.scanner.AbstractAnnotationScanner;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * 处理器在处理完一个注解后返回的扫描控制指令，用于告知{@link AbstractAnnotationScanner}接下来如何继续扫描
+ *
+ * @author huangchengxing
+ * @see AnnotationProcessor#process(int, int, Annotation)
+ */
+public enum ScanControl {
+
+	/**
+	 * 继续扫描
+	 */
+	CONTINUE,
+
+	/**
+	 * 不扫描该注解的元注解，但是继续扫描与该注解处于同一层级，且顺序靠后的注解
+	 */
+	SKIP_META,
+
+	/**
+	 * 跳过当前层级中剩余的注解——包括该注解的元注解——并直接进入下一层级。
+	 * 若当前正在扫描某个注解的元注解，则仅跳过该元注解层级结构中的当前层级
+	 */
+	SKIP_LEVEL,
+
+	/**
+	 * 中断扫描，效果等同于{@link AnnotationProcessor#interrupted()}返回{@code true}
+	 */
+	STOP
+
+}
@@ -0,0 +1,336 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import top.xiajibagao.powerfulannotation.annotation.GenericHierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.helper.Assert;
+import top.xiajibagao.powerfulannotation.scanner.AbstractAnnotationScanner;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * <p>用于在{@link AbstractAnnotationScanner}扫描过程中收集注解及其索引的紧凑结果容器。<br />
+ * 与{@link AnnotationCollector}或聚合器不同，该容器不会为每个注解创建包装对象，
+ * 而是将注解、垂直索引与水平索引分别存放在三个平行的数组中，
+ * 数组容量不足时按1.5倍扩容，因此在扫描大量注解时内存占用更小，遍历时也具有更好的局部性。
+ *
+ * <p>仅当确实需要时，才可以通过{@link #getHierarchicalAnnotation(int, Object)}按下标创建对应的{@link HierarchicalAnnotation}。
+ *
+ * <p>eg：
+ * <pre>{@code
+ * ScanResult result = new ScanResult();
+ * AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.scan(Foo.class, result, AnnotationFilter.FILTER_JAVA);
+ * ScanResult nearest = result.filter(Bar.class).sort();
+ * }</pre>
+ *
+ * @author huangchengxing
+ */
+public class ScanResult implements AnnotationProcessor {
+
+	/**
+	 * 默认初始容量
+	 */
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * 注解
+	 */
+	private Annotation[] annotations;
+
+	/**
+	 * 注解对应的垂直索引
+	 */
+	private int[] verticalIndexes;
+
+	/**
+	 * 注解对应的水平索引
+	 */
+	private int[] horizontalIndexes;
+
+	/**
+	 * 已收集的注解数量
+	 */
+	private int size;
+
+	/**
+	 * 构造一个结果容器
+	 */
+	public ScanResult() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造一个结果容器
+	 *
+	 * @param initialCapacity 初始容量
+	 */
+	public ScanResult(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "initialCapacity must not less than 0");
+		this.annotations = new Annotation[initialCapacity];
+		this.verticalIndexes = new int[initialCapacity];
+		this.horizontalIndexes = new int[initialCapacity];
+		this.size = 0;
+	}
+
+	/**
+	 * 在末尾追加注解及其索引
+	 *
+	 * @param verticalIndex   垂直索引
+	 * @param horizontalIndex 水平索引
+	 * @param annotation      被扫描到的注解对象
+	 */
+	@Override
+	public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+		Assert.notNull(annotation, "annotation must not null");
+		if (size == annotations.length) {
+			grow();
+		}
+		annotations[size] = annotation;
+		verticalIndexes[size] = verticalIndex;
+		horizontalIndexes[size] = horizontalIndex;
+		size++;
+	}
+
+	private void grow() {
+		int capacity = Math.max(DEFAULT_CAPACITY, annotations.length + (annotations.length >> 1));
+		annotations = Arrays.copyOf(annotations, capacity);
+		verticalIndexes = Arrays.copyOf(verticalIndexes, capacity);
+		horizontalIndexes = Arrays.copyOf(horizontalIndexes, capacity);
+	}
+
+	// ======================== 访问 ========================
+
+	/**
+	 * 获取已收集的注解数量
+	 *
+	 * @return 注解数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否未收集到任何注解
+	 *
+	 * @return 是否
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 获取指定下标的注解
+	 *
+	 * @param index 下标
+	 * @return 注解
+	 */
+	public Annotation getAnnotation(int index) {
+		checkIndex(index);
+		return annotations[index];
+	}
+
+	/**
+	 * 获取指定下标的注解的垂直索引
+	 *
+	 * @param index 下标
+	 * @return 垂直索引
+	 */
+	public int getVerticalIndex(int index) {
+		checkIndex(index);
+		return verticalIndexes[index];
+	}
+
+	/**
+	 * 获取指定下标的注解的水平索引
+	 *
+	 * @param index 下标
+	 * @return 水平索引
+	 */
+	public int getHorizontalIndex(int index) {
+		checkIndex(index);
+		return horizontalIndexes[index];
+	}
+
+	/**
+	 * 为指定下标的注解创建一个{@link HierarchicalAnnotation}
+	 *
+	 * @param index 下标
+	 * @param root 根对象
+	 * @return 注解对象
+	 */
+	public HierarchicalAnnotation<Annotation> getHierarchicalAnnotation(int index, Object root) {
+		checkIndex(index);
+		return new GenericHierarchicalAnnotation<>(annotations[index], root, verticalIndexes[index], horizontalIndexes[index]);
+	}
+
+	/**
+	 * 获取全部注解
+	 *
+	 * @return 注解，按当前顺序排列
+	 */
+	public List<Annotation> getAnnotations() {
+		return Arrays.asList(Arrays.copyOf(annotations, size));
+	}
+
+	/**
+	 * 获取指定类型的注解
+	 *
+	 * @param annotationType 注解类型
+	 * @param <A> 注解类型
+	 * @return 注解，按当前顺序排列
+	 */
+	public <A extends Annotation> List<A> getAnnotations(Class<A> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		List<A> results = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			if (annotations[i].annotationType() == annotationType) {
+				results.add(annotationType.cast(annotations[i]));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * 按当前顺序将全部注解及其索引交由处理器处理，直到处理器中断
+	 *
+	 * @param processor 处理器
+	 */
+	public void forEach(AnnotationProcessor processor) {
+		Assert.notNull(processor, "processor must not null");
+		for (int i = 0; i < size && !processor.interrupted(); i++) {
+			processor.accept(verticalIndexes[i], horizontalIndexes[i], annotations[i]);
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+	}
+
+	// ======================== 过滤与排序 ========================
+
+	/**
+	 * 获取仅包含指定类型注解的新容器，注解的相对顺序不变
+	 *
+	 * @param annotationType 注解类型
+	 * @return 新容器
+	 */
+	public ScanResult filter(Class<? extends Annotation> annotationType) {
+		Assert.notNull(annotationType, "annotationType must not null");
+		ScanResult result = new ScanResult(DEFAULT_CAPACITY);
+		for (int i = 0; i < size; i++) {
+			if (annotations[i].annotationType() == annotationType) {
+				result.accept(verticalIndexes[i], horizontalIndexes[i], annotations[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 获取仅包含满足条件的注解的新容器，注解的相对顺序不变
+	 *
+	 * @param predicate 判断条件
+	 * @return 新容器
+	 */
+	public ScanResult filter(Predicate<? super Annotation> predicate) {
+		Assert.notNull(predicate, "predicate must not null");
+		ScanResult result = new ScanResult(DEFAULT_CAPACITY);
+		for (int i = 0; i < size; i++) {
+			if (predicate.test(annotations[i])) {
+				result.accept(verticalIndexes[i], horizontalIndexes[i], annotations[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 按距离根对象由近到远排序，即按垂直索引升序、水平索引升序排序
+	 *
+	 * @return 当前实例
+	 */
+	public ScanResult sort() {
+		return sort(true);
+	}
+
+	/**
+	 * <p>按距离根对象的远近排序，垂直索引相同时按水平索引升序排序，
+	 * 排序是稳定的，索引完全相同的注解将保持原有的相对顺序
+	 *
+	 * @param nearestFirst 是否距离根对象更近的注解在前
+	 * @return 当前实例
+	 */
+	public ScanResult sort(boolean nearestFirst) {
+		if (size < 2) {
+			return this;
+		}
+		// 对下标进行归并排序，然后一次性重排三个数组
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		mergeSort(order, new int[size], 0, size, nearestFirst);
+		Annotation[] sortedAnnotations = new Annotation[annotations.length];
+		int[] sortedVerticalIndexes = new int[annotations.length];
+		int[] sortedHorizontalIndexes = new int[annotations.length];
+		for (int i = 0; i < size; i++) {
+			sortedAnnotations[i] = annotations[order[i]];
+			sortedVerticalIndexes[i] = verticalIndexes[order[i]];
+			sortedHorizontalIndexes[i] = horizontalIndexes[order[i]];
+		}
+		annotations = sortedAnnotations;
+		verticalIndexes = sortedVerticalIndexes;
+		horizontalIndexes = sortedHorizontalIndexes;
+		return this;
+	}
+
+	private void mergeSort(int[] order, int[] buffer, int from, int to, boolean nearestFirst) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(order, buffer, from, middle, nearestFirst);
+		mergeSort(order, buffer, middle, to, nearestFirst);
+		// 左半部分的末尾不大于右半部分的开头时，已经有序
+		if (compare(order[middle - 1], order[middle], nearestFirst) <= 0) {
+			return;
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && compare(buffer[left], buffer[right], nearestFirst) <= 0)) {
+				order[i] = buffer[left++];
+			} else {
+				order[i] = buffer[right++];
+			}
+		}
+	}
+
+	private int compare(int a, int b, boolean nearestFirst) {
+		int compared = nearestFirst ?
+			Integer.compare(verticalIndexes[a], verticalIndexes[b]) : Integer.compare(verticalIndexes[b], verticalIndexes[a]);
+		return compared != 0 ? compared : Integer.compare(horizontalIndexes[a], horizontalIndexes[b]);
+	}
+
+	/**
+	 * 将数组容量缩减至当前注解数量
+	 */
+	public void trimToSize() {
+		if (size < annotations.length) {
+			annotations = Arrays.copyOf(annotations, size);
+			verticalIndexes = Arrays.copyOf(verticalIndexes, size);
+			horizontalIndexes = Arrays.copyOf(horizontalIndexes, size);
+		}
+	}
+
+	/**
+	 * 清空容器，保留已分配的容量
+	 */
+	public void clear() {
+		Arrays.fill(annotations, 0, size, null);
+		size = 0;
+	}
+
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import top.xiajibagao.powerfulannotation.annotation.GenericHierarchicalAnnotation;
 import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
 import top.xiajibagao.powerfulannotation.annotation.proxy.AnnotationProxyFactory;
+import top.xiajibagao.powerfulannotation.helper.AnnotationTypeMap;
 import top.xiajibagao.powerfulannotation.helper.HierarchySelector;
 import top.xiajibagao.powerfulannotation.synthesis.resolver.SyntheticAnnotationResolver;
 
@@ -71,7 +72,7 @@ public class GenericAnnotationSynthesizer implements AnnotationSynthesizer {
         this.resolvers = resolvers.stream()
             .sorted(Comparator.comparing(SyntheticAnnotationResolver::order))
             .collect(Collectors.toList());
-        this.synthesizedAnnotationMap = new LinkedHashMap<>();
+        this.synthesizedAnnotationMap = new AnnotationTypeMap<>();
         this.selector = selector;
         this.resolved = false;
     }
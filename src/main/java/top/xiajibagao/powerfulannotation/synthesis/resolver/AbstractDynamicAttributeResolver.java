@@ -1,8 +1,8 @@
 package top.xiajibagao.powerfulannotation.synthesis.resolver;
 
+import top.xiajibagao.powerfulannotation.annotation.AnnotationTypeMetadata;
 import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
 import top.xiajibagao.powerfulannotation.annotation.attribute.AnnotationAttribute;
-import top.xiajibagao.powerfulannotation.helper.Annotations;
 import top.xiajibagao.powerfulannotation.helper.Assert;
 import top.xiajibagao.powerfulannotation.helper.CollUtils;
 import top.xiajibagao.powerfulannotation.synthesis.AnnotationSynthesizer;
@@ -95,15 +95,17 @@ public abstract class AbstractDynamicAttributeResolver implements SyntheticAnnot
 	// =========================== @Link注解的处理 ===========================
 
 	/**
-	 * 从注解属性上获取指定类型的{@link Link}注解
+	 * 从注解属性上获取指定类型的{@link Link}注解，注解从属性所在注解类型的{@link AnnotationTypeMetadata}中获取
 	 *
 	 * @param attribute     注解属性
 	 * @param relationTypes 类型
 	 * @return 注解
 	 */
+	@SuppressWarnings("unchecked")
 	protected Link getAttributeAnnotation(AnnotationAttribute attribute, RelationType... relationTypes) {
 		return Optional.ofNullable(attribute)
-			.map(t -> Annotations.getSynthesizedAnnotation(attribute.getAttribute(), Link.class))
+			.map(AnnotationAttribute::getAttribute)
+			.map(method -> AnnotationTypeMetadata.of((Class<? extends Annotation>)method.getDeclaringClass()).getLink(method.getName()))
 			.filter(a -> CollUtils.isContainsAny(relationTypes, a.type()))
 			.orElse(null);
 	}
@@ -0,0 +1,76 @@
+package top.xiajibagao.powerfulannotation.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.synthesis.AliasFor;
+import top.xiajibagao.powerfulannotation.synthesis.Link;
+import top.xiajibagao.powerfulannotation.synthesis.RelationType;
+
+import java.lang.annotation.*;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class AnnotationTypeMetadataTest {
+
+    @Test
+    public void testAttributes() {
+        AnnotationTypeMetadata metadata = AnnotationTypeMetadata.of(AnnotationForTest.class);
+        Assert.assertSame(metadata, AnnotationTypeMetadata.of(AnnotationForTest.class));
+        Assert.assertEquals(AnnotationForTest.class, metadata.getAnnotationType());
+
+        // 按属性名称排序
+        Assert.assertEquals(3, metadata.size());
+        Assert.assertEquals(
+            Arrays.asList("alias", "id", "value"),
+            metadata.getAttributeMethods().stream().map(Method::getName).collect(Collectors.toList())
+        );
+        Assert.assertEquals(1, metadata.indexOf("id"));
+        Assert.assertEquals(-1, metadata.indexOf("annotationType"));
+        Assert.assertEquals("id", metadata.getAttributeName(1));
+        Assert.assertEquals(int.class, metadata.getAttributeType(1));
+        Assert.assertEquals("id", metadata.getAttributeMethod(1).getName());
+
+        Assert.assertEquals("default", metadata.getDefaultValue("value"));
+        Assert.assertNull(metadata.getDefaultValue("id"));
+        Assert.assertNull(metadata.getDefaultValue("none"));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> AnnotationTypeMetadata.of(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> AnnotationTypeMetadata.of(castAnnotationType(String.class)));
+    }
+
+    @Test
+    public void testLink() {
+        AnnotationTypeMetadata metadata = AnnotationTypeMetadata.of(AnnotationForTest.class);
+        Link link = metadata.getLink("value");
+        Assert.assertNotNull(link);
+        Assert.assertEquals(RelationType.MIRROR_FOR, link.type());
+        Assert.assertEquals("alias", link.attribute());
+        Assert.assertSame(link, metadata.getLink("value"));
+
+        // 由以Link为元注解的AliasFor合成
+        Link alias = metadata.getLink("alias");
+        Assert.assertNotNull(alias);
+        Assert.assertEquals(RelationType.ALIAS_FOR, alias.type());
+        Assert.assertEquals("id", alias.attribute());
+
+        Assert.assertNull(metadata.getLink("id"));
+        Assert.assertNull(metadata.getLink("none"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> castAnnotationType(Class<?> type) {
+        return (Class<? extends Annotation>)type;
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface AnnotationForTest {
+        @Link(attribute = "alias")
+        String value() default "default";
+        int id();
+        @AliasFor(attribute = "id")
+        String alias() default "";
+    }
+
+}
@@ -1,12 +1,22 @@
 package top.xiajibagao.powerfulannotation.annotation;
 
+import lombok.SneakyThrows;
 import org.junit.Assert;
 import org.junit.Test;
+import top.xiajibagao.powerfulannotation.annotation.attribute.AnnotationAttribute;
+import top.xiajibagao.powerfulannotation.annotation.attribute.FixedValueAnnotationAttribute;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GenericHierarchicalAnnotationTest {
 
@@ -36,6 +46,92 @@ public class GenericHierarchicalAnnotationTest {
         Assert.assertEquals("value", aggregatedAnnotation.getAttributeValue("value", String.class));
     }
 
+    @Test
+    public void testLazyAttribute() {
+        AnnotationForTest annotation = ClassForTest.class.getAnnotation(AnnotationForTest.class);
+        List<Integer> createdAttributes = new ArrayList<>();
+        GenericHierarchicalAnnotation<AnnotationForTest> aggregatedAnnotation = new GenericHierarchicalAnnotation<AnnotationForTest>(annotation) {
+            @Override
+            protected AnnotationAttribute createAnnotationAttribute(AnnotationForTest annotation, int attributeIndex) {
+                createdAttributes.add(attributeIndex);
+                return super.createAnnotationAttribute(annotation, attributeIndex);
+            }
+        };
+        // 不访问属性时不创建属性
+        Assert.assertTrue(aggregatedAnnotation.hasAttribute("value", String.class));
+        Assert.assertFalse(aggregatedAnnotation.hasAttribute("none", String.class));
+        Assert.assertTrue(createdAttributes.isEmpty());
+
+        // 仅在首次访问时创建
+        AnnotationAttribute id = aggregatedAnnotation.getAttribute("id");
+        Assert.assertSame(id, aggregatedAnnotation.getAttribute("id"));
+        Assert.assertNull(aggregatedAnnotation.getAttribute("none"));
+        Assert.assertEquals(1, createdAttributes.size());
+
+        // 替换属性
+        aggregatedAnnotation.replaceAttribute("value", old -> new FixedValueAnnotationAttribute(old, "fixed"));
+        Assert.assertEquals("fixed", aggregatedAnnotation.getAttributeValue("value", String.class));
+        Assert.assertEquals(2, createdAttributes.size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> aggregatedAnnotation.replaceAttribute("none", old -> old));
+
+        Assert.assertEquals(2, aggregatedAnnotation.getAllAttribute().size());
+        Assert.assertEquals(2, createdAttributes.size());
+        Assert.assertSame(id, aggregatedAnnotation.getAttributeMap().get("id"));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testLegacyLoader() {
+        AnnotationForTest annotation = ClassForTest.class.getAnnotation(AnnotationForTest.class);
+        GenericHierarchicalAnnotation<AnnotationForTest> aggregatedAnnotation = new GenericHierarchicalAnnotation<AnnotationForTest>(annotation) {
+            @Override
+            protected Map<String, AnnotationAttribute> loadAnnotationAttributes(AnnotationForTest annotation) {
+                Map<String, AnnotationAttribute> attributes = super.loadAnnotationAttributes(annotation);
+                attributes.computeIfPresent("value", (name, attribute) -> new FixedValueAnnotationAttribute(attribute, "legacy"));
+                attributes.put("none", attributes.get("id"));
+                return attributes;
+            }
+        };
+        // 重写的加载方法仍然生效，不属于注解的属性被忽略
+        Assert.assertEquals("legacy", aggregatedAnnotation.getAttributeValue("value", String.class));
+        Assert.assertEquals(46, aggregatedAnnotation.getAttributeValue("id", Integer.class));
+        Assert.assertNull(aggregatedAnnotation.getAttribute("none"));
+        Assert.assertEquals(2, aggregatedAnnotation.getAllAttribute().size());
+    }
+
+    @SneakyThrows
+    @Test
+    public void testConcurrentReplace() {
+        AnnotationForTest annotation = ClassForTest.class.getAnnotation(AnnotationForTest.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                GenericHierarchicalAnnotation<AnnotationForTest> aggregatedAnnotation = new GenericHierarchicalAnnotation<>(annotation);
+                CountDownLatch latch = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    futures.add(executor.submit(() -> {
+                        latch.await();
+                        return aggregatedAnnotation.getAllAttribute();
+                    }));
+                }
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    aggregatedAnnotation.replaceAttribute("value", old -> new FixedValueAnnotationAttribute(old, "fixed"));
+                    return null;
+                }));
+                latch.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                // 并发读取不会覆盖已被替换的属性
+                Assert.assertEquals("fixed", aggregatedAnnotation.getAttributeValue("value", String.class));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Target(ElementType.TYPE)
     @Retention(RetentionPolicy.RUNTIME)
     private @interface AnnotationForTest {
@@ -0,0 +1,108 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationTypeIds;
+
+import java.lang.annotation.*;
+import java.util.*;
+
+public class AnnotationTypeMapTest {
+
+	private static final List<Class<? extends Annotation>> TYPES = Arrays.asList(
+		Documented.class, Retention.class, Target.class, Inherited.class, Deprecated.class,
+		FunctionalInterface.class, SafeVarargs.class, Override.class, Repeatable.class, Native.class
+	);
+
+	@Test
+	public void putAndGetTest() {
+		Map<Class<? extends Annotation>, Integer> map = new AnnotationTypeMap<>();
+		Map<Class<? extends Annotation>, Integer> expected = new LinkedHashMap<>();
+		for (int i = 0; i < TYPES.size(); i++) {
+			Assert.assertNull(map.put(TYPES.get(i), i));
+			expected.put(TYPES.get(i), i);
+		}
+		Assert.assertEquals(TYPES.size(), map.size());
+		Assert.assertEquals(expected, map);
+		Assert.assertEquals(expected.hashCode(), map.hashCode());
+		Assert.assertEquals(TYPES, new ArrayList<>(map.keySet()));
+		Assert.assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+
+		// 覆盖已有的值不改变顺序
+		Assert.assertEquals((Integer)0, map.put(Documented.class, 100));
+		Assert.assertEquals((Integer)100, map.get(Documented.class));
+		Assert.assertEquals(Documented.class, map.keySet().iterator().next());
+		Assert.assertTrue(map.containsKey(Native.class));
+		Assert.assertFalse(map.containsKey(AnnotationForTest.class));
+		Assert.assertFalse(map.containsKey("Documented"));
+		Assert.assertNull(map.get(null));
+
+		Assert.assertEquals((Integer)1, map.computeIfAbsent(Retention.class, t -> -1));
+		Assert.assertEquals((Integer)(-1), map.computeIfAbsent(AnnotationForTest.class, t -> -1));
+		Assert.assertEquals(AnnotationForTest.class, new ArrayList<>(map.keySet()).get(map.size() - 1));
+
+		Assert.assertThrows(IllegalArgumentException.class, () -> map.put(null, 1));
+		Assert.assertThrows(IllegalArgumentException.class, () -> map.put(castAnnotationType(String.class), 1));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new AnnotationTypeMap<>(-1));
+	}
+
+	@Test
+	public void removeTest() {
+		Map<Class<? extends Annotation>, Integer> map = new AnnotationTypeMap<>(0);
+		for (int i = 0; i < TYPES.size(); i++) {
+			map.put(TYPES.get(i), i);
+		}
+		Assert.assertEquals((Integer)2, map.remove(Target.class));
+		Assert.assertNull(map.remove(Target.class));
+		Assert.assertFalse(map.containsKey(Target.class));
+		// 删除后其余键仍可被找到
+		for (Class<? extends Annotation> type : TYPES) {
+			Assert.assertEquals(type != Target.class, map.containsKey(type));
+		}
+
+		Iterator<Map.Entry<Class<? extends Annotation>, Integer>> iterator = map.entrySet().iterator();
+		Assert.assertThrows(IllegalStateException.class, iterator::remove);
+		while (iterator.hasNext()) {
+			Map.Entry<Class<? extends Annotation>, Integer> entry = iterator.next();
+			if (entry.getValue() % 2 == 0) {
+				iterator.remove();
+			} else {
+				Assert.assertEquals(entry.getValue(), entry.setValue(entry.getValue() * 10));
+			}
+		}
+		Assert.assertThrows(NoSuchElementException.class, iterator::next);
+		Assert.assertEquals(Arrays.asList(Retention.class, Inherited.class, FunctionalInterface.class, Override.class, Native.class), new ArrayList<>(map.keySet()));
+		Assert.assertEquals(Arrays.asList(10, 30, 50, 70, 90), new ArrayList<>(map.values()));
+
+		Map.Entry<Class<? extends Annotation>, Integer> entry = map.entrySet().iterator().next();
+		map.remove(entry.getKey());
+		Assert.assertThrows(IllegalArgumentException.class, () -> entry.setValue(1));
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertFalse(map.containsKey(Native.class));
+		map.put(Native.class, 1);
+		Assert.assertEquals(Collections.singletonMap(Native.class, 1), map);
+	}
+
+	@Test
+	public void nonAnnotationKeyTest() {
+		Map<Class<? extends Annotation>, Integer> map = new AnnotationTypeMap<>();
+		map.put(Documented.class, 1);
+		// 查找非注解类型不会为其分配编号
+		int size = AnnotationTypeIds.size();
+		Assert.assertFalse(map.containsKey(String.class));
+		Assert.assertNull(map.get(AnnotationTypeMapTest.class));
+		Assert.assertNull(map.remove(Integer.class));
+		Assert.assertEquals(size, AnnotationTypeIds.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> castAnnotationType(Class<?> type) {
+		return (Class<? extends Annotation>)type;
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest {}
+
+}
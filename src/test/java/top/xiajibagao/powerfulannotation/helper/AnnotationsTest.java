@@ -6,14 +6,21 @@ import top.xiajibagao.powerfulannotation.repeatable.RepeatableBy;
 import top.xiajibagao.powerfulannotation.synthesis.AliasFor;
 import top.xiajibagao.powerfulannotation.synthesis.MirrorFor;
 
+import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -179,6 +186,24 @@ public class AnnotationsTest {
         Assert.assertEquals("annotation2", annotation2.value());
     }
 
+    @Test
+    public void testFindIndirectAnnotations() {
+        Map<Class<? extends Annotation>, Annotation> annotations = Annotations.findIndirectAnnotations(
+            ClassForTest.class, AnnotationForTest3.class, AnnotationForTest1.class, AnnotationForTest4.class, Deprecated.class
+        );
+        Assert.assertEquals(
+            Arrays.asList(AnnotationForTest3.class, AnnotationForTest1.class, AnnotationForTest4.class),
+            new ArrayList<>(annotations.keySet())
+        );
+        Assert.assertSame(Annotations.findIndirectAnnotation(ClassForTest.class, AnnotationForTest1.class), annotations.get(AnnotationForTest1.class));
+        Assert.assertSame(Annotations.findIndirectAnnotation(ClassForTest.class, AnnotationForTest3.class), annotations.get(AnnotationForTest3.class));
+        Assert.assertSame(Annotations.findIndirectAnnotation(ClassForTest.class, AnnotationForTest4.class), annotations.get(AnnotationForTest4.class));
+        Assert.assertTrue(Annotations.findIndirectAnnotations(null, AnnotationForTest1.class).isEmpty());
+        Assert.assertEquals(annotations, Annotations.findIndirectAnnotations(
+            ClassForTest.class, Arrays.asList(AnnotationForTest3.class, AnnotationForTest1.class, AnnotationForTest4.class)
+        ));
+    }
+
     @Test
     public void testFindAllIndirectAnnotations() {
         List<AnnotationForTest1> annotations = Annotations.findAllIndirectAnnotations(ClassForTest.class, AnnotationForTest1.class);
@@ -348,6 +373,30 @@ public class AnnotationsTest {
         );
     }
 
+    @Test
+    public void testWarmUp() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            WarmUpReport report = Annotations.warmUp(Arrays.asList(ClassForTest.class, SuperForTest.class, ClassForTest.class), executor);
+            Assert.assertEquals(2, report.getTypeCount());
+            Assert.assertTrue(report.getFailedTypeNames().isEmpty());
+            for (WarmUpReport.Phase phase : WarmUpReport.Phase.values()) {
+                Assert.assertTrue(report.getElapsed(phase, TimeUnit.NANOSECONDS) > 0);
+            }
+            Assert.assertTrue(report.getTotalElapsed(TimeUnit.NANOSECONDS) >= report.getElapsed(WarmUpReport.Phase.HIERARCHY, TimeUnit.NANOSECONDS));
+
+            report = Annotations.warmUp(
+                () -> Arrays.asList(ClassForTest.class.getName(), "not.exists.ClassForTest"),
+                AnnotationsTest.class.getClassLoader(), ForkJoinPool.commonPool()
+            );
+            Assert.assertEquals(1, report.getTypeCount());
+            Assert.assertEquals(Collections.singleton("not.exists.ClassForTest"), report.getFailedTypeNames());
+            Assert.assertTrue(report.toString().startsWith("WarmUpReport{types=1, failed=1"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @AnnotationForTest4(text = "covered")
     @RepeatableBy(annotation = AnnotationForTest2.class, attribute = "annotations")
     @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD})
@@ -0,0 +1,235 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * test for {@link ConcurrentForestMap}
+ *
+ * @author huangchengxing
+ */
+public class ConcurrentForestMapTest {
+
+    @Test
+    public void putNodeTest() {
+        final ForestMap<String, String> map = new ConcurrentForestMap<>(false);
+        Assert.assertNull(map.putNode("a", "aaa"));
+        final TreeEntry<String, String> old = map.putNode("a", "aaaa");
+        Assert.assertEquals("aaa", old.getValue());
+        Assert.assertEquals("aaaa", map.getNodeValue("a"));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void linkNodesTest() {
+        final ForestMap<String, String> map = new ConcurrentForestMap<>(false);
+        // a -> b -> c, a -> d
+        map.putLinkedNodes("a", "aaa", "b", "bbb");
+        map.putLinkedNodes("b", "c", "ccc");
+        map.linkNodes("a", "d");
+        final TreeEntry<String, String> a = map.get("a");
+        final TreeEntry<String, String> c = map.get("c");
+
+        Assert.assertEquals("aaa", a.getValue());
+        Assert.assertEquals("ccc", c.getValue());
+        Assert.assertEquals(a, c.getRoot());
+        Assert.assertEquals(2, c.getWeight());
+        Assert.assertEquals(map.get("b"), c.getDeclaredParent());
+        Assert.assertEquals(CollUtils.newArrayList("b", "d"), new ArrayList<>(a.getDeclaredChildren().keySet()));
+        Assert.assertEquals(CollUtils.newArrayList("b", "d", "c"), new ArrayList<>(a.getChildren().keySet()));
+        Assert.assertTrue(map.containsChildNode("a", "c"));
+        Assert.assertTrue(map.containsParentNode("c", "a"));
+        Assert.assertFalse(map.containsParentNode("c", "d"));
+        Assert.assertEquals(a, map.getParentNode("c", "a"));
+
+        // 不允许覆盖父节点，也不允许循环引用
+        Assert.assertThrows(IllegalArgumentException.class, () -> map.linkNodes("d", "c"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> map.linkNodes("c", "a"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> map.linkNodes("a", "a"));
+    }
+
+    @Test
+    public void overrideParentTest() {
+        final ForestMap<String, String> map = new ConcurrentForestMap<>(true);
+        // a -> b -> c, d
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        // a -> b, d -> c
+        map.linkNodes("d", "c");
+        Assert.assertEquals(map.get("d"), map.get("c").getRoot());
+        Assert.assertEquals(1, map.get("c").getWeight());
+        Assert.assertFalse(map.get("b").hasChildren());
+        // d -> c -> a -> b
+        map.linkNodes("c", "a");
+        Assert.assertEquals(map.get("d"), map.get("b").getRoot());
+        Assert.assertEquals(3, map.get("b").getWeight());
+        Assert.assertThrows(IllegalArgumentException.class, () -> map.linkNodes("b", "d"));
+    }
+
+    @Test
+    public void unlinkAndRemoveTest() {
+        final ForestMap<String, String> map = new ConcurrentForestMap<>(false);
+        // a -> b -> c -> d
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        map.linkNodes("c", "d");
+
+        // 父节点不匹配时不做处理
+        map.unlinkNode("a", "c");
+        Assert.assertTrue(map.containsParentNode("c", "a"));
+
+        // a -> c -> d
+        final TreeEntry<String, String> b = map.remove("b");
+        Assert.assertFalse(b.hasParent());
+        Assert.assertFalse(b.hasChildren());
+        Assert.assertFalse(map.containsKey("b"));
+        Assert.assertEquals(map.get("a"), map.get("c").getDeclaredParent());
+        Assert.assertEquals(2, map.get("d").getWeight());
+
+        // a, c -> d
+        map.unlinkNode("a", "c");
+        Assert.assertFalse(map.containsParentNode("c", "a"));
+        Assert.assertEquals(map.get("c"), map.get("d").getRoot());
+        Assert.assertEquals(1, map.get("d").getWeight());
+
+        // a, d
+        map.remove("c");
+        Assert.assertEquals(map.get("d"), map.get("d").getRoot());
+        Assert.assertEquals(0, map.get("d").getWeight());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.remove("a"));
+        Assert.assertNull(map.get(null));
+    }
+
+    @Test
+    public void childrenSizeTest() {
+        final ForestMap<String, String> map = new ConcurrentForestMap<>(true);
+        // a -> b -> c, a -> d -> e
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        map.linkNodes("a", "d");
+        map.linkNodes("d", "e");
+        final Map<String, TreeEntry<String, String>> aChildren = map.get("a").getChildren();
+        final Map<String, TreeEntry<String, String>> bChildren = map.get("b").getChildren();
+        Assert.assertEquals(4, aChildren.size());
+        Assert.assertEquals(1, bChildren.size());
+
+        // a -> b -> c, e, a -> d
+        map.linkNodes("b", "e");
+        Assert.assertEquals(4, aChildren.size());
+        Assert.assertEquals(2, bChildren.size());
+        Assert.assertEquals(0, map.get("d").getChildren().size());
+
+        // a -> d, b -> c, e
+        map.unlinkNode("a", "b");
+        Assert.assertEquals(1, aChildren.size());
+        Assert.assertEquals(2, bChildren.size());
+
+        // 删除节点后，其子节点将直接作为其父节点的子节点：a -> d, c, e
+        map.linkNodes("a", "b");
+        map.remove("b");
+        Assert.assertEquals(3, aChildren.size());
+        Assert.assertEquals(0, bChildren.size());
+        Assert.assertEquals(3, new ArrayList<>(aChildren.keySet()).size());
+    }
+
+    @Test
+    public void concurrentStressTest() throws InterruptedException {
+        final ConcurrentForestMap<Integer, Integer> map = new ConcurrentForestMap<>(true);
+        final int keyCount = 32;
+        final int writerCount = 4;
+        final int readerCount = 4;
+        final int operationCount = 20000;
+        final ExecutorService executor = Executors.newFixedThreadPool(writerCount + readerCount);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch writersDone = new CountDownLatch(writerCount);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < writerCount; i++) {
+            final long seed = i;
+            executor.execute(() -> {
+                final Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int j = 0; j < operationCount; j++) {
+                        final int parent = random.nextInt(keyCount);
+                        final int child = random.nextInt(keyCount);
+                        final int operation = random.nextInt(10);
+                        try {
+                            if (operation < 6) {
+                                map.putLinkedNodes(parent, child, j);
+                            } else if (operation < 8) {
+                                map.unlinkNode(parent, child);
+                            } else if (operation < 9) {
+                                map.putNode(child, j);
+                            } else {
+                                map.remove(child);
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // 循环引用
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+        for (int i = 0; i < readerCount; i++) {
+            final long seed = 100L + i;
+            executor.execute(() -> {
+                final Random random = new Random(seed);
+                try {
+                    start.await();
+                    while (writersDone.getCount() > 0) {
+                        final TreeEntry<Integer, Integer> node = map.get(random.nextInt(keyCount));
+                        if (Objects.isNull(node)) {
+                            continue;
+                        }
+                        // 遍历过程中不应出现异常，且每个节点至多被访问一次
+                        final Set<Integer> keys = new HashSet<>();
+                        node.forEachChild(false, child -> Assert.assertTrue(keys.add(child.getKey())));
+                        Assert.assertTrue(keys.size() <= keyCount);
+                        Assert.assertNotNull(node.getRoot());
+                        Assert.assertTrue(node.getWeight() >= 0);
+                        map.containsChildNode(random.nextInt(keyCount), node.getKey());
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        Assert.assertNull(failure.get());
+
+        // 全部写操作完成后，森林应当处于一致的状态
+        for (TreeEntry<Integer, Integer> node : map.values()) {
+            int weight = 0;
+            TreeEntry<Integer, Integer> root = node;
+            while (root.hasParent()) {
+                final TreeEntry<Integer, Integer> parent = root.getDeclaredParent();
+                Assert.assertSame(root, parent.getDeclaredChildren().get(root.getKey()));
+                Assert.assertSame(parent, map.get(parent.getKey()));
+                root = parent;
+                Assert.assertTrue(++weight <= keyCount);
+            }
+            Assert.assertSame(root, node.getRoot());
+            Assert.assertEquals(weight, node.getWeight());
+            for (TreeEntry<Integer, Integer> child : node.getDeclaredChildren().values()) {
+                Assert.assertSame(node, child.getDeclaredParent());
+                Assert.assertSame(child, map.get(child.getKey()));
+            }
+        }
+    }
+
+}
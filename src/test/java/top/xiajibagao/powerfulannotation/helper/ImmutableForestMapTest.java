@@ -0,0 +1,111 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * test for {@link ImmutableForestMap}
+ *
+ * @author huangchengxing
+ */
+public class ImmutableForestMapTest {
+
+    private ForestMap<String, String> source;
+    private ForestMap<String, String> map;
+
+    @Before
+    public void beforeTest() {
+        // a -> b -> d, a -> c -> e, c -> f; g -> h
+        source = new LinkedForestMap<>(false);
+        source.putLinkedNodes("a", "aaa", "b", "bbb");
+        source.putLinkedNodes("a", "c", "ccc");
+        source.putLinkedNodes("b", "d", "ddd");
+        source.putLinkedNodes("c", "e", "eee");
+        source.putLinkedNodes("c", "f", "fff");
+        source.putLinkedNodes("g", "ggg", "h", "hhh");
+        map = source.freeze();
+    }
+
+    @Test
+    public void freezeTest() {
+        Assert.assertTrue(map instanceof ImmutableForestMap);
+        Assert.assertSame(map, map.freeze());
+        Assert.assertEquals(source.size(), map.size());
+        Assert.assertEquals(CollUtils.newArrayList("a", "b", "c", "d", "e", "f", "g", "h"), new ArrayList<>(map.keySet()));
+        source.keySet().forEach(key -> {
+            Assert.assertTrue(map.containsKey(key));
+            Assert.assertEquals(source.getNodeValue(key), map.getNodeValue(key));
+        });
+        Assert.assertFalse(map.containsKey("x"));
+        Assert.assertNull(map.get("x"));
+        Assert.assertTrue(map.containsValue(map.get("a")));
+
+        // 副本不随源集合变化
+        source.linkNodes("h", "x");
+        Assert.assertFalse(map.containsKey("x"));
+        Assert.assertTrue(new LinkedForestMap<String, String>(false).freeze().isEmpty());
+    }
+
+    @Test
+    public void treeEntryTest() {
+        final TreeEntry<String, String> a = map.get("a");
+        final TreeEntry<String, String> c = map.get("c");
+        final TreeEntry<String, String> f = map.get("f");
+
+        Assert.assertEquals("fff", f.getValue());
+        Assert.assertEquals(2, f.getWeight());
+        Assert.assertSame(a, f.getRoot());
+        Assert.assertSame(c, f.getDeclaredParent());
+        Assert.assertSame(a, f.getParent("a"));
+        Assert.assertNull(f.getParent("b"));
+        Assert.assertNull(f.getParent("h"));
+        Assert.assertFalse(a.hasParent());
+        Assert.assertNull(a.getDeclaredParent());
+
+        Assert.assertEquals(CollUtils.newArrayList("e", "f"), new ArrayList<>(c.getDeclaredChildren().keySet()));
+        Assert.assertSame(f, c.getDeclaredChildren().get("f"));
+        Assert.assertNull(a.getDeclaredChildren().get("f"));
+        Assert.assertEquals(CollUtils.newArrayList("b", "c", "d", "e", "f"), new ArrayList<>(a.getChildren().keySet()));
+        Assert.assertEquals(5, a.getChildren().size());
+        Assert.assertEquals(2, c.getChildren().size());
+        Assert.assertEquals(0, f.getChildren().size());
+        Assert.assertSame(f, a.getChild("f"));
+        Assert.assertNull(a.getChild("a"));
+        Assert.assertNull(a.getChild("h"));
+        Assert.assertFalse(f.hasChildren());
+
+        final List<String> keys = new ArrayList<>();
+        c.forEachChild(true, e -> keys.add(e.getKey()));
+        Assert.assertEquals(CollUtils.newArrayList("c", "e", "f"), keys);
+        Assert.assertFalse(f.childIterator(false).hasNext());
+        Assert.assertEquals(CollUtils.newArrayList(map.get("g"), map.get("h")), new ArrayList<>(map.getTreeNodes("h")));
+    }
+
+    @Test
+    public void ancestorTest() {
+        Assert.assertTrue(map.containsParentNode("f", "a"));
+        Assert.assertTrue(map.containsChildNode("a", "d"));
+        Assert.assertFalse(map.containsChildNode("b", "e"));
+        Assert.assertFalse(map.containsChildNode("a", "a"));
+        Assert.assertFalse(map.containsChildNode("a", "h"));
+        Assert.assertFalse(map.containsChildNode("a", "x"));
+        Assert.assertSame(map.get("c"), map.getParentNode("e", "c"));
+        Assert.assertNull(map.getParentNode("e", "b"));
+    }
+
+    @Test
+    public void modifyTest() {
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.putNode("a", "a"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.linkNodes("a", "h"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.unlinkNode("a", "b"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.clear());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.get("a").setValue("a"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> map.get("a").getDeclaredChildren().clear());
+    }
+
+}
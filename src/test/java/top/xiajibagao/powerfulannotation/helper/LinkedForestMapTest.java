@@ -7,6 +7,8 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 public class LinkedForestMapTest {
 
@@ -310,6 +312,39 @@ public class LinkedForestMapTest {
         Assert.assertFalse(map.containsChildNode("c", "c"));
     }
 
+    @Test
+    public void ancestorLabelTest() {
+        final ForestMap<String, String> map = new LinkedForestMap<>(true);
+        // a -> b -> c, d -> e
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        map.linkNodes("d", "e");
+        Assert.assertTrue(map.containsChildNode("a", "c"));
+        Assert.assertFalse(map.containsChildNode("d", "c"));
+        Assert.assertFalse(map.containsParentNode("a", "c"));
+
+        // 修改引用关系后，标号应当重建：a -> b, d -> e -> c
+        map.linkNodes("e", "c");
+        Assert.assertFalse(map.containsChildNode("a", "c"));
+        Assert.assertTrue(map.containsChildNode("d", "c"));
+        Assert.assertTrue(map.containsParentNode("c", "e"));
+        Assert.assertEquals(map.get("d"), map.getParentNode("c", "d"));
+
+        // d, e -> c
+        map.unlinkNode("d", "e");
+        Assert.assertFalse(map.containsParentNode("c", "d"));
+        Assert.assertTrue(map.containsParentNode("c", "e"));
+
+        // 删除根节点后，其子节点将成为新的根节点
+        map.remove("e");
+        Assert.assertFalse(map.get("c").hasParent());
+        Assert.assertFalse(map.containsParentNode("c", "e"));
+        map.linkNodes("c", "a");
+        Assert.assertTrue(map.containsParentNode("b", "c"));
+        Assert.assertFalse(map.containsParentNode("c", "b"));
+        Assert.assertFalse(map.containsParentNode("x", "c"));
+    }
+
     @Test
     public void getDeclaredChildNodesTest() {
         final ForestMap<String, String> map = new LinkedForestMap<>(false);
@@ -336,4 +371,86 @@ public class LinkedForestMapTest {
         Assert.assertEquals(CollUtils.newArrayList(), new ArrayList<>(map.getChildNodes("c")));
     }
 
+    @Test
+    public void childrenViewTest() {
+        final ForestMap<String, String> map = new LinkedForestMap<>(false);
+        map.linkNodes("a", "b");
+        final TreeEntry<String, String> a = map.get("a");
+        final Map<String, TreeEntry<String, String>> declaredChildren = a.getDeclaredChildren();
+        final Map<String, TreeEntry<String, String>> children = a.getChildren();
+        Assert.assertThrows(UnsupportedOperationException.class, () -> declaredChildren.remove("b"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> children.remove("b"));
+
+        // 视图应当随树结构变化
+        map.linkNodes("b", "c");
+        map.linkNodes("a", "d");
+        Assert.assertEquals(CollUtils.newArrayList("b", "d"), new ArrayList<>(declaredChildren.keySet()));
+        Assert.assertEquals(CollUtils.newArrayList("b", "d", "c"), new ArrayList<>(children.keySet()));
+        Assert.assertEquals(3, children.size());
+        Assert.assertTrue(children.containsKey("c"));
+        Assert.assertEquals(map.get("c"), children.get("c"));
+        Assert.assertNull(children.get("a"));
+    }
+
+    @Test
+    public void childrenSizeTest() {
+        final ForestMap<String, String> map = new LinkedForestMap<>(true);
+        // a -> b -> c, a -> d -> e
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        map.linkNodes("a", "d");
+        map.linkNodes("d", "e");
+        final Map<String, TreeEntry<String, String>> aChildren = map.get("a").getChildren();
+        final Map<String, TreeEntry<String, String>> bChildren = map.get("b").getChildren();
+        Assert.assertEquals(4, aChildren.size());
+        Assert.assertEquals(1, bChildren.size());
+
+        // a -> b -> c, e, a -> d
+        map.linkNodes("b", "e");
+        Assert.assertEquals(4, aChildren.size());
+        Assert.assertEquals(2, bChildren.size());
+        Assert.assertEquals(0, map.get("d").getChildren().size());
+
+        // a -> d, b -> c, e
+        map.unlinkNode("a", "b");
+        Assert.assertEquals(1, aChildren.size());
+        Assert.assertEquals(2, bChildren.size());
+
+        // 删除节点后，其子节点将直接作为其父节点的子节点：a -> d, c, e
+        map.linkNodes("a", "b");
+        map.remove("b");
+        Assert.assertEquals(3, aChildren.size());
+        Assert.assertEquals(0, bChildren.size());
+        Assert.assertEquals(3, new ArrayList<>(aChildren.keySet()).size());
+    }
+
+    @Test
+    public void traverseTest() {
+        final ForestMap<String, String> map = new LinkedForestMap<>(false);
+        // a -> b -> c, a -> d
+        map.linkNodes("a", "b");
+        map.linkNodes("b", "c");
+        map.linkNodes("a", "d");
+        final TreeEntry<String, String> a = map.get("a");
+        final TreeEntry<String, String> c = map.get("c");
+
+        final List<String> keys = new ArrayList<>();
+        a.childIterator(true).forEachRemaining(e -> keys.add(e.getKey()));
+        Assert.assertEquals(CollUtils.newArrayList("a", "b", "d", "c"), keys);
+        keys.clear();
+        c.parentIterator(false).forEachRemaining(e -> keys.add(e.getKey()));
+        Assert.assertEquals(CollUtils.newArrayList("b", "a"), keys);
+        Assert.assertFalse(c.childIterator(false).hasNext());
+        Assert.assertThrows(NoSuchElementException.class, () -> c.childIterator(false).next());
+
+        Assert.assertEquals(map.get("d"), a.findChild(false, e -> e.getKey().equals("d")));
+        Assert.assertNull(a.findChild(false, e -> e.getKey().equals("a")));
+        Assert.assertEquals(a, a.findChild(true, e -> e.getKey().equals("a")));
+        Assert.assertEquals(a, c.findParent(false, e -> !e.hasParent()));
+        Assert.assertEquals(c, c.findParent(true, e -> e.getKey().equals("c")));
+        Assert.assertNull(c.findParent(false, e -> e.getKey().equals("d")));
+        Assert.assertEquals(c, map.findTreeNode("d", e -> e.getKey().equals("c")));
+        Assert.assertNull(map.findTreeNode("x", e -> true));
+    }
+
 }
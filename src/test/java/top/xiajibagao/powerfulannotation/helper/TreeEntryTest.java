@@ -0,0 +1,128 @@
+package top.xiajibagao.powerfulannotation.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * test for {@link TreeEntry}
+ *
+ * @author huangchengxing
+ */
+public class TreeEntryTest {
+
+    @Test
+    public void testDefaultChildIterator() {
+        // a -> b -> d
+        //   -> c
+        SimpleTreeEntry a = new SimpleTreeEntry("a");
+        SimpleTreeEntry b = a.add(new SimpleTreeEntry("b"));
+        a.add(new SimpleTreeEntry("c"));
+        b.add(new SimpleTreeEntry("d"));
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), keys(a.childIterator(true)));
+        Assert.assertEquals(Arrays.asList("b", "c", "d"), keys(a.childIterator(false)));
+        Assert.assertEquals(Collections.singletonList("d"), keys(b.childIterator(false)));
+        Assert.assertEquals("d", a.findChild(false, t -> t.getKey().equals("d")).getKey());
+
+        Iterator<TreeEntry<String, String>> iterator = b.getChild("d").childIterator(false);
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    private static List<String> keys(Iterator<TreeEntry<String, String>> iterator) {
+        List<String> keys = new ArrayList<>();
+        iterator.forEachRemaining(t -> keys.add(t.getKey()));
+        return keys;
+    }
+
+    /**
+     * 仅实现必要方法的{@link TreeEntry}
+     */
+    private static class SimpleTreeEntry implements TreeEntry<String, String> {
+
+        private final String key;
+        private final Map<String, TreeEntry<String, String>> children = new LinkedHashMap<>();
+        private SimpleTreeEntry parent;
+
+        SimpleTreeEntry(String key) {
+            this.key = key;
+        }
+
+        SimpleTreeEntry add(SimpleTreeEntry child) {
+            child.parent = this;
+            children.put(child.key, child);
+            return child;
+        }
+
+        @Override
+        public int getWeight() {
+            return Objects.isNull(parent) ? 0 : parent.getWeight() + 1;
+        }
+
+        @Override
+        public TreeEntry<String, String> getRoot() {
+            return Objects.isNull(parent) ? this : parent.getRoot();
+        }
+
+        @Override
+        public TreeEntry<String, String> getDeclaredParent() {
+            return parent;
+        }
+
+        @Override
+        public TreeEntry<String, String> getParent(String key) {
+            return findParent(false, t -> t.getKey().equals(key));
+        }
+
+        @Override
+        public void forEachChild(boolean includeSelf, Consumer<TreeEntry<String, String>> nodeConsumer) {
+            childIterator(includeSelf).forEachRemaining(nodeConsumer);
+        }
+
+        @Override
+        public Map<String, TreeEntry<String, String>> getDeclaredChildren() {
+            return Collections.unmodifiableMap(children);
+        }
+
+        @Override
+        public Map<String, TreeEntry<String, String>> getChildren() {
+            Map<String, TreeEntry<String, String>> results = new LinkedHashMap<>();
+            forEachChild(false, t -> results.put(t.getKey(), t));
+            return results;
+        }
+
+        @Override
+        public TreeEntry<String, String> getChild(String key) {
+            return findChild(false, t -> t.getKey().equals(key));
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return key;
+        }
+
+        @Override
+        public String setValue(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SimpleTreeEntry && ((SimpleTreeEntry)o).key.equals(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * test for {@link AbsenceVerdicts}
+ *
+ * @author huangchengxing
+ */
+public class AbsenceVerdictsTest {
+
+	private static final Predicate<Class<?>> FILTER_JAVA = t -> !t.getName().startsWith("java.");
+
+	@SneakyThrows
+	@Test
+	public void cacheTest() {
+		List<Class<?>> checked = new ArrayList<>();
+		AbsenceVerdicts verdicts = new AbsenceVerdicts((type, includeMembers) -> {
+			checked.add(type);
+			return includeMembers && type == InterfaceForTest.class;
+		});
+
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, true, FILTER_JAVA));
+		Assert.assertEquals(3, checked.size());
+		// 再次判断时直接使用缓存的结果，不再遍历层级结构
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, true, FILTER_JAVA));
+		Assert.assertEquals(3, checked.size());
+
+		// 不同的组合分别缓存
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, false, FILTER_JAVA));
+		Assert.assertEquals(5, checked.size());
+		Method method = ClassForTest.class.getDeclaredMethod("method");
+		Assert.assertFalse(verdicts.isAbsent(method, true, FILTER_JAVA));
+		Assert.assertFalse(verdicts.isAbsent(method, true, FILTER_JAVA));
+		Assert.assertTrue(verdicts.isAbsent(method, false, FILTER_JAVA));
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, true, t -> false));
+		int count = checked.size();
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, true, FILTER_JAVA));
+		Assert.assertFalse(verdicts.isAbsent(method, true, FILTER_JAVA));
+		Assert.assertEquals(count, checked.size());
+
+		// 注解类与其他元素无法确定
+		Assert.assertFalse(verdicts.isAbsent(Retention.class, true, FILTER_JAVA));
+		Assert.assertFalse(verdicts.isAbsent(null, true, FILTER_JAVA));
+	}
+
+	@Test
+	public void filterLimitTest() {
+		int[] checked = new int[1];
+		AbsenceVerdicts verdicts = new AbsenceVerdicts((type, includeMembers) -> {
+			checked[0]++;
+			return false;
+		});
+		List<Predicate<Class<?>>> filters = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			int index = i;
+			filters.add(t -> index >= 0 && FILTER_JAVA.test(t));
+		}
+		filters.forEach(filter -> Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, false, filter)));
+		Assert.assertEquals(40, checked[0]);
+
+		// 仅缓存前若干个过滤器的结果，超出数量的过滤器每次都将遍历层级结构，但结果仍然正确
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, false, filters.get(0)));
+		Assert.assertEquals(40, checked[0]);
+		Assert.assertTrue(verdicts.isAbsent(ClassForTest.class, false, filters.get(19)));
+		Assert.assertEquals(42, checked[0]);
+	}
+
+	private interface InterfaceForTest {
+		void method();
+	}
+
+	private static class SuperForTest {}
+
+	private static class ClassForTest extends SuperForTest implements InterfaceForTest {
+		@Override
+		public void method() {}
+	}
+
+}
@@ -0,0 +1,166 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * test for {@link AnnotationIndex}
+ *
+ * @author huangchengxing
+ */
+public class AnnotationIndexTest {
+
+	private static final Predicate<Class<?>> FILTER_JAVA = t -> !t.getName().startsWith("java.lang");
+
+	private AnnotationIndex index;
+
+	@SneakyThrows
+	@Before
+	public void beforeTest() {
+		String testClass = AnnotationIndexTest.class.getName();
+		String content = String.join("\n",
+			AnnotationIndex.INDEX_HEADER,
+			"T " + ClassForTest.class.getName(),
+			"T " + SuperForTest.class.getName(),
+			"T " + PlainForTest.class.getName(),
+			"T " + InterfaceForTest.class.getName(),
+			"E " + SuperForTest.class.getName() + " " + AnnotationForTest1.class.getName(),
+			"E " + ClassForTest.class.getName() + "#field " + AnnotationForTest2.class.getName(),
+			"E " + ClassForTest.class.getName() + "#method(int,java.lang.String[][]) " + AnnotationForTest2.class.getName(),
+			"E " + ClassForTest.class.getName() + "#removed() " + AnnotationForTest2.class.getName(),
+			"M " + AnnotationForTest2.class.getName() + " " + AnnotationForTest1.class.getName(),
+			"M " + AnnotationForTest1.class.getName() + " " + AnnotationForTest2.class.getName(),
+			"X unknown line"
+		);
+		String ignored = "#powerful-annotation-index:0\nT " + testClass;
+		index = AnnotationIndex.read(new StringReader(content), new StringReader(ignored));
+	}
+
+	@SneakyThrows
+	@Test
+	public void defaultIndexTest() {
+		Path root = Files.createTempDirectory("annotation-index");
+		Path file = root.resolve(AnnotationIndex.INDEX_LOCATION);
+		Files.createDirectories(file.getParent());
+		Files.write(file, String.join("\n", AnnotationIndex.INDEX_HEADER, "T " + PlainForTest.class.getName()).getBytes(StandardCharsets.UTF_8));
+		ClassLoader parent = AnnotationIndexTest.class.getClassLoader();
+		try (URLClassLoader indexed = new URLClassLoader(new URL[]{ root.toUri().toURL() }, parent)) {
+			// 默认索引按类加载器分别加载与缓存
+			AnnotationIndex index = AnnotationIndex.getDefault(indexed);
+			Assert.assertSame(index, AnnotationIndex.getDefault(indexed));
+			Assert.assertTrue(index.isIndexed(PlainForTest.class));
+			Assert.assertFalse(AnnotationIndex.getDefault(parent).isIndexed(PlainForTest.class));
+			Assert.assertSame(AnnotationIndex.getDefault(parent), AnnotationIndex.getDefaultOf(PlainForTest.class));
+			Assert.assertSame(AnnotationIndex.getDefault(parent), AnnotationIndex.getDefaultOf(PlainForTest.class.getDeclaredField("field")));
+		} finally {
+			Files.delete(file);
+			Files.delete(file.getParent());
+			Files.delete(file.getParent().getParent());
+			Files.delete(root);
+		}
+	}
+
+	@Test
+	public void readTest() {
+		Assert.assertTrue(AnnotationIndex.empty().isEmpty());
+		Assert.assertFalse(index.isEmpty());
+		Assert.assertTrue(index.isIndexed(ClassForTest.class));
+		Assert.assertFalse(index.isIndexed(AnnotationIndexTest.class));
+		Assert.assertEquals(
+			CollUtils.newHashSet(AnnotationForTest2.class.getName()),
+			index.getDeclaredAnnotationTypes(ClassForTest.class.getName() + "#field")
+		);
+		Assert.assertTrue(index.getDeclaredAnnotationTypes(PlainForTest.class.getName()).isEmpty());
+		// 元注解相互引用时不包括其本身
+		Assert.assertEquals(
+			CollUtils.newHashSet(AnnotationForTest1.class.getName()),
+			index.getMetaAnnotationTypes(AnnotationForTest2.class.getName())
+		);
+	}
+
+	@SneakyThrows
+	@Test
+	public void annotatedElementsTest() {
+		// 通过元注解间接存在，两注解互为元注解
+		Assert.assertEquals(4, index.getAnnotatedElements(AnnotationForTest1.class).size());
+		Assert.assertEquals(4, index.getAnnotatedElements(AnnotationForTest2.class).size());
+		Assert.assertTrue(index.getAnnotatedElements(Documented.class).isEmpty());
+
+		List<AnnotatedElement> elements = index.resolveAnnotatedElements(
+			AnnotationForTest1.class, AnnotationIndexTest.class.getClassLoader()
+		);
+		Assert.assertEquals(
+			CollUtils.newArrayList(
+				SuperForTest.class,
+				ClassForTest.class.getDeclaredField("field"),
+				ClassForTest.class.getDeclaredMethod("method", int.class, String[][].class)
+			),
+			elements
+		);
+	}
+
+	@SneakyThrows
+	@Test
+	public void isAbsentTest() {
+		// 未被索引的元素
+		Assert.assertFalse(AnnotationIndex.empty().isAbsent(PlainForTest.class, true, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(AnnotationForTest1.class, true, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(AnnotationIndexTest.class, true, FILTER_JAVA));
+
+		// 类
+		Assert.assertTrue(index.isAbsent(PlainForTest.class, true, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(ClassForTest.class, false, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(UnindexedForTest.class, false, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(PlainForTest.class, true, t -> true));
+
+		// 方法与属性
+		Assert.assertTrue(index.isAbsent(PlainForTest.class.getDeclaredMethod("method"), true, FILTER_JAVA));
+		Assert.assertTrue(index.isAbsent(PlainForTest.class.getDeclaredField("field"), true, FILTER_JAVA));
+		Assert.assertFalse(index.isAbsent(ClassForTest.class.getDeclaredField("other"), false, FILTER_JAVA));
+	}
+
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	@Inherited
+	@interface AnnotationForTest1 { }
+
+	@AnnotationForTest1
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface AnnotationForTest2 { }
+
+	interface InterfaceForTest { }
+
+	@AnnotationForTest1
+	static class SuperForTest { }
+
+	static class ClassForTest extends SuperForTest {
+		@AnnotationForTest2
+		private String field;
+		private String other;
+		@AnnotationForTest2
+		public void method(int i, String[][] strings) { }
+	}
+
+	static class PlainForTest implements InterfaceForTest {
+		private String field;
+		public void method() { }
+	}
+
+	static class UnindexedForTest extends PlainForTest { }
+
+}
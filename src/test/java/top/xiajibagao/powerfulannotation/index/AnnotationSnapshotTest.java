@@ -0,0 +1,269 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.Annotations;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationFilter;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.annotation.*;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * test for {@link AnnotationSnapshot}
+ *
+ * @author huangchengxing
+ */
+public class AnnotationSnapshotTest {
+
+	private static final Predicate<Class<?>> FILTER_JAVA = t -> !t.getName().startsWith("java.");
+
+	@SneakyThrows
+	@Test
+	public void writeAndOpenTest() {
+		Path file = Files.createTempFile("annotation", ".snapshot");
+		try {
+			AnnotationSnapshot.write(Arrays.asList(ClassForTest.class, PlainForTest.class), file);
+			AnnotationSnapshot snapshot = AnnotationSnapshot.open(file);
+			// 层级结构与注解类皆被记录，由启动类加载器加载的类不被记录
+			Assert.assertTrue(snapshot.isCaptured(ClassForTest.class));
+			Assert.assertTrue(snapshot.isCaptured(SuperForTest.class));
+			Assert.assertTrue(snapshot.isCaptured(InterfaceForTest.class));
+			Assert.assertTrue(snapshot.isCaptured(AnnotationForTest1.class));
+			Assert.assertTrue(snapshot.isCaptured(PlainForTest.class));
+			Assert.assertFalse(snapshot.isCaptured(Object.class));
+			Assert.assertFalse(snapshot.isCaptured(Retention.class));
+			Assert.assertFalse(snapshot.isCaptured(AnnotationSnapshotTest.class));
+			Assert.assertEquals(6, snapshot.size());
+
+			Assert.assertTrue(snapshot.isAbsent(PlainForTest.class, true, FILTER_JAVA));
+			Assert.assertFalse(snapshot.isAbsent(ClassForTest.class, false, FILTER_JAVA));
+			Assert.assertTrue(snapshot.isAbsent(InterfaceForTest.class, false, FILTER_JAVA));
+			// 父接口的方法上存在注解
+			Method method = ClassForTest.class.getDeclaredMethod("method");
+			Assert.assertFalse(snapshot.isAbsent(method, true, FILTER_JAVA));
+			// 未被记录的类无法确定
+			Assert.assertFalse(snapshot.isAbsent(AnnotationSnapshotTest.class, false, FILTER_JAVA));
+			Assert.assertFalse(snapshot.isAbsent(AnnotationForTest1.class, false, FILTER_JAVA));
+
+			// 覆盖已打开的快照文件，已打开的快照仍读取旧的内容
+			AnnotationSnapshot.write(Collections.singletonList(PlainForTest.class), file);
+			Assert.assertEquals(6, snapshot.size());
+			Assert.assertTrue(snapshot.isCaptured(AnnotationForTest2.class));
+			Assert.assertEquals(1, AnnotationSnapshot.open(file).size());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void fingerprintTest() {
+		Assert.assertTrue(AnnotationSnapshot.getFingerprint(ClassForTest.class) >= 0);
+		Assert.assertEquals(AnnotationSnapshot.getFingerprint(ClassForTest.class), AnnotationSnapshot.getFingerprint(ClassForTest.class));
+		Assert.assertNotEquals(AnnotationSnapshot.getFingerprint(ClassForTest.class), AnnotationSnapshot.getFingerprint(PlainForTest.class));
+		Assert.assertEquals(-1, AnnotationSnapshot.getFingerprint(Object.class));
+		Assert.assertEquals(-1, AnnotationSnapshot.getFingerprint(int.class));
+		Assert.assertEquals(-1, AnnotationSnapshot.getFingerprint(ClassForTest[].class));
+	}
+
+	@Test
+	public void staleEntryTest() {
+		// 记录与类文件不一致的指纹
+		AnnotationSnapshot snapshot = new AnnotationSnapshot(ByteBuffer.wrap(AnnotationSnapshot.toBytes(
+			Collections.singletonList(PlainForTest.class),
+			t -> t == PlainForTest.class ? AnnotationSnapshot.getFingerprint(t) + 1 : AnnotationSnapshot.getFingerprint(t),
+			t -> 0
+		)));
+		Assert.assertEquals(1, snapshot.size());
+		Assert.assertFalse(snapshot.isCaptured(PlainForTest.class));
+		Assert.assertFalse(snapshot.isAbsent(PlainForTest.class, true, FILTER_JAVA));
+	}
+
+	@SneakyThrows
+	@Test
+	public void classLoaderTest() {
+		AnnotationSnapshot snapshot = new AnnotationSnapshot(
+			ByteBuffer.wrap(AnnotationSnapshot.toBytes(Collections.singletonList(PlainForTest.class)))
+		);
+		Assert.assertTrue(snapshot.isCaptured(PlainForTest.class));
+		// 由另一类加载器加载的同名类，其类文件与快照不一致，需要单独校验
+		Class<?> reloaded = new ModifiedClassLoader(PlainForTest.class).loadClass(PlainForTest.class.getName());
+		Assert.assertNotSame(PlainForTest.class, reloaded);
+		Assert.assertFalse(snapshot.isCaptured(reloaded));
+		Assert.assertFalse(snapshot.isAbsent(reloaded, true, FILTER_JAVA));
+		Assert.assertTrue(snapshot.isCaptured(PlainForTest.class));
+	}
+
+	@Test
+	public void skipScanTest() {
+		// 清空标志位，使快照认为类上不存在注解，此时扫描将被跳过
+		ByteBuffer buffer = ByteBuffer.wrap(AnnotationSnapshot.toBytes(
+			Collections.singletonList(SuperForTest.class), AnnotationSnapshot::getFingerprint, t -> 0
+		));
+		try {
+			AnnotationSnapshot.setDefault(new AnnotationSnapshot(buffer));
+			Assert.assertNull(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getAnnotation(SuperForTest.class, AnnotationForTest1.class));
+		} finally {
+			AnnotationSnapshot.setDefault(null);
+		}
+		Assert.assertNotNull(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getAnnotation(SuperForTest.class, AnnotationForTest1.class));
+	}
+
+	@Test
+	public void scanAllocationTest() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+		AnnotationSnapshot.setDefault(new AnnotationSnapshot(
+			ByteBuffer.wrap(AnnotationSnapshot.toBytes(Arrays.asList(ClassForTest.class, PlainForTest.class)))
+		));
+		try {
+			int[] count = new int[1];
+			AnnotationProcessor processor = (vi, hi, a) -> count[0]++;
+			AnnotationSearchMode mode = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+			// 预热快照的判断结果与扫描状态池
+			for (int i = 0; i < 1000; i++) {
+				mode.scan(PlainForTest.class, processor, AnnotationFilter.FILTER_JAVA);
+				mode.scan(ClassForTest.class, processor, AnnotationFilter.FILTER_JAVA);
+			}
+
+			long threadId = Thread.currentThread().getId();
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < 10000; i++) {
+				mode.scan(PlainForTest.class, processor, AnnotationFilter.FILTER_JAVA);
+				mode.scan(ClassForTest.class, processor, AnnotationFilter.FILTER_JAVA);
+			}
+			long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+			Assert.assertTrue(count[0] > 0);
+			// 安装快照后，通过AnnotationSearchMode扫描同样不应创建任何对象
+			Assert.assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+		} finally {
+			AnnotationSnapshot.setDefault(null);
+		}
+	}
+
+	@Test
+	public void illegalSnapshotTest() {
+		Assert.assertThrows(IllegalArgumentException.class, () -> new AnnotationSnapshot(ByteBuffer.allocate(4)));
+		ByteBuffer buffer = ByteBuffer.allocate(32);
+		buffer.putInt(0, AnnotationSnapshot.MAGIC).putInt(4, AnnotationSnapshot.VERSION + 1);
+		Assert.assertThrows(IllegalArgumentException.class, () -> new AnnotationSnapshot(buffer));
+		Assert.assertEquals(0, AnnotationSnapshot.empty().size());
+		Assert.assertFalse(AnnotationSnapshot.empty().isAbsent(PlainForTest.class, true, FILTER_JAVA));
+	}
+
+	@SneakyThrows
+	@Test
+	public void saveAndLoadTest() {
+		Path file = Files.createTempFile("annotation", ".snapshot");
+		try {
+			Annotations.getDeclaredAnnotations(ClassForTest.class);
+			Annotations.getDeclaredAnnotations(PlainForTest.class);
+			Annotations.saveCacheSnapshot(file);
+			AnnotationSnapshot snapshot = Annotations.loadCacheSnapshot(file);
+			Assert.assertSame(snapshot, AnnotationSnapshot.getDefault());
+			Assert.assertTrue(snapshot.isCaptured(PlainForTest.class));
+			Assert.assertTrue(snapshot.isCaptured(SuperForTest.class));
+			// 扫描结果不受快照影响，确定不存在注解的元素将跳过扫描
+			Assert.assertNotNull(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getAnnotation(ClassForTest.class, AnnotationForTest2.class));
+			Assert.assertNull(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getAnnotation(PlainForTest.class, AnnotationForTest2.class));
+			Assert.assertTrue(snapshot.isAbsent(PlainForTest.class, true, AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getOptions().getTypeFilter()));
+		} finally {
+			AnnotationSnapshot.setDefault(null);
+			Files.deleteIfExists(file);
+		}
+		Assert.assertSame(AnnotationSnapshot.empty(), AnnotationSnapshot.getDefault());
+	}
+
+	/**
+	 * 重新定义指定类，但对外提供被修改过的类文件
+	 */
+	private static class ModifiedClassLoader extends ClassLoader {
+
+		private final Class<?> type;
+		private final byte[] bytes;
+
+		@SneakyThrows
+		ModifiedClassLoader(Class<?> type) {
+			super(type.getClassLoader());
+			this.type = type;
+			try (InputStream inputStream = type.getClassLoader().getResourceAsStream(getResourceName())) {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = Objects.requireNonNull(inputStream).read(buffer)) > 0) {
+					outputStream.write(buffer, 0, length);
+				}
+				this.bytes = outputStream.toByteArray();
+			}
+		}
+
+		private String getResourceName() {
+			return type.getName().replace('.', '/') + ".class";
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!type.getName().equals(name)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				return Objects.nonNull(loaded) ? loaded : defineClass(name, bytes, 0, bytes.length);
+			}
+		}
+
+		@Override
+		public InputStream getResourceAsStream(String name) {
+			if (!getResourceName().equals(name)) {
+				return super.getResourceAsStream(name);
+			}
+			byte[] modified = Arrays.copyOf(bytes, bytes.length + 1);
+			return new ByteArrayInputStream(modified);
+		}
+	}
+
+	@AnnotationForTest2
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest1 {}
+
+	@AnnotationForTest1
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest2 {}
+
+	private interface InterfaceForTest {
+		@AnnotationForTest1
+		void method();
+	}
+
+	@AnnotationForTest1
+	private static class SuperForTest {}
+
+	private static class ClassForTest extends SuperForTest implements InterfaceForTest {
+		@Override
+		public void method() {}
+	}
+
+	private static class PlainForTest {
+		private String field;
+	}
+
+}
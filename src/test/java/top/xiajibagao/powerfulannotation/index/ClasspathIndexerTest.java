@@ -0,0 +1,164 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.Annotations;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata.MemberMetadata;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * test for {@link ClasspathIndexer}
+ *
+ * @author huangchengxing
+ */
+public class ClasspathIndexerTest {
+
+	private static final List<Class<?>> FIXTURES = Arrays.asList(
+		ClassForTest.class, InterfaceForTest.class, AnnotationForTest1.class, AnnotationForTest2.class, AnnotationForTest3.class
+	);
+
+	@SneakyThrows
+	@Test
+	public void indexDirectoryTest() {
+		Path root = Paths.get(ClasspathIndexerTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		ClasspathIndexer indexer = new ClasspathIndexer(ForkJoinPool.commonPool(), getClass().getClassLoader());
+		checkIndex(indexer.index(Collections.singletonList(root)));
+	}
+
+	@SneakyThrows
+	@Test
+	public void indexJarTest() {
+		Path jar = Files.createTempFile("fixtures", ".jar");
+		try {
+			try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jar))) {
+				for (Class<?> type : FIXTURES) {
+					writeClassFile(type, outputStream);
+				}
+			}
+			// 注解类不在jar包中时将通过类加载器读取
+			ClasspathIndexer indexer = new ClasspathIndexer(ForkJoinPool.commonPool(), getClass().getClassLoader());
+			Map<String, List<String>> index = indexer.index(Arrays.asList(jar, jar.resolveSibling("not-exists.jar")));
+			checkIndex(index);
+			Assert.assertEquals(
+				new HashSet<>(Arrays.asList(
+					AnnotationForTest1.class.getName(), AnnotationForTest2.class.getName(), AnnotationForTest3.class.getName(),
+					Retention.class.getName(), Target.class.getName()
+				)),
+				index.keySet()
+			);
+		} finally {
+			Files.deleteIfExists(jar);
+		}
+	}
+
+	@SneakyThrows
+	@Test
+	public void buildAndOpenTest() {
+		Path root = Paths.get(ClasspathIndexerTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		Path file = Files.createTempFile("annotation", ".pidx");
+		try {
+			Annotations.buildAnnotationIndex(Collections.singletonList(root), file);
+			MappedAnnotationIndex index = Annotations.getAnnotationIndex(file);
+			Assert.assertSame(index, Annotations.getAnnotationIndex(file));
+			List<AnnotatedElement> elements = index.resolveAnnotatedElements(AnnotationForTest3.class, getClass().getClassLoader());
+			Assert.assertTrue(elements.contains(ClassForTest.class));
+			Assert.assertTrue(elements.contains(ClassForTest.class.getDeclaredField("field")));
+			Assert.assertTrue(elements.contains(ClassForTest.class.getDeclaredMethod("method", int.class, String[][].class, List.class)));
+			Assert.assertTrue(elements.contains(InterfaceForTest.class));
+			Assert.assertFalse(index.getAnnotatedElements(Retention.class).contains(ClassForTest.class.getName()));
+
+			// 重新生成索引文件后，将重新映射新的文件，而已映射的旧索引仍可读取
+			Annotations.buildAnnotationIndex(Collections.singletonList(root), file);
+			MappedAnnotationIndex rebuilt = Annotations.getAnnotationIndex(file);
+			Assert.assertNotSame(index, rebuilt);
+			Assert.assertEquals(index.getAnnotatedElements(AnnotationForTest3.class), rebuilt.getAnnotatedElements(AnnotationForTest3.class));
+			Assert.assertTrue(index.getAnnotatedElements(AnnotationForTest3.class).contains(ClassForTest.class.getName()));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void getMethodElementTest() {
+		String className = ClassForTest.class.getName();
+		Assert.assertEquals(
+			className + "#method(int,java.lang.String[][],java.util.List)",
+			ClasspathIndexer.getMethodElement(className, new MemberMetadata("method", "(I[[Ljava/lang/String;Ljava/util/List;)V", 0, Collections.emptyList()))
+		);
+		Assert.assertEquals(
+			className + "#method()",
+			ClasspathIndexer.getMethodElement(className, new MemberMetadata("method", "()[J", 0, Collections.emptyList()))
+		);
+	}
+
+	private static void checkIndex(Map<String, List<String>> index) {
+		String className = ClassForTest.class.getName();
+		String field = className + "#field";
+		String method = className + "#method(int,java.lang.String[][],java.util.List)";
+		String interfaceName = InterfaceForTest.class.getName();
+		// 直接声明
+		Assert.assertTrue(index.get(AnnotationForTest1.class.getName()).containsAll(Arrays.asList(className, method)));
+		Assert.assertTrue(index.get(AnnotationForTest2.class.getName()).containsAll(Arrays.asList(field, interfaceName)));
+		// 元注解闭包
+		Assert.assertTrue(index.get(AnnotationForTest2.class.getName()).containsAll(Arrays.asList(className, method)));
+		Assert.assertTrue(index.get(AnnotationForTest3.class.getName()).containsAll(Arrays.asList(className, field, method, interfaceName)));
+		Assert.assertFalse(index.get(AnnotationForTest1.class.getName()).contains(interfaceName));
+		// 不通过java.lang.annotation包下的元注解记录元素
+		Assert.assertTrue(index.get(Retention.class.getName()).contains(AnnotationForTest1.class.getName()));
+		Assert.assertFalse(index.get(Retention.class.getName()).contains(className));
+		Assert.assertFalse(index.get(Target.class.getName()).contains(field));
+	}
+
+	@SneakyThrows
+	private static void writeClassFile(Class<?> type, OutputStream outputStream) {
+		String name = type.getName().replace('.', '/') + ".class";
+		ZipOutputStream zipOutputStream = (ZipOutputStream)outputStream;
+		zipOutputStream.putNextEntry(new ZipEntry(name));
+		try (InputStream inputStream = type.getClassLoader().getResourceAsStream(name)) {
+			byte[] buffer = new byte[4096];
+			int length;
+			while ((length = Objects.requireNonNull(inputStream).read(buffer)) > 0) {
+				zipOutputStream.write(buffer, 0, length);
+			}
+		}
+		zipOutputStream.closeEntry();
+	}
+
+	@Target({ElementType.ANNOTATION_TYPE, ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest3 {}
+
+	@AnnotationForTest3
+	@Target({ElementType.ANNOTATION_TYPE, ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest2
+	@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest1 {}
+
+	@AnnotationForTest1
+	private static class ClassForTest {
+		@AnnotationForTest2
+		private String field;
+		@AnnotationForTest1
+		private void method(int i, String[][] strings, List<String> list) {}
+	}
+
+	@AnnotationForTest2
+	private interface InterfaceForTest {}
+
+}
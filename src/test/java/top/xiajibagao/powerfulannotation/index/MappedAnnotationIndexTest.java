@@ -0,0 +1,91 @@
+package top.xiajibagao.powerfulannotation.index;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * test for {@link MappedAnnotationIndex}
+ *
+ * @author huangchengxing
+ */
+public class MappedAnnotationIndexTest {
+
+	@SneakyThrows
+	@Test
+	public void writeAndOpenTest() {
+		Map<String, List<String>> elements = new HashMap<>();
+		elements.put(AnnotationForTest.class.getName(), Arrays.asList(
+			ClassForTest.class.getName(),
+			ClassForTest.class.getName() + "#field",
+			ClassForTest.class.getName() + "#method(int,java.lang.String[])",
+			ClassForTest.class.getName() + "#removed()"
+		));
+		elements.put("b.Annotation", Collections.singletonList(ClassForTest.class.getName()));
+		elements.put("a.Annotation", Collections.singletonList("中文.Element"));
+
+		Path file = Files.createTempFile("annotation", ".pidx");
+		try {
+			MappedAnnotationIndex.write(elements, file);
+			MappedAnnotationIndex index = MappedAnnotationIndex.open(file);
+			Assert.assertEquals(3, index.size());
+			Assert.assertTrue(index.contains(AnnotationForTest.class));
+			Assert.assertFalse(index.contains(Target.class));
+			Assert.assertEquals(elements.get(AnnotationForTest.class.getName()), index.getAnnotatedElements(AnnotationForTest.class));
+			Assert.assertEquals(Collections.singletonList("中文.Element"), index.getAnnotatedElements("a.Annotation"));
+			Assert.assertEquals(Collections.singletonList(ClassForTest.class.getName()), index.getAnnotatedElements("b.Annotation"));
+			Assert.assertTrue(index.getAnnotatedElements("a").isEmpty());
+			Assert.assertTrue(index.getAnnotatedElements("c.Annotation").isEmpty());
+			Assert.assertTrue(index.getAnnotatedElements("").isEmpty());
+
+			// 无法加载的元素将被忽略
+			List<AnnotatedElement> resolved = index.resolveAnnotatedElements(AnnotationForTest.class, getClass().getClassLoader());
+			Assert.assertEquals(3, resolved.size());
+			Assert.assertEquals(ClassForTest.class, resolved.get(0));
+			Assert.assertEquals(ClassForTest.class.getDeclaredField("field"), resolved.get(1));
+			Assert.assertEquals(ClassForTest.class.getDeclaredMethod("method", int.class, String[].class), resolved.get(2));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void emptyIndexTest() {
+		MappedAnnotationIndex index = new MappedAnnotationIndex(ByteBuffer.wrap(MappedAnnotationIndex.toBytes(Collections.emptyMap())));
+		Assert.assertEquals(0, index.size());
+		Assert.assertFalse(index.contains(AnnotationForTest.class));
+		Assert.assertTrue(index.getAnnotatedElements(AnnotationForTest.class).isEmpty());
+	}
+
+	@Test
+	public void illegalIndexTest() {
+		Assert.assertThrows(IllegalArgumentException.class, () -> new MappedAnnotationIndex(ByteBuffer.allocate(4)));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new MappedAnnotationIndex(ByteBuffer.allocate(32)));
+		ByteBuffer buffer = ByteBuffer.allocate(32);
+		buffer.putInt(0, MappedAnnotationIndex.MAGIC).putInt(4, MappedAnnotationIndex.VERSION + 1);
+		Assert.assertThrows(IllegalArgumentException.class, () -> new MappedAnnotationIndex(buffer));
+	}
+
+	@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest {}
+
+	@AnnotationForTest
+	private static class ClassForTest {
+		@AnnotationForTest
+		private String field;
+		@AnnotationForTest
+		private void method(int i, String[] strings) {}
+	}
+
+}
@@ -8,6 +8,9 @@ import top.xiajibagao.powerfulannotation.helper.TreeEntry;
 
 import java.lang.annotation.*;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -108,6 +111,66 @@ public class SimpleRepeatableMappingRegistryTest {
 		AnnotationForTest4 annotation2 =  ClassForTest.class.getAnnotation(AnnotationForTest4.class);
 		Assert.assertEquals(CollUtils.newArrayList(annotation2), registry.getElementsFromContainer(annotation2, AnnotationForTest4.class));
 		Assert.assertTrue(registry.getElementsFromContainer(annotation2, AnnotationForTest3.class).isEmpty());
+
+		// 元素类型为空时返回空集合，返回的集合可以修改
+		Assert.assertTrue(registry.getElementsFromContainer(annotation, null).isEmpty());
+		List<AnnotationForTest2> elements = registry.getElementsFromContainer(annotation, AnnotationForTest2.class);
+		elements.add(elements.get(0));
+		Assert.assertEquals(3, elements.size());
+	}
+
+	@Test
+	public void testNullElements() {
+		// 容器注解未返回元素时视为不存在元素
+		SimpleRepeatableMappingRegistry registry = new SimpleRepeatableMappingRegistry((annotationType, r) -> {
+			RepeatableMapping mapping = RepeatableMappingParser.STANDARD_REPEATABLE_MAPPING_PARSER.parse(annotationType, r);
+			return Objects.isNull(mapping) ? null : new RepeatableMapping() {
+				@Override
+				public Class<? extends Annotation> getElementType() {
+					return mapping.getElementType();
+				}
+				@Override
+				public Class<? extends Annotation> getContainerType() {
+					return mapping.getContainerType();
+				}
+				@Override
+				public Annotation[] getElementsFromContainer(Annotation container) {
+					return null;
+				}
+				@Override
+				public boolean hasContainer() {
+					return mapping.hasContainer();
+				}
+			};
+		});
+		registry.register(AnnotationForTest1.class);
+		AnnotationForTest2 container = AnnotationForTest3.class.cast(ClassForTest.class.getAnnotation(AnnotationForTest3.class)).annotations()[0];
+		Assert.assertTrue(registry.getElementsFromContainer(container, AnnotationForTest1.class).isEmpty());
+		Assert.assertEquals(Collections.singletonList(container), registry.getAllElementsFromContainer(container));
+	}
+
+	@Test
+	public void testGetUnwrapPlan() {
+		SimpleRepeatableMappingRegistry registry = new SimpleRepeatableMappingRegistry(
+			new StandardRepeatableMappingParser(), new RepeatableByMappingParser()
+		);
+		Assert.assertEquals(0, registry.getUnwrapPlan(AnnotationForTest3.class, AnnotationForTest1.class).length);
+
+		// 注册后，已缓存的转换路径应当失效
+		registry.register(AnnotationForTest1.class);
+		RepeatableMapping[] plan = registry.getUnwrapPlan(AnnotationForTest3.class, AnnotationForTest1.class);
+		Assert.assertEquals(2, plan.length);
+		Assert.assertEquals(AnnotationForTest3.class, plan[0].getContainerType());
+		Assert.assertEquals(AnnotationForTest2.class, plan[1].getContainerType());
+		Assert.assertSame(plan, registry.getUnwrapPlan(AnnotationForTest3.class, AnnotationForTest1.class));
+		Assert.assertEquals(0, registry.getUnwrapPlan(AnnotationForTest3.class, AnnotationForTest4.class).length);
+
+		// 与已注册的映射关系无关的类型组合不会被缓存
+		Assert.assertEquals(0, registry.getUnwrapPlan(AnnotationForTest4.class, AnnotationForTest1.class).length);
+		Assert.assertEquals(0, registry.getUnwrapPlan(AnnotationForTest1.class, AnnotationForTest3.class).length);
+		Assert.assertFalse(registry.unwrapPlanCache.containsKey(AnnotationForTest4.class));
+		Assert.assertFalse(registry.unwrapPlanCache.containsKey(AnnotationForTest1.class));
+		Assert.assertFalse(registry.unwrapPlanCache.get(AnnotationForTest3.class).containsKey(AnnotationForTest4.class));
 	}
 
 	private <K, V> V getNodeValue(ForestMap<K, V> map, K key) {
@@ -48,6 +48,23 @@ public class AnnotationFilterTest {
 		Assert.assertEquals(0, annotationList.size());
 	}
 
+	@Test
+	public void reachableTest() {
+		Annotation[] annotations = AnnotationForTest2.class.getAnnotations();
+		List<Annotation> annotationList = Stream.of(annotations)
+			.filter(AnnotationFilter.reachable(AnnotationForTest1.class))
+			.collect(Collectors.toList());
+		Assert.assertEquals(1, annotationList.size());
+		Assert.assertEquals(AnnotationForTest2.class.getAnnotation(AnnotationForTest1.class), annotationList.get(0));
+
+		// Target与Retention皆被Documented所注解，而AnnotationForTest1则通过Target与Retention间接被其注解
+		annotationList = Stream.of(annotations)
+			.filter(AnnotationFilter.reachable(Documented.class))
+			.collect(Collectors.toList());
+		Assert.assertEquals(3, annotationList.size());
+		Assert.assertThrows(IllegalArgumentException.class, () -> AnnotationFilter.reachable(null));
+	}
+
 	@Target(ElementType.ANNOTATION_TYPE)
 	@Retention(RetentionPolicy.RUNTIME)
 	private @interface AnnotationForTest1 {}
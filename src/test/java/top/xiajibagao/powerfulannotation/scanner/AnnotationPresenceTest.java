@@ -0,0 +1,110 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
+
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+
+public class AnnotationPresenceTest {
+
+	@Test
+	public void typeIdTest() {
+		int id = AnnotationTypeIds.getId(AnnotationForTest1.class);
+		Assert.assertEquals(id, AnnotationTypeIds.getId(AnnotationForTest1.class));
+		Assert.assertNotEquals(id, AnnotationTypeIds.getId(AnnotationForTest2.class));
+		Assert.assertTrue(AnnotationTypeIds.size() > Math.max(id, AnnotationTypeIds.getId(AnnotationForTest2.class)));
+		Assert.assertThrows(IllegalArgumentException.class, () -> AnnotationTypeIds.getId(null));
+	}
+
+	@Test
+	public void presenceTest() {
+		List<AnnotatedElement> elements = Arrays.asList(
+			ClassForTest.class, SuperForTest.class, AnnotationForTest1.class,
+			ReflectUtils.getDeclaredMethod(ClassForTest.class, "method"), Object.class
+		);
+		List<Class<? extends Annotation>> types = Arrays.asList(
+			AnnotationForTest1.class, AnnotationForTest2.class, AnnotationForTest3.class, Documented.class, Target.class
+		);
+		// 结果与查找注解是否为空一致
+		for (AnnotationSearchMode mode : AnnotationSearchMode.values()) {
+			for (AnnotatedElement element : elements) {
+				for (Class<? extends Annotation> type : types) {
+					Assert.assertEquals(
+						mode + " " + element + " " + type,
+						mode.getAnnotation(element, type) != null, mode.isAnnotationPresent(element, type)
+					);
+				}
+			}
+		}
+		Assert.assertTrue(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.isAnnotationPresent(ClassForTest.class, AnnotationForTest3.class));
+		Assert.assertFalse(AnnotationSearchMode.SELF_AND_DIRECT.isAnnotationPresent(ClassForTest.class, AnnotationForTest3.class));
+		Assert.assertFalse(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.isAnnotationPresent(null, AnnotationForTest1.class));
+		Assert.assertFalse(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.isAnnotationPresent(ClassForTest.class, null));
+	}
+
+	@SneakyThrows
+	@Test
+	public void cacheTest() {
+		AnnotationSearchMode mode = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+		AnnotationPresence presence = mode.getAnnotationPresence(ClassForTest.class);
+		Assert.assertSame(presence, mode.getAnnotationPresence(ClassForTest.class));
+		// AnnotationForTest1~3，以及其上的Retention与Target
+		Assert.assertEquals(5, presence.size());
+		Assert.assertTrue(presence.isPresent(AnnotationTypeIds.getId(AnnotationForTest2.class)));
+		Assert.assertFalse(presence.isPresent(Integer.MAX_VALUE));
+
+		mode.clearPresenceCache();
+		AnnotationPresence recomputed = mode.getAnnotationPresence(ClassForTest.class);
+		Assert.assertNotSame(presence, recomputed);
+		Assert.assertEquals(presence.size(), recomputed.size());
+
+		// 成员按其声明类缓存，其他元素不缓存
+		Method method = SuperForTest.class.getDeclaredMethod("method");
+		Assert.assertSame(mode.getAnnotationPresence(method), mode.getAnnotationPresence(method));
+		Assert.assertTrue(mode.getAnnotationPresence(method).isPresent(AnnotationForTest1.class));
+		Parameter parameter = SuperForTest.class.getDeclaredMethod("method", String.class).getParameters()[0];
+		Assert.assertNotSame(mode.getAnnotationPresence(parameter), mode.getAnnotationPresence(parameter));
+		Assert.assertTrue(mode.getAnnotationPresence(parameter).isPresent(AnnotationForTest1.class));
+
+		Assert.assertSame(AnnotationPresence.EMPTY, mode.getAnnotationPresence(Object.class));
+		Assert.assertTrue(AnnotationPresence.EMPTY.isEmpty());
+		Assert.assertThrows(IllegalArgumentException.class, () -> mode.getAnnotationPresence(null));
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER})
+	private @interface AnnotationForTest3 {}
+
+	@AnnotationForTest3
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER})
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest2
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER})
+	private @interface AnnotationForTest1 {}
+
+	@AnnotationForTest1
+	private static class SuperForTest {
+		@AnnotationForTest1
+		public void method() {
+		}
+		public void method(@AnnotationForTest1 String arg) {
+		}
+	}
+
+	private static class ClassForTest extends SuperForTest {
+		@Override
+		public void method() {
+		}
+	}
+
+}
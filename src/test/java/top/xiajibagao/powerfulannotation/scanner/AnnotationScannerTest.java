@@ -2,21 +2,30 @@ package top.xiajibagao.powerfulannotation.scanner;
 
 import lombok.SneakyThrows;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.helper.Function3;
 import top.xiajibagao.powerfulannotation.helper.StrUtils;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+import top.xiajibagao.powerfulannotation.scanner.processor.ScanControl;
 
 import java.lang.annotation.*;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class AnnotationScannerTest {
 
 	@Test
 	public void copyOptionsTest() {
-		ScanOptions source = new ScanOptions();
+		ScanOptions source = new ScanOptions().setMaxVerticalIndex(3).setMaxMetaDepth(2)
+			.setTraversalStrategy(TraversalStrategy.DEPTH_FIRST);
 		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(source);
 		ScanOptions copy = scanner.copyOptions();
 		Assert.assertNotSame(source, copy);
@@ -24,6 +33,9 @@ public class AnnotationScannerTest {
 		Assert.assertEquals(source.isEnableScanMetaAnnotation(), copy.isEnableScanMetaAnnotation());
 		Assert.assertEquals(source.isEnableScanInterface(), copy.isEnableScanInterface());
 		Assert.assertEquals(source.isEnableScanSuperClass(), copy.isEnableScanSuperClass());
+		Assert.assertEquals(3, copy.getMaxVerticalIndex());
+		Assert.assertEquals(2, copy.getMaxMetaDepth());
+		Assert.assertSame(TraversalStrategy.DEPTH_FIRST, copy.getTraversalStrategy());
 
 		copy.lockOptions();
 		Assert.assertThrows(IllegalArgumentException.class, () -> copy.setEnableScanAccessedType(true));
@@ -256,6 +268,256 @@ public class AnnotationScannerTest {
 
 	}
 
+	@SneakyThrows
+	@Test
+	public void scanMembersTest() {
+		List<AnnotatedElement> members = Arrays.asList(
+			ClassForTest.class.getDeclaredMethod("method"),
+			ClassForTest.class.getDeclaredField("filed"),
+			SuperForTest.class.getDeclaredMethod("method", Object.class),
+			SuperForTest.class.getDeclaredField("filed"),
+			InterfaceForTest.class.getDeclaredMethod("method2")
+		);
+		for (boolean superClass : new boolean[]{ true, false }) {
+			for (boolean interfaces : new boolean[]{ true, false }) {
+				for (boolean meta : new boolean[]{ true, false }) {
+					AbstractAnnotationScanner scanner = new GenericAnnotationScanner(superClass, interfaces, meta);
+					Map<AnnotatedElement, List<String>> expected = new LinkedHashMap<>();
+					Map<AnnotatedElement, List<String>> actual = new LinkedHashMap<>();
+					Map<AnnotatedElement, AnnotationProcessor> processors = new LinkedHashMap<>();
+					for (AnnotatedElement member : members) {
+						List<String> expectedAnnotations = new ArrayList<>();
+						expected.put(member, expectedAnnotations);
+						scanner.scan(member, (vi, hi, a) -> expectedAnnotations.add(vi + ":" + hi + ":" + a), AnnotationFilter.FILTER_JAVA);
+						List<String> actualAnnotations = new ArrayList<>();
+						actual.put(member, actualAnnotations);
+						processors.put(member, (vi, hi, a) -> actualAnnotations.add(vi + ":" + hi + ":" + a));
+					}
+					scanner.scanMembers(ClassForTest.class, processors, AnnotationFilter.FILTER_JAVA);
+					Assert.assertEquals(expected, actual);
+				}
+			}
+		}
+
+		// 全部处理器中断后停止扫描
+		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(true, true, true);
+		Map<AnnotatedElement, AnnotationFinder<Annotation>> finders = new LinkedHashMap<>();
+		finders.put(ClassForTest.class.getDeclaredMethod("method"), new AnnotationFinder<>((vi, hi, a) -> a, a -> true));
+		finders.put(ClassForTest.class.getDeclaredField("filed"), new AnnotationFinder<>((vi, hi, a) -> a, a -> true));
+		scanner.scanMembers(ClassForTest.class, finders, null);
+		finders.forEach((member, finder) -> Assert.assertEquals(
+			member.getAnnotation(AnnotationForTest2.class), finder.getTarget()
+		));
+
+		// 注解类的成员
+		Method attribute = AnnotationForTest2.class.getDeclaredMethod("value");
+		List<Annotation> expected = new ArrayList<>();
+		scanner.scan(attribute, (vi, hi, a) -> expected.add(a), AnnotationFilter.FILTER_JAVA);
+		List<Annotation> actual = new ArrayList<>();
+		scanner.scanMembers(
+			AnnotationForTest2.class, Collections.singletonMap(attribute, (vi, hi, a) -> actual.add(a)), AnnotationFilter.FILTER_JAVA
+		);
+		Assert.assertEquals(expected, actual);
+
+		Map<AnnotatedElement, AnnotationProcessor> illegal = Collections.singletonMap(
+			ClassForNonHierarchy.class.getDeclaredMethod("method", Integer.class), (vi, hi, a) -> {}
+		);
+		Assert.assertThrows(IllegalArgumentException.class, () -> scanner.scanMembers(ClassForTest.class, illegal, null));
+		Map<AnnotatedElement, AnnotationProcessor> notMember = Collections.singletonMap(ClassForTest.class, (vi, hi, a) -> {});
+		Assert.assertThrows(IllegalArgumentException.class, () -> scanner.scanMembers(ClassForTest.class, notMember, null));
+	}
+
+	@Test
+	@SneakyThrows
+	public void streamTest() {
+		List<AnnotatedElement> elements = Arrays.asList(
+			ClassForTest.class,
+			ClassForTest.class.getDeclaredMethod("method"),
+			ClassForTest.class.getDeclaredField("filed"),
+			AnnotationForTest2.class,
+			ClassForNonHierarchy.class.getDeclaredMethod("method", Integer.class)
+		);
+		for (boolean superClass : new boolean[]{ true, false }) {
+			for (boolean interfaces : new boolean[]{ true, false }) {
+				for (boolean meta : new boolean[]{ true, false }) {
+					AbstractAnnotationScanner scanner = new GenericAnnotationScanner(superClass, interfaces, meta);
+					for (AnnotatedElement element : elements) {
+						List<String> expected = new ArrayList<>();
+						scanner.scan(element, (vi, hi, a) -> expected.add(vi + ":" + hi + ":" + a), AnnotationFilter.FILTER_JAVA);
+						List<String> actual = new ArrayList<>();
+						scanner.stream(element, AnnotationFilter.FILTER_JAVA).forEach(a -> {
+							Assert.assertEquals(element, a.getRoot());
+							actual.add(a.getVerticalIndex() + ":" + a.getHorizontalIndex() + ":" + a.getAnnotation());
+						});
+						Assert.assertEquals(expected, actual);
+					}
+				}
+			}
+		}
+		Assert.assertEquals(0, new GenericAnnotationScanner(true, true, true).stream(null, null).count());
+
+		// 仅扫描消费者拉取的部分
+		int[] accessed = new int[1];
+		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(new ScanOptions(true, true, true)) {
+			@Override
+			protected Annotation[] getAnnotationFromType(Class<?> type, Class<?> element) {
+				accessed[0]++;
+				return super.getAnnotationFromType(type, element);
+			}
+		};
+		Optional<?> first = scanner.stream(ClassForTest.class, AnnotationFilter.FILTER_JAVA).findFirst();
+		Assert.assertTrue(first.isPresent());
+		Assert.assertEquals(1, accessed[0]);
+	}
+
+	@Test
+	public void scanLimitTest() {
+		AbstractAnnotationScanner unlimited = new GenericAnnotationScanner(true, true, true);
+		List<String> all = new ArrayList<>();
+		unlimited.scan(ClassForTest.class, (vi, hi, a) -> all.add(vi + ":" + a), AnnotationFilter.FILTER_JAVA);
+		for (int max = 0; max < 5; max++) {
+			final int maxVerticalIndex = max;
+			AbstractAnnotationScanner scanner = new GenericAnnotationScanner(new ScanOptions().setMaxVerticalIndex(max));
+			List<String> expected = new ArrayList<>();
+			unlimited.scan(
+				ClassForTest.class, (vi, hi, a) -> {
+					if (vi <= maxVerticalIndex) {
+						expected.add(vi + ":" + a);
+					}
+				}, AnnotationFilter.FILTER_JAVA
+			);
+			List<String> actual = new ArrayList<>();
+			scanner.scan(ClassForTest.class, (vi, hi, a) -> actual.add(vi + ":" + a), AnnotationFilter.FILTER_JAVA);
+			Assert.assertEquals(expected, actual);
+			List<String> streamed = new ArrayList<>();
+			scanner.stream(ClassForTest.class, AnnotationFilter.FILTER_JAVA)
+				.forEach(a -> streamed.add(a.getVerticalIndex() + ":" + a.getAnnotation()));
+			Assert.assertEquals(expected, streamed);
+		}
+
+		// 元注解深度
+		List<Annotation> withoutMeta = new GenericAnnotationScanner(true, true, false)
+			.stream(ClassForTest.class, AnnotationFilter.FILTER_JAVA).map(HierarchicalAnnotation::getAnnotation).collect(Collectors.toList());
+		List<Annotation> depth0 = new ArrayList<>();
+		new GenericAnnotationScanner(new ScanOptions().setMaxMetaDepth(0))
+			.scan(ClassForTest.class, (vi, hi, a) -> depth0.add(a), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(withoutMeta, depth0);
+		List<Annotation> depth1 = new ArrayList<>();
+		new GenericAnnotationScanner(new ScanOptions().setMaxMetaDepth(1))
+			.scan(AnnotationForTest2.class, (vi, hi, a) -> depth1.add(a), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Collections.singletonList(AnnotationForTest2.class.getAnnotation(AnnotationForTest1.class)), depth1);
+		List<Annotation> allMeta = new ArrayList<>();
+		unlimited.scan(AnnotationForTest2.class, (vi, hi, a) -> allMeta.add(a), AnnotationFilter.FILTER_NOTHING);
+		Assert.assertTrue(allMeta.size() > 1);
+
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ScanOptions().setMaxVerticalIndex(-1));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ScanOptions().setMaxMetaDepth(-1));
+	}
+
+	@Test
+	public void scanControlTest() {
+		AbstractAnnotationScanner withoutMeta = new GenericAnnotationScanner(true, true, false);
+		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(true, true, true);
+
+		// 跳过元注解
+		List<String> expected = new ArrayList<>();
+		withoutMeta.scan(ClassForTest.class, (vi, hi, a) -> expected.add(vi + ":" + hi + ":" + a), AnnotationFilter.FILTER_JAVA);
+		List<String> actual = new ArrayList<>();
+		scanner.scan(ClassForTest.class, controlled(actual, (vi, hi, a) -> ScanControl.SKIP_META), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(expected, actual);
+
+		// 每层仅处理第一个注解
+		Map<Integer, String> firstOfLevels = new LinkedHashMap<>();
+		withoutMeta.scan(ClassForTest.class, (vi, hi, a) -> firstOfLevels.putIfAbsent(vi, vi + ":" + a), AnnotationFilter.FILTER_JAVA);
+		List<String> skipLevel = new ArrayList<>();
+		withoutMeta.scan(ClassForTest.class, new AnnotationProcessor() {
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				skipLevel.add(verticalIndex + ":" + annotation);
+			}
+			@Override
+			public ScanControl process(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				accept(verticalIndex, horizontalIndex, annotation);
+				return ScanControl.SKIP_LEVEL;
+			}
+		}, AnnotationFilter.FILTER_JAVA);
+		Assert.assertTrue(firstOfLevels.size() > 1);
+		Assert.assertEquals(new ArrayList<>(firstOfLevels.values()), skipLevel);
+
+		// 中断
+		List<String> stopped = new ArrayList<>();
+		scanner.scan(ClassForTest.class, controlled(stopped, (vi, hi, a) -> ScanControl.STOP), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(1, stopped.size());
+	}
+
+	@Test
+	@SneakyThrows
+	public void deepSkippedLevelTest() {
+		AbstractAnnotationScanner.Context context = new AbstractAnnotationScanner.Context(ClassForTest.class, 0, 0, false);
+		Method skipLevel = AbstractAnnotationScanner.Context.class.getDeclaredMethod("skipLevel", int.class);
+		Method isLevelSkipped = AbstractAnnotationScanner.Context.class.getDeclaredMethod("isLevelSkipped", int.class);
+		skipLevel.setAccessible(true);
+		isLevelSkipped.setAccessible(true);
+
+		// 超出64层的层级各自独立标记，不会相互影响
+		for (int level : new int[]{ 1, 63, 64, 100 }) {
+			skipLevel.invoke(context, level);
+		}
+		for (int level = 0; level < 128; level++) {
+			boolean expected = level == 1 || level == 63 || level == 64 || level == 100;
+			Assert.assertEquals("level " + level, expected, isLevelSkipped.invoke(context, level));
+		}
+	}
+
+	private static AnnotationProcessor controlled(List<String> results, Function3<Integer, Integer, Annotation, ScanControl> control) {
+		return new AnnotationProcessor() {
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				results.add(verticalIndex + ":" + horizontalIndex + ":" + annotation);
+			}
+			@Override
+			public ScanControl process(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				accept(verticalIndex, horizontalIndex, annotation);
+				return control.accept(verticalIndex, horizontalIndex, annotation);
+			}
+		};
+	}
+
+	@Test
+	@SneakyThrows
+	public void allocationBudgetTest() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(true, true, true);
+		AnnotatedElement[] elements = {
+			ClassForTest.class, ClassForTest.class.getDeclaredMethod("method"), ClassForTest.class.getDeclaredField("filed")
+		};
+		int[] count = new int[1];
+		AnnotationProcessor processor = (vi, hi, a) -> count[0]++;
+		// 预热缓存与扫描状态池
+		for (int i = 0; i < 1000; i++) {
+			for (AnnotatedElement element : elements) {
+				scanner.scan(element, processor, AnnotationFilter.FILTER_JAVA);
+			}
+		}
+
+		long threadId = Thread.currentThread().getId();
+		int times = 10000;
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < times; i++) {
+			for (AnnotatedElement element : elements) {
+				scanner.scan(element, processor, AnnotationFilter.FILTER_JAVA);
+			}
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+		Assert.assertTrue(count[0] > 0);
+		// 稳定状态下扫描不应创建任何对象，预留少量字节用于统计本身的开销
+		Assert.assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+	}
+
 	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.TYPE_USE})
 	@Retention(RetentionPolicy.RUNTIME)
 	private @interface AnnotationForTest1 {
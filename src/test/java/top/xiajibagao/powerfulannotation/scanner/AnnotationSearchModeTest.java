@@ -3,10 +3,11 @@ package top.xiajibagao.powerfulannotation.scanner;
 import lombok.SneakyThrows;
 import org.junit.Assert;
 import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
 
 import java.lang.annotation.*;
 import java.lang.reflect.AnnotatedElement;
-import java.util.List;
+import java.util.*;
 
 public class AnnotationSearchModeTest {
 
@@ -265,6 +266,38 @@ public class AnnotationSearchModeTest {
 		Assert.assertEquals(element.getAnnotation(AnnotationForTest2.class), annotation);
 	}
 
+	@Test
+	public void streamTest() {
+		for (AnnotationSearchMode mode : AnnotationSearchMode.values()) {
+			List<Annotation> expected = mode.getAnnotations(ClassForTest.class, AnnotationFilter.FILTER_JAVA);
+			List<Annotation> actual = new ArrayList<>();
+			mode.stream(ClassForTest.class, AnnotationFilter.FILTER_JAVA).forEach(a -> actual.add(a.getAnnotation()));
+			Assert.assertEquals(expected, actual);
+		}
+		Assert.assertEquals(0, AnnotationSearchMode.SELF_AND_DIRECT.stream(null, AnnotationFilter.FILTER_JAVA).count());
+	}
+
+	@SneakyThrows
+	@Test
+	public void scanMembersTest() {
+		AnnotationSearchMode strategy = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+		List<AnnotatedElement> members = Arrays.asList(
+			ClassForTest.class.getDeclaredMethod("method"), ClassForTest.class.getDeclaredField("filed"),
+			SuperForTest.class.getDeclaredMethod("method")
+		);
+		Map<AnnotatedElement, AnnotationProcessor> processors = new LinkedHashMap<>();
+		Map<AnnotatedElement, List<Annotation>> results = new LinkedHashMap<>();
+		for (AnnotatedElement member : members) {
+			List<Annotation> annotations = new ArrayList<>();
+			results.put(member, annotations);
+			processors.put(member, (vi, hi, a) -> annotations.add(a));
+		}
+		strategy.scanMembers(ClassForTest.class, processors, AnnotationFilter.FILTER_JAVA);
+		for (AnnotatedElement member : members) {
+			Assert.assertEquals(strategy.getAnnotations(member, AnnotationFilter.FILTER_JAVA), results.get(member));
+		}
+	}
+
 	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD})
 	@Retention(RetentionPolicy.RUNTIME)
 	private @interface AnnotationForTest1 {
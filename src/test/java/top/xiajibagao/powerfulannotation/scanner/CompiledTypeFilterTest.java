@@ -0,0 +1,73 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.*;
+import java.util.List;
+
+public class CompiledTypeFilterTest {
+
+	@Test
+	public void prefixTest() {
+		CompiledTypeFilter filter = CompiledTypeFilter.builder()
+			.excludePrefixes("java.", "javax.")
+			.includePrefixes("java.lang.annotation.")
+			.build();
+		Assert.assertFalse(filter.test(String.class));
+		Assert.assertFalse(filter.test(List.class));
+		Assert.assertTrue(filter.test(Retention.class));
+		Assert.assertTrue(filter.test(CompiledTypeFilterTest.class));
+		// 再次判定时使用缓存的结果
+		Assert.assertFalse(filter.test(String.class));
+		Assert.assertTrue(filter.test(Retention.class));
+
+		// 与String#startsWith一致，按字符匹配
+		CompiledTypeFilter langFilter = CompiledTypeFilter.builder().excludePrefixes("java.lang").build();
+		Assert.assertFalse(langFilter.test(Override.class));
+		Assert.assertFalse(langFilter.test(Retention.class));
+		Assert.assertTrue(langFilter.test(List.class));
+	}
+
+	@Test
+	public void typeTest() {
+		CompiledTypeFilter.Builder builder = CompiledTypeFilter.builder()
+			.defaultIncluded(false)
+			.includePrefixes("top.xiajibagao.")
+			.excludeTypes(AnnotationForTest.class)
+			.includeTypes(String.class);
+		CompiledTypeFilter filter = builder.build();
+		Assert.assertTrue(filter.test(String.class));
+		Assert.assertFalse(filter.test(Integer.class));
+		Assert.assertFalse(filter.test(AnnotationForTest.class));
+		Assert.assertTrue(filter.test(CompiledTypeFilterTest.class));
+
+		// 构建完成后修改构建器不影响已构建的过滤器
+		builder.includeTypes(Integer.class).excludePrefixes("top.");
+		Assert.assertFalse(filter.test(Integer.class));
+		Assert.assertTrue(builder.build().test(Integer.class));
+		Assert.assertTrue(builder.build().test(CompiledTypeFilterTest.class));
+		Assert.assertFalse(builder.build().test(Long.class));
+	}
+
+	@Test
+	public void annotationFilterTest() {
+		AnnotationFilter filter = CompiledTypeFilter.builder().excludeTypes(Target.class).build().toAnnotationFilter();
+		Assert.assertFalse(filter.test(AnnotationForTest.class.getAnnotation(Target.class)));
+		Assert.assertTrue(filter.test(AnnotationForTest.class.getAnnotation(Retention.class)));
+		Assert.assertFalse(AnnotationFilter.FILTER_JAVA.test(AnnotationForTest.class.getAnnotation(Retention.class)));
+		Assert.assertTrue(AnnotationFilter.FILTER_JAVA.test(ClassForTest.class.getAnnotation(AnnotationForTest.class)));
+
+		AnnotationFilter combined = AnnotationFilter.combine(filter, AnnotationFilter.FILTER_NOTHING);
+		Assert.assertFalse(combined.test(AnnotationForTest.class.getAnnotation(Target.class)));
+		Assert.assertTrue(combined.test(AnnotationForTest.class.getAnnotation(Retention.class)));
+	}
+
+	@Target(ElementType.TYPE)
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest {}
+
+	@AnnotationForTest
+	private static class ClassForTest {}
+
+}
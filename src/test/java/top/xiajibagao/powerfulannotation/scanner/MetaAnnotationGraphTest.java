@@ -0,0 +1,103 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
+
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class MetaAnnotationGraphTest {
+
+	@Test
+	public void reachabilityTest() {
+		Assert.assertTrue(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, AnnotationForTest2.class));
+		Assert.assertTrue(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, AnnotationForTest3.class));
+		Assert.assertTrue(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, Documented.class));
+		Assert.assertFalse(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest3.class, AnnotationForTest1.class));
+		Assert.assertFalse(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, AnnotationForTest1.class));
+		Assert.assertFalse(MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, AnnotationForTest4.class));
+		Assert.assertTrue(MetaAnnotationGraph.isReachable(AnnotationForTest1.class, AnnotationForTest1.class));
+
+		// 存在环的元注解
+		Assert.assertTrue(MetaAnnotationGraph.isMetaAnnotatedWith(Documented.class, Documented.class));
+		Assert.assertTrue(MetaAnnotationGraph.isMetaAnnotatedWith(Retention.class, Target.class));
+
+		Assert.assertThrows(IllegalArgumentException.class, () -> MetaAnnotationGraph.isMetaAnnotatedWith(null, AnnotationForTest1.class));
+		Assert.assertThrows(IllegalArgumentException.class, () -> MetaAnnotationGraph.isMetaAnnotatedWith(AnnotationForTest1.class, null));
+	}
+
+	@Test
+	public void depthTest() {
+		Assert.assertEquals(0, MetaAnnotationGraph.getDistance(AnnotationForTest1.class, AnnotationForTest1.class));
+		Assert.assertEquals(1, MetaAnnotationGraph.getDistance(AnnotationForTest1.class, AnnotationForTest2.class));
+		Assert.assertEquals(1, MetaAnnotationGraph.getDistance(AnnotationForTest1.class, Retention.class));
+		Assert.assertEquals(2, MetaAnnotationGraph.getDistance(AnnotationForTest1.class, AnnotationForTest3.class));
+		Assert.assertEquals(-1, MetaAnnotationGraph.getDistance(AnnotationForTest3.class, AnnotationForTest1.class));
+		Assert.assertEquals(2, MetaAnnotationGraph.getDistance(AnnotationForTest1.class, Documented.class));
+		// Retention与Target位于第1层，其上的Documented位于第2层
+		Assert.assertEquals(2, MetaAnnotationGraph.getDepth(AnnotationForTest4.class));
+		Assert.assertEquals(2, MetaAnnotationGraph.getDepth(AnnotationForTest1.class));
+		Assert.assertEquals(1, MetaAnnotationGraph.getDepth(Documented.class));
+
+		Assert.assertEquals(
+			Arrays.asList(AnnotationForTest2.class, Retention.class, Target.class),
+			MetaAnnotationGraph.getDirectMetaAnnotationTypes(AnnotationForTest1.class)
+		);
+		Assert.assertTrue(MetaAnnotationGraph.getMetaAnnotationTypes(AnnotationForTest1.class).containsAll(
+			Arrays.asList(AnnotationForTest2.class, AnnotationForTest3.class, Documented.class)
+		));
+		Assert.assertFalse(MetaAnnotationGraph.getMetaAnnotationTypes(AnnotationForTest4.class).contains(AnnotationForTest1.class));
+		Assert.assertThrows(IllegalArgumentException.class, () -> MetaAnnotationGraph.getDepth(castAnnotationType(String.class)));
+	}
+
+	@Test
+	public void pruneTest() {
+		// 跳过元注解子树后的查找结果与完整扫描一致
+		List<AnnotatedElement> elements = Arrays.asList(ClassForTest.class, AnnotationForTest1.class, AnnotationForTest3.class);
+		List<Class<? extends Annotation>> types = Arrays.asList(
+			AnnotationForTest1.class, AnnotationForTest2.class, AnnotationForTest3.class, AnnotationForTest4.class, Documented.class
+		);
+		for (AnnotationSearchMode mode : AnnotationSearchMode.values()) {
+			for (AnnotatedElement element : elements) {
+				for (Class<? extends Annotation> type : types) {
+					AnnotationFinder<Annotation> finder = new AnnotationFinder<>((vi, hi, a) -> a.annotationType() == type ? a : null, Objects::nonNull);
+					mode.scan(element, finder, AnnotationFilter.FILTER_NOTHING);
+					Assert.assertSame(mode + " " + element + " " + type, finder.getTarget(), mode.getAnnotation(element, type));
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> castAnnotationType(Class<?> type) {
+		return (Class<? extends Annotation>)type;
+	}
+
+	@Documented
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.ANNOTATION_TYPE)
+	private @interface AnnotationForTest3 {}
+
+	@AnnotationForTest3
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.ANNOTATION_TYPE)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest2
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest1 {}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest4 {}
+
+	@AnnotationForTest1
+	@AnnotationForTest4
+	private static class ClassForTest {}
+
+}
@@ -0,0 +1,143 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationCollector;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationFinder;
+
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * test for {@link ParallelAnnotationScanner}
+ *
+ * @author huangchengxing
+ */
+public class ParallelAnnotationScannerTest {
+
+	private static final AnnotationSearchMode MODE = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+
+	@Test
+	public void scanTest() {
+		List<AnnotatedElement> elements = getElements();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelAnnotationScanner scanner = new ParallelAnnotationScanner(MODE::scan, pool, 2);
+			List<List<Annotation>> results = scanner.scan(
+				elements, AnnotationFilter.FILTER_NOTHING,
+				() -> new AnnotationCollector<Annotation>((vi, hi, annotation) -> annotation),
+				(element, collector) -> collector.getTargets()
+			);
+			// 结果与串行扫描一致，并按输入顺序排列
+			List<List<Annotation>> expected = elements.stream()
+				.map(element -> MODE.getAnnotations(element, AnnotationFilter.FILTER_NOTHING))
+				.collect(Collectors.toList());
+			Assert.assertEquals(expected, results);
+
+			// 不可预知大小的Spliterator
+			Iterator<AnnotatedElement> iterator = elements.iterator();
+			List<AnnotatedElement> scanned = scanner.scan(
+				Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), null,
+				() -> (vi, hi, annotation) -> {}, (element, processor) -> element
+			);
+			Assert.assertEquals(elements, scanned);
+			Assert.assertTrue(scanner.scan(Collections.emptyList(), null, () -> (vi, hi, a) -> {}, (e, p) -> e).isEmpty());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void scanFirstTest() {
+		List<AnnotatedElement> elements = getElements();
+		int targetIndex = elements.indexOf(ClassForTest2.class);
+		AtomicInteger scannedCount = new AtomicInteger();
+		ParallelAnnotationScanner scanner = new ParallelAnnotationScanner(
+			(element, processor, filter) -> {
+				scannedCount.incrementAndGet();
+				MODE.scan(element, processor, filter);
+			},
+			ForkJoinPool.commonPool(), 1
+		);
+		AnnotatedElement found = scanner.scanFirst(
+			elements, AnnotationFilter.FILTER_NOTHING,
+			() -> new AnnotationFinder<Annotation>((vi, hi, annotation) -> annotation, a -> a instanceof AnnotationForTest2),
+			(element, finder) -> element
+		);
+		// 总是返回输入顺序中的第一个元素
+		Assert.assertEquals(elements.get(targetIndex), found);
+		Assert.assertTrue(scannedCount.get() <= elements.size());
+
+		Assert.assertNull(scanner.scanFirst(
+			elements, null,
+			() -> new AnnotationFinder<Annotation>((vi, hi, annotation) -> annotation, a -> false),
+			(element, finder) -> element
+		));
+		Assert.assertEquals(
+			AnnotationForTest2.class,
+			MODE.parallel(ForkJoinPool.commonPool()).scanFirst(
+				elements, null,
+				() -> new AnnotationFinder<Annotation>((vi, hi, annotation) -> annotation, a -> a instanceof AnnotationForTest2),
+				(element, finder) -> finder.getTarget().annotationType()
+			)
+		);
+	}
+
+	@Test
+	public void illegalArgumentTest() {
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ParallelAnnotationScanner(null, ForkJoinPool.commonPool()));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ParallelAnnotationScanner(MODE::scan, null));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ParallelAnnotationScanner(MODE::scan, ForkJoinPool.commonPool(), 0));
+	}
+
+	private static List<AnnotatedElement> getElements() {
+		List<AnnotatedElement> elements = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Stream.of(ClassForTest1.class, SuperForTest.class, InterfaceForTest.class).forEach(type -> {
+				elements.add(type);
+				elements.addAll(Arrays.asList(type.getDeclaredFields()));
+				elements.addAll(Arrays.asList(type.getDeclaredMethods()));
+			});
+			if (i == 13) {
+				elements.add(ClassForTest2.class);
+			}
+		}
+		elements.add(ClassForTest2.class);
+		return elements;
+	}
+
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest1 {}
+
+	@AnnotationForTest1
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD})
+	@Retention(RetentionPolicy.RUNTIME)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest1
+	private interface InterfaceForTest {
+		@AnnotationForTest1
+		void method();
+	}
+
+	@AnnotationForTest1
+	private static class SuperForTest {
+		@AnnotationForTest1
+		private String field;
+	}
+
+	private static class ClassForTest1 extends SuperForTest implements InterfaceForTest {
+		@Override
+		public void method() {}
+	}
+
+	@AnnotationForTest2
+	private static class ClassForTest2 {}
+
+}
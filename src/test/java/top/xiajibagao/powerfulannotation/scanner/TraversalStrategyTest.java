@@ -0,0 +1,186 @@
+package top.xiajibagao.powerfulannotation.scanner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.helper.ReflectUtils;
+import top.xiajibagao.powerfulannotation.scanner.processor.AnnotationProcessor;
+import top.xiajibagao.powerfulannotation.scanner.processor.ScanControl;
+
+import java.lang.annotation.*;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class TraversalStrategyTest {
+
+	private static final Method METHOD = ReflectUtils.getDeclaredMethod(ClassForTest.class, "method");
+
+	@Test
+	public void planTest() {
+		Assert.assertEquals(
+			Arrays.asList("1:ClassForTest", "2:SuperForTest", "2:InterfaceForTest2", "3:InterfaceForTest1"),
+			describe(scanner(TraversalStrategy.BREADTH_FIRST).getTraversalPlan(ClassForTest.class))
+		);
+		Assert.assertEquals(
+			Arrays.asList("1:ClassForTest", "2:InterfaceForTest2", "2:SuperForTest", "3:InterfaceForTest1"),
+			describe(scanner(TraversalStrategy.INTERFACE_FIRST).getTraversalPlan(ClassForTest.class))
+		);
+		Assert.assertEquals(
+			Arrays.asList("1:ClassForTest", "2:SuperForTest", "3:InterfaceForTest1", "2:InterfaceForTest2"),
+			describe(scanner(TraversalStrategy.DEPTH_FIRST).getTraversalPlan(ClassForTest.class))
+		);
+
+		// 计划遵循扫描配置
+		AbstractAnnotationScanner scanner = new GenericAnnotationScanner(
+			new ScanOptions().setTraversalStrategy(TraversalStrategy.DEPTH_FIRST).setMaxVerticalIndex(2)
+		);
+		Assert.assertEquals(
+			Arrays.asList("1:ClassForTest", "2:SuperForTest", "2:InterfaceForTest2"),
+			describe(scanner.getTraversalPlan(ClassForTest.class))
+		);
+		scanner = new GenericAnnotationScanner(
+			new ScanOptions(true, false, false).setTraversalStrategy(TraversalStrategy.DEPTH_FIRST)
+		);
+		Assert.assertEquals(
+			Arrays.asList("1:ClassForTest", "2:SuperForTest"), describe(scanner.getTraversalPlan(ClassForTest.class))
+		);
+		Assert.assertEquals(0, new GenericAnnotationScanner(new ScanOptions().setMaxVerticalIndex(0))
+			.getTraversalPlan(ClassForTest.class).size());
+	}
+
+	@Test
+	public void planCacheTest() {
+		AbstractAnnotationScanner scanner = scanner(TraversalStrategy.DEPTH_FIRST);
+		TraversalPlan plan = scanner.getTraversalPlan(ClassForTest.class);
+		Assert.assertSame(plan, scanner.getTraversalPlan(ClassForTest.class));
+		Assert.assertNotSame(plan, scanner(TraversalStrategy.DEPTH_FIRST).getTraversalPlan(ClassForTest.class));
+		Assert.assertThrows(UnsupportedOperationException.class, () -> plan.getTypes().clear());
+		Assert.assertThrows(IllegalArgumentException.class, () -> scanner.getTraversalPlan(null));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new ScanOptions().setTraversalStrategy(null));
+		Assert.assertThrows(IllegalArgumentException.class, () -> TraversalPlan.builder().add(ClassForTest.class, 0));
+	}
+
+	@Test
+	public void scanTest() {
+		// 垂直索引为类所在的层级，水平索引按扫描顺序递增
+		List<String> results = new ArrayList<>();
+		scanner(TraversalStrategy.DEPTH_FIRST).scan(ClassForTest.class, collect(results), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Arrays.asList("1:1:4", "2:2:3", "3:3:1", "2:4:2"), results);
+
+		results.clear();
+		scanner(TraversalStrategy.INTERFACE_FIRST).scan(ClassForTest.class, collect(results), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Arrays.asList("1:1:4", "2:2:2", "2:3:3", "3:4:1"), results);
+
+		// 方法与属性的层级结构同样按计划遍历
+		results.clear();
+		scanner(TraversalStrategy.DEPTH_FIRST).scan(METHOD, collect(results), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Arrays.asList("1:1:4", "2:2:3", "3:3:1", "2:4:2"), results);
+
+		// 惰性流与批量扫描成员的结果与扫描一致
+		for (TraversalStrategy strategy : Arrays.asList(
+			TraversalStrategy.BREADTH_FIRST, TraversalStrategy.INTERFACE_FIRST, TraversalStrategy.DEPTH_FIRST)) {
+			AbstractAnnotationScanner scanner = scanner(strategy);
+			List<String> scanned = new ArrayList<>();
+			scanner.scan(ClassForTest.class, collect(scanned), AnnotationFilter.FILTER_NOTHING);
+			List<String> streamed = scanner.stream(ClassForTest.class, AnnotationFilter.FILTER_NOTHING)
+				.map(a -> a.getVerticalIndex() + ":" + a.getHorizontalIndex() + ":" + value(a))
+				.collect(Collectors.toList());
+			Assert.assertEquals(scanned, streamed);
+
+			scanned.clear();
+			scanner.scan(METHOD, collect(scanned), AnnotationFilter.FILTER_NOTHING);
+			List<String> members = new ArrayList<>();
+			scanner.scanMembers(
+				ClassForTest.class, Collections.singletonMap(METHOD, collect(members)), AnnotationFilter.FILTER_NOTHING
+			);
+			Assert.assertEquals(scanned, members);
+		}
+	}
+
+	@Test
+	public void skipLevelTest() {
+		// 跳过第2层后，深度优先遍历中位于第2层的InterfaceForTest2不再处理，但第3层的InterfaceForTest1仍然处理
+		List<String> results = new ArrayList<>();
+		AnnotationProcessor processor = new AnnotationProcessor() {
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				results.add(verticalIndex + ":" + horizontalIndex + ":" + ((AnnotationForTest)annotation).value());
+			}
+			@Override
+			public ScanControl process(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				accept(verticalIndex, horizontalIndex, annotation);
+				return verticalIndex == 2 ? ScanControl.SKIP_LEVEL : ScanControl.CONTINUE;
+			}
+		};
+		scanner(TraversalStrategy.DEPTH_FIRST).scan(ClassForTest.class, processor, AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Arrays.asList("1:1:4", "2:2:3", "3:3:1"), results);
+	}
+
+	@Test
+	public void customStrategyTest() {
+		// 仅扫描起点本身
+		TraversalStrategy selfOnly = (source, hierarchy) -> TraversalPlan.builder().add(source, 1).build();
+		List<String> results = new ArrayList<>();
+		scanner(selfOnly).scan(ClassForTest.class, collect(results), AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(Collections.singletonList("1:1:4"), results);
+	}
+
+	private static AbstractAnnotationScanner scanner(TraversalStrategy strategy) {
+		return new GenericAnnotationScanner(new ScanOptions(true, true, false).setTraversalStrategy(strategy));
+	}
+
+	private static List<String> describe(TraversalPlan plan) {
+		List<String> results = new ArrayList<>();
+		for (int i = 0; i < plan.size(); i++) {
+			results.add(plan.getVerticalIndex(i) + ":" + plan.getType(i).getSimpleName());
+		}
+		return results;
+	}
+
+	private static AnnotationProcessor collect(List<String> results) {
+		return (verticalIndex, horizontalIndex, annotation) -> results.add(
+			verticalIndex + ":" + horizontalIndex + ":" + ((AnnotationForTest)annotation).value()
+		);
+	}
+
+	private static int value(HierarchicalAnnotation<Annotation> annotation) {
+		return ((AnnotationForTest)annotation.getAnnotation()).value();
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	private @interface AnnotationForTest {
+		int value();
+	}
+
+	@AnnotationForTest(1)
+	private interface InterfaceForTest1 {
+		@AnnotationForTest(1)
+		void method();
+	}
+
+	@AnnotationForTest(2)
+	private interface InterfaceForTest2 extends InterfaceForTest1 {
+		@AnnotationForTest(2)
+		@Override
+		void method();
+	}
+
+	@AnnotationForTest(3)
+	private abstract static class SuperForTest implements InterfaceForTest1 {
+		@AnnotationForTest(3)
+		@Override
+		public void method() {
+		}
+	}
+
+	@AnnotationForTest(4)
+	private static class ClassForTest extends SuperForTest implements InterfaceForTest2 {
+		@AnnotationForTest(4)
+		@Override
+		public void method() {
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationFilter;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+import top.xiajibagao.powerfulannotation.scanner.ScanOptions;
+
+import java.lang.annotation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * test for {@link ClassFileAnnotationScanner}
+ *
+ * @author huangchengxing
+ */
+public class ClassFileAnnotationScannerTest {
+
+	private static final ClassLoader CLASS_LOADER = ClassFileAnnotationScannerTest.class.getClassLoader();
+
+	@SneakyThrows
+	@Test
+	public void sameAsSearchModeTest() {
+		AnnotatedElement[] elements = new AnnotatedElement[]{
+			ClassForTest.class, SuperForTest.class, InterfaceForTest.class, AnnotationForTest3.class,
+			ClassForTest.class.getDeclaredMethod("method", String.class),
+			ClassForTest.class.getDeclaredMethod("method", int.class),
+			ClassForTest.class.getDeclaredField("field")
+		};
+		for (AnnotationSearchMode mode : AnnotationSearchMode.values()) {
+			ClassFileAnnotationScanner scanner = ClassFileAnnotationScanner.of(mode, CLASS_LOADER);
+			for (AnnotatedElement element : elements) {
+				List<String> expected = new ArrayList<>();
+				mode.scan(element, (vi, hi, a) -> expected.add(vi + ":" + hi + ":" + a.annotationType().getName()), AnnotationFilter.FILTER_NOTHING);
+				List<String> actual = new ArrayList<>();
+				scanner.scan(element, (vi, hi, meta, d) -> actual.add(vi + ":" + hi + ":" + d.getTypeName()), null);
+				Assert.assertEquals(mode + " " + element, expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void metaAnnotationTest() {
+		ClassFileAnnotationScanner scanner = ClassFileAnnotationScanner.of(AnnotationSearchMode.SELF_AND_INDIRECT, CLASS_LOADER);
+		List<String> annotations = new ArrayList<>();
+		scanner.scanType(
+			ClassForTest.class.getName(),
+			(vi, hi, meta, d) -> annotations.add(meta + ":" + d.getTypeName()),
+			d -> !d.isTypeOf(AnnotationForTest1.class) && !d.getTypeName().startsWith("java.lang")
+		);
+		Assert.assertEquals(annotations.toString(), 2, annotations.size());
+		Assert.assertEquals("false:" + AnnotationForTest3.class.getName(), annotations.get(0));
+		Assert.assertEquals("true:" + AnnotationForTest2.class.getName(), annotations.get(1));
+	}
+
+	@Test
+	public void interruptWhenScanMetaAnnotationTest() {
+		ClassFileAnnotationScanner scanner = ClassFileAnnotationScanner.of(AnnotationSearchMode.SELF_AND_INDIRECT, CLASS_LOADER);
+		List<String> annotations = new ArrayList<>();
+		// 扫描元注解时中断，则不再继续扫描剩余的元注解
+		scanner.scanType(ClassForTest.class.getName(), new AnnotationDescriptorProcessor() {
+			@Override
+			public boolean interrupted() {
+				return annotations.contains(Target.class.getName());
+			}
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, boolean metaAnnotation, AnnotationDescriptor descriptor) {
+				annotations.add(descriptor.getTypeName());
+			}
+		}, null);
+		Assert.assertEquals(2, annotations.size());
+		Assert.assertEquals(AnnotationForTest1.class.getName(), annotations.get(0));
+		Assert.assertEquals(Target.class.getName(), annotations.get(1));
+	}
+
+	@SneakyThrows
+	@Test
+	public void findTest() {
+		ClassFileAnnotationScanner scanner = ClassFileAnnotationScanner.of(AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT, CLASS_LOADER);
+		Assert.assertTrue(scanner.isAnnotationPresent(ClassForTest.class.getName(), AnnotationForTest2.class));
+		Assert.assertFalse(scanner.isAnnotationPresent(ClassForTest.class.getName(), Documented.class));
+		Assert.assertFalse(scanner.isAnnotationPresent("not.exists.ClassForTest", AnnotationForTest2.class));
+		Assert.assertEquals(
+			InterfaceForTest.class.getAnnotation(AnnotationForTest2.class),
+			scanner.getAnnotation(ClassForTest.class.getName(), AnnotationForTest2.class)
+		);
+		Assert.assertNull(scanner.getAnnotation(ClassForTest.class.getName(), Documented.class));
+		Assert.assertEquals(
+			AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT.getAnnotations(ClassForTest.class, AnnotationFilter.FILTER_NOTHING).size(),
+			scanner.getAnnotations(ClassForTest.class.getName()).size()
+		);
+		Assert.assertNotNull(scanner.getMetadata(ClassForTest.class.getName()));
+		Assert.assertNull(scanner.getMetadata("not.exists.ClassForTest"));
+
+		// 不扫描元注解时，注解类仅扫描其直接声明的元注解
+		ClassFileAnnotationScanner directScanner = new ClassFileAnnotationScanner(
+			new ScanOptions(false, false, false), ClassFileAnnotationScanner.DEFAULT_TYPE_NAME_FILTER, CLASS_LOADER
+		);
+		Assert.assertEquals(
+			AnnotationForTest3.class.getAnnotations().length,
+			directScanner.getAnnotations(AnnotationForTest3.class.getName()).size()
+		);
+		Assert.assertThrows(
+			IllegalArgumentException.class,
+			() -> directScanner.scan(ClassForTest.class.getConstructor(), (vi, hi, meta, d) -> { }, null)
+		);
+	}
+
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	@Inherited
+	@interface AnnotationForTest1 {
+		String value() default "";
+	}
+
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface AnnotationForTest2 { }
+
+	@AnnotationForTest2
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface AnnotationForTest3 { }
+
+	@AnnotationForTest2
+	interface InterfaceForTest {
+		@AnnotationForTest2
+		Object method(String s);
+	}
+
+	@AnnotationForTest1("super")
+	static class SuperForTest {
+		@AnnotationForTest1
+		public Object method(String s) {
+			return null;
+		}
+	}
+
+	@AnnotationForTest3
+	public static class ClassForTest extends SuperForTest implements InterfaceForTest {
+		@AnnotationForTest3
+		private String field;
+		@AnnotationForTest3
+		@Override
+		public String method(String s) {
+			return s;
+		}
+		@AnnotationForTest1
+		public void method(int i) { }
+	}
+
+}
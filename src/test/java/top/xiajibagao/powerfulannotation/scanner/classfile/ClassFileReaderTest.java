@@ -0,0 +1,148 @@
+package top.xiajibagao.powerfulannotation.scanner.classfile;
+
+import lombok.SneakyThrows;
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.CollUtils;
+import top.xiajibagao.powerfulannotation.scanner.classfile.AnnotationDescriptor.ClassReference;
+import top.xiajibagao.powerfulannotation.scanner.classfile.AnnotationDescriptor.EnumConstant;
+import top.xiajibagao.powerfulannotation.scanner.classfile.ClassFileMetadata.MemberMetadata;
+
+import java.io.InputStream;
+import java.lang.annotation.*;
+import java.util.List;
+
+/**
+ * test for {@link ClassFileReader}
+ *
+ * @author huangchengxing
+ */
+public class ClassFileReaderTest {
+
+	@Test
+	public void readClassTest() {
+		ClassFileMetadata metadata = read(ClassForTest.class);
+		Assert.assertEquals(ClassForTest.class.getName(), metadata.getClassName());
+		Assert.assertEquals(Object.class.getName(), metadata.getSuperClassName());
+		Assert.assertEquals(CollUtils.newArrayList(Runnable.class.getName()), metadata.getInterfaceNames());
+		Assert.assertFalse(metadata.isInterface());
+		Assert.assertFalse(metadata.isAnnotation());
+		Assert.assertTrue(read(AnnotationForTest.class).isAnnotation());
+		Assert.assertTrue(read(AnnotationForTest.class).isInterface());
+		Assert.assertNull(read(Object.class).getSuperClassName());
+
+		// 非运行时注解不会被读取
+		Assert.assertEquals(1, metadata.getAnnotations().size());
+		MemberMetadata field = metadata.getFields().stream()
+			.filter(f -> "field".equals(f.getName()))
+			.findFirst().orElse(null);
+		Assert.assertNotNull(field);
+		Assert.assertEquals("Ljava/lang/String;", field.getDescriptor());
+		Assert.assertEquals(1, field.getAnnotations().size());
+		MemberMetadata method = metadata.getMethods().stream()
+			.filter(m -> "run".equals(m.getName()))
+			.findFirst().orElse(null);
+		Assert.assertNotNull(method);
+		Assert.assertEquals("()", method.getParameterDescriptor());
+		Assert.assertFalse(method.isBridge());
+		Assert.assertEquals(AnnotationForTest.class.getName(), method.getAnnotations().get(0).getTypeName());
+	}
+
+	@SneakyThrows
+	@Test
+	public void readAttributesTest() {
+		AnnotationDescriptor descriptor = read(ClassForTest.class).getAnnotations().get(0);
+		Assert.assertTrue(descriptor.isTypeOf(AnnotationForTest.class));
+		Assert.assertEquals(ClassForTest.class.getName(), descriptor.getDeclaringClassName());
+		Assert.assertNull(descriptor.getDeclaringMemberName());
+		Assert.assertEquals("value", descriptor.getAttribute("value"));
+		Assert.assertEquals(1, descriptor.getAttribute("intValue"));
+		Assert.assertEquals(2L, descriptor.getAttribute("longValue"));
+		Assert.assertEquals((byte)3, descriptor.getAttribute("byteValue"));
+		Assert.assertEquals('c', descriptor.getAttribute("charValue"));
+		Assert.assertEquals(true, descriptor.getAttribute("booleanValue"));
+		Assert.assertEquals(1.5D, descriptor.getAttribute("doubleValue"));
+		Assert.assertEquals(new EnumConstant(ElementType.class.getName(), "FIELD"), descriptor.getAttribute("enumValue"));
+		Assert.assertEquals(ElementType.FIELD, ((EnumConstant)descriptor.getAttribute("enumValue")).load(getClass().getClassLoader()));
+		Assert.assertEquals(
+			CollUtils.newArrayList(new ClassReference("int"), new ClassReference(String[].class.getName())),
+			descriptor.getAttribute("classValues")
+		);
+		ClassReference classValue = (ClassReference)((List<?>)descriptor.getAttribute("classValues")).get(1);
+		Assert.assertEquals(String[].class, classValue.load(getClass().getClassLoader()));
+		AnnotationDescriptor nested = (AnnotationDescriptor)descriptor.getAttribute("nested");
+		Assert.assertEquals(Retention.class.getName(), nested.getTypeName());
+		Assert.assertNull(nested.getDeclaringClassName());
+		Assert.assertThrows(IllegalArgumentException.class, () -> nested.load(getClass().getClassLoader()));
+		// 未显式指定的属性不会被记录
+		Assert.assertNull(descriptor.getAttribute("defaultValue"));
+
+		// 加载注解
+		AnnotationForTest annotation = descriptor.load(getClass().getClassLoader());
+		Assert.assertEquals(ClassForTest.class.getAnnotation(AnnotationForTest.class), annotation);
+		MemberMetadata method = read(ClassForTest.class).getMethods().stream()
+			.filter(m -> "run".equals(m.getName()))
+			.findFirst().orElse(null);
+		Assert.assertNotNull(method);
+		Assert.assertEquals(
+			ClassForTest.class.getDeclaredMethod("run").getAnnotation(AnnotationForTest.class),
+			method.getAnnotations().get(0).load(getClass().getClassLoader())
+		);
+	}
+
+	@SneakyThrows
+	@Test
+	public void descriptorTest() {
+		Assert.assertEquals("(I[Ljava/lang/String;)V", ClassFileReader.getMethodDescriptor(
+			ClassForTest.class.getDeclaredMethod("method", int.class, String[].class)
+		));
+		Assert.assertEquals("java.lang.String", ClassFileReader.getTypeName("Ljava/lang/String;"));
+		Assert.assertEquals("[Ljava.lang.String;", ClassFileReader.getTypeName("[Ljava/lang/String;"));
+		Assert.assertEquals("int", ClassFileReader.getTypeName("I"));
+		Assert.assertEquals(int.class, ClassFileReader.getPrimitiveType("int"));
+		Assert.assertNull(ClassFileReader.getPrimitiveType("java.lang.String"));
+		Assert.assertThrows(IllegalArgumentException.class, () -> ClassFileReader.read(new byte[]{1, 2, 3, 4}));
+	}
+
+	@SneakyThrows
+	private static ClassFileMetadata read(Class<?> type) {
+		try (InputStream inputStream = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+			return ClassFileReader.read(inputStream);
+		}
+	}
+
+	@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD})
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface AnnotationForTest {
+		String value() default "";
+		int intValue() default 0;
+		long longValue() default 0L;
+		byte byteValue() default 0;
+		char charValue() default 'a';
+		boolean booleanValue() default false;
+		double doubleValue() default 0D;
+		ElementType enumValue() default ElementType.TYPE;
+		Class<?>[] classValues() default {};
+		Retention nested() default @Retention(RetentionPolicy.CLASS);
+		String defaultValue() default "default";
+	}
+
+	@Retention(RetentionPolicy.CLASS)
+	@interface InvisibleAnnotationForTest { }
+
+	@InvisibleAnnotationForTest
+	@AnnotationForTest(
+		value = "value", intValue = 1, longValue = 2L, byteValue = 3, charValue = 'c', booleanValue = true,
+		doubleValue = 1.5D, enumValue = ElementType.FIELD, classValues = {int.class, String[].class},
+		nested = @Retention(RetentionPolicy.RUNTIME)
+	)
+	static class ClassForTest implements Runnable {
+		@AnnotationForTest
+		private String field;
+		@AnnotationForTest("run")
+		@Override
+		public void run() { }
+		public void method(int i, String... strings) { }
+	}
+
+}
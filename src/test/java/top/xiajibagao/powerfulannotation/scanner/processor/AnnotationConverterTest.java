@@ -0,0 +1,88 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.helper.Function3;
+
+import java.lang.annotation.*;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+public class AnnotationConverterTest {
+
+	@Test
+	public void convertTest() {
+		AnnotationForTest1 annotation1 = ClassForTest.class.getAnnotation(AnnotationForTest1.class);
+		AnnotationForTest2 annotation2 = ClassForTest.class.getAnnotation(AnnotationForTest2.class);
+		Assert.assertSame(annotation1, AnnotationConverter.identity().convert(0, 0, annotation1));
+
+		AnnotationConverter<AnnotationForTest1> converter = AnnotationConverter.ofType(AnnotationForTest1.class);
+		Assert.assertSame(annotation1, converter.convert(0, 0, annotation1));
+		Assert.assertNull(converter.convert(0, 0, annotation2));
+		Assert.assertNull(AnnotationConverter.ofType(null).convert(0, 0, annotation1));
+
+		// 同一类型共享同一转换器
+		Assert.assertSame(converter, AnnotationConverter.ofType(AnnotationForTest1.class));
+		Assert.assertNotSame(converter, AnnotationConverter.ofType(AnnotationForTest2.class));
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void function3Test() {
+		AnnotationForTest1 annotation = ClassForTest.class.getAnnotation(AnnotationForTest1.class);
+		Function3<Integer, Integer, Annotation, String> function = (vi, hi, a) -> vi + ":" + hi;
+		AnnotationConverter<String> converter = AnnotationConverter.of(function);
+		Assert.assertEquals("1:2", converter.convert(1, 2, annotation));
+		Assert.assertSame(converter, AnnotationConverter.of(converter));
+		Assert.assertEquals("1:2", converter.accept(1, 2, annotation));
+		Assert.assertThrows(IllegalArgumentException.class, () -> AnnotationConverter.of(null));
+
+		AnnotationCollector<String> collector = new AnnotationCollector<>(function);
+		collector.accept(1, 2, annotation);
+		Assert.assertEquals(Collections.singletonList("1:2"), collector.getTargets());
+		AnnotationFinder<String> finder = new AnnotationFinder<>(function, "3:4"::equals);
+		finder.accept(1, 2, annotation);
+		Assert.assertFalse(finder.isFound());
+		finder.accept(3, 4, annotation);
+		Assert.assertEquals("3:4", finder.getTarget());
+	}
+
+	@Test
+	public void noBoxingTest() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+		// 索引超出Integer缓存范围，若发生装箱则每次调用都会创建对象
+		AnnotationForTest1 annotation = ClassForTest.class.getAnnotation(AnnotationForTest1.class);
+		long[] sum = new long[1];
+		AnnotationCollector<Object> collector = new AnnotationCollector<>((vi, hi, a) -> {
+			sum[0] += vi + hi;
+			return null;
+		});
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < 100000; i++) {
+			collector.accept(1000 + i, 2000 + i, annotation);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+		Assert.assertTrue(collector.getTargets().isEmpty());
+		Assert.assertTrue(sum[0] > 0);
+		Assert.assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest1 {}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest1
+	@AnnotationForTest2
+	private static class ClassForTest{}
+
+}
@@ -0,0 +1,99 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationFilter;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+
+import java.lang.annotation.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class MultiAnnotationFinderTest {
+
+	@Test
+	public void acceptTest() {
+		MultiAnnotationFinder finder = new MultiAnnotationFinder(
+			AnnotationForTest1.class, AnnotationForTest2.class, AnnotationForTest1.class
+		);
+		Assert.assertFalse(finder.interrupted());
+		AnnotationForTest1 first = ClassForTest.class.getAnnotation(AnnotationForTest1.class);
+		AnnotationForTest1 second = SuperForTest.class.getAnnotation(AnnotationForTest1.class);
+		finder.accept(1, 1, first);
+		finder.accept(1, 2, ClassForTest.class.getAnnotation(AnnotationForTest3.class));
+		finder.accept(2, 3, second);
+		Assert.assertTrue(finder.isFound(AnnotationForTest1.class));
+		Assert.assertFalse(finder.isFound(AnnotationForTest2.class));
+		Assert.assertFalse(finder.isFound(AnnotationForTest3.class));
+		Assert.assertSame(first, finder.getTarget(AnnotationForTest1.class));
+		Assert.assertNull(finder.getTarget(AnnotationForTest2.class));
+		Assert.assertThrows(IllegalArgumentException.class, () -> finder.getTarget(AnnotationForTest3.class));
+		Assert.assertFalse(finder.interrupted());
+
+		AnnotationForTest2 annotation2 = AnnotationForTest1.class.getAnnotation(AnnotationForTest2.class);
+		finder.accept(2, 4, annotation2);
+		Assert.assertTrue(finder.isAllFound());
+		Assert.assertTrue(finder.interrupted());
+		Assert.assertEquals(Arrays.asList(AnnotationForTest1.class, AnnotationForTest2.class), new ArrayList<>(finder.getTargets().keySet()));
+
+		Assert.assertThrows(IllegalArgumentException.class, () -> new MultiAnnotationFinder((Class<? extends Annotation>[])null));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new MultiAnnotationFinder(Collections.singletonList(null)));
+		Assert.assertTrue(new MultiAnnotationFinder().interrupted());
+	}
+
+	@Test
+	public void scanTest() {
+		// 结果与逐个查找一致
+		AnnotationSearchMode mode = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+		List<Class<? extends Annotation>> types = Arrays.asList(
+			AnnotationForTest3.class, AnnotationForTest2.class, AnnotationForTest1.class, Documented.class
+		);
+		Map<Class<? extends Annotation>, Annotation> results = mode.getFirstAnnotations(ClassForTest.class, types);
+		Assert.assertEquals(3, results.size());
+		for (Class<? extends Annotation> type : types) {
+			Assert.assertSame(mode.getAnnotation(ClassForTest.class, type), results.get(type));
+		}
+		Assert.assertTrue(mode.getFirstAnnotations(null, types).isEmpty());
+
+		// 全部找到后即停止扫描
+		MultiAnnotationFinder finder = new MultiAnnotationFinder(AnnotationForTest1.class, AnnotationForTest3.class);
+		List<Annotation> accepted = new ArrayList<>();
+		mode.scan(ClassForTest.class, new AnnotationProcessor() {
+			@Override
+			public boolean interrupted() {
+				return finder.interrupted();
+			}
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				accepted.add(annotation);
+				finder.accept(verticalIndex, horizontalIndex, annotation);
+			}
+		}, AnnotationFilter.FILTER_JAVA);
+		Assert.assertTrue(finder.isAllFound());
+		Assert.assertEquals(
+			Arrays.asList(AnnotationForTest1.class, AnnotationForTest2.class, AnnotationForTest3.class),
+			accepted.stream().map(Annotation::annotationType).collect(Collectors.toList())
+		);
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest2
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest1 {}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest3 {}
+
+	@AnnotationForTest1
+	private static class SuperForTest {}
+
+	@AnnotationForTest1
+	@AnnotationForTest3
+	private static class ClassForTest extends SuperForTest {}
+
+}
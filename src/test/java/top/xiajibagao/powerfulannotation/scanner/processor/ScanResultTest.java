@@ -0,0 +1,133 @@
+package top.xiajibagao.powerfulannotation.scanner.processor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import top.xiajibagao.powerfulannotation.annotation.HierarchicalAnnotation;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationFilter;
+import top.xiajibagao.powerfulannotation.scanner.AnnotationSearchMode;
+
+import java.lang.annotation.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ScanResultTest {
+
+	private static final AnnotationForTest1 ANNOTATION1 = ClassForTest.class.getAnnotation(AnnotationForTest1.class);
+	private static final AnnotationForTest2 ANNOTATION2 = ClassForTest.class.getAnnotation(AnnotationForTest2.class);
+	private static final AnnotationForTest3 ANNOTATION3 = ClassForTest.class.getAnnotation(AnnotationForTest3.class);
+
+	@Test
+	public void acceptTest() {
+		ScanResult result = new ScanResult(0);
+		Assert.assertTrue(result.isEmpty());
+		for (int i = 0; i < 100; i++) {
+			result.accept(i, i + 1, ANNOTATION1);
+		}
+		Assert.assertEquals(100, result.size());
+		Assert.assertFalse(result.isEmpty());
+		Assert.assertEquals(99, result.getVerticalIndex(99));
+		Assert.assertEquals(100, result.getHorizontalIndex(99));
+		Assert.assertSame(ANNOTATION1, result.getAnnotation(99));
+		Assert.assertThrows(IndexOutOfBoundsException.class, () -> result.getAnnotation(100));
+		Assert.assertThrows(IllegalArgumentException.class, () -> result.accept(0, 0, null));
+
+		HierarchicalAnnotation<Annotation> annotation = result.getHierarchicalAnnotation(1, this);
+		Assert.assertSame(this, annotation.getRoot());
+		Assert.assertEquals(1, annotation.getVerticalIndex());
+		Assert.assertEquals(2, annotation.getHorizontalIndex());
+		Assert.assertSame(ANNOTATION1, annotation.getAnnotation());
+
+		result.trimToSize();
+		Assert.assertEquals(100, result.size());
+		result.clear();
+		Assert.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void filterTest() {
+		ScanResult result = new ScanResult();
+		result.accept(0, 1, ANNOTATION1);
+		result.accept(0, 2, ANNOTATION2);
+		result.accept(1, 3, ANNOTATION1);
+		result.accept(1, 4, ANNOTATION3);
+
+		ScanResult filtered = result.filter(AnnotationForTest1.class);
+		Assert.assertEquals(2, filtered.size());
+		Assert.assertEquals(1, filtered.getHorizontalIndex(0));
+		Assert.assertEquals(3, filtered.getHorizontalIndex(1));
+		Assert.assertEquals(Arrays.asList(ANNOTATION1, ANNOTATION1), result.getAnnotations(AnnotationForTest1.class));
+		Assert.assertEquals(Collections.singletonList(ANNOTATION3), result.getAnnotations(AnnotationForTest3.class));
+
+		filtered = result.filter(a -> a != ANNOTATION1);
+		Assert.assertEquals(Arrays.asList(ANNOTATION2, ANNOTATION3), filtered.getAnnotations());
+		Assert.assertEquals(4, result.size());
+	}
+
+	@Test
+	public void sortTest() {
+		ScanResult result = new ScanResult();
+		result.accept(2, 1, ANNOTATION1);
+		result.accept(0, 3, ANNOTATION2);
+		result.accept(1, 2, ANNOTATION3);
+		result.accept(0, 1, ANNOTATION3);
+		result.accept(1, 2, ANNOTATION1);
+
+		result.sort();
+		Assert.assertEquals(Arrays.asList(ANNOTATION3, ANNOTATION2, ANNOTATION3, ANNOTATION1, ANNOTATION1), result.getAnnotations());
+		List<String> indexes = new ArrayList<>();
+		result.forEach((vi, hi, a) -> indexes.add(vi + ":" + hi));
+		Assert.assertEquals(Arrays.asList("0:1", "0:3", "1:2", "1:2", "2:1"), indexes);
+
+		result.sort(false);
+		Assert.assertEquals(Arrays.asList(ANNOTATION1, ANNOTATION3, ANNOTATION1, ANNOTATION3, ANNOTATION2), result.getAnnotations());
+		Assert.assertEquals(2, result.getVerticalIndex(0));
+		Assert.assertEquals(0, result.getVerticalIndex(4));
+		Assert.assertEquals(3, result.getHorizontalIndex(4));
+	}
+
+	@Test
+	public void scanTest() {
+		AnnotationSearchMode mode = AnnotationSearchMode.TYPE_HIERARCHY_AND_INDIRECT;
+		ScanResult result = mode.getScanResult(ClassForTest.class, AnnotationFilter.FILTER_JAVA);
+		Assert.assertEquals(mode.getAnnotations(ClassForTest.class, AnnotationFilter.FILTER_JAVA), result.getAnnotations());
+
+		// 处理器中断后停止回放
+		AnnotationFinder<Annotation> finder = new AnnotationFinder<>((vi, hi, a) -> a, a -> a == ANNOTATION2);
+		List<Annotation> accepted = new ArrayList<>();
+		result.forEach(new AnnotationProcessor() {
+			@Override
+			public boolean interrupted() {
+				return finder.interrupted();
+			}
+			@Override
+			public void accept(int verticalIndex, int horizontalIndex, Annotation annotation) {
+				accepted.add(annotation);
+				finder.accept(verticalIndex, horizontalIndex, annotation);
+			}
+		});
+		Assert.assertSame(ANNOTATION2, finder.getTarget());
+		Assert.assertSame(ANNOTATION2, accepted.get(accepted.size() - 1));
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest1 {}
+
+	@AnnotationForTest1
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest2 {}
+
+	@AnnotationForTest2
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	private @interface AnnotationForTest3 {}
+
+	@AnnotationForTest1
+	@AnnotationForTest2
+	@AnnotationForTest3
+	private static class ClassForTest{}
+
+}